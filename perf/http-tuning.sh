@@ -0,0 +1,87 @@
+#!/usr/bin/env bash
+#
+# Measures the throughput and latency of the listing and insert endpoints with the default Tomcat settings and with
+# the prod profile (HTTP/2, compression, keep-alive and connector tuning).
+#
+# Requirements: a running MongoDB (e.g. docker run -d -p 27017:27017 mongo), h2load (nghttp2-client), mongosh or mongo.
+#
+# Usage: perf/http-tuning.sh [bookings] [requests] [clients]
+#
+set -euo pipefail
+
+BOOKINGS=${1:-1000}
+REQUESTS=${2:-20000}
+CLIENTS=${3:-50}
+PORT=${PORT:-8081}
+MANAGEMENT_PORT=${MANAGEMENT_PORT:-8082}
+MONGO_URI=${MONGO_URI:-mongodb://localhost:27017/booking}
+RESULTS=${RESULTS:-target/perf/http-tuning-$(date +%Y%m%d%H%M%S).txt}
+
+ROOT=$(cd "$(dirname "$0")/.." && pwd)
+JAR="$ROOT/docker/booking-0.0.1-SNAPSHOT.jar"
+BASE_URL="http://localhost:$PORT/v1/bookings"
+MONGO_SHELL=$(command -v mongosh || command -v mongo)
+
+cd "$ROOT"
+mkdir -p "$(dirname "$RESULTS")"
+[ -f "$JAR" ] || mvn -B -q package -DskipTests
+
+# The listing has to be big enough for compression to matter. The seeded bookings are in the past, so they don't
+# block the inserts.
+seed() {
+    "$MONGO_SHELL" --quiet "$MONGO_URI" --eval "
+        db.bookings.deleteMany({});
+        const day = 24 * 60 * 60 * 1000, start = Date.UTC(2000, 0, 1), docs = [];
+        for (let i = 0; i < $BOOKINGS; i++) {
+            docs.push({fromDate: new Date(start + i * 3 * day), toDate: new Date(start + (i * 3 + 2) * day),
+                       createdDate: new Date(), updatedDate: new Date()});
+        }
+        db.bookings.insertMany(docs);"
+}
+
+start_app() {
+    java -jar "$JAR" --server.port="$PORT" --management.server.port="$MANAGEMENT_PORT" --spring.data.mongodb.uri="$MONGO_URI" "$@" > target/perf/app.log 2>&1 &
+    APP_PID=$!
+    until curl -sf "http://localhost:$MANAGEMENT_PORT/actuator/health" > /dev/null; do sleep 0.5; done
+    # Warms the JIT up before measuring.
+    h2load --h1 -n 2000 -c 10 "$BASE_URL" > /dev/null
+}
+
+stop_app() {
+    kill "$APP_PID"
+    wait "$APP_PID" 2> /dev/null || true
+}
+
+# Inserts are mostly rejected (the room is booked after the first one), which is the expensive path: validation plus
+# the full availability scan.
+run() {
+    local label=$1
+    shift
+    local from to
+    from=$(date -u -d "+5 days" +%F)
+    to=$(date -u -d "+6 days" +%F)
+    printf '{"fromDate": "%s", "toDate": "%s"}' "$from" "$to" > target/perf/insert.json
+
+    {
+        echo "### $label - GET /v1/bookings"
+        h2load "$@" -n "$REQUESTS" -c "$CLIENTS" -H 'Accept-Encoding: gzip' "$BASE_URL" |
+            grep -E "finished in|requests:|traffic:|time for request:"
+        echo "### $label - POST /v1/bookings"
+        h2load "$@" -n "$REQUESTS" -c "$CLIENTS" -d target/perf/insert.json -H 'Content-Type: application/json' \
+            "$BASE_URL" | grep -E "finished in|requests:|traffic:|time for request:"
+    } | tee -a "$RESULTS"
+}
+
+seed
+
+start_app
+run "default (HTTP/1.1)" --h1
+stop_app
+
+# The rate limits of the profile would throttle the load generator, which is a single client.
+start_app --spring.profiles.active=prod --booking.limiter.enabled=false
+run "prod (HTTP/1.1)" --h1
+run "prod (h2c)"
+stop_app
+
+echo "Results written to $RESULTS"
@@ -0,0 +1,92 @@
+#!/usr/bin/env bash
+#
+# Compares the startup time (until "Started BookingApplication"), the resident memory and the heap used after a full
+# GC right after the startup of the fat jar, the class-data sharing build (cds profile) and the native image (native
+# profile), when they were built.
+# MongoDB is needed: once the application is ready, the schema migration, the index creation and the availability
+# rebuild read and write it, and without it they fail in the background while the heap is measured. The script uses
+# MONGODB_URI, or starts a throwaway mongo container when nothing answers on localhost:27017.
+#
+# Usage: [MONGODB_URI=mongodb://host:27017/booking] perf/startup.sh [runs]
+#
+set -euo pipefail
+
+RUNS=${1:-5}
+PORT=${PORT:-8081}
+MANAGEMENT_PORT=${MANAGEMENT_PORT:-8082}
+RESULTS=${RESULTS:-target/perf/startup-$(date +%Y%m%d%H%M%S).txt}
+MONGODB_URI=${MONGODB_URI:-}
+MONGODB_CONTAINER=booking-perf-mongo
+
+ROOT=$(cd "$(dirname "$0")/.." && pwd)
+JAR="$ROOT/docker/booking-0.0.1-SNAPSHOT.jar"
+CDS_DIR="$ROOT/docker/cds"
+NATIVE="$ROOT/target/booking"
+
+cd "$ROOT"
+mkdir -p "$(dirname "$RESULTS")"
+[ -f "$JAR" ] || mvn -B -q package -DskipTests
+
+if [ -z "$MONGODB_URI" ]; then
+    MONGODB_URI=mongodb://localhost:27017/booking
+    if ! (exec 3<> /dev/tcp/localhost/27017) 2> /dev/null; then
+        command -v docker > /dev/null ||
+            { echo "MongoDB is not running on localhost:27017: start it or set MONGODB_URI." >&2; exit 1; }
+        docker run -d --rm --name "$MONGODB_CONTAINER" -p 27017:27017 mongo > /dev/null
+        trap 'docker stop "$MONGODB_CONTAINER" > /dev/null' EXIT
+        until (exec 3<> /dev/tcp/localhost/27017) 2> /dev/null; do
+            sleep 0.5
+        done
+    fi
+fi
+
+# Heap used, in KB, as reported by the actuator after a full GC (jcmd is not available for the native image).
+heap_used() {
+    local pid=$1
+    command -v jcmd > /dev/null && jcmd "$pid" GC.run > /dev/null 2>&1 || true
+    curl -sf "http://localhost:$MANAGEMENT_PORT/actuator/metrics/jvm.memory.used?tag=area:heap" |
+        grep -o '"value":[0-9.E]*' | cut -d: -f2 | awk '{printf "%d", $1 / 1024}'
+}
+
+# Runs the variant RUNS times and prints the average startup time reported by Spring Boot, the average VmRSS and the
+# average heap used.
+measure() {
+    local label=$1 dir=$2
+    shift 2
+    local total_seconds=0 total_rss=0 total_heap=0
+    for _ in $(seq "$RUNS"); do
+        (cd "$dir" && exec "$@" --server.port="$PORT" --management.server.port="$MANAGEMENT_PORT" \
+            --spring.data.mongodb.uri="$MONGODB_URI") > target/perf/startup.log 2>&1 &
+        local pid=$!
+        until grep -q "Started BookingApplication" target/perf/startup.log; do
+            kill -0 "$pid" 2> /dev/null || { cat target/perf/startup.log; exit 1; }
+            sleep 0.1
+        done
+        local seconds rss heap
+        seconds=$(grep -o "Started BookingApplication in [0-9.]*" target/perf/startup.log | grep -o "[0-9.]*$")
+        rss=$(awk '/VmRSS/ {print $2}' "/proc/$pid/status")
+        heap=$(heap_used "$pid")
+        kill "$pid"
+        wait "$pid" 2> /dev/null || true
+        total_seconds=$(awk -v a="$total_seconds" -v b="$seconds" 'BEGIN {print a + b}')
+        total_rss=$((total_rss + rss))
+        total_heap=$((total_heap + heap))
+    done
+    printf '%-10s startup %6.3f s   RSS %7d KB   heap %7d KB\n' "$label" \
+        "$(awk -v a="$total_seconds" -v n="$RUNS" 'BEGIN {print a / n}')" $((total_rss / RUNS)) $((total_heap / RUNS)) |
+        tee -a "$RESULTS"
+}
+
+measure "fat jar" "$ROOT" java -jar "$JAR"
+if [ -f "$CDS_DIR/booking.jsa" ]; then
+    measure "cds" "$CDS_DIR" java -XX:SharedArchiveFile=booking.jsa -jar booking-0.0.1-SNAPSHOT.jar
+else
+    echo "cds: not built (mvn package -Pcds)"
+fi
+if [ -x "$NATIVE" ]; then
+    measure "native" "$ROOT" "$NATIVE"
+else
+    echo "native: not built (mvn package -Pnative)"
+fi
+
+echo "Results written to $RESULTS"
@@ -1,17 +1,9 @@
 package com.pedrorenzo.booking;
 
-import com.pedrorenzo.booking.config.Swagger2Configuration;
 import org.springframework.boot.SpringApplication;
-import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
-import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
-import org.springframework.context.annotation.Import;
-import springfox.documentation.swagger2.annotations.EnableSwagger2;
 
 @SpringBootApplication
-@EnableAutoConfiguration(exclude = {DataSourceAutoConfiguration.class})
-@Import(Swagger2Configuration.class)
-@EnableSwagger2
 public class BookingApplication {
 
     public static void main(String[] args) {
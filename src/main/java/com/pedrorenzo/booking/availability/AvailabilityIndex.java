@@ -0,0 +1,253 @@
+package com.pedrorenzo.booking.availability;
+
+import com.pedrorenzo.booking.entities.Booking;
+import com.pedrorenzo.booking.events.BookingChangedEvent;
+import com.pedrorenzo.booking.events.BookingsImportedEvent;
+import com.pedrorenzo.booking.repositories.BookingRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * In-memory availability of the room. The bookings are loaded on the first use, then every booking change of this
+ * instance is applied to a copy of the snapshot, which is published at once: readers never lock and never see half of
+ * a change. Writes made by other instances are not seen until the next {@link #reload()}. The first load may also be
+ * replaced by a {@link #warmStart(AvailabilitySnapshot, Instant)} from a saved snapshot.
+ */
+@Component
+public class AvailabilityIndex {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AvailabilityIndex.class);
+
+    private final BookingRepository bookingRepository;
+    private volatile AvailabilitySnapshot snapshot;
+    // When the last read of the bookings from the database started: the snapshot has every change of the database made
+    // until then, plus the later ones of this instance. Null until loaded.
+    private volatile Instant loadedAt;
+
+    // Guarded by this: the changes applied while a rebuild streams the bookings, or null when none is running.
+    private List<BookingChangedEvent> changesDuringRebuild;
+
+    @Autowired
+    public AvailabilityIndex(final BookingRepository bookingRepository) {
+        this.bookingRepository = bookingRepository;
+    }
+
+    /**
+     * @param fromDate The first day.
+     * @param toDate The last day, inclusive.
+     * @return <b>true</b> if no booking takes any of the days, <b>false</b> otherwise.
+     */
+    public boolean isAvailable(final LocalDate fromDate, final LocalDate toDate) {
+        return getSnapshot().isAvailable(fromDate.toEpochDay(), toDate.toEpochDay());
+    }
+
+    /**
+     * @return The current snapshot, loading the bookings if they were never loaded.
+     */
+    public AvailabilitySnapshot getSnapshot() {
+        final AvailabilitySnapshot current = snapshot;
+        return current != null ? current : load(false);
+    }
+
+    /**
+     * @return When the snapshot was last read from the database, or <b>null</b> if it was never loaded. Read it before
+     * the snapshot: the snapshot is then at least as recent.
+     */
+    public Instant getLoadedAt() {
+        return loadedAt;
+    }
+
+    /**
+     * Starts from a saved snapshot instead of loading all the bookings: only the bookings inserted or updated since
+     * the time are read and applied. Bookings deleted since then by another instance are still in it, until the next
+     * {@link #rebuild()} or {@link #reload()}. Does nothing if the index is already loaded, as it is then more recent.
+     *
+     * @param saved The saved snapshot.
+     * @param changedSince The earliest {@code updatedDate} of the bookings to read again.
+     * @return How many changed bookings were applied, or -1 if the index was already loaded.
+     */
+    public synchronized int warmStart(final AvailabilitySnapshot saved, final Instant changedSince) {
+        if (snapshot != null) {
+            return -1;
+        }
+        final Instant start = Instant.now();
+        final List<Booking> changed = bookingRepository.findChangedSinceForValidation(changedSince);
+        snapshot = withAll(saved, changed);
+        loadedAt = start;
+        return changed.size();
+    }
+
+    /**
+     * Loads all the bookings again, e.g. to see the writes of other instances.
+     *
+     * @return The new snapshot.
+     */
+    public AvailabilitySnapshot reload() {
+        return load(true);
+    }
+
+    /**
+     * Rebuilds the snapshot from the bookings collection, then swaps it in. Unlike {@link #reload()}, the bookings
+     * are streamed without holding the lock, so the writes are not held up meanwhile. The changes applied during the
+     * stream are replayed on the rebuilt snapshot. The result is then compared with the current snapshot, which saw
+     * the same changes, so every difference is drift.
+     *
+     * @return What the rebuild found.
+     * @throws IllegalStateException If another rebuild is running.
+     */
+    public AvailabilityRebuild rebuild() {
+        final long start = System.nanoTime();
+        final Instant startedAt = Instant.now();
+        synchronized (this) {
+            if (changesDuringRebuild != null) {
+                throw new IllegalStateException("An availability rebuild is already running.");
+            }
+            changesDuringRebuild = new ArrayList<>();
+        }
+        try {
+            final SnapshotBuilder builder = new SnapshotBuilder();
+            bookingRepository.forEachForValidation(builder::add);
+            AvailabilitySnapshot rebuilt = builder.build();
+
+            synchronized (this) {
+                for (BookingChangedEvent change : changesDuringRebuild) {
+                    rebuilt = apply(rebuilt, change);
+                }
+                final int mismatches = snapshot != null ? rebuilt.countMismatches(snapshot) : 0;
+                snapshot = rebuilt;
+                loadedAt = startedAt;
+                return new AvailabilityRebuild(rebuilt.size(), mismatches, changesDuringRebuild.size(),
+                        System.nanoTime() - start);
+            }
+        } finally {
+            synchronized (this) {
+                changesDuringRebuild = null;
+            }
+        }
+    }
+
+    /**
+     * Runs before the other listeners, which may read the availability the change leads to.
+     */
+    @EventListener
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public synchronized void onBookingChanged(final BookingChangedEvent event) {
+        if (changesDuringRebuild != null) {
+            changesDuringRebuild.add(event);
+        }
+        // Not loaded yet: the load will read the change from the database.
+        if (snapshot == null) {
+            return;
+        }
+        snapshot = apply(snapshot, event);
+    }
+
+    /**
+     * Runs before the other listeners, as {@link #onBookingChanged(BookingChangedEvent)} does, and takes the whole
+     * chunk in a single change of the snapshot.
+     */
+    @EventListener
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public synchronized void onBookingsImported(final BookingsImportedEvent event) {
+        if (changesDuringRebuild != null) {
+            for (Booking booking : event.getBookings()) {
+                changesDuringRebuild.add(BookingChangedEvent.inserted(booking));
+            }
+        }
+        if (snapshot == null) {
+            return;
+        }
+        snapshot = withAll(snapshot, event.getBookings());
+    }
+
+    private static AvailabilitySnapshot withAll(final AvailabilitySnapshot snapshot, final List<Booking> bookings) {
+        final String[] ids = new String[bookings.size()];
+        final long[] fromDays = new long[bookings.size()];
+        final long[] toDays = new long[bookings.size()];
+        for (int i = 0; i < ids.length; i++) {
+            final Booking booking = bookings.get(i);
+            ids[i] = booking.getId();
+            fromDays[i] = epochDay(booking.getFromDate());
+            toDays[i] = epochDay(booking.getToDate());
+        }
+        return snapshot.withAll(ids, fromDays, toDays);
+    }
+
+    private static AvailabilitySnapshot apply(final AvailabilitySnapshot snapshot, final BookingChangedEvent event) {
+        AvailabilitySnapshot changed = snapshot;
+        if (event.getPrevious() != null) {
+            changed = changed.without(event.getPrevious().getId());
+        }
+        if (event.getCurrent() != null) {
+            final Booking current = event.getCurrent();
+            changed = changed.with(current.getId(), epochDay(current.getFromDate()), epochDay(current.getToDate()));
+        }
+        return changed;
+    }
+
+    private synchronized AvailabilitySnapshot load(final boolean force) {
+        if (snapshot != null && !force) {
+            return snapshot;
+        }
+        final Instant start = Instant.now();
+        final List<Booking> bookings = bookingRepository.findAllForValidation();
+        final String[] ids = new String[bookings.size()];
+        final long[] fromDays = new long[bookings.size()];
+        final long[] toDays = new long[bookings.size()];
+        for (int i = 0; i < ids.length; i++) {
+            final Booking booking = bookings.get(i);
+            ids[i] = booking.getId();
+            fromDays[i] = epochDay(booking.getFromDate());
+            toDays[i] = epochDay(booking.getToDate());
+        }
+        snapshot = AvailabilitySnapshot.of(ids, fromDays, toDays);
+        loadedAt = start;
+        LOGGER.info("Availability index loaded with {} bookings.", ids.length);
+        return snapshot;
+    }
+
+    private static long epochDay(final Instant instant) {
+        return instant.atOffset(ZoneOffset.UTC).toLocalDate().toEpochDay();
+    }
+
+    /**
+     * Collects the streamed bookings into growing arrays.
+     */
+    private static class SnapshotBuilder {
+
+        private String[] ids = new String[1024];
+        private long[] fromDays = new long[1024];
+        private long[] toDays = new long[1024];
+        private int size;
+
+        void add(final Booking booking) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                fromDays = Arrays.copyOf(fromDays, size * 2);
+                toDays = Arrays.copyOf(toDays, size * 2);
+            }
+            ids[size] = booking.getId();
+            fromDays[size] = epochDay(booking.getFromDate());
+            toDays[size++] = epochDay(booking.getToDate());
+        }
+
+        AvailabilitySnapshot build() {
+            return AvailabilitySnapshot.of(Arrays.copyOf(ids, size), Arrays.copyOf(fromDays, size),
+                    Arrays.copyOf(toDays, size));
+        }
+
+    }
+
+}
@@ -0,0 +1,46 @@
+package com.pedrorenzo.booking.availability;
+
+/**
+ * Outcome of a rebuild of the {@link AvailabilityIndex}.
+ */
+public class AvailabilityRebuild {
+
+    private final int bookings;
+    private final int mismatches;
+    private final int replayedChanges;
+    private final long durationNanos;
+
+    public AvailabilityRebuild(final int bookings, final int mismatches, final int replayedChanges,
+                               final long durationNanos) {
+        this.bookings = bookings;
+        this.mismatches = mismatches;
+        this.replayedChanges = replayedChanges;
+        this.durationNanos = durationNanos;
+    }
+
+    /**
+     * @return The number of bookings in the rebuilt snapshot.
+     */
+    public int getBookings() {
+        return bookings;
+    }
+
+    /**
+     * @return The number of bookings the previous snapshot was missing, had in excess, or had with other days.
+     */
+    public int getMismatches() {
+        return mismatches;
+    }
+
+    /**
+     * @return The number of changes applied while the bookings were streamed, replayed on the rebuilt snapshot.
+     */
+    public int getReplayedChanges() {
+        return replayedChanges;
+    }
+
+    public long getDurationNanos() {
+        return durationNanos;
+    }
+
+}
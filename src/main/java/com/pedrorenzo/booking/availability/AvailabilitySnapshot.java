@@ -0,0 +1,352 @@
+package com.pedrorenzo.booking.availability;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable view of the booked days: the bookings as epoch-day ranges sorted by their first day, plus the running
+ * maximum of their last days, so an availability check is one binary search. The free days between the bookings are
+ * kept as well (the gap index), so finding the next free stay is also a binary search. A change returns a new snapshot.
+ */
+public final class AvailabilitySnapshot {
+
+    private static final AvailabilitySnapshot EMPTY =
+            new AvailabilitySnapshot(new String[0], new long[0], new long[0]);
+
+    private final String[] ids;
+    private final long[] fromDays;
+    private final long[] toDays;
+    // maxToDays[i] is the latest last day of the bookings 0..i, which may overlap if they were written concurrently.
+    private final long[] maxToDays;
+    // The free ranges of days between the bookings, sorted, both ends inclusive: gapFromDays[i]..gapToDays[i].
+    private final long[] gapFromDays;
+    private final long[] gapToDays;
+    // The indexes of the bookings in the order of their ids, so a booking is found by id with a binary search. Sorted
+    // on the first lookup, then carried over by with and without, which shift it instead of sorting it again.
+    private volatile int[] idOrder;
+
+    private AvailabilitySnapshot(final String[] ids, final long[] fromDays, final long[] toDays) {
+        this(ids, fromDays, toDays, null);
+    }
+
+    private AvailabilitySnapshot(final String[] ids, final long[] fromDays, final long[] toDays,
+                                 final int[] idOrder) {
+        this.ids = ids;
+        this.fromDays = fromDays;
+        this.toDays = toDays;
+        this.idOrder = idOrder;
+        this.maxToDays = new long[toDays.length];
+        for (int i = 0; i < toDays.length; i++) {
+            maxToDays[i] = i == 0 ? toDays[i] : Math.max(maxToDays[i - 1], toDays[i]);
+        }
+
+        final long[] gapFrom = new long[toDays.length + 1];
+        final long[] gapTo = new long[toDays.length + 1];
+        int gaps = 0;
+        long nextFree = Long.MIN_VALUE;
+        for (int i = 0; i < fromDays.length; i++) {
+            if (fromDays[i] > nextFree) {
+                gapFrom[gaps] = nextFree;
+                gapTo[gaps++] = fromDays[i] - 1;
+            }
+            nextFree = maxToDays[i] + 1;
+        }
+        gapFrom[gaps] = nextFree;
+        gapTo[gaps++] = Long.MAX_VALUE;
+        this.gapFromDays = Arrays.copyOf(gapFrom, gaps);
+        this.gapToDays = Arrays.copyOf(gapTo, gaps);
+    }
+
+    public static AvailabilitySnapshot empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Builds a snapshot from unsorted bookings.
+     *
+     * @param ids The booking ids.
+     * @param fromDays The first day of each booking, as an epoch day.
+     * @param toDays The last day of each booking, as an epoch day.
+     * @return The snapshot.
+     */
+    public static AvailabilitySnapshot of(final String[] ids, final long[] fromDays, final long[] toDays) {
+        // E.g. read back from an AvailabilitySnapshotFile, which saves them sorted.
+        if (isSorted(fromDays)) {
+            return new AvailabilitySnapshot(ids.clone(), fromDays.clone(), toDays.clone());
+        }
+        final Integer[] order = new Integer[ids.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Long.compare(fromDays[a], fromDays[b]));
+
+        final String[] sortedIds = new String[ids.length];
+        final long[] sortedFromDays = new long[ids.length];
+        final long[] sortedToDays = new long[ids.length];
+        for (int i = 0; i < order.length; i++) {
+            sortedIds[i] = ids[order[i]];
+            sortedFromDays[i] = fromDays[order[i]];
+            sortedToDays[i] = toDays[order[i]];
+        }
+        return new AvailabilitySnapshot(sortedIds, sortedFromDays, sortedToDays);
+    }
+
+    /**
+     * @param fromDay The first day, as an epoch day.
+     * @param toDay The last day, inclusive, as an epoch day.
+     * @return <b>true</b> if no booking takes any of the days, <b>false</b> otherwise.
+     */
+    public boolean isAvailable(final long fromDay, final long toDay) {
+        final int last = lastStartingOnOrBefore(toDay);
+        return last < 0 || maxToDays[last] < fromDay;
+    }
+
+    /**
+     * @param fromDay The earliest first day, as an epoch day.
+     * @param days The length of the stay, in days, both the first and the last included.
+     * @return The earliest first day, on or after fromDay, of a stay of that length with no booked day, or
+     * {@link Long#MAX_VALUE} if there is none.
+     */
+    public long findNextFreeStart(final long fromDay, final int days) {
+        // The first gap ending on or after the day, then the first of the following ones the stay fits in.
+        int low = 0;
+        int high = gapToDays.length - 1;
+        while (low <= high) {
+            final int middle = (low + high) >>> 1;
+            if (gapToDays[middle] < fromDay) {
+                low = middle + 1;
+            } else {
+                high = middle - 1;
+            }
+        }
+        for (int i = low; i < gapToDays.length; i++) {
+            final long start = Math.max(fromDay, gapFromDays[i]);
+            if (gapToDays[i] - start >= days - 1) {
+                return start;
+            }
+        }
+        return Long.MAX_VALUE;
+    }
+
+    /**
+     * @param id The booking id.
+     * @param fromDay The first day, as an epoch day.
+     * @param toDay The last day, inclusive, as an epoch day.
+     * @return A snapshot with the booking, replacing the booking with the same id if there is one.
+     */
+    public AvailabilitySnapshot with(final String id, final long fromDay, final long toDay) {
+        final AvailabilitySnapshot base = without(id);
+        final int index = base.lastStartingOnOrBefore(fromDay) + 1;
+        final int size = base.size();
+
+        final String[] newIds = new String[size + 1];
+        final long[] newFromDays = new long[size + 1];
+        final long[] newToDays = new long[size + 1];
+        copyAround(base.ids, newIds, index, size);
+        copyAround(base.fromDays, newFromDays, index, size);
+        copyAround(base.toDays, newToDays, index, size);
+        newIds[index] = id;
+        newFromDays[index] = fromDay;
+        newToDays[index] = toDay;
+
+        // The bookings from the index on moved one place up.
+        final int[] order = base.idOrder();
+        final int position = -base.findById(order, id) - 1;
+        final int[] newOrder = new int[size + 1];
+        for (int i = 0; i < size; i++) {
+            newOrder[i < position ? i : i + 1] = order[i] < index ? order[i] : order[i] + 1;
+        }
+        newOrder[position] = index;
+        return new AvailabilitySnapshot(newIds, newFromDays, newToDays, newOrder);
+    }
+
+    /**
+     * @param id The booking id.
+     * @return A snapshot without the booking, or this one if it has no such booking.
+     */
+    public AvailabilitySnapshot without(final String id) {
+        final int[] order = idOrder();
+        final int position = findById(order, id);
+        if (position < 0) {
+            return this;
+        }
+        final int index = order[position];
+        final int size = size() - 1;
+        final String[] newIds = new String[size];
+        final long[] newFromDays = new long[size];
+        final long[] newToDays = new long[size];
+        System.arraycopy(ids, 0, newIds, 0, index);
+        System.arraycopy(ids, index + 1, newIds, index, size - index);
+        System.arraycopy(fromDays, 0, newFromDays, 0, index);
+        System.arraycopy(fromDays, index + 1, newFromDays, index, size - index);
+        System.arraycopy(toDays, 0, newToDays, 0, index);
+        System.arraycopy(toDays, index + 1, newToDays, index, size - index);
+
+        // The bookings after the index moved one place down.
+        final int[] newOrder = new int[size];
+        for (int i = 0; i < size; i++) {
+            final int kept = order[i < position ? i : i + 1];
+            newOrder[i] = kept < index ? kept : kept - 1;
+        }
+        return new AvailabilitySnapshot(newIds, newFromDays, newToDays, newOrder);
+    }
+
+    /**
+     * Applies many changes at once, at the cost of a single {@link #with(String, long, long)}.
+     *
+     * @param changedIds The booking ids.
+     * @param changedFromDays The first day of each booking, as an epoch day.
+     * @param changedToDays The last day of each booking, as an epoch day.
+     * @return A snapshot with the bookings, replacing the bookings with the same ids.
+     */
+    public AvailabilitySnapshot withAll(final String[] changedIds, final long[] changedFromDays,
+                                       final long[] changedToDays) {
+        if (changedIds.length == 0) {
+            return this;
+        }
+        final AvailabilitySnapshot changed = of(changedIds, changedFromDays, changedToDays);
+        final Set<String> replaced = new HashSet<>(Arrays.asList(changedIds));
+
+        // Merges the bookings kept from this snapshot with the changed ones, both sorted by their first day.
+        final int size = size() + changed.size();
+        final String[] newIds = new String[size];
+        final long[] newFromDays = new long[size];
+        final long[] newToDays = new long[size];
+        int merged = 0;
+        int next = 0;
+        for (int i = 0; i < ids.length; i++) {
+            if (replaced.contains(ids[i])) {
+                continue;
+            }
+            for (; next < changed.size() && changed.fromDays[next] < fromDays[i]; next++, merged++) {
+                newIds[merged] = changed.ids[next];
+                newFromDays[merged] = changed.fromDays[next];
+                newToDays[merged] = changed.toDays[next];
+            }
+            newIds[merged] = ids[i];
+            newFromDays[merged] = fromDays[i];
+            newToDays[merged++] = toDays[i];
+        }
+        for (; next < changed.size(); next++, merged++) {
+            newIds[merged] = changed.ids[next];
+            newFromDays[merged] = changed.fromDays[next];
+            newToDays[merged] = changed.toDays[next];
+        }
+        return new AvailabilitySnapshot(Arrays.copyOf(newIds, merged), Arrays.copyOf(newFromDays, merged),
+                Arrays.copyOf(newToDays, merged));
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    // The bookings in order of their first day, for AvailabilitySnapshotFile.
+
+    String getId(final int index) {
+        return ids[index];
+    }
+
+    long getFromDay(final int index) {
+        return fromDays[index];
+    }
+
+    long getToDay(final int index) {
+        return toDays[index];
+    }
+
+    /**
+     * Counts the bookings that differ between this snapshot and another: missing from one of them, or with other days.
+     *
+     * @param other The snapshot to compare with.
+     * @return The number of mismatches, 0 if both have the same bookings.
+     */
+    public int countMismatches(final AvailabilitySnapshot other) {
+        final Map<String, Integer> otherIndexes = new HashMap<>(other.size() * 2);
+        for (int i = 0; i < other.ids.length; i++) {
+            otherIndexes.put(other.ids[i], i);
+        }
+        int mismatches = 0;
+        for (int i = 0; i < ids.length; i++) {
+            final Integer otherIndex = otherIndexes.remove(ids[i]);
+            if (otherIndex == null || other.fromDays[otherIndex] != fromDays[i] ||
+                    other.toDays[otherIndex] != toDays[i]) {
+                mismatches++;
+            }
+        }
+        return mismatches + otherIndexes.size();
+    }
+
+    /**
+     * @return The index of the last booking starting on or before the day, -1 if there is none.
+     */
+    private int lastStartingOnOrBefore(final long day) {
+        int low = 0;
+        int high = fromDays.length - 1;
+        while (low <= high) {
+            final int middle = (low + high) >>> 1;
+            if (fromDays[middle] <= day) {
+                low = middle + 1;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return high;
+    }
+
+    private int[] idOrder() {
+        int[] order = idOrder;
+        if (order == null) {
+            final Integer[] sorted = new Integer[ids.length];
+            for (int i = 0; i < sorted.length; i++) {
+                sorted[i] = i;
+            }
+            Arrays.sort(sorted, (a, b) -> ids[a].compareTo(ids[b]));
+            order = new int[sorted.length];
+            for (int i = 0; i < sorted.length; i++) {
+                order[i] = sorted[i];
+            }
+            idOrder = order;
+        }
+        return order;
+    }
+
+    /**
+     * @param order The indexes of the bookings in the order of their ids.
+     * @param id The booking id.
+     * @return The position of the booking in the order, or (-(insertion position) - 1) if there is none.
+     */
+    private int findById(final int[] order, final String id) {
+        int low = 0;
+        int high = order.length - 1;
+        while (low <= high) {
+            final int middle = (low + high) >>> 1;
+            final int comparison = ids[order[middle]].compareTo(id);
+            if (comparison < 0) {
+                low = middle + 1;
+            } else if (comparison > 0) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -(low + 1);
+    }
+
+    private static boolean isSorted(final long[] days) {
+        for (int i = 1; i < days.length; i++) {
+            if (days[i - 1] > days[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void copyAround(final Object source, final Object target, final int index, final int size) {
+        System.arraycopy(source, 0, target, 0, index);
+        System.arraycopy(source, index, target, index + 1, size - index);
+    }
+
+}
@@ -0,0 +1,162 @@
+package com.pedrorenzo.booking.availability;
+
+import org.bson.types.ObjectId;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * An {@link AvailabilitySnapshot} saved to a local file, with the time up to which it has every change of the
+ * database. The file is binary and compact: a header, the first days then the last days of the bookings as int32 epoch
+ * days in the order of the snapshot, the ids (12 bytes for an {@link ObjectId}, length-prefixed UTF-8 otherwise) and a
+ * CRC32 of all of it. It is memory-mapped to be read, and replaced atomically to be written, so a crash while saving
+ * leaves the previous one.
+ */
+public final class AvailabilitySnapshotFile {
+
+    private static final int MAGIC = 0x424B4156;
+    private static final int FORMAT_VERSION = 1;
+    // Magic, format version, loaded at (epoch milliseconds) and the number of bookings.
+    private static final int HEADER_BYTES = 4 + 4 + 8 + 4;
+    private static final int CHECKSUM_BYTES = 8;
+
+    private static final byte OBJECT_ID = 0;
+    private static final byte STRING_ID = 1;
+    private static final int MAX_STRING_ID_BYTES = 0xFFFF;
+
+    private final AvailabilitySnapshot snapshot;
+    private final Instant loadedAt;
+
+    public AvailabilitySnapshotFile(final AvailabilitySnapshot snapshot, final Instant loadedAt) {
+        this.snapshot = snapshot;
+        this.loadedAt = loadedAt;
+    }
+
+    public AvailabilitySnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * @return The time up to which the snapshot has every change of the database.
+     */
+    public Instant getLoadedAt() {
+        return loadedAt;
+    }
+
+    /**
+     * Writes the snapshot to a temporary file next to the path, then moves it over the path.
+     *
+     * @param path The file.
+     * @throws IOException If it could not be written; the previous file, if any, is left as it was.
+     */
+    public void write(final Path path) throws IOException {
+        final Path directory = path.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        final Path temporary = Files.createTempFile(directory, path.getFileName().toString(), ".tmp");
+        try {
+            final CRC32 checksum = new CRC32();
+            try (DataOutputStream output = new DataOutputStream(new CheckedOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(temporary), 64 * 1024), checksum))) {
+                output.writeInt(MAGIC);
+                output.writeInt(FORMAT_VERSION);
+                output.writeLong(loadedAt.toEpochMilli());
+                output.writeInt(snapshot.size());
+                for (int i = 0; i < snapshot.size(); i++) {
+                    output.writeInt(Math.toIntExact(snapshot.getFromDay(i)));
+                }
+                for (int i = 0; i < snapshot.size(); i++) {
+                    output.writeInt(Math.toIntExact(snapshot.getToDay(i)));
+                }
+                for (int i = 0; i < snapshot.size(); i++) {
+                    writeId(output, snapshot.getId(i));
+                }
+                output.writeLong(checksum.getValue());
+            }
+            Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    /**
+     * @param path The file.
+     * @return The snapshot saved in the file.
+     * @throws IOException If it could not be read, or is not a complete snapshot file of this format version.
+     */
+    public static AvailabilitySnapshotFile read(final Path path) throws IOException {
+        final MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        final int checksummed = buffer.capacity() - CHECKSUM_BYTES;
+        if (checksummed < HEADER_BYTES || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not an availability snapshot: " + path);
+        }
+        if (buffer.getInt(4) != FORMAT_VERSION) {
+            throw new IOException("Unsupported availability snapshot version " + buffer.getInt(4) + ": " + path);
+        }
+        final ByteBuffer content = buffer.duplicate();
+        ((Buffer) content).limit(checksummed);
+        final CRC32 checksum = new CRC32();
+        checksum.update(content);
+        if (checksum.getValue() != buffer.getLong(checksummed)) {
+            throw new IOException("Corrupted availability snapshot: " + path);
+        }
+
+        final Instant loadedAt = Instant.ofEpochMilli(buffer.getLong(8));
+        final int size = buffer.getInt(16);
+        final long[] fromDays = new long[size];
+        final long[] toDays = new long[size];
+        int offset = HEADER_BYTES;
+        for (int i = 0; i < size; i++, offset += 4) {
+            fromDays[i] = buffer.getInt(offset);
+        }
+        for (int i = 0; i < size; i++, offset += 4) {
+            toDays[i] = buffer.getInt(offset);
+        }
+        final String[] ids = new String[size];
+        final byte[] bytes = new byte[MAX_STRING_ID_BYTES];
+        for (int i = 0; i < size; i++) {
+            final byte type = buffer.get(offset++);
+            final int length = type == OBJECT_ID ? 12 : buffer.getShort(offset) & 0xFFFF;
+            if (type != OBJECT_ID) {
+                offset += 2;
+            }
+            for (int b = 0; b < length; b++) {
+                bytes[b] = buffer.get(offset++);
+            }
+            ids[i] = type == OBJECT_ID ? new ObjectId(ByteBuffer.wrap(bytes, 0, 12)).toHexString() :
+                    new String(bytes, 0, length, StandardCharsets.UTF_8);
+        }
+        return new AvailabilitySnapshotFile(AvailabilitySnapshot.of(ids, fromDays, toDays), loadedAt);
+    }
+
+    private static void writeId(final DataOutputStream output, final String id) throws IOException {
+        if (ObjectId.isValid(id) && id.equals(id.toLowerCase())) {
+            output.writeByte(OBJECT_ID);
+            output.write(new ObjectId(id).toByteArray());
+        } else {
+            final byte[] bytes = id.getBytes(StandardCharsets.UTF_8);
+            if (bytes.length > MAX_STRING_ID_BYTES) {
+                throw new IOException("Booking id too long for an availability snapshot: " + id);
+            }
+            output.writeByte(STRING_ID);
+            output.writeShort(bytes.length);
+            output.write(bytes);
+        }
+    }
+
+}
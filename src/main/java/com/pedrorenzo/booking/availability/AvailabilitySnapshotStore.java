@@ -0,0 +1,126 @@
+package com.pedrorenzo.booking.availability;
+
+import com.pedrorenzo.booking.config.AvailabilitySnapshotProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Saves the {@link AvailabilityIndex} to a local file every {@code booking.availability.snapshot.interval} and on
+ * shutdown, and warm-starts from it before the application serves: the file is memory-mapped and only the bookings
+ * changed since it was saved are read from the database, through the {@code updatedDate} index, instead of all of them.
+ * The deletions leave no {@code updatedDate} behind, nor do the imports, which keep the one of their file, so a rebuild
+ * then runs in the background to catch the ones made by other instances meanwhile, without holding the requests up.
+ */
+@Component
+@ConditionalOnProperty(name = "booking.availability.snapshot.enabled", havingValue = "true")
+public class AvailabilitySnapshotStore {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AvailabilitySnapshotStore.class);
+
+    private final AvailabilityIndex availabilityIndex;
+    private final AvailabilitySnapshotProperties properties;
+
+    private final ScheduledExecutorService saver = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        final Thread thread = new Thread(runnable, "availability-snapshot");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Autowired
+    public AvailabilitySnapshotStore(final AvailabilityIndex availabilityIndex,
+                                     final AvailabilitySnapshotProperties properties) {
+        this.availabilityIndex = availabilityIndex;
+        this.properties = properties;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (warmStart() && properties.isVerify()) {
+            saver.execute(this::verify);
+        }
+        final long interval = properties.getInterval().toMillis();
+        saver.scheduleWithFixedDelay(this::saveQuietly, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        saver.shutdownNow();
+        saveQuietly();
+    }
+
+    /**
+     * Warm-starts the index from the file, if there is one.
+     *
+     * @return Whether it did; otherwise, the index loads every booking on first use, as without a file.
+     */
+    boolean warmStart() {
+        final Path path = properties.getPath();
+        if (!Files.exists(path)) {
+            LOGGER.info("No availability snapshot at {}, the bookings are loaded on first use.", path);
+            return false;
+        }
+        final long start = System.nanoTime();
+        try {
+            final AvailabilitySnapshotFile file = AvailabilitySnapshotFile.read(path);
+            final int changes = availabilityIndex.warmStart(file.getSnapshot(),
+                    file.getLoadedAt().minus(properties.getChangesMargin()));
+            LOGGER.info("Availability warm-started from {} saved at {}: {} bookings and {} changes since, in {} ms.",
+                    path, file.getLoadedAt(), file.getSnapshot().size(), changes,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            return changes >= 0;
+        } catch (IOException | RuntimeException e) {
+            LOGGER.warn("Could not warm-start from the availability snapshot {}, the bookings are loaded on first use.",
+                    path, e);
+            return false;
+        }
+    }
+
+    /**
+     * Saves the index to the file, unless it was never loaded.
+     *
+     * @return Whether it was saved.
+     * @throws IOException If the file could not be written.
+     */
+    boolean save() throws IOException {
+        final Instant loadedAt = availabilityIndex.getLoadedAt();
+        if (loadedAt == null) {
+            return false;
+        }
+        new AvailabilitySnapshotFile(availabilityIndex.getSnapshot(), loadedAt).write(properties.getPath());
+        return true;
+    }
+
+    private void saveQuietly() {
+        try {
+            if (save()) {
+                LOGGER.debug("Availability saved to {}.", properties.getPath());
+            }
+        } catch (IOException | RuntimeException e) {
+            LOGGER.warn("Could not save the availability to {}.", properties.getPath(), e);
+        }
+    }
+
+    private void verify() {
+        try {
+            final AvailabilityRebuild rebuild = availabilityIndex.rebuild();
+            LOGGER.info("Availability verified after the warm start: {} bookings, {} mismatches.",
+                    rebuild.getBookings(), rebuild.getMismatches());
+        } catch (RuntimeException e) {
+            LOGGER.warn("Could not verify the availability after the warm start.", e);
+        }
+    }
+
+}
@@ -0,0 +1,120 @@
+package com.pedrorenzo.booking.availability;
+
+import com.pedrorenzo.booking.cache.SerializedResponseCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rebuilds and verifies the in-memory booking indexes online, under {@code /actuator/bookingindexes}: a POST starts a
+ * rebuild of the {@link AvailabilityIndex} from the database in the background and a GET shows how the last one went,
+ * including the bookings the index had wrong. The requests are served from the current index until the rebuilt one is
+ * swapped in. The cached responses are dropped afterwards, as they may have been built on a wrong index.
+ * <p>
+ * A rebuild reads the whole collection, so like the other actuator endpoints this one is only served on the management
+ * port, and a new rebuild is not started until {@link #MINIMUM_INTERVAL} after the start of the last one.
+ */
+@Endpoint(id = "bookingindexes")
+public class BookingIndexesEndpoint {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BookingIndexesEndpoint.class);
+
+    static final Duration MINIMUM_INTERVAL = Duration.ofMinutes(1);
+
+    private final AvailabilityIndex availabilityIndex;
+    private final SerializedResponseCache responseCache;
+    private final ExecutorService rebuilder = Executors.newSingleThreadExecutor(runnable -> {
+        final Thread thread = new Thread(runnable, "booking-indexes-rebuilder");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private Map<String, Object> lastRebuild = report("NEVER_RUN", null);
+
+    public BookingIndexesEndpoint(final AvailabilityIndex availabilityIndex,
+                                  @Nullable final SerializedResponseCache responseCache) {
+        this.availabilityIndex = availabilityIndex;
+        this.responseCache = responseCache;
+    }
+
+    @ReadOperation
+    public synchronized Map<String, Object> lastRebuild() {
+        return lastRebuild;
+    }
+
+    /**
+     * Starts a rebuild, unless one is running or the last one started less than {@link #MINIMUM_INTERVAL} ago.
+     *
+     * @return The state of the running rebuild, or of the last one with the time the next one can start.
+     */
+    @WriteOperation
+    public synchronized Map<String, Object> rebuild() {
+        if ("RUNNING".equals(lastRebuild.get("status"))) {
+            return lastRebuild;
+        }
+        final Instant now = Instant.now();
+        final Instant lastStartedAt = (Instant) lastRebuild.get("startedAt");
+        if (lastStartedAt != null && now.isBefore(lastStartedAt.plus(MINIMUM_INTERVAL))) {
+            final Map<String, Object> report = new LinkedHashMap<>(lastRebuild);
+            report.put("nextRebuildAfter", lastStartedAt.plus(MINIMUM_INTERVAL));
+            return report;
+        }
+        lastRebuild = report("RUNNING", now);
+        rebuilder.execute(() -> runRebuild(now));
+        return lastRebuild;
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        rebuilder.shutdownNow();
+        rebuilder.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    private void runRebuild(final Instant startedAt) {
+        Map<String, Object> report;
+        try {
+            final AvailabilityRebuild rebuild = availabilityIndex.rebuild();
+            if (responseCache != null) {
+                responseCache.invalidate();
+            }
+            report = report("DONE", startedAt);
+            report.put("durationMillis", TimeUnit.NANOSECONDS.toMillis(rebuild.getDurationNanos()));
+            report.put("bookings", rebuild.getBookings());
+            report.put("mismatches", rebuild.getMismatches());
+            report.put("replayedChanges", rebuild.getReplayedChanges());
+            if (rebuild.getMismatches() > 0) {
+                LOGGER.warn("The availability index had {} bookings out of {} wrong; rebuilt.",
+                        rebuild.getMismatches(), rebuild.getBookings());
+            } else {
+                LOGGER.info("Availability index rebuilt with {} bookings, no mismatches.", rebuild.getBookings());
+            }
+        } catch (RuntimeException e) {
+            LOGGER.error("Availability index rebuild failed.", e);
+            report = report("FAILED", startedAt);
+            report.put("error", e.getMessage());
+        }
+        synchronized (this) {
+            lastRebuild = report;
+        }
+    }
+
+    private static Map<String, Object> report(final String status, final Instant startedAt) {
+        final Map<String, Object> report = new LinkedHashMap<>();
+        report.put("status", status);
+        report.put("startedAt", startedAt);
+        return report;
+    }
+
+}
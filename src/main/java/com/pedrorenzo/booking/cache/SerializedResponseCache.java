@@ -0,0 +1,138 @@
+package com.pedrorenzo.booking.cache;
+
+import com.pedrorenzo.booking.events.BookingChangedEvent;
+import com.pedrorenzo.booking.events.BookingsImportedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Keeps the serialized bodies of the booking read endpoints, keyed by resource and by the version of the bookings
+ * collection they were built from. Any write bumps the version, so the entries built before it are never served again.
+ */
+@Component
+@ConditionalOnProperty(name = "booking.response-cache.enabled", havingValue = "true")
+public class SerializedResponseCache {
+
+    private final ConcurrentMap<String, CachedResponse> responses = new ConcurrentHashMap<>();
+    private final AtomicLong version = new AtomicLong();
+    private final int maxEntries;
+
+    public SerializedResponseCache(@Value("${booking.response-cache.max-entries:10000}") final int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * @return The current version of the bookings collection. Must be read before building a response to be cached.
+     */
+    public long currentVersion() {
+        return version.get();
+    }
+
+    /**
+     * Finds the cached response of a resource.
+     *
+     * @param resource The resource, e.g. the request path.
+     * @param version The collection version the response must have been built from.
+     * @return The cached response, or <b>null</b> if there is none for this version.
+     */
+    public CachedResponse get(final String resource, final long version) {
+        final CachedResponse response = responses.get(resource);
+        return response != null && response.getVersion() == version ? response : null;
+    }
+
+    /**
+     * Caches the serialized response of a resource. Responses built from an outdated version are not cached.
+     *
+     * @param resource The resource, e.g. the request path.
+     * @param version The collection version read before building the response.
+     * @param contentType The content type of the body.
+     * @param body The serialized body.
+     * @return The cached response.
+     */
+    public CachedResponse put(final String resource, final long version, final String contentType,
+                              final byte[] body) {
+        final CachedResponse response = new CachedResponse(version, contentType, body);
+        if (version == this.version.get() && (responses.size() < maxEntries || responses.containsKey(resource))) {
+            responses.put(resource, response);
+        }
+        return response;
+    }
+
+    @EventListener
+    public void onBookingChanged(final BookingChangedEvent event) {
+        invalidate();
+    }
+
+    @EventListener
+    public void onBookingsImported(final BookingsImportedEvent event) {
+        invalidate();
+    }
+
+    /**
+     * Invalidates every cached response.
+     */
+    public void invalidate() {
+        version.incrementAndGet();
+        responses.clear();
+    }
+
+    public static class CachedResponse {
+
+        private final long version;
+        private final String contentType;
+        private final byte[] body;
+        private volatile byte[] gzippedBody;
+
+        CachedResponse(final long version, final String contentType, final byte[] body) {
+            this.version = version;
+            this.contentType = contentType;
+            this.body = body;
+        }
+
+        public long getVersion() {
+            return version;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public byte[] getBody() {
+            return body;
+        }
+
+        /**
+         * @return The body compressed with gzip. It is compressed on the first call only.
+         */
+        public byte[] getGzippedBody() {
+            byte[] gzipped = gzippedBody;
+            if (gzipped == null) {
+                gzipped = gzip(body);
+                gzippedBody = gzipped;
+            }
+            return gzipped;
+        }
+
+        private static byte[] gzip(final byte[] body) {
+            final ByteArrayOutputStream output = new ByteArrayOutputStream(Math.max(64, body.length / 4));
+            try (GZIPOutputStream gzip = new GZIPOutputStream(output)) {
+                gzip.write(body);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return output.toByteArray();
+        }
+
+    }
+
+}
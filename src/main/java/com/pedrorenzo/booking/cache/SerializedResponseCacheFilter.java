@@ -0,0 +1,97 @@
+package com.pedrorenzo.booking.cache;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Enumeration;
+import java.util.regex.Pattern;
+
+/**
+ * Serves the booking read endpoints from the {@link SerializedResponseCache}: a cached body is written straight to the
+ * response, gzip-compressed when the client accepts it, without building the {@code Response} or running Jackson again.
+ */
+@Component
+@ConditionalOnProperty(name = "booking.response-cache.enabled", havingValue = "true")
+public class SerializedResponseCacheFilter extends OncePerRequestFilter {
+
+    private static final Pattern CACHEABLE_PATH =
+            Pattern.compile("/v1/bookings(/(?!(availability|export)/?$)[^/]+)?/?");
+
+    private static final String GZIP = "gzip";
+
+    private final SerializedResponseCache cache;
+
+    public SerializedResponseCacheFilter(final SerializedResponseCache cache) {
+        this.cache = cache;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(final HttpServletRequest request) {
+        return !HttpMethod.GET.matches(request.getMethod()) || request.getQueryString() != null ||
+                !CACHEABLE_PATH.matcher(request.getRequestURI().substring(request.getContextPath().length())).matches();
+    }
+
+    @Override
+    protected void doFilterInternal(final HttpServletRequest request, final HttpServletResponse response,
+                                    final FilterChain filterChain) throws ServletException, IOException {
+        // The same resource has one body per negotiated wire format.
+        final String accept = request.getHeader(HttpHeaders.ACCEPT);
+        final String resource = accept == null ? request.getRequestURI() : request.getRequestURI() + '|' + accept;
+        final long version = cache.currentVersion();
+        final boolean acceptsGzip = acceptsGzip(request);
+
+        SerializedResponseCache.CachedResponse cachedResponse = cache.get(resource, version);
+        if (cachedResponse == null) {
+            final ContentCachingResponseWrapper responseWrapper = new ContentCachingResponseWrapper(response);
+            filterChain.doFilter(request, responseWrapper);
+
+            if (responseWrapper.getStatus() != HttpStatus.OK.value() || responseWrapper.getContentType() == null) {
+                responseWrapper.copyBodyToResponse();
+                return;
+            }
+            cachedResponse = cache.put(resource, version, responseWrapper.getContentType(),
+                    responseWrapper.getContentAsByteArray());
+            responseWrapper.resetBuffer();
+        }
+
+        write(cachedResponse, acceptsGzip, response);
+    }
+
+    private static void write(final SerializedResponseCache.CachedResponse cachedResponse, final boolean gzip,
+                              final HttpServletResponse response) throws IOException {
+        final byte[] body = gzip ? cachedResponse.getGzippedBody() : cachedResponse.getBody();
+
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(cachedResponse.getContentType());
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT + ", " + HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, GZIP);
+        }
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
+    private static boolean acceptsGzip(final HttpServletRequest request) {
+        final Enumeration<String> acceptEncodings = request.getHeaders(HttpHeaders.ACCEPT_ENCODING);
+        while (acceptEncodings != null && acceptEncodings.hasMoreElements()) {
+            for (String encoding : acceptEncodings.nextElement().split(",")) {
+                final String[] parts = encoding.trim().split(";");
+                if (GZIP.equalsIgnoreCase(parts[0].trim()) && !(parts.length > 1 && parts[1].trim().equals("q=0"))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+}
@@ -0,0 +1,60 @@
+package com.pedrorenzo.booking.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pedrorenzo.booking.limiter.AdmissionControlFilter;
+import com.pedrorenzo.booking.limiter.AimdConcurrencyLimiter;
+import com.pedrorenzo.booking.limiter.ClientRateLimiter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+@Configuration
+@EnableConfigurationProperties(LimiterProperties.class)
+@ConditionalOnProperty(name = "booking.limiter.enabled", havingValue = "true")
+public class AdmissionControlConfiguration {
+
+    @Bean
+    public AimdConcurrencyLimiter writeConcurrencyLimiter(final LimiterProperties limiterProperties,
+                                                          final MeterRegistry meterRegistry) {
+        final LimiterProperties.Concurrency concurrency = limiterProperties.getConcurrency();
+        final AimdConcurrencyLimiter limiter = new AimdConcurrencyLimiter(concurrency.getInitialLimit(),
+                concurrency.getMinLimit(), concurrency.getMaxLimit(), concurrency.getBackoffRatio(),
+                concurrency.getLatencyThreshold().toNanos());
+
+        Gauge.builder("booking.limiter.concurrency.limit", limiter, AimdConcurrencyLimiter::getLimit)
+                .description("Current number of write requests allowed in flight")
+                .register(meterRegistry);
+        Gauge.builder("booking.limiter.concurrency.in-flight", limiter, AimdConcurrencyLimiter::getInFlight)
+                .description("Write requests in flight")
+                .register(meterRegistry);
+        return limiter;
+    }
+
+    /**
+     * Registers the admission control right after the metrics filter, so the rejections are still timed in
+     * {@code http.server.requests}, and before anything that does real work.
+     */
+    @Bean
+    public FilterRegistrationBean<AdmissionControlFilter> admissionControlFilter(
+            final LimiterProperties limiterProperties, final AimdConcurrencyLimiter writeConcurrencyLimiter,
+            final ObjectMapper objectMapper, final MeterRegistry meterRegistry) {
+        final AdmissionControlFilter filter = new AdmissionControlFilter(
+                rateLimiter(limiterProperties.getReads(), limiterProperties.getMaxClients()),
+                rateLimiter(limiterProperties.getWrites(), limiterProperties.getMaxClients()),
+                writeConcurrencyLimiter, limiterProperties.getClientHeader(), objectMapper, meterRegistry);
+
+        final FilterRegistrationBean<AdmissionControlFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+
+    private static ClientRateLimiter rateLimiter(final LimiterProperties.Rate rate, final int maxClients) {
+        return new ClientRateLimiter(rate.getPermitsPerSecond(), rate.getBurst(), maxClients);
+    }
+
+}
@@ -0,0 +1,82 @@
+package com.pedrorenzo.booking.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+
+/**
+ * Saving of the in-memory availability to a local file, to warm-start from it instead of loading every booking.
+ */
+@ConfigurationProperties(prefix = "booking.availability.snapshot")
+public class AvailabilitySnapshotProperties {
+
+    /**
+     * Whether the availability is saved and warm-started from.
+     */
+    private boolean enabled = false;
+
+    /**
+     * The file the availability is saved to.
+     */
+    private Path path = Paths.get("data", "availability.snapshot");
+
+    /**
+     * How often the availability is saved. It is saved on shutdown too.
+     */
+    private Duration interval = Duration.ofMinutes(5);
+
+    /**
+     * How far before the saved snapshot the changed bookings are read again, for the clocks of the instances and the
+     * writes not applied to memory yet when it was saved.
+     */
+    private Duration changesMargin = Duration.ofMinutes(1);
+
+    /**
+     * Whether a warm start is followed by a rebuild in the background, to drop the bookings deleted by other instances
+     * since the snapshot was saved.
+     */
+    private boolean verify = true;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(final boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    public void setPath(final Path path) {
+        this.path = path;
+    }
+
+    public Duration getInterval() {
+        return interval;
+    }
+
+    public void setInterval(final Duration interval) {
+        this.interval = interval;
+    }
+
+    public Duration getChangesMargin() {
+        return changesMargin;
+    }
+
+    public void setChangesMargin(final Duration changesMargin) {
+        this.changesMargin = changesMargin;
+    }
+
+    public boolean isVerify() {
+        return verify;
+    }
+
+    public void setVerify(final boolean verify) {
+        this.verify = verify;
+    }
+
+}
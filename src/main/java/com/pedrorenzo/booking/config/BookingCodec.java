@@ -0,0 +1,157 @@
+package com.pedrorenzo.booking.config;
+
+import com.pedrorenzo.booking.entities.Booking;
+import org.bson.BsonObjectId;
+import org.bson.BsonReader;
+import org.bson.BsonString;
+import org.bson.BsonType;
+import org.bson.BsonValue;
+import org.bson.BsonWriter;
+import org.bson.codecs.CollectibleCodec;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+import org.bson.types.ObjectId;
+
+import java.time.Instant;
+
+/**
+ * Encodes and decodes a {@link Booking} field by field, without the reflection of the mapping converter and without
+ * the {@code _class} type hint. The dates are BSON dates (int64 epoch milliseconds), as the mapping converter writes
+ * them, so that documents written either way read the same; unknown fields, such as an old {@code _class}, are skipped.
+ * <p>
+ * Since schema version 2, the first and last days are also stored as int32 epoch days, for the range queries and their
+ * index. They are derived from the dates on every write and not read back.
+ */
+public class BookingCodec implements CollectibleCodec<Booking> {
+
+    public static final String ID = "_id";
+    public static final String FROM_DATE = "fromDate";
+    public static final String TO_DATE = "toDate";
+    public static final String CREATED_DATE = "createdDate";
+    public static final String UPDATED_DATE = "updatedDate";
+    public static final String FROM_DAY = "fromDay";
+    public static final String TO_DAY = "toDay";
+    public static final String SCHEMA_VERSION = "schemaVersion";
+
+    public static final int CURRENT_SCHEMA_VERSION = 2;
+
+    private static final long SECONDS_PER_DAY = 86_400;
+
+    @Override
+    public void encode(final BsonWriter writer, final Booking booking, final EncoderContext encoderContext) {
+        writer.writeStartDocument();
+        if (booking.getId() != null) {
+            writer.writeName(ID);
+            writeId(writer, booking.getId());
+        }
+        writeDate(writer, FROM_DATE, booking.getFromDate());
+        writeDate(writer, TO_DATE, booking.getToDate());
+        writeDate(writer, CREATED_DATE, booking.getCreatedDate());
+        writeDate(writer, UPDATED_DATE, booking.getUpdatedDate());
+        writeDay(writer, FROM_DAY, booking.getFromDate());
+        writeDay(writer, TO_DAY, booking.getToDate());
+        writer.writeInt32(SCHEMA_VERSION, CURRENT_SCHEMA_VERSION);
+        writer.writeEndDocument();
+    }
+
+    @Override
+    public Booking decode(final BsonReader reader, final DecoderContext decoderContext) {
+        final Booking booking = new Booking();
+        reader.readStartDocument();
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+            final String name = reader.readName();
+            if (reader.getCurrentBsonType() == BsonType.NULL) {
+                reader.readNull();
+                continue;
+            }
+            switch (name) {
+                case ID:
+                    booking.setId(reader.getCurrentBsonType() == BsonType.OBJECT_ID ?
+                            reader.readObjectId().toHexString() : reader.readString());
+                    break;
+                case FROM_DATE:
+                    booking.setFromDate(Instant.ofEpochMilli(reader.readDateTime()));
+                    break;
+                case TO_DATE:
+                    booking.setToDate(Instant.ofEpochMilli(reader.readDateTime()));
+                    break;
+                case CREATED_DATE:
+                    booking.setCreatedDate(Instant.ofEpochMilli(reader.readDateTime()));
+                    break;
+                case UPDATED_DATE:
+                    booking.setUpdatedDate(Instant.ofEpochMilli(reader.readDateTime()));
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.readEndDocument();
+        return booking;
+    }
+
+    @Override
+    public Class<Booking> getEncoderClass() {
+        return Booking.class;
+    }
+
+    @Override
+    public Booking generateIdIfAbsentFromDocument(final Booking booking) {
+        if (booking.getId() == null) {
+            booking.setId(new ObjectId().toHexString());
+        }
+        return booking;
+    }
+
+    @Override
+    public boolean documentHasId(final Booking booking) {
+        return booking.getId() != null;
+    }
+
+    @Override
+    public BsonValue getDocumentId(final Booking booking) {
+        return ObjectId.isValid(booking.getId()) ? new BsonObjectId(new ObjectId(booking.getId())) :
+                new BsonString(booking.getId());
+    }
+
+    /**
+     * Converts a booking id to the value stored in {@code _id}: an {@link ObjectId} when the id is one, as the mapping
+     * converter stores it, the string otherwise.
+     *
+     * @param id The booking id.
+     * @return The stored id.
+     */
+    public static Object toStoredId(final String id) {
+        return ObjectId.isValid(id) ? new ObjectId(id) : id;
+    }
+
+    /**
+     * Converts a date to the epoch day stored in {@code fromDay} and {@code toDay}.
+     *
+     * @param date The date, in UTC.
+     * @return The epoch day.
+     */
+    public static int epochDay(final Instant date) {
+        return Math.toIntExact(Math.floorDiv(date.getEpochSecond(), SECONDS_PER_DAY));
+    }
+
+    private static void writeId(final BsonWriter writer, final String id) {
+        if (ObjectId.isValid(id)) {
+            writer.writeObjectId(new ObjectId(id));
+        } else {
+            writer.writeString(id);
+        }
+    }
+
+    private static void writeDate(final BsonWriter writer, final String name, final Instant date) {
+        if (date != null) {
+            writer.writeDateTime(name, date.toEpochMilli());
+        }
+    }
+
+    private static void writeDay(final BsonWriter writer, final String name, final Instant date) {
+        if (date != null) {
+            writer.writeInt32(name, epochDay(date));
+        }
+    }
+
+}
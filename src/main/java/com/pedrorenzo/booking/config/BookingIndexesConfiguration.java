@@ -0,0 +1,21 @@
+package com.pedrorenzo.booking.config;
+
+import com.pedrorenzo.booking.availability.AvailabilityIndex;
+import com.pedrorenzo.booking.availability.BookingIndexesEndpoint;
+import com.pedrorenzo.booking.cache.SerializedResponseCache;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(AvailabilitySnapshotProperties.class)
+public class BookingIndexesConfiguration {
+
+    @Bean
+    public BookingIndexesEndpoint bookingIndexesEndpoint(final AvailabilityIndex availabilityIndex,
+                                                         final ObjectProvider<SerializedResponseCache> responseCache) {
+        return new BookingIndexesEndpoint(availabilityIndex, responseCache.getIfAvailable());
+    }
+
+}
@@ -0,0 +1,213 @@
+package com.pedrorenzo.booking.config;
+
+import com.mongodb.ReadConcern;
+import com.mongodb.ReadConcernLevel;
+import com.mongodb.ReadPreference;
+import com.mongodb.WriteConcern;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * MongoDB client settings, applied on top of {@code spring.data.mongodb.uri}.
+ */
+@ConfigurationProperties(prefix = "booking.mongodb")
+public class BookingMongoProperties {
+
+    private final Pool pool = new Pool();
+
+    /**
+     * Write concern of every write: w1, w2, w3, majority, journaled, acknowledged or unacknowledged.
+     */
+    private String writeConcern = "majority";
+
+    /**
+     * Reads the write paths validate against: they must see the latest committed writes.
+     */
+    private final Reads validationReads = new Reads("primary", "majority");
+
+    /**
+     * Reads of GET /v1/bookings: they may lag a little behind the primary.
+     */
+    private final Reads listingReads = new Reads("secondaryPreferred", "local");
+
+    private final Migration migration = new Migration();
+
+    public Pool getPool() {
+        return pool;
+    }
+
+    public String getWriteConcern() {
+        return writeConcern;
+    }
+
+    public void setWriteConcern(final String writeConcern) {
+        this.writeConcern = writeConcern;
+    }
+
+    public WriteConcern toWriteConcern() {
+        final WriteConcern concern = WriteConcern.valueOf(writeConcern);
+        if (concern == null) {
+            throw new IllegalArgumentException("Unknown MongoDB write concern: " + writeConcern + ".");
+        }
+        return concern;
+    }
+
+    public Reads getValidationReads() {
+        return validationReads;
+    }
+
+    public Reads getListingReads() {
+        return listingReads;
+    }
+
+    public Migration getMigration() {
+        return migration;
+    }
+
+    public static class Pool {
+
+        /**
+         * Maximum number of connections, in use or idle.
+         */
+        private int maxSize = 100;
+
+        /**
+         * Minimum number of connections kept open.
+         */
+        private int minSize = 0;
+
+        /**
+         * How long a request waits for a connection before failing.
+         */
+        private Duration maxWaitTime = Duration.ofSeconds(2);
+
+        /**
+         * How long a connection may stay idle before being closed.
+         */
+        private Duration maxConnectionIdleTime = Duration.ofMinutes(1);
+
+        public int getMaxSize() {
+            return maxSize;
+        }
+
+        public void setMaxSize(final int maxSize) {
+            this.maxSize = maxSize;
+        }
+
+        public int getMinSize() {
+            return minSize;
+        }
+
+        public void setMinSize(final int minSize) {
+            this.minSize = minSize;
+        }
+
+        public Duration getMaxWaitTime() {
+            return maxWaitTime;
+        }
+
+        public void setMaxWaitTime(final Duration maxWaitTime) {
+            this.maxWaitTime = maxWaitTime;
+        }
+
+        public Duration getMaxConnectionIdleTime() {
+            return maxConnectionIdleTime;
+        }
+
+        public void setMaxConnectionIdleTime(final Duration maxConnectionIdleTime) {
+            this.maxConnectionIdleTime = maxConnectionIdleTime;
+        }
+
+    }
+
+    public static class Reads {
+
+        /**
+         * primary, primaryPreferred, secondary, secondaryPreferred or nearest.
+         */
+        private String readPreference;
+
+        /**
+         * local, majority, linearizable, snapshot, available, or default to let the server decide.
+         */
+        private String readConcern;
+
+        public Reads(final String readPreference, final String readConcern) {
+            this.readPreference = readPreference;
+            this.readConcern = readConcern;
+        }
+
+        public String getReadPreference() {
+            return readPreference;
+        }
+
+        public void setReadPreference(final String readPreference) {
+            this.readPreference = readPreference;
+        }
+
+        public String getReadConcern() {
+            return readConcern;
+        }
+
+        public void setReadConcern(final String readConcern) {
+            this.readConcern = readConcern;
+        }
+
+        public ReadPreference toReadPreference() {
+            return ReadPreference.valueOf(readPreference);
+        }
+
+        public ReadConcern toReadConcern() {
+            if (readConcern == null || readConcern.isEmpty() || readConcern.equalsIgnoreCase("default")) {
+                return ReadConcern.DEFAULT;
+            }
+            return new ReadConcern(ReadConcernLevel.fromString(readConcern));
+        }
+
+    }
+
+    public static class Migration {
+
+        /**
+         * Whether the day index is created and the documents of older schema versions are backfilled at startup.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Documents backfilled per round trip.
+         */
+        private int batchSize = 500;
+
+        /**
+         * Pause between two batches, leaving room for the regular load.
+         */
+        private Duration pause = Duration.ofMillis(100);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(final boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(final int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public Duration getPause() {
+            return pause;
+        }
+
+        public void setPause(final Duration pause) {
+            this.pause = pause;
+        }
+
+    }
+
+}
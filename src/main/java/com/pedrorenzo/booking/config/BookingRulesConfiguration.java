@@ -0,0 +1,31 @@
+package com.pedrorenzo.booking.config;
+
+import com.pedrorenzo.booking.rules.BookingRule;
+import com.pedrorenzo.booking.rules.BookingRuleEngine;
+import com.pedrorenzo.booking.rules.BookingRulesEndpoint;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.stream.Collectors;
+
+@Configuration
+@EnableConfigurationProperties(BookingRulesProperties.class)
+public class BookingRulesConfiguration {
+
+    @Bean
+    public BookingRuleEngine bookingRuleEngine(final BookingRulesProperties rulesProperties,
+                                               final ObjectProvider<BookingRule> extraRules,
+                                               final MeterRegistry meterRegistry) {
+        return new BookingRuleEngine(rulesProperties.toSettings(),
+                extraRules.orderedStream().collect(Collectors.toList()), meterRegistry);
+    }
+
+    @Bean
+    public BookingRulesEndpoint bookingRulesEndpoint(final BookingRuleEngine bookingRuleEngine) {
+        return new BookingRulesEndpoint(bookingRuleEngine);
+    }
+
+}
@@ -0,0 +1,61 @@
+package com.pedrorenzo.booking.config;
+
+import com.pedrorenzo.booking.rules.BookingRuleSettings;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import static com.pedrorenzo.booking.utils.Constants.MAXIMUM_DIFF_DAYS_IN_ADVANCE;
+import static com.pedrorenzo.booking.utils.Constants.MAXIMUM_DIFF_STAY_DAYS;
+
+/**
+ * The booking rules at startup. They can be changed afterwards through the bookingrules actuator endpoint.
+ */
+@ConfigurationProperties(prefix = "booking.rules")
+public class BookingRulesProperties {
+
+    /**
+     * Longest stay, in days, both the first and the last included.
+     */
+    private int maximumStayDays = MAXIMUM_DIFF_STAY_DAYS + 1;
+
+    /**
+     * How many days ahead of today a stay can start at most.
+     */
+    private int maximumDaysInAdvance = MAXIMUM_DIFF_DAYS_IN_ADVANCE;
+
+    /**
+     * Names of the rules that are not evaluated, e.g. days-in-advance.
+     */
+    private Set<String> disabledRules = new LinkedHashSet<>();
+
+    public int getMaximumStayDays() {
+        return maximumStayDays;
+    }
+
+    public void setMaximumStayDays(final int maximumStayDays) {
+        this.maximumStayDays = maximumStayDays;
+    }
+
+    public int getMaximumDaysInAdvance() {
+        return maximumDaysInAdvance;
+    }
+
+    public void setMaximumDaysInAdvance(final int maximumDaysInAdvance) {
+        this.maximumDaysInAdvance = maximumDaysInAdvance;
+    }
+
+    public Set<String> getDisabledRules() {
+        return disabledRules;
+    }
+
+    public void setDisabledRules(final Set<String> disabledRules) {
+        this.disabledRules = disabledRules;
+    }
+
+    public BookingRuleSettings toSettings() {
+        return new BookingRuleSettings(maximumStayDays, maximumDaysInAdvance, disabledRules);
+    }
+
+}
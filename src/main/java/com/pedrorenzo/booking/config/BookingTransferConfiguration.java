@@ -0,0 +1,10 @@
+package com.pedrorenzo.booking.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(BookingTransferProperties.class)
+public class BookingTransferConfiguration {
+
+}
@@ -0,0 +1,37 @@
+package com.pedrorenzo.booking.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Export and import of all the bookings as CSV or NDJSON files.
+ */
+@ConfigurationProperties(prefix = "booking.transfer")
+public class BookingTransferProperties {
+
+    /**
+     * Records of an import validated together and inserted in one round trip.
+     */
+    private int importChunkSize = 1000;
+
+    /**
+     * Rejected records of an import listed in its answer; the others are only counted.
+     */
+    private int maxReportedErrors = 100;
+
+    public int getImportChunkSize() {
+        return importChunkSize;
+    }
+
+    public void setImportChunkSize(final int importChunkSize) {
+        this.importChunkSize = importChunkSize;
+    }
+
+    public int getMaxReportedErrors() {
+        return maxReportedErrors;
+    }
+
+    public void setMaxReportedErrors(final int maxReportedErrors) {
+        this.maxReportedErrors = maxReportedErrors;
+    }
+
+}
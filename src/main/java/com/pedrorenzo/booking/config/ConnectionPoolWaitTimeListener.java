@@ -0,0 +1,58 @@
+package com.pedrorenzo.booking.config;
+
+import com.mongodb.event.ConnectionCheckOutFailedEvent;
+import com.mongodb.event.ConnectionCheckOutStartedEvent;
+import com.mongodb.event.ConnectionCheckedOutEvent;
+import com.mongodb.event.ConnectionPoolListener;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times how long the requests wait for a connection from the MongoDB pool. The synchronous driver checks a connection
+ * out on the calling thread, so the start of the wait is kept per thread.
+ */
+public class ConnectionPoolWaitTimeListener implements ConnectionPoolListener {
+
+    private final ThreadLocal<Long> checkOutStart = new ThreadLocal<>();
+
+    private final Timer checkedOut;
+    private final Timer failed;
+
+    public ConnectionPoolWaitTimeListener(final MeterRegistry meterRegistry) {
+        this.checkedOut = waitTimer(meterRegistry, "checkedOut");
+        this.failed = waitTimer(meterRegistry, "failed");
+    }
+
+    @Override
+    public void connectionCheckOutStarted(final ConnectionCheckOutStartedEvent event) {
+        checkOutStart.set(System.nanoTime());
+    }
+
+    @Override
+    public void connectionCheckedOut(final ConnectionCheckedOutEvent event) {
+        record(checkedOut);
+    }
+
+    @Override
+    public void connectionCheckOutFailed(final ConnectionCheckOutFailedEvent event) {
+        record(failed);
+    }
+
+    private void record(final Timer timer) {
+        final Long start = checkOutStart.get();
+        if (start != null) {
+            checkOutStart.remove();
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private static Timer waitTimer(final MeterRegistry meterRegistry, final String outcome) {
+        return Timer.builder("mongodb.driver.pool.wait")
+                .description("Time spent waiting for a connection from the MongoDB pool")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+}
@@ -0,0 +1,55 @@
+package com.pedrorenzo.booking.config;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+
+import java.io.IOException;
+import java.time.LocalDate;
+
+/**
+ * Writes {@link LocalDate}s as their epoch day (days since 1970-01-01), an integer that is cheaper to encode and
+ * decode than an ISO-8601 string. ISO-8601 strings are still accepted when reading.
+ */
+public class EpochDayModule extends SimpleModule {
+
+    private static final long serialVersionUID = 1L;
+
+    public EpochDayModule() {
+        super("EpochDayModule");
+        addSerializer(LocalDate.class, new EpochDaySerializer());
+        addDeserializer(LocalDate.class, new EpochDayDeserializer());
+    }
+
+    private static class EpochDaySerializer extends JsonSerializer<LocalDate> {
+
+        @Override
+        public void serialize(final LocalDate value, final JsonGenerator generator,
+                              final SerializerProvider serializers) throws IOException {
+            generator.writeNumber(value.toEpochDay());
+        }
+
+    }
+
+    private static class EpochDayDeserializer extends JsonDeserializer<LocalDate> {
+
+        @Override
+        public LocalDate deserialize(final JsonParser parser, final DeserializationContext context)
+                throws IOException {
+            if (parser.hasToken(JsonToken.VALUE_NUMBER_INT)) {
+                return LocalDate.ofEpochDay(parser.getLongValue());
+            }
+            if (parser.hasToken(JsonToken.VALUE_STRING)) {
+                return LocalDate.parse(parser.getText().trim());
+            }
+            return (LocalDate) context.handleUnexpectedToken(LocalDate.class, parser);
+        }
+
+    }
+
+}
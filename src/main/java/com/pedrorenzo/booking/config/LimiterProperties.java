@@ -0,0 +1,169 @@
+package com.pedrorenzo.booking.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Rate limits per client and endpoint, and the adaptive concurrency limit of the write endpoints.
+ */
+@ConfigurationProperties(prefix = "booking.limiter")
+public class LimiterProperties {
+
+    /**
+     * Request header identifying the client, e.g. set by an API gateway. The remote address is used when empty or
+     * when the request has no such header.
+     */
+    private String clientHeader = "";
+
+    /**
+     * Maximum number of client and endpoint buckets kept per rate limit, approximately. Past it, the idle buckets are
+     * dropped, or the new clients share one bucket while none is idle.
+     */
+    private int maxClients = 10000;
+
+    /**
+     * Rate limit of the read endpoints (GET).
+     */
+    private final Rate reads = new Rate(50, 100);
+
+    /**
+     * Rate limit of the write endpoints (POST, PUT, DELETE).
+     */
+    private final Rate writes = new Rate(5, 10);
+
+    private final Concurrency concurrency = new Concurrency();
+
+    public String getClientHeader() {
+        return clientHeader;
+    }
+
+    public void setClientHeader(final String clientHeader) {
+        this.clientHeader = clientHeader;
+    }
+
+    public int getMaxClients() {
+        return maxClients;
+    }
+
+    public void setMaxClients(final int maxClients) {
+        this.maxClients = maxClients;
+    }
+
+    public Rate getReads() {
+        return reads;
+    }
+
+    public Rate getWrites() {
+        return writes;
+    }
+
+    public Concurrency getConcurrency() {
+        return concurrency;
+    }
+
+    public static class Rate {
+
+        /**
+         * Sustained number of requests per second allowed to one client on one endpoint.
+         */
+        private double permitsPerSecond;
+
+        /**
+         * Number of requests one client can make at once on one endpoint before the rate applies.
+         */
+        private int burst;
+
+        public Rate(final double permitsPerSecond, final int burst) {
+            this.permitsPerSecond = permitsPerSecond;
+            this.burst = burst;
+        }
+
+        public double getPermitsPerSecond() {
+            return permitsPerSecond;
+        }
+
+        public void setPermitsPerSecond(final double permitsPerSecond) {
+            this.permitsPerSecond = permitsPerSecond;
+        }
+
+        public int getBurst() {
+            return burst;
+        }
+
+        public void setBurst(final int burst) {
+            this.burst = burst;
+        }
+
+    }
+
+    public static class Concurrency {
+
+        /**
+         * Number of write requests in flight allowed at startup.
+         */
+        private int initialLimit = 20;
+
+        /**
+         * Lowest limit the backoff can reach.
+         */
+        private int minLimit = 1;
+
+        /**
+         * Highest limit the additive increase can reach.
+         */
+        private int maxLimit = 200;
+
+        /**
+         * Factor applied to the limit when a write is slower than the latency threshold or fails.
+         */
+        private double backoffRatio = 0.9;
+
+        /**
+         * Latency above which a write is taken as a sign of overload.
+         */
+        private Duration latencyThreshold = Duration.ofMillis(500);
+
+        public int getInitialLimit() {
+            return initialLimit;
+        }
+
+        public void setInitialLimit(final int initialLimit) {
+            this.initialLimit = initialLimit;
+        }
+
+        public int getMinLimit() {
+            return minLimit;
+        }
+
+        public void setMinLimit(final int minLimit) {
+            this.minLimit = minLimit;
+        }
+
+        public int getMaxLimit() {
+            return maxLimit;
+        }
+
+        public void setMaxLimit(final int maxLimit) {
+            this.maxLimit = maxLimit;
+        }
+
+        public double getBackoffRatio() {
+            return backoffRatio;
+        }
+
+        public void setBackoffRatio(final double backoffRatio) {
+            this.backoffRatio = backoffRatio;
+        }
+
+        public Duration getLatencyThreshold() {
+            return latencyThreshold;
+        }
+
+        public void setLatencyThreshold(final Duration latencyThreshold) {
+            this.latencyThreshold = latencyThreshold;
+        }
+
+    }
+
+}
@@ -0,0 +1,27 @@
+package com.pedrorenzo.booking.config;
+
+import com.pedrorenzo.booking.logging.RequestSamplingFilter;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+@Configuration
+@EnableConfigurationProperties(LoggingProperties.class)
+public class LoggingConfiguration {
+
+    /**
+     * Registers the sampling first, so that everything logged while serving the request, the rejections of the
+     * admission control included, follows the same decision.
+     */
+    @Bean
+    public FilterRegistrationBean<RequestSamplingFilter> requestSamplingFilter(
+            final LoggingProperties loggingProperties) {
+        final FilterRegistrationBean<RequestSamplingFilter> registration =
+                new FilterRegistrationBean<>(new RequestSamplingFilter(loggingProperties.getSampleRate()));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+
+}
@@ -0,0 +1,25 @@
+package com.pedrorenzo.booking.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Sampling of the request logs. The levels, per endpoint too, are the regular {@code logging.level.*} properties and
+ * can be changed at runtime through {@code /actuator/loggers}.
+ */
+@ConfigurationProperties(prefix = "booking.logging")
+public class LoggingProperties {
+
+    /**
+     * Share of requests whose INFO (and finer) lines are logged, from 0 to 1. Warnings and errors are always logged.
+     */
+    private double sampleRate = 1;
+
+    public double getSampleRate() {
+        return sampleRate;
+    }
+
+    public void setSampleRate(final double sampleRate) {
+        this.sampleRate = sampleRate;
+    }
+
+}
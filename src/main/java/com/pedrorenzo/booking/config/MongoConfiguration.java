@@ -0,0 +1,60 @@
+package com.pedrorenzo.booking.config;
+
+import com.mongodb.MongoClientSettings;
+import com.mongodb.ReadPreference;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.mongodb.MongoMetricsConnectionPoolListener;
+import org.bson.codecs.configuration.CodecRegistries;
+import org.bson.codecs.configuration.CodecRegistry;
+import org.springframework.boot.autoconfigure.mongo.MongoProperties;
+import org.springframework.boot.autoconfigure.mongo.MongoPropertiesClientSettingsBuilderCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+@EnableConfigurationProperties(BookingMongoProperties.class)
+public class MongoConfiguration {
+
+    /**
+     * Builds the client settings from {@code spring.data.mongodb.*}, like Spring Boot does, then applies the pool,
+     * write concern and metrics from {@code booking.mongodb.*}. The read preference and read concern here are the
+     * defaults; the listing and validation reads override them per query. The {@link BookingCodec} is registered, for
+     * the booking reads and writes done on the collection directly.
+     */
+    @Bean
+    public MongoClientSettings mongoClientSettings(
+            final MongoProperties springMongoProperties, final BookingMongoProperties mongoProperties,
+            final Environment environment, final MeterRegistry meterRegistry) {
+        final MongoClientSettings.Builder builder = MongoClientSettings.builder();
+        new MongoPropertiesClientSettingsBuilderCustomizer(springMongoProperties, environment).customize(builder);
+
+        final BookingMongoProperties.Pool pool = mongoProperties.getPool();
+        return builder
+                .applyToConnectionPoolSettings(connectionPool -> connectionPool
+                        .maxSize(pool.getMaxSize())
+                        .minSize(pool.getMinSize())
+                        .maxWaitTime(pool.getMaxWaitTime().toMillis(), TimeUnit.MILLISECONDS)
+                        .maxConnectionIdleTime(pool.getMaxConnectionIdleTime().toMillis(), TimeUnit.MILLISECONDS)
+                        .addConnectionPoolListener(new MongoMetricsConnectionPoolListener(meterRegistry))
+                        .addConnectionPoolListener(new ConnectionPoolWaitTimeListener(meterRegistry)))
+                .writeConcern(mongoProperties.toWriteConcern())
+                .readPreference(ReadPreference.primary())
+                .codecRegistry(codecRegistry())
+                .build();
+    }
+
+    /**
+     * The driver's default codecs with the {@link BookingCodec} ahead of them.
+     *
+     * @return The codec registry.
+     */
+    public static CodecRegistry codecRegistry() {
+        return CodecRegistries.fromRegistries(CodecRegistries.fromCodecs(new BookingCodec()),
+                MongoClientSettings.getDefaultCodecRegistry());
+    }
+
+}
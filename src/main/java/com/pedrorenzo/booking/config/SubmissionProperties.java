@@ -0,0 +1,67 @@
+package com.pedrorenzo.booking.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Asynchronous booking submissions: POST /v1/bookings answers 202 with a ticket and a single writer thread validates
+ * and inserts the queued requests in arrival order.
+ */
+@ConfigurationProperties(prefix = "booking.submissions")
+public class SubmissionProperties {
+
+    /**
+     * Whether POST /v1/bookings queues the request instead of inserting it before answering.
+     */
+    private boolean asyncEnabled = false;
+
+    /**
+     * Maximum number of queued requests; above it the submissions are answered with 503.
+     */
+    private int queueCapacity = 10000;
+
+    /**
+     * Maximum number of queued requests validated and inserted together, in one database round trip.
+     */
+    private int batchSize = 100;
+
+    /**
+     * How long the outcome of a submission can be polled after it was processed, through any instance: the stored
+     * outcomes expire through a TTL index.
+     */
+    private Duration retention = Duration.ofMinutes(10);
+
+    public boolean isAsyncEnabled() {
+        return asyncEnabled;
+    }
+
+    public void setAsyncEnabled(final boolean asyncEnabled) {
+        this.asyncEnabled = asyncEnabled;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public void setQueueCapacity(final int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(final int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public Duration getRetention() {
+        return retention;
+    }
+
+    public void setRetention(final Duration retention) {
+        this.retention = retention;
+    }
+
+}
@@ -1,15 +1,23 @@
 package com.pedrorenzo.booking.config;
 
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
 import springfox.documentation.builders.PathSelectors;
 import springfox.documentation.builders.RequestHandlerSelectors;
 import springfox.documentation.spi.DocumentationType;
 import springfox.documentation.spring.web.plugins.Docket;
 import springfox.documentation.swagger2.annotations.EnableSwagger2;
 
+/**
+ * API documentation, which is not on the hot path: it is created lazily and can be left out entirely with
+ * {@code booking.swagger.enabled=false}.
+ */
 @EnableSwagger2
 @Configuration
+@Lazy
+@ConditionalOnProperty(name = "booking.swagger.enabled", havingValue = "true", matchIfMissing = true)
 public class Swagger2Configuration {
 
     @Bean
@@ -22,4 +30,4 @@ public class Swagger2Configuration {
                 .useDefaultResponseMessages(false);
     }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,71 @@
+package com.pedrorenzo.booking.config;
+
+import org.apache.coyote.ProtocolHandler;
+import org.apache.coyote.UpgradeProtocol;
+import org.apache.coyote.http11.AbstractHttp11Protocol;
+import org.apache.coyote.http2.Http2Protocol;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.Compression;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.StringUtils;
+
+import java.util.Arrays;
+
+@Configuration
+@EnableConfigurationProperties(TomcatProperties.class)
+public class TomcatConfiguration {
+
+    @Bean
+    public WebServerFactoryCustomizer<TomcatServletWebServerFactory> tomcatTuningCustomizer(
+            final ServerProperties serverProperties, final TomcatProperties tomcatProperties) {
+        return factory -> factory.addConnectorCustomizers(connector -> {
+            final ProtocolHandler protocolHandler = connector.getProtocolHandler();
+            if (protocolHandler instanceof AbstractHttp11Protocol) {
+                final AbstractHttp11Protocol<?> http11Protocol = (AbstractHttp11Protocol<?>) protocolHandler;
+                if (tomcatProperties.getKeepAliveTimeout() != null) {
+                    http11Protocol.setKeepAliveTimeout((int) tomcatProperties.getKeepAliveTimeout().toMillis());
+                }
+                if (tomcatProperties.getMaxKeepAliveRequests() != null) {
+                    http11Protocol.setMaxKeepAliveRequests(tomcatProperties.getMaxKeepAliveRequests());
+                }
+            }
+
+            //
+            // Spring Boot only adds HTTP/2 to the connector together with SSL. Without it, HTTP/2 is added here as
+            // cleartext (h2c), so it can be tested locally and behind a proxy that terminates TLS.
+            //
+            final boolean http2Enabled = serverProperties.getHttp2() != null &&
+                    serverProperties.getHttp2().isEnabled();
+            final boolean sslEnabled = serverProperties.getSsl() != null && serverProperties.getSsl().isEnabled();
+            if (http2Enabled && !sslEnabled && tomcatProperties.isH2c() &&
+                    Arrays.stream(connector.findUpgradeProtocols()).noneMatch(Http2Protocol.class::isInstance)) {
+                connector.addUpgradeProtocol(new Http2Protocol());
+            }
+
+            // The HTTP/2 streams don't use the HTTP/1.1 connector compression, they have their own.
+            for (UpgradeProtocol upgradeProtocol : connector.findUpgradeProtocols()) {
+                if (upgradeProtocol instanceof Http2Protocol) {
+                    customizeHttp2((Http2Protocol) upgradeProtocol, serverProperties.getCompression(),
+                            tomcatProperties);
+                }
+            }
+        });
+    }
+
+    private static void customizeHttp2(final Http2Protocol http2Protocol, final Compression compression,
+                                       final TomcatProperties tomcatProperties) {
+        if (compression != null && compression.getEnabled()) {
+            http2Protocol.setCompression("on");
+            http2Protocol.setCompressibleMimeType(StringUtils.arrayToCommaDelimitedString(compression.getMimeTypes()));
+            http2Protocol.setCompressionMinSize((int) compression.getMinResponseSize().toBytes());
+        }
+        if (tomcatProperties.getKeepAliveTimeout() != null) {
+            http2Protocol.setKeepAliveTimeout(tomcatProperties.getKeepAliveTimeout().toMillis());
+        }
+    }
+
+}
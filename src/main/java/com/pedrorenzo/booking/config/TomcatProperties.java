@@ -0,0 +1,52 @@
+package com.pedrorenzo.booking.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Connector settings that Spring Boot does not expose as {@code server.tomcat.*} properties.
+ */
+@ConfigurationProperties(prefix = "booking.tomcat")
+public class TomcatProperties {
+
+    /**
+     * How long an idle keep-alive connection is kept open. Tomcat uses the connection timeout when not set.
+     */
+    private Duration keepAliveTimeout;
+
+    /**
+     * Maximum number of requests served over one keep-alive connection, -1 for unlimited.
+     */
+    private Integer maxKeepAliveRequests;
+
+    /**
+     * Accepts cleartext HTTP/2 (h2c, upgrade or prior knowledge) when server.http2.enabled is set without SSL.
+     */
+    private boolean h2c = true;
+
+    public Duration getKeepAliveTimeout() {
+        return keepAliveTimeout;
+    }
+
+    public void setKeepAliveTimeout(final Duration keepAliveTimeout) {
+        this.keepAliveTimeout = keepAliveTimeout;
+    }
+
+    public Integer getMaxKeepAliveRequests() {
+        return maxKeepAliveRequests;
+    }
+
+    public void setMaxKeepAliveRequests(final Integer maxKeepAliveRequests) {
+        this.maxKeepAliveRequests = maxKeepAliveRequests;
+    }
+
+    public boolean isH2c() {
+        return h2c;
+    }
+
+    public void setH2c(final boolean h2c) {
+        this.h2c = h2c;
+    }
+
+}
@@ -0,0 +1,23 @@
+package com.pedrorenzo.booking.config;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Stops the application as soon as it is ready when {@code booking.training-run} is set. Used by the class-data
+ * sharing training run of the cds profile, which archives the classes loaded during the startup.
+ */
+@Configuration
+@ConditionalOnProperty(name = "booking.training-run", havingValue = "true")
+public class TrainingRunConfiguration {
+
+    @Bean
+    public ApplicationListener<ApplicationReadyEvent> exitWhenReady() {
+        return event -> System.exit(SpringApplication.exit(event.getApplicationContext()));
+    }
+
+}
@@ -0,0 +1,34 @@
+package com.pedrorenzo.booking.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Adds CBOR ({@code application/cbor}) as a compact binary alternative to JSON, negotiated through the
+ * {@code Accept} and {@code Content-Type} headers. JSON stays the default.
+ */
+@Configuration
+public class WireFormatConfiguration implements WebMvcConfigurer {
+
+    @Override
+    public void extendMessageConverters(final List<HttpMessageConverter<?>> converters) {
+        // Spring MVC registers a default CBOR converter (ISO-8601 dates) when Jackson's CBOR format is available.
+        converters.removeIf(converter -> converter instanceof MappingJackson2CborHttpMessageConverter);
+        converters.add(new MappingJackson2CborHttpMessageConverter(cborObjectMapper()));
+    }
+
+    /**
+     * @return The mapper used for CBOR bodies, writing dates as epoch-day integers.
+     */
+    public static ObjectMapper cborObjectMapper() {
+        // Registered after the well-known modules, so it takes precedence over the JavaTimeModule for LocalDate.
+        return Jackson2ObjectMapperBuilder.cbor().build().registerModule(new EpochDayModule());
+    }
+
+}
@@ -0,0 +1,91 @@
+package com.pedrorenzo.booking.controllers;
+
+import com.pedrorenzo.booking.dtos.AvailableStayDTO;
+import com.pedrorenzo.booking.dtos.BookingCheckDTO;
+import com.pedrorenzo.booking.dtos.BookingRequestDTO;
+import com.pedrorenzo.booking.logging.EndpointLoggers;
+import com.pedrorenzo.booking.response.Response;
+import com.pedrorenzo.booking.services.AvailabilityService;
+import io.swagger.annotations.ApiOperation;
+import io.swagger.annotations.ApiParam;
+import io.swagger.annotations.ApiResponse;
+import io.swagger.annotations.ApiResponses;
+import org.slf4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.validation.Valid;
+import java.time.LocalDate;
+import java.util.List;
+
+//
+// One read instead of trial and error: clients looking for free days used to POST bookings until one was accepted,
+// and to read the reason of the rejection from the error message.
+//
+@RestController
+@RequestMapping(value = "/v1/bookings/availability",
+        produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+public class AvailabilityController {
+
+    private static final Logger FIND_AVAILABLE_STAYS_LOGGER =
+            EndpointLoggers.of(AvailabilityController.class, "findAvailableStays");
+    private static final Logger CHECK_LOGGER = EndpointLoggers.of(AvailabilityController.class, "check");
+
+    private final AvailabilityService availabilityService;
+
+    @Autowired
+    public AvailabilityController(final AvailabilityService availabilityService) {
+        this.availabilityService = availabilityService;
+    }
+
+    @ApiOperation(value = "Find the earliest stays that can be booked")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Stays found successfully, re-checked against the database. Days " +
+                    "freed by another instance are only found after the next index rebuild"),
+            @ApiResponse(code = 400, message = "Ops...something went wrong with your request")
+    })
+    @GetMapping
+    public ResponseEntity<Response<List<AvailableStayDTO>>> findAvailableStays(
+            @RequestParam("days") @ApiParam(value = "The length of the stay, in days", example = "3")
+                final int days,
+            @RequestParam(value = "limit", defaultValue = "5") @ApiParam(value = "How many stays to find at most")
+                final int limit,
+            @RequestParam(value = "fromDate", required = false) @ApiParam(value = "The earliest first day")
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) final LocalDate fromDate,
+            @RequestParam(value = "toDate", required = false) @ApiParam(value = "The latest last day")
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) final LocalDate toDate) {
+        FIND_AVAILABLE_STAYS_LOGGER.info("Finding {} available stays of {} days between {} and {}.", limit, days,
+                fromDate, toDate);
+
+        final Response<List<AvailableStayDTO>> response = new Response<>();
+        response.setData(availabilityService.findAvailableStays(days, limit, fromDate, toDate));
+
+        return ResponseEntity.ok(response);
+    }
+
+    @ApiOperation(value = "Check whether a booking would be accepted, without booking it")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Booking checked successfully, free days re-checked against the " +
+                    "database. Days freed by another instance are only seen after the next index rebuild"),
+            @ApiResponse(code = 400, message = "Ops...something went wrong with your request")
+    })
+    @PostMapping(value = "/check", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+    public ResponseEntity<Response<BookingCheckDTO>> check(@RequestBody @ApiParam(value = "The booking data")
+                                                           @Valid final BookingRequestDTO bookingRequestDTO) {
+        CHECK_LOGGER.info("Checking booking: {}.", bookingRequestDTO);
+
+        final Response<BookingCheckDTO> response = new Response<>();
+        response.setData(availabilityService.check(bookingRequestDTO));
+
+        return ResponseEntity.ok(response);
+    }
+
+}
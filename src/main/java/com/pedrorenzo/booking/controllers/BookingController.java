@@ -1,17 +1,23 @@
 package com.pedrorenzo.booking.controllers;
 
+import com.pedrorenzo.booking.dtos.BookingBulkResultDTO;
+import com.pedrorenzo.booking.dtos.BookingIdsDTO;
 import com.pedrorenzo.booking.dtos.BookingRequestDTO;
 import com.pedrorenzo.booking.dtos.BookingResponseDTO;
+import com.pedrorenzo.booking.dtos.BookingSubmissionDTO;
+import com.pedrorenzo.booking.dtos.BookingUpdatesDTO;
+import com.pedrorenzo.booking.logging.EndpointLoggers;
 import com.pedrorenzo.booking.response.Response;
 import com.pedrorenzo.booking.services.BookingService;
+import com.pedrorenzo.booking.services.BookingSubmissionService;
 import io.swagger.annotations.ApiOperation;
 import io.swagger.annotations.ApiParam;
 import io.swagger.annotations.ApiResponse;
 import io.swagger.annotations.ApiResponses;
 import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -19,29 +25,60 @@ import javax.validation.Valid;
 import java.net.URI;
 import java.util.List;
 
+//
+// JSON is the default wire format. Clients may negotiate CBOR instead, with dates as epoch-day integers.
+//
 @RestController
-@RequestMapping("/v1/bookings")
+@RequestMapping(value = "/v1/bookings",
+        produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE})
 public class BookingController {
 
-    private static final Logger LOGGER = LoggerFactory.getLogger(BookingController.class);
+    private static final Logger INSERT_LOGGER = EndpointLoggers.of(BookingController.class, "insert");
+    private static final Logger FIND_BY_ID_LOGGER = EndpointLoggers.of(BookingController.class, "findById");
+    private static final Logger FIND_SUBMISSION_BY_TICKET_LOGGER =
+            EndpointLoggers.of(BookingController.class, "findSubmissionByTicket");
+    private static final Logger FIND_ALL_LOGGER = EndpointLoggers.of(BookingController.class, "findAll");
+    private static final Logger DELETE_BY_ID_LOGGER = EndpointLoggers.of(BookingController.class, "deleteById");
+    private static final Logger UPDATE_LOGGER = EndpointLoggers.of(BookingController.class, "update");
+    private static final Logger DELETE_ALL_BY_ID_LOGGER = EndpointLoggers.of(BookingController.class, "deleteAllById");
+    private static final Logger UPDATE_ALL_LOGGER = EndpointLoggers.of(BookingController.class, "updateAll");
 
     private final BookingService bookingService;
+    private final BookingSubmissionService bookingSubmissionService;
 
     @Autowired
-    public BookingController(final BookingService bookingService) {
+    public BookingController(final BookingService bookingService,
+                             final BookingSubmissionService bookingSubmissionService) {
         this.bookingService = bookingService;
+        this.bookingSubmissionService = bookingSubmissionService;
     }
 
     @ApiOperation(value = "Insert a new booking")
     @ApiResponses(value = {
             @ApiResponse(code = 201, message = "Booking inserted successfully"),
-            @ApiResponse(code = 400, message = "Ops...something went wrong with your request")
+            @ApiResponse(code = 202, message = "Booking submitted, poll the Location for the outcome. Until it is " +
+                    "processed, only the instance which accepted it knows the ticket (404 elsewhere); the outcome is " +
+                    "then answered by any instance for booking.submissions.retention. A restart loses the queue"),
+            @ApiResponse(code = 400, message = "Ops...something went wrong with your request"),
+            @ApiResponse(code = 503, message = "Too many bookings waiting to be processed")
     })
     @ResponseStatus(code = HttpStatus.CREATED)
-    @PostMapping
-    public ResponseEntity<Response<BookingResponseDTO>> insert(@RequestBody @ApiParam(value = "The booking data")
-                                                               @Valid final BookingRequestDTO bookingRequestDTO) {
-        LOGGER.info("Inserting booking: {}.", bookingRequestDTO);
+    @PostMapping(consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+    public ResponseEntity<Response<?>> insert(@RequestBody @ApiParam(value = "The booking data")
+                                              @Valid final BookingRequestDTO bookingRequestDTO) {
+        if (bookingSubmissionService.isEnabled()) {
+            INSERT_LOGGER.info("Submitting booking: {}.", bookingRequestDTO);
+
+            final Response<BookingSubmissionDTO> response = new Response<>();
+            final BookingSubmissionDTO bookingSubmissionDTO = bookingSubmissionService.submit(bookingRequestDTO);
+            response.setData(bookingSubmissionDTO);
+
+            return ResponseEntity.accepted()
+                    .location(URI.create("/v1/bookings/submissions/" + bookingSubmissionDTO.getTicket()))
+                    .body(response);
+        }
+
+        INSERT_LOGGER.info("Inserting booking: {}.", bookingRequestDTO);
 
         final Response<BookingResponseDTO> response = new Response<>();
         final BookingResponseDTO bookingResponseDTO = bookingService.insert(bookingRequestDTO);
@@ -59,7 +96,7 @@ public class BookingController {
     @GetMapping(value = "/{id}")
     public ResponseEntity<Response<BookingResponseDTO>> findById(@PathVariable("id") @ApiParam(value = "The booking id")
                                                                      final String id) {
-        LOGGER.info("Finding booking by id: {}.", id);
+        FIND_BY_ID_LOGGER.info("Finding booking by id: {}.", id);
 
         final Response<BookingResponseDTO> response = new Response<>();
         response.setData(bookingService.findById(id));
@@ -67,6 +104,22 @@ public class BookingController {
         return ResponseEntity.ok(response);
     }
 
+    @ApiOperation(value = "Find a booking submission by its ticket")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Submission found successfully"),
+            @ApiResponse(code = 404, message = "Submission not found, expired, or still queued on another instance")
+    })
+    @GetMapping(value = "/submissions/{ticket}")
+    public ResponseEntity<Response<BookingSubmissionDTO>> findSubmissionByTicket(
+            @PathVariable("ticket") @ApiParam(value = "The submission ticket") final String ticket) {
+        FIND_SUBMISSION_BY_TICKET_LOGGER.info("Finding booking submission by ticket: {}.", ticket);
+
+        final Response<BookingSubmissionDTO> response = new Response<>();
+        response.setData(bookingSubmissionService.findByTicket(ticket));
+
+        return ResponseEntity.ok(response);
+    }
+
     @ApiOperation(value = "Find all bookings")
     @ApiResponses(value = {
             @ApiResponse(code = 200, message = "Bookings found successfully")
@@ -77,7 +130,7 @@ public class BookingController {
         // For the sake of simplicity, I considered that when executing this request, the user can see all
         // registered bookings without any type of filter.
         //
-        LOGGER.info("Finding all bookings.");
+        FIND_ALL_LOGGER.info("Finding all bookings.");
 
         final Response<List<BookingResponseDTO>> response = new Response<>();
         response.setData(bookingService.findAll());
@@ -94,7 +147,7 @@ public class BookingController {
     @DeleteMapping(value = "/{id}")
     public ResponseEntity<Void> deleteById(@PathVariable("id") @ApiParam(value = "The booking id")
                                                                  final String id) {
-        LOGGER.info("Deleting booking by id: {}.", id);
+        DELETE_BY_ID_LOGGER.info("Deleting booking by id: {}.", id);
 
         bookingService.deleteById(id);
         return ResponseEntity.noContent().build();
@@ -107,15 +160,50 @@ public class BookingController {
             @ApiResponse(code = 400, message = "Ops...something went wrong with your request")
     })
     @ResponseStatus(code = HttpStatus.NO_CONTENT)
-    @PutMapping(value = "/{id}")
+    @PutMapping(value = "/{id}", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE})
     public ResponseEntity<Void> update(@RequestBody @ApiParam(value = "The booking data")
                                            @Valid final BookingRequestDTO bookingRequestDTO,
                                        @PathVariable("id") @ApiParam(value = "The booking id")
                                            final String id) {
-        LOGGER.info("Updating booking with id {} and body request {}.", id, bookingRequestDTO);
+        UPDATE_LOGGER.info("Updating booking with id {} and body request {}.", id, bookingRequestDTO);
 
         bookingService.update(id, bookingRequestDTO);
         return ResponseEntity.noContent().build();
     }
 
+    @ApiOperation(value = "Delete many bookings by their ids")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Bookings processed, see the outcome of each one"),
+            @ApiResponse(code = 400, message = "Ops...something went wrong with your request")
+    })
+    @PostMapping(value = "/bulk-delete",
+            consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+    public ResponseEntity<Response<List<BookingBulkResultDTO>>> deleteAllById(
+            @RequestBody @ApiParam(value = "The booking ids") @Valid final BookingIdsDTO bookingIdsDTO) {
+        DELETE_ALL_BY_ID_LOGGER.info("Deleting bookings by ids: {}.", bookingIdsDTO);
+
+        final Response<List<BookingBulkResultDTO>> response = new Response<>();
+        response.setData(bookingService.deleteAllById(bookingIdsDTO.getIds()));
+
+        return ResponseEntity.ok(response);
+    }
+
+    @ApiOperation(value = "Update many bookings")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Bookings processed, see the outcome of each one"),
+            @ApiResponse(code = 400, message = "Ops...something went wrong with your request")
+    })
+    @PostMapping(value = "/bulk-update",
+            consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+    public ResponseEntity<Response<List<BookingBulkResultDTO>>> updateAll(
+            @RequestBody @ApiParam(value = "The bookings with their new dates")
+            @Valid final BookingUpdatesDTO bookingUpdatesDTO) {
+        UPDATE_ALL_LOGGER.info("Updating bookings: {}.", bookingUpdatesDTO);
+
+        final Response<List<BookingBulkResultDTO>> response = new Response<>();
+        response.setData(bookingService.updateAll(bookingUpdatesDTO.getBookings()));
+
+        return ResponseEntity.ok(response);
+    }
+
 }
@@ -0,0 +1,87 @@
+package com.pedrorenzo.booking.controllers;
+
+import com.pedrorenzo.booking.dtos.BookingImportDTO;
+import com.pedrorenzo.booking.logging.EndpointLoggers;
+import com.pedrorenzo.booking.response.Response;
+import com.pedrorenzo.booking.services.BookingTransferService;
+import com.pedrorenzo.booking.transfer.BookingFormat;
+import io.swagger.annotations.ApiOperation;
+import io.swagger.annotations.ApiParam;
+import io.swagger.annotations.ApiResponse;
+import io.swagger.annotations.ApiResponses;
+import org.slf4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+//
+// The files are written and read on the request thread, straight from and to the database cursor, so neither the
+// bookings nor the file are ever held whole in memory, whatever their size.
+//
+
+@RestController
+@RequestMapping(value = "/v1/bookings")
+public class BookingTransferController {
+
+    private static final Logger EXPORT_LOGGER = EndpointLoggers.of(BookingTransferController.class, "export");
+    private static final Logger IMPORT_LOGGER = EndpointLoggers.of(BookingTransferController.class, "import");
+
+    private static final String NDJSON_VALUE = "application/x-ndjson";
+    private static final String CSV_VALUE = "text/csv";
+
+    private final BookingTransferService bookingTransferService;
+
+    @Autowired
+    public BookingTransferController(final BookingTransferService bookingTransferService) {
+        this.bookingTransferService = bookingTransferService;
+    }
+
+    @ApiOperation(value = "Export all bookings as NDJSON or CSV, one booking per line")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Bookings exported successfully")
+    })
+    @GetMapping(value = "/export")
+    public void export(@RequestParam(value = "format", defaultValue = "NDJSON") @ApiParam(value = "NDJSON or CSV")
+                           final BookingFormat format,
+                       final HttpServletResponse response) throws IOException {
+        EXPORT_LOGGER.info("Exporting all bookings as {}.", format);
+
+        response.setContentType(format.getMediaType().toString());
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"bookings." + format.getFileExtension() + '"');
+        bookingTransferService.export(format, response.getOutputStream());
+    }
+
+    @ApiOperation(value = "Import bookings from an NDJSON or CSV file, one booking per line")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "File imported, see the rejected records"),
+            @ApiResponse(code = 415, message = "The file is neither NDJSON nor CSV")
+    })
+    @PostMapping(value = "/import", consumes = {NDJSON_VALUE, CSV_VALUE},
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+    public ResponseEntity<Response<BookingImportDTO>> importBookings(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) final MediaType contentType,
+            final InputStream body) throws IOException {
+        final BookingFormat format = BookingFormat.of(contentType);
+        IMPORT_LOGGER.info("Importing bookings as {}.", format);
+
+        final Response<BookingImportDTO> response = new Response<>();
+        response.setData(bookingTransferService.importBookings(format, body));
+
+        return ResponseEntity.ok(response);
+    }
+
+}
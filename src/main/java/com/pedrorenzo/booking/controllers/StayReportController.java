@@ -0,0 +1,60 @@
+package com.pedrorenzo.booking.controllers;
+
+import com.pedrorenzo.booking.dtos.StayReportDTO;
+import com.pedrorenzo.booking.logging.EndpointLoggers;
+import com.pedrorenzo.booking.reports.StayPeriod;
+import com.pedrorenzo.booking.response.Response;
+import com.pedrorenzo.booking.services.StayReportService;
+import io.swagger.annotations.ApiOperation;
+import io.swagger.annotations.ApiParam;
+import io.swagger.annotations.ApiResponse;
+import io.swagger.annotations.ApiResponses;
+import org.slf4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping(value = "/v1/bookings/reports",
+        produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+public class StayReportController {
+
+    private static final Logger REPORT_LOGGER = EndpointLoggers.of(StayReportController.class, "report");
+
+    private final StayReportService stayReportService;
+
+    @Autowired
+    public StayReportController(final StayReportService stayReportService) {
+        this.stayReportService = stayReportService;
+    }
+
+    @ApiOperation(value = "Report the occupancy, stay length and lead time per week or month")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Report made successfully"),
+            @ApiResponse(code = 400, message = "Ops...something went wrong with your request")
+    })
+    @GetMapping
+    public ResponseEntity<Response<List<StayReportDTO>>> report(
+            @RequestParam(value = "period", defaultValue = "WEEK") @ApiParam(value = "WEEK or MONTH")
+                final StayPeriod period,
+            @RequestParam("fromDate") @ApiParam(value = "A day of the first period", example = "2021-05-01")
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) final LocalDate fromDate,
+            @RequestParam("toDate") @ApiParam(value = "A day of the last period", example = "2021-05-31")
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) final LocalDate toDate) {
+        REPORT_LOGGER.info("Reporting the stays per {} between {} and {}.", period, fromDate, toDate);
+
+        final Response<List<StayReportDTO>> response = new Response<>();
+        response.setData(stayReportService.report(period, fromDate, toDate));
+
+        return ResponseEntity.ok(response);
+    }
+
+}
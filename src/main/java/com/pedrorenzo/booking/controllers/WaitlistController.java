@@ -0,0 +1,93 @@
+package com.pedrorenzo.booking.controllers;
+
+import com.pedrorenzo.booking.dtos.BookingRequestDTO;
+import com.pedrorenzo.booking.dtos.WaitlistEntryDTO;
+import com.pedrorenzo.booking.logging.EndpointLoggers;
+import com.pedrorenzo.booking.response.Response;
+import com.pedrorenzo.booking.services.WaitlistService;
+import io.swagger.annotations.ApiOperation;
+import io.swagger.annotations.ApiParam;
+import io.swagger.annotations.ApiResponse;
+import io.swagger.annotations.ApiResponses;
+import org.slf4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import javax.validation.Valid;
+import java.net.URI;
+
+//
+// Instead of polling the bookings and retrying inserts to catch a cancellation, clients wait for days on the waitlist:
+// the first entry the freed days satisfy is booked automatically, and its booking id shows up in the entry.
+//
+@RestController
+@RequestMapping(value = "/v1/bookings/waitlist",
+        produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+public class WaitlistController {
+
+    private static final Logger REGISTER_LOGGER = EndpointLoggers.of(WaitlistController.class, "register");
+    private static final Logger FIND_BY_ID_LOGGER = EndpointLoggers.of(WaitlistController.class, "findById");
+    private static final Logger DELETE_BY_ID_LOGGER = EndpointLoggers.of(WaitlistController.class, "deleteById");
+
+    private final WaitlistService waitlistService;
+
+    @Autowired
+    public WaitlistController(final WaitlistService waitlistService) {
+        this.waitlistService = waitlistService;
+    }
+
+    @ApiOperation(value = "Wait for days to be freed")
+    @ApiResponses(value = {
+            @ApiResponse(code = 201, message = "Waitlist entry registered successfully"),
+            @ApiResponse(code = 400, message = "Ops...something went wrong with your request")
+    })
+    @ResponseStatus(code = HttpStatus.CREATED)
+    @PostMapping(consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+    public ResponseEntity<Response<WaitlistEntryDTO>> register(@RequestBody @ApiParam(value = "The days to wait for")
+                                                               @Valid final BookingRequestDTO bookingRequestDTO) {
+        REGISTER_LOGGER.info("Registering waitlist entry: {}.", bookingRequestDTO);
+
+        final Response<WaitlistEntryDTO> response = new Response<>();
+        final WaitlistEntryDTO waitlistEntryDTO = waitlistService.register(bookingRequestDTO);
+        response.setData(waitlistEntryDTO);
+
+        return ResponseEntity.created(URI.create("/v1/bookings/waitlist/" + waitlistEntryDTO.getId())).
+                body(response);
+    }
+
+    @ApiOperation(value = "Find a waitlist entry by its id")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Waitlist entry found successfully"),
+            @ApiResponse(code = 404, message = "Waitlist entry not found")
+    })
+    @GetMapping(value = "/{id}")
+    public ResponseEntity<Response<WaitlistEntryDTO>> findById(@PathVariable("id")
+                                                               @ApiParam(value = "The waitlist entry id")
+                                                                   final String id) {
+        FIND_BY_ID_LOGGER.info("Finding waitlist entry by id: {}.", id);
+
+        final Response<WaitlistEntryDTO> response = new Response<>();
+        response.setData(waitlistService.findById(id));
+
+        return ResponseEntity.ok(response);
+    }
+
+    @ApiOperation(value = "Delete a waitlist entry by its id")
+    @ApiResponses(value = {
+            @ApiResponse(code = 204, message = "No Content"),
+            @ApiResponse(code = 404, message = "Waitlist entry not found")
+    })
+    @ResponseStatus(code = HttpStatus.NO_CONTENT)
+    @DeleteMapping(value = "/{id}")
+    public ResponseEntity<Void> deleteById(@PathVariable("id") @ApiParam(value = "The waitlist entry id")
+                                               final String id) {
+        DELETE_BY_ID_LOGGER.info("Deleting waitlist entry by id: {}.", id);
+
+        waitlistService.deleteById(id);
+        return ResponseEntity.noContent().build();
+    }
+
+}
@@ -0,0 +1,47 @@
+package com.pedrorenzo.booking.dtos;
+
+import io.swagger.annotations.ApiModelProperty;
+
+import java.time.LocalDate;
+
+public class AvailableStayDTO {
+
+    @ApiModelProperty(example = "2021-04-26")
+    private LocalDate fromDate;
+
+    @ApiModelProperty(example = "2021-04-28")
+    private LocalDate toDate;
+
+    public AvailableStayDTO() {
+
+    }
+
+    public AvailableStayDTO(final LocalDate fromDate, final LocalDate toDate) {
+        this.fromDate = fromDate;
+        this.toDate = toDate;
+    }
+
+    public LocalDate getFromDate() {
+        return fromDate;
+    }
+
+    public void setFromDate(final LocalDate fromDate) {
+        this.fromDate = fromDate;
+    }
+
+    public LocalDate getToDate() {
+        return toDate;
+    }
+
+    public void setToDate(final LocalDate toDate) {
+        this.toDate = toDate;
+    }
+
+    @Override
+    public String toString() {
+        return "AvailableStayDTO{" +
+                "fromDate=" + fromDate +
+                ", toDate=" + toDate +
+                '}';
+    }
+}
@@ -0,0 +1,58 @@
+package com.pedrorenzo.booking.dtos;
+
+import io.swagger.annotations.ApiModelProperty;
+
+import java.util.List;
+
+public class BookingBulkResultDTO {
+
+    public enum Status {
+        DELETED,
+        UPDATED,
+        NOT_FOUND,
+        REJECTED
+    }
+
+    @ApiModelProperty(example = "608707209f974627a3ca5d70")
+    private String id;
+
+    @ApiModelProperty(example = "UPDATED")
+    private Status status;
+
+    private List<BookingViolationDTO> violations;
+
+    public BookingBulkResultDTO() {
+
+    }
+
+    public BookingBulkResultDTO(final String id, final Status status, final List<BookingViolationDTO> violations) {
+        this.id = id;
+        this.status = status;
+        this.violations = violations;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(final String id) {
+        this.id = id;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(final Status status) {
+        this.status = status;
+    }
+
+    public List<BookingViolationDTO> getViolations() {
+        return violations;
+    }
+
+    public void setViolations(final List<BookingViolationDTO> violations) {
+        this.violations = violations;
+    }
+
+}
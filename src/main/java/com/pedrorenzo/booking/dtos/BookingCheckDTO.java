@@ -0,0 +1,39 @@
+package com.pedrorenzo.booking.dtos;
+
+import io.swagger.annotations.ApiModelProperty;
+
+import java.util.List;
+
+public class BookingCheckDTO {
+
+    @ApiModelProperty(example = "false")
+    private boolean accepted;
+
+    private List<BookingViolationDTO> violations;
+
+    public BookingCheckDTO() {
+
+    }
+
+    public BookingCheckDTO(final boolean accepted, final List<BookingViolationDTO> violations) {
+        this.accepted = accepted;
+        this.violations = violations;
+    }
+
+    public boolean isAccepted() {
+        return accepted;
+    }
+
+    public void setAccepted(final boolean accepted) {
+        this.accepted = accepted;
+    }
+
+    public List<BookingViolationDTO> getViolations() {
+        return violations;
+    }
+
+    public void setViolations(final List<BookingViolationDTO> violations) {
+        this.violations = violations;
+    }
+
+}
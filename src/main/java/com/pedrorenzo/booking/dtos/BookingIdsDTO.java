@@ -0,0 +1,36 @@
+package com.pedrorenzo.booking.dtos;
+
+import io.swagger.annotations.ApiModelProperty;
+
+import javax.validation.constraints.NotEmpty;
+import java.util.List;
+
+public class BookingIdsDTO {
+
+    @NotEmpty(message = "Ids should not be empty.")
+    @ApiModelProperty(example = "[\"608707209f974627a3ca5d70\", \"608707209f974627a3ca5d71\"]")
+    private List<String> ids;
+
+    public BookingIdsDTO() {
+
+    }
+
+    public BookingIdsDTO(final List<String> ids) {
+        this.ids = ids;
+    }
+
+    public List<String> getIds() {
+        return ids;
+    }
+
+    public void setIds(final List<String> ids) {
+        this.ids = ids;
+    }
+
+    @Override
+    public String toString() {
+        return "BookingIdsDTO{" +
+                "ids=" + ids +
+                '}';
+    }
+}
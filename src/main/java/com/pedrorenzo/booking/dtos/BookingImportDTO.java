@@ -0,0 +1,89 @@
+package com.pedrorenzo.booking.dtos;
+
+import io.swagger.annotations.ApiModelProperty;
+
+import java.util.List;
+
+public class BookingImportDTO {
+
+    @ApiModelProperty(value = "Records read from the file", example = "10000")
+    private long records;
+
+    @ApiModelProperty(value = "Bookings inserted", example = "9998")
+    private long imported;
+
+    @ApiModelProperty(value = "Records rejected", example = "2")
+    private long rejected;
+
+    @ApiModelProperty(example = "850")
+    private long durationMillis;
+
+    @ApiModelProperty(value = "Records read and handled per second", example = "11764.7")
+    private double recordsPerSecond;
+
+    @ApiModelProperty(value = "The first rejected records, up to booking.transfer.max-reported-errors")
+    private List<BookingImportErrorDTO> errors;
+
+    public BookingImportDTO() {
+
+    }
+
+    public BookingImportDTO(final long records, final long imported, final long rejected, final long durationMillis,
+                            final double recordsPerSecond, final List<BookingImportErrorDTO> errors) {
+        this.records = records;
+        this.imported = imported;
+        this.rejected = rejected;
+        this.durationMillis = durationMillis;
+        this.recordsPerSecond = recordsPerSecond;
+        this.errors = errors;
+    }
+
+    public long getRecords() {
+        return records;
+    }
+
+    public void setRecords(final long records) {
+        this.records = records;
+    }
+
+    public long getImported() {
+        return imported;
+    }
+
+    public void setImported(final long imported) {
+        this.imported = imported;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    public void setRejected(final long rejected) {
+        this.rejected = rejected;
+    }
+
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+
+    public void setDurationMillis(final long durationMillis) {
+        this.durationMillis = durationMillis;
+    }
+
+    public double getRecordsPerSecond() {
+        return recordsPerSecond;
+    }
+
+    public void setRecordsPerSecond(final double recordsPerSecond) {
+        this.recordsPerSecond = recordsPerSecond;
+    }
+
+    public List<BookingImportErrorDTO> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(final List<BookingImportErrorDTO> errors) {
+        this.errors = errors;
+    }
+
+}
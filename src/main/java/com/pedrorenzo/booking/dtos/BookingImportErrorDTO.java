@@ -0,0 +1,63 @@
+package com.pedrorenzo.booking.dtos;
+
+import com.pedrorenzo.booking.utils.ErrorCode;
+import io.swagger.annotations.ApiModelProperty;
+
+public class BookingImportErrorDTO {
+
+    @ApiModelProperty(value = "Line of the rejected record in the file", example = "42")
+    private long line;
+
+    @ApiModelProperty(example = "608707209f974627a3ca5d70")
+    private String id;
+
+    @ApiModelProperty(example = "BOOKING_NOT_AVAILABLE")
+    private ErrorCode code;
+
+    @ApiModelProperty(example = "Unfortunately there is already a booking on this date.")
+    private String message;
+
+    public BookingImportErrorDTO() {
+
+    }
+
+    public BookingImportErrorDTO(final long line, final String id, final ErrorCode code, final String message) {
+        this.line = line;
+        this.id = id;
+        this.code = code;
+        this.message = message;
+    }
+
+    public long getLine() {
+        return line;
+    }
+
+    public void setLine(final long line) {
+        this.line = line;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(final String id) {
+        this.id = id;
+    }
+
+    public ErrorCode getCode() {
+        return code;
+    }
+
+    public void setCode(final ErrorCode code) {
+        this.code = code;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(final String message) {
+        this.message = message;
+    }
+
+}
@@ -0,0 +1,77 @@
+package com.pedrorenzo.booking.dtos;
+
+import io.swagger.annotations.ApiModelProperty;
+
+public class BookingSubmissionDTO {
+
+    public enum Status {
+        PENDING, ACCEPTED, REJECTED, FAILED
+    }
+
+    @ApiModelProperty(example = "0b6c4a4e-9a8e-4f43-9d39-5f0ad0a8c4e1")
+    private String ticket;
+
+    @ApiModelProperty(example = "ACCEPTED")
+    private Status status;
+
+    @ApiModelProperty(example = "608707209f974627a3ca5d70")
+    private String bookingId;
+
+    @ApiModelProperty(example = "Unfortunately there is already a booking on this date.")
+    private String error;
+
+    public BookingSubmissionDTO() {
+
+    }
+
+    public BookingSubmissionDTO(final String ticket, final Status status, final String bookingId,
+                                final String error) {
+        this.ticket = ticket;
+        this.status = status;
+        this.bookingId = bookingId;
+        this.error = error;
+    }
+
+    public String getTicket() {
+        return ticket;
+    }
+
+    public void setTicket(final String ticket) {
+        this.ticket = ticket;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(final Status status) {
+        this.status = status;
+    }
+
+    public String getBookingId() {
+        return bookingId;
+    }
+
+    public void setBookingId(final String bookingId) {
+        this.bookingId = bookingId;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(final String error) {
+        this.error = error;
+    }
+
+    @Override
+    public String toString() {
+        return "BookingSubmissionDTO{" +
+                "ticket='" + ticket + '\'' +
+                ", status=" + status +
+                ", bookingId='" + bookingId + '\'' +
+                ", error='" + error + '\'' +
+                '}';
+    }
+
+}
@@ -0,0 +1,39 @@
+package com.pedrorenzo.booking.dtos;
+
+import io.swagger.annotations.ApiModelProperty;
+
+import javax.validation.constraints.NotNull;
+import java.time.LocalDate;
+
+public class BookingUpdateDTO extends BookingRequestDTO {
+
+    @NotNull(message = "Id should not be blank.")
+    @ApiModelProperty(example = "608707209f974627a3ca5d70")
+    private String id;
+
+    public BookingUpdateDTO() {
+
+    }
+
+    public BookingUpdateDTO(final String id, final LocalDate fromDate, final LocalDate toDate) {
+        super(fromDate, toDate);
+        this.id = id;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(final String id) {
+        this.id = id;
+    }
+
+    @Override
+    public String toString() {
+        return "BookingUpdateDTO{" +
+                "id=" + id +
+                ", fromDate=" + getFromDate() +
+                ", toDate=" + getToDate() +
+                '}';
+    }
+}
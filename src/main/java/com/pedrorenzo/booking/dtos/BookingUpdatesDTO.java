@@ -0,0 +1,35 @@
+package com.pedrorenzo.booking.dtos;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
+import java.util.List;
+
+public class BookingUpdatesDTO {
+
+    @Valid
+    @NotEmpty(message = "Bookings should not be empty.")
+    private List<BookingUpdateDTO> bookings;
+
+    public BookingUpdatesDTO() {
+
+    }
+
+    public BookingUpdatesDTO(final List<BookingUpdateDTO> bookings) {
+        this.bookings = bookings;
+    }
+
+    public List<BookingUpdateDTO> getBookings() {
+        return bookings;
+    }
+
+    public void setBookings(final List<BookingUpdateDTO> bookings) {
+        this.bookings = bookings;
+    }
+
+    @Override
+    public String toString() {
+        return "BookingUpdatesDTO{" +
+                "bookings=" + bookings +
+                '}';
+    }
+}
@@ -0,0 +1,51 @@
+package com.pedrorenzo.booking.dtos;
+
+import com.pedrorenzo.booking.utils.ErrorCode;
+import io.swagger.annotations.ApiModelProperty;
+
+public class BookingViolationDTO {
+
+    @ApiModelProperty(example = "availability")
+    private String rule;
+
+    @ApiModelProperty(example = "BOOKING_NOT_AVAILABLE")
+    private ErrorCode code;
+
+    @ApiModelProperty(example = "Unfortunately there is already a booking on this date.")
+    private String message;
+
+    public BookingViolationDTO() {
+
+    }
+
+    public BookingViolationDTO(final String rule, final ErrorCode code, final String message) {
+        this.rule = rule;
+        this.code = code;
+        this.message = message;
+    }
+
+    public String getRule() {
+        return rule;
+    }
+
+    public void setRule(final String rule) {
+        this.rule = rule;
+    }
+
+    public ErrorCode getCode() {
+        return code;
+    }
+
+    public void setCode(final ErrorCode code) {
+        this.code = code;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(final String message) {
+        this.message = message;
+    }
+
+}
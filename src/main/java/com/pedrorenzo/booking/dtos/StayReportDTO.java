@@ -0,0 +1,114 @@
+package com.pedrorenzo.booking.dtos;
+
+import io.swagger.annotations.ApiModelProperty;
+
+import java.time.LocalDate;
+
+public class StayReportDTO {
+
+    @ApiModelProperty(example = "2021-05-03")
+    private LocalDate fromDate;
+
+    @ApiModelProperty(example = "2021-05-09")
+    private LocalDate toDate;
+
+    @ApiModelProperty(value = "Stays starting in the period", example = "2")
+    private long stays;
+
+    @ApiModelProperty(value = "Days of the period booked", example = "5")
+    private long bookedDays;
+
+    @ApiModelProperty(value = "Share of the days of the period booked", example = "0.714")
+    private double occupancyRate;
+
+    @ApiModelProperty(value = "Average length, in days, of the stays starting in the period", example = "2.5")
+    private double averageStayDays;
+
+    @ApiModelProperty(value = "Average days between booking and arrival of the stays starting in the period",
+            example = "12.0")
+    private double averageLeadDays;
+
+    public StayReportDTO() {
+
+    }
+
+    public StayReportDTO(final LocalDate fromDate, final LocalDate toDate, final long stays, final long bookedDays,
+                         final double occupancyRate, final double averageStayDays, final double averageLeadDays) {
+        this.fromDate = fromDate;
+        this.toDate = toDate;
+        this.stays = stays;
+        this.bookedDays = bookedDays;
+        this.occupancyRate = occupancyRate;
+        this.averageStayDays = averageStayDays;
+        this.averageLeadDays = averageLeadDays;
+    }
+
+    public LocalDate getFromDate() {
+        return fromDate;
+    }
+
+    public void setFromDate(final LocalDate fromDate) {
+        this.fromDate = fromDate;
+    }
+
+    public LocalDate getToDate() {
+        return toDate;
+    }
+
+    public void setToDate(final LocalDate toDate) {
+        this.toDate = toDate;
+    }
+
+    public long getStays() {
+        return stays;
+    }
+
+    public void setStays(final long stays) {
+        this.stays = stays;
+    }
+
+    public long getBookedDays() {
+        return bookedDays;
+    }
+
+    public void setBookedDays(final long bookedDays) {
+        this.bookedDays = bookedDays;
+    }
+
+    public double getOccupancyRate() {
+        return occupancyRate;
+    }
+
+    public void setOccupancyRate(final double occupancyRate) {
+        this.occupancyRate = occupancyRate;
+    }
+
+    public double getAverageStayDays() {
+        return averageStayDays;
+    }
+
+    public void setAverageStayDays(final double averageStayDays) {
+        this.averageStayDays = averageStayDays;
+    }
+
+    public double getAverageLeadDays() {
+        return averageLeadDays;
+    }
+
+    public void setAverageLeadDays(final double averageLeadDays) {
+        this.averageLeadDays = averageLeadDays;
+    }
+
+    @Override
+    public String toString() {
+        return "StayReportDTO{" +
+                "fromDate=" + fromDate +
+                ", toDate=" + toDate +
+                ", stays=" + stays +
+                ", bookedDays=" + bookedDays +
+                ", occupancyRate=" + occupancyRate +
+                ", averageStayDays=" + averageStayDays +
+                ", averageLeadDays=" + averageLeadDays +
+                '}';
+    }
+}
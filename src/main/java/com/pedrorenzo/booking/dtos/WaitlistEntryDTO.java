@@ -0,0 +1,77 @@
+package com.pedrorenzo.booking.dtos;
+
+import io.swagger.annotations.ApiModelProperty;
+
+import java.time.LocalDate;
+
+public class WaitlistEntryDTO {
+
+    @ApiModelProperty(example = "608707209f974627a3ca5d71")
+    private String id;
+
+    @ApiModelProperty(example = "2021-04-26")
+    private LocalDate fromDate;
+
+    @ApiModelProperty(example = "2021-04-28")
+    private LocalDate toDate;
+
+    @ApiModelProperty(example = "PROMOTED")
+    private String status;
+
+    @ApiModelProperty(example = "608707209f974627a3ca5d70")
+    private String bookingId;
+
+    public WaitlistEntryDTO() {
+
+    }
+
+    public WaitlistEntryDTO(final String id, final LocalDate fromDate, final LocalDate toDate, final String status,
+                            final String bookingId) {
+        this.id = id;
+        this.fromDate = fromDate;
+        this.toDate = toDate;
+        this.status = status;
+        this.bookingId = bookingId;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(final String id) {
+        this.id = id;
+    }
+
+    public LocalDate getFromDate() {
+        return fromDate;
+    }
+
+    public void setFromDate(final LocalDate fromDate) {
+        this.fromDate = fromDate;
+    }
+
+    public LocalDate getToDate() {
+        return toDate;
+    }
+
+    public void setToDate(final LocalDate toDate) {
+        this.toDate = toDate;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(final String status) {
+        this.status = status;
+    }
+
+    public String getBookingId() {
+        return bookingId;
+    }
+
+    public void setBookingId(final String bookingId) {
+        this.bookingId = bookingId;
+    }
+
+}
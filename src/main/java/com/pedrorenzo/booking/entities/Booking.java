@@ -1,14 +1,11 @@
 package com.pedrorenzo.booking.entities;
 
+import org.springframework.data.annotation.Id;
 import org.springframework.data.mongodb.core.mapping.Document;
 
-import javax.persistence.Entity;
-import javax.persistence.GeneratedValue;
-import javax.persistence.Id;
 import java.time.Instant;
 
 @Document(collection = "bookings")
-@Entity
 public class Booking {
 
     //
@@ -17,7 +14,6 @@ public class Booking {
     //
 
     @Id
-    @GeneratedValue
     private String id;
     private Instant fromDate;
     private Instant toDate;
@@ -36,6 +32,11 @@ public class Booking {
         this.updatedDate = updatedDate;
     }
 
+    public Booking(final Booking booking) {
+        this(booking.getFromDate(), booking.getToDate(), booking.getCreatedDate(), booking.getUpdatedDate());
+        this.id = booking.getId();
+    }
+
     public String getId() {
         return id;
     }
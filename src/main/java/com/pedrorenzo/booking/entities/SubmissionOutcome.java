@@ -0,0 +1,78 @@
+package com.pedrorenzo.booking.entities;
+
+import com.pedrorenzo.booking.dtos.BookingSubmissionDTO;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * The outcome of an asynchronous booking submission, kept for its ticket to be polled through any instance until it
+ * expires.
+ */
+@Document(collection = "submissions")
+public class SubmissionOutcome {
+
+    @Id
+    private String ticket;
+    private BookingSubmissionDTO.Status status;
+    // Set when the submission was accepted.
+    private String bookingId;
+    // Set when the submission was rejected or failed.
+    private String error;
+    private Instant completedDate;
+
+    public SubmissionOutcome() {
+
+    }
+
+    public SubmissionOutcome(final String ticket, final BookingSubmissionDTO.Status status, final String bookingId,
+                             final String error, final Instant completedDate) {
+        this.ticket = ticket;
+        this.status = status;
+        this.bookingId = bookingId;
+        this.error = error;
+        this.completedDate = completedDate;
+    }
+
+    public String getTicket() {
+        return ticket;
+    }
+
+    public void setTicket(final String ticket) {
+        this.ticket = ticket;
+    }
+
+    public BookingSubmissionDTO.Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(final BookingSubmissionDTO.Status status) {
+        this.status = status;
+    }
+
+    public String getBookingId() {
+        return bookingId;
+    }
+
+    public void setBookingId(final String bookingId) {
+        this.bookingId = bookingId;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(final String error) {
+        this.error = error;
+    }
+
+    public Instant getCompletedDate() {
+        return completedDate;
+    }
+
+    public void setCompletedDate(final Instant completedDate) {
+        this.completedDate = completedDate;
+    }
+
+}
@@ -0,0 +1,97 @@
+package com.pedrorenzo.booking.entities;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+@Document(collection = "waitlist")
+public class WaitlistEntry {
+
+    public enum Status {
+        WAITING,
+        // Claimed by an instance, which is booking its days.
+        PROMOTING,
+        PROMOTED,
+        EXPIRED
+    }
+
+    @Id
+    private String id;
+    private Instant fromDate;
+    private Instant toDate;
+    private Status status;
+    // Set when the entry was promoted to a booking.
+    private String bookingId;
+    private Instant createdDate;
+    private Instant updatedDate;
+
+    public WaitlistEntry() {
+
+    }
+
+    public WaitlistEntry(final Instant fromDate, final Instant toDate, final Instant createdDate) {
+        this.fromDate = fromDate;
+        this.toDate = toDate;
+        this.status = Status.WAITING;
+        this.createdDate = createdDate;
+        this.updatedDate = createdDate;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(final String id) {
+        this.id = id;
+    }
+
+    public Instant getFromDate() {
+        return fromDate;
+    }
+
+    public void setFromDate(final Instant fromDate) {
+        this.fromDate = fromDate;
+    }
+
+    public Instant getToDate() {
+        return toDate;
+    }
+
+    public void setToDate(final Instant toDate) {
+        this.toDate = toDate;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(final Status status) {
+        this.status = status;
+    }
+
+    public String getBookingId() {
+        return bookingId;
+    }
+
+    public void setBookingId(final String bookingId) {
+        this.bookingId = bookingId;
+    }
+
+    public Instant getCreatedDate() {
+        return createdDate;
+    }
+
+    public void setCreatedDate(final Instant createdDate) {
+        this.createdDate = createdDate;
+    }
+
+    public Instant getUpdatedDate() {
+        return updatedDate;
+    }
+
+    public void setUpdatedDate(final Instant updatedDate) {
+        this.updatedDate = updatedDate;
+    }
+
+}
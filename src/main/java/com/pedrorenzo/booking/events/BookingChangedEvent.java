@@ -0,0 +1,57 @@
+package com.pedrorenzo.booking.events;
+
+import com.pedrorenzo.booking.entities.Booking;
+
+/**
+ * Published after a booking is inserted, updated or deleted, so any state derived from the bookings can follow the
+ * change without polling the repository.
+ */
+public class BookingChangedEvent {
+
+    public enum Type {
+        INSERTED,
+        UPDATED,
+        DELETED
+    }
+
+    private final Type type;
+    private final Booking previous;
+    private final Booking current;
+
+    private BookingChangedEvent(final Type type, final Booking previous, final Booking current) {
+        this.type = type;
+        this.previous = previous;
+        this.current = current;
+    }
+
+    public static BookingChangedEvent inserted(final Booking current) {
+        return new BookingChangedEvent(Type.INSERTED, null, current);
+    }
+
+    public static BookingChangedEvent updated(final Booking previous, final Booking current) {
+        return new BookingChangedEvent(Type.UPDATED, previous, current);
+    }
+
+    public static BookingChangedEvent deleted(final Booking previous) {
+        return new BookingChangedEvent(Type.DELETED, previous, null);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * @return The booking as it was before the change, <b>null</b> for insertions.
+     */
+    public Booking getPrevious() {
+        return previous;
+    }
+
+    /**
+     * @return The booking as it is after the change, <b>null</b> for deletions.
+     */
+    public Booking getCurrent() {
+        return current;
+    }
+
+}
@@ -0,0 +1,26 @@
+package com.pedrorenzo.booking.events;
+
+import com.pedrorenzo.booking.entities.Booking;
+
+import java.util.List;
+
+/**
+ * Published after a chunk of an import is inserted. One event per chunk instead of a {@link BookingChangedEvent} per
+ * booking, so the derived state can take the whole chunk in a single change.
+ */
+public class BookingsImportedEvent {
+
+    private final List<Booking> bookings;
+
+    public BookingsImportedEvent(final List<Booking> bookings) {
+        this.bookings = bookings;
+    }
+
+    /**
+     * @return The inserted bookings.
+     */
+    public List<Booking> getBookings() {
+        return bookings;
+    }
+
+}
@@ -1,11 +1,13 @@
 package com.pedrorenzo.booking.exceptions;
 
-public class BookingNotFoundException extends RuntimeException {
+import com.pedrorenzo.booking.utils.ErrorCode;
+
+public class BookingNotFoundException extends BusinessException {
 
     private static final long serialVersionUID = 1L;
 
     public BookingNotFoundException(final String message) {
-        super(message);
+        super(message, ErrorCode.BOOKING_NOT_FOUND);
     }
 
-}
\ No newline at end of file
+}
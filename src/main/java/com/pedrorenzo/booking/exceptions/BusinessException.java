@@ -0,0 +1,25 @@
+package com.pedrorenzo.booking.exceptions;
+
+import com.pedrorenzo.booking.utils.ErrorCode;
+
+/**
+ * An expected outcome of a request, e.g. a booking that is not found or not available, rather than a failure. No stack
+ * trace is captured and nothing can be attached to it, so it is cheap to throw and can be created once and thrown as
+ * often as needed.
+ */
+public abstract class BusinessException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final ErrorCode errorCode;
+
+    protected BusinessException(final String message, final ErrorCode errorCode) {
+        super(message, null, false, false);
+        this.errorCode = errorCode;
+    }
+
+    public ErrorCode getErrorCode() {
+        return errorCode;
+    }
+
+}
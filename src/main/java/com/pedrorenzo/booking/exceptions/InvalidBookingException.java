@@ -1,11 +1,17 @@
 package com.pedrorenzo.booking.exceptions;
 
-public class InvalidBookingException extends RuntimeException {
+import com.pedrorenzo.booking.utils.ErrorCode;
+
+public class InvalidBookingException extends BusinessException {
 
     private static final long serialVersionUID = 1L;
 
     public InvalidBookingException(final String message) {
-        super(message);
+        super(message, ErrorCode.BOOKING_RULE_VIOLATED);
+    }
+
+    public InvalidBookingException(final String message, final ErrorCode errorCode) {
+        super(message, errorCode);
     }
 
-}
\ No newline at end of file
+}
@@ -6,14 +6,25 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
 import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExceptionHandler;
 
 import java.util.Collections;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 @ControllerAdvice
 @RestController
 public class ResponseExceptionHandler extends ResponseEntityExceptionHandler {
 
+    private static final int MAXIMUM_CACHED_RESPONSES = 256;
+
+    //
+    // The business errors are frequent and their messages are few, so each answer is built once and reused. Nothing
+    // in a cached entity is ever modified.
+    //
+    private final ConcurrentMap<String, ResponseEntity<Response>> businessErrors = new ConcurrentHashMap<>();
+
     @ExceptionHandler(Exception.class)
     public final ResponseEntity<Response> handleAllExceptions(final Exception ex) {
         return new ResponseEntity<>(new Response(Collections.singletonList(ex.getMessage())),
@@ -22,14 +33,47 @@ public class ResponseExceptionHandler extends ResponseEntityExceptionHandler {
 
     @ExceptionHandler(InvalidBookingException.class)
     public final ResponseEntity<Response> handleInvalidBookingException(final InvalidBookingException ex) {
-        return new ResponseEntity<>(new Response(Collections.singletonList(ex.getMessage())),
-                HttpStatus.BAD_REQUEST);
+        return businessError(ex, HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(WaitlistEntryNotFoundException.class)
+    public final ResponseEntity<Response> handleWaitlistEntryNotFoundException(
+            final WaitlistEntryNotFoundException ex) {
+        return businessError(ex, HttpStatus.NOT_FOUND);
+    }
+
+    @ExceptionHandler(SubmissionNotFoundException.class)
+    public final ResponseEntity<Response> handleSubmissionNotFoundException(final SubmissionNotFoundException ex) {
+        return businessError(ex, HttpStatus.NOT_FOUND);
+    }
+
+    @ExceptionHandler(ServiceOverloadedException.class)
+    public final ResponseEntity<Response> handleServiceOverloadedException(final ServiceOverloadedException ex) {
+        return businessError(ex, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    @ExceptionHandler(ResponseStatusException.class)
+    public final ResponseEntity<Response> handleResponseStatusException(final ResponseStatusException ex) {
+        return new ResponseEntity<>(new Response(Collections.singletonList(ex.getReason())), ex.getStatus());
     }
 
     @ExceptionHandler(BookingNotFoundException.class)
     public final ResponseEntity<Response> handleBookingNotFoundException(final BookingNotFoundException ex) {
-        return new ResponseEntity<>(new Response(Collections.singletonList(ex.getMessage())),
-                HttpStatus.NOT_FOUND);
+        return businessError(ex, HttpStatus.NOT_FOUND);
+    }
+
+    private ResponseEntity<Response> businessError(final BusinessException ex, final HttpStatus status) {
+        final ResponseEntity<Response> cached = businessErrors.get(ex.getMessage());
+        if (cached != null && cached.getStatusCode() == status &&
+                cached.getBody().getCodes().get(0) == ex.getErrorCode()) {
+            return cached;
+        }
+        final ResponseEntity<Response> response = new ResponseEntity<>(new Response(
+                Collections.singletonList(ex.getMessage()), Collections.singletonList(ex.getErrorCode())), status);
+        if (businessErrors.size() < MAXIMUM_CACHED_RESPONSES) {
+            businessErrors.putIfAbsent(ex.getMessage(), response);
+        }
+        return response;
     }
 
-}
\ No newline at end of file
+}
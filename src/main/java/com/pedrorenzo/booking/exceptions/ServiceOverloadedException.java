@@ -0,0 +1,13 @@
+package com.pedrorenzo.booking.exceptions;
+
+import com.pedrorenzo.booking.utils.ErrorCode;
+
+public class ServiceOverloadedException extends BusinessException {
+
+    private static final long serialVersionUID = 1L;
+
+    public ServiceOverloadedException(final String message) {
+        super(message, ErrorCode.SERVICE_OVERLOADED);
+    }
+
+}
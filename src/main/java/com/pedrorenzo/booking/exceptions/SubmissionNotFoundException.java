@@ -0,0 +1,13 @@
+package com.pedrorenzo.booking.exceptions;
+
+import com.pedrorenzo.booking.utils.ErrorCode;
+
+public class SubmissionNotFoundException extends BusinessException {
+
+    private static final long serialVersionUID = 1L;
+
+    public SubmissionNotFoundException(final String message) {
+        super(message, ErrorCode.SUBMISSION_NOT_FOUND);
+    }
+
+}
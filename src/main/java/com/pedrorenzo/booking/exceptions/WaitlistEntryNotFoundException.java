@@ -0,0 +1,13 @@
+package com.pedrorenzo.booking.exceptions;
+
+import com.pedrorenzo.booking.utils.ErrorCode;
+
+public class WaitlistEntryNotFoundException extends BusinessException {
+
+    private static final long serialVersionUID = 1L;
+
+    public WaitlistEntryNotFoundException(final String message) {
+        super(message, ErrorCode.WAITLIST_ENTRY_NOT_FOUND);
+    }
+
+}
@@ -0,0 +1,178 @@
+package com.pedrorenzo.booking.limiter;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pedrorenzo.booking.response.Response;
+import com.pedrorenzo.booking.utils.ErrorCode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import static com.pedrorenzo.booking.utils.ErrorMessages.SERVICE_OVERLOADED;
+import static com.pedrorenzo.booking.utils.ErrorMessages.TOO_MANY_REQUESTS;
+
+/**
+ * Admission control of the booking endpoints. Every request goes through the rate limit of its client on its
+ * endpoint (429 when over it), and the writes but the imports also go through the adaptive concurrency limit (503 when
+ * reached), so an overloaded service answers at once instead of queueing requests it can't serve in time.
+ */
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    private static final String BOOKINGS_PATH = "/v1/bookings";
+    private static final String IMPORT_PATH = BOOKINGS_PATH + "/import";
+    // The fixed segments of the booking paths; any other segment is an id.
+    private static final Set<String> PATH_NAMES = new HashSet<>(Arrays.asList("availability", "check", "reports",
+            "export", "import", "bulk-delete", "bulk-update", "submissions", "waitlist"));
+
+    private final ClientRateLimiter readRateLimiter;
+    private final ClientRateLimiter writeRateLimiter;
+    private final AimdConcurrencyLimiter writeConcurrencyLimiter;
+    private final String clientHeader;
+    private final byte[] tooManyRequestsBody;
+    private final byte[] serviceOverloadedBody;
+    private final Decisions readRateDecisions;
+    private final Decisions writeRateDecisions;
+    private final Decisions writeConcurrencyDecisions;
+
+    public AdmissionControlFilter(final ClientRateLimiter readRateLimiter, final ClientRateLimiter writeRateLimiter,
+                                  final AimdConcurrencyLimiter writeConcurrencyLimiter, final String clientHeader,
+                                  final ObjectMapper objectMapper, final MeterRegistry meterRegistry) {
+        this.readRateLimiter = readRateLimiter;
+        this.writeRateLimiter = writeRateLimiter;
+        this.writeConcurrencyLimiter = writeConcurrencyLimiter;
+        this.clientHeader = clientHeader;
+        this.tooManyRequestsBody = errorBody(objectMapper, TOO_MANY_REQUESTS, ErrorCode.TOO_MANY_REQUESTS);
+        this.serviceOverloadedBody = errorBody(objectMapper, SERVICE_OVERLOADED, ErrorCode.SERVICE_OVERLOADED);
+        this.readRateDecisions = new Decisions(meterRegistry, "rate", "reads");
+        this.writeRateDecisions = new Decisions(meterRegistry, "rate", "writes");
+        this.writeConcurrencyDecisions = new Decisions(meterRegistry, "concurrency", "writes");
+    }
+
+    @Override
+    protected boolean shouldNotFilter(final HttpServletRequest request) {
+        return !request.getRequestURI().startsWith(request.getContextPath() + BOOKINGS_PATH);
+    }
+
+    @Override
+    protected void doFilterInternal(final HttpServletRequest request, final HttpServletResponse response,
+                                    final FilterChain filterChain) throws ServletException, IOException {
+        final boolean write = !HttpMethod.GET.matches(request.getMethod()) &&
+                !HttpMethod.HEAD.matches(request.getMethod()) && !HttpMethod.OPTIONS.matches(request.getMethod());
+        final ClientRateLimiter rateLimiter = write ? writeRateLimiter : readRateLimiter;
+
+        if (!(write ? writeRateDecisions : readRateDecisions).record(
+                rateLimiter.tryAcquire(client(request), endpoint(request)))) {
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(rateLimiter.getRetryAfterSeconds()));
+            reject(response, HttpStatus.TOO_MANY_REQUESTS, tooManyRequestsBody);
+            return;
+        }
+        // An import lasts as long as its upload, so its latency says nothing about the load; it is only rate limited.
+        if (!write || request.getRequestURI().equals(request.getContextPath() + IMPORT_PATH)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        if (!writeConcurrencyDecisions.record(writeConcurrencyLimiter.tryAcquire())) {
+            reject(response, HttpStatus.SERVICE_UNAVAILABLE, serviceOverloadedBody);
+            return;
+        }
+        final long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            filterChain.doFilter(request, response);
+            failed = response.getStatus() >= HttpStatus.INTERNAL_SERVER_ERROR.value();
+        } finally {
+            writeConcurrencyLimiter.release(System.nanoTime() - start, failed);
+        }
+    }
+
+    private String client(final HttpServletRequest request) {
+        if (StringUtils.hasText(clientHeader)) {
+            final String client = request.getHeader(clientHeader);
+            if (StringUtils.hasText(client)) {
+                return client;
+            }
+        }
+        return request.getRemoteAddr();
+    }
+
+    /**
+     * The method and the path template of the request, e.g. {@code GET /v1/bookings/{id}}: each endpoint has its own
+     * limit, and all the bookings share the one of their endpoint.
+     */
+    private static String endpoint(final HttpServletRequest request) {
+        final String path = request.getRequestURI().substring(request.getContextPath().length() +
+                BOOKINGS_PATH.length());
+        final StringBuilder endpoint = new StringBuilder(request.getMethod()).append(' ').append(BOOKINGS_PATH);
+        for (String segment : path.split("/")) {
+            if (!segment.isEmpty()) {
+                endpoint.append('/').append(PATH_NAMES.contains(segment) ? segment : "{id}");
+            }
+        }
+        return endpoint.toString();
+    }
+
+    private static void reject(final HttpServletResponse response, final HttpStatus status, final byte[] body)
+            throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
+    private static byte[] errorBody(final ObjectMapper objectMapper, final String error, final ErrorCode code) {
+        try {
+            return objectMapper.writeValueAsBytes(new Response<>(Collections.singletonList(error),
+                    Collections.singletonList(code)));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Counts the decisions of one limiter on one group of endpoints.
+     */
+    private static class Decisions {
+
+        private final Counter accepted;
+        private final Counter rejected;
+
+        Decisions(final MeterRegistry meterRegistry, final String limiter, final String endpoints) {
+            this.accepted = counter(meterRegistry, limiter, endpoints, "accepted");
+            this.rejected = counter(meterRegistry, limiter, endpoints, "rejected");
+        }
+
+        boolean record(final boolean accepted) {
+            (accepted ? this.accepted : this.rejected).increment();
+            return accepted;
+        }
+
+        private static Counter counter(final MeterRegistry meterRegistry, final String limiter,
+                                       final String endpoints, final String outcome) {
+            return Counter.builder("booking.limiter.decisions")
+                    .description("Admission decisions of the booking endpoints limiters")
+                    .tag("limiter", limiter)
+                    .tag("endpoints", endpoints)
+                    .tag("outcome", outcome)
+                    .register(meterRegistry);
+        }
+
+    }
+
+}
@@ -0,0 +1,85 @@
+package com.pedrorenzo.booking.limiter;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Limits the number of requests in flight with a limit that adapts to the latency, like TCP congestion control
+ * (additive increase, multiplicative decrease): every request that completes within the latency threshold while the
+ * limit is being used grows the limit by 1 / limit, i.e. by one per window of requests, and every request that is
+ * slower or fails multiplies it by the backoff ratio. Requests over the limit are rejected at once instead of waiting
+ * in a queue.
+ */
+public class AimdConcurrencyLimiter {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final long latencyThresholdNanos;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile double limit;
+
+    public AimdConcurrencyLimiter(final int initialLimit, final int minLimit, final int maxLimit,
+                                  final double backoffRatio, final long latencyThresholdNanos) {
+        if (minLimit < 1 || minLimit > initialLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("The limits must satisfy 1 <= min <= initial <= max.");
+        }
+        if (backoffRatio <= 0 || backoffRatio >= 1) {
+            throw new IllegalArgumentException("The backoff ratio must be between 0 and 1.");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.backoffRatio = backoffRatio;
+        this.latencyThresholdNanos = latencyThresholdNanos;
+        this.limit = initialLimit;
+    }
+
+    /**
+     * Admits a request if there is room for it. An admitted request must be {@link #release released}.
+     *
+     * @return <b>true</b> if the request is admitted, <b>false</b> if the limit is reached.
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            final int current = inFlight.get();
+            if (current >= getLimit()) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Releases an admitted request and adapts the limit to its outcome.
+     *
+     * @param latencyNanos How long the request took.
+     * @param failed Whether the request failed because of the server, e.g. a 5xx answer.
+     */
+    public void release(final long latencyNanos, final boolean failed) {
+        final int current = inFlight.getAndDecrement();
+        synchronized (this) {
+            if (failed || latencyNanos > latencyThresholdNanos) {
+                limit = Math.max(minLimit, limit * backoffRatio);
+            } else if (current * 2 >= limit) {
+                // Only grows while at least half of the limit is used, or an idle period would inflate it.
+                limit = Math.min(maxLimit, limit + 1 / limit);
+            }
+        }
+    }
+
+    /**
+     * @return The current limit.
+     */
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    /**
+     * @return The number of requests in flight.
+     */
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+}
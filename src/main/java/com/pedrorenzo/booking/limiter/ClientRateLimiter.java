@@ -0,0 +1,96 @@
+package com.pedrorenzo.booking.limiter;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Rate limits each client on each endpoint with its own {@link TokenBucket}. The buckets are created on the first
+ * request and kept in a concurrent map, up to {@code maxBuckets}, so the requests of different clients never wait for
+ * each other. A new client past the maximum sweeps out the buckets that are full, which loses nothing since a new
+ * bucket starts full; if every bucket is in use, the new clients share one overflow bucket until the next sweep frees
+ * some. The sweeps run one at a time and at most every 100 ms, so a flood of new clients does not
+ * turn every request into a sweep.
+ */
+public class ClientRateLimiter {
+
+    private static final long SWEEP_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final ConcurrentMap<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final AtomicLong nextSweepNanos;
+    private final TokenBucket overflow;
+    private final double permitsPerSecond;
+    private final int burst;
+    private final int maxBuckets;
+    private final LongSupplier nanoClock;
+
+    public ClientRateLimiter(final double permitsPerSecond, final int burst, final int maxBuckets) {
+        this(permitsPerSecond, burst, maxBuckets, System::nanoTime);
+    }
+
+    ClientRateLimiter(final double permitsPerSecond, final int burst, final int maxBuckets,
+                      final LongSupplier nanoClock) {
+        if (permitsPerSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException("The rate and the burst must be positive.");
+        }
+        this.permitsPerSecond = permitsPerSecond;
+        this.burst = burst;
+        this.maxBuckets = maxBuckets;
+        this.nanoClock = nanoClock;
+        final long now = nanoClock.getAsLong();
+        this.nextSweepNanos = new AtomicLong(now);
+        this.overflow = new TokenBucket(permitsPerSecond, burst, now);
+    }
+
+    /**
+     * Takes a permit for a request of the client to the endpoint.
+     *
+     * @param client The client making the request, e.g. its address.
+     * @param endpoint The endpoint, e.g. the method and the path template.
+     * @return <b>true</b> if the request is allowed, <b>false</b> if the client is over its rate.
+     */
+    public boolean tryAcquire(final String client, final String endpoint) {
+        final long now = nanoClock.getAsLong();
+        return bucket(client + ' ' + endpoint, now).tryConsume(now);
+    }
+
+    /**
+     * @return How long, in whole seconds, a rejected client should wait for its next permit.
+     */
+    public long getRetryAfterSeconds() {
+        return (long) Math.ceil(1 / permitsPerSecond);
+    }
+
+    int getBucketCount() {
+        return buckets.size();
+    }
+
+    private TokenBucket bucket(final String key, final long now) {
+        final TokenBucket bucket = buckets.get(key);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (buckets.size() >= maxBuckets && (!sweep(now) || buckets.size() >= maxBuckets)) {
+            return overflow;
+        }
+        // Two new clients racing past the maximum may both get a bucket: the maximum is approximate.
+        return buckets.computeIfAbsent(key, newKey -> new TokenBucket(permitsPerSecond, burst, now));
+    }
+
+    /**
+     * Drops the full buckets, unless another thread is sweeping or the last sweep was too recent.
+     *
+     * @return Whether this call swept.
+     */
+    private boolean sweep(final long now) {
+        final long next = nextSweepNanos.get();
+        if (now - next < 0 || !nextSweepNanos.compareAndSet(next, now + SWEEP_INTERVAL_NANOS)) {
+            return false;
+        }
+        buckets.values().removeIf(bucket -> bucket.isFull(now));
+        return true;
+    }
+
+}
@@ -0,0 +1,55 @@
+package com.pedrorenzo.booking.limiter;
+
+/**
+ * A token bucket: holds up to {@code capacity} tokens, refilled continuously at {@code tokensPerSecond}. Each request
+ * takes one token, so the bucket allows bursts of {@code capacity} requests and a sustained rate of
+ * {@code tokensPerSecond}. The refill is computed lazily from the time of the last call.
+ */
+public class TokenBucket {
+
+    private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+
+    private final double capacity;
+    private final double tokensPerNano;
+    private double tokens;
+    private long lastRefillNanos;
+
+    public TokenBucket(final double tokensPerSecond, final int capacity, final long nowNanos) {
+        this.capacity = capacity;
+        this.tokensPerNano = tokensPerSecond / NANOS_PER_SECOND;
+        this.tokens = capacity;
+        this.lastRefillNanos = nowNanos;
+    }
+
+    /**
+     * Takes one token if there is any.
+     *
+     * @param nowNanos The current {@link System#nanoTime()}.
+     * @return <b>true</b> if a token was taken, <b>false</b> if the bucket is empty.
+     */
+    public synchronized boolean tryConsume(final long nowNanos) {
+        refill(nowNanos);
+        if (tokens < 1) {
+            return false;
+        }
+        tokens--;
+        return true;
+    }
+
+    /**
+     * @param nowNanos The current {@link System#nanoTime()}.
+     * @return Whether the bucket is full again, i.e. indistinguishable from a new one.
+     */
+    public synchronized boolean isFull(final long nowNanos) {
+        refill(nowNanos);
+        return tokens >= capacity;
+    }
+
+    private void refill(final long nowNanos) {
+        if (nowNanos > lastRefillNanos) {
+            tokens = Math.min(capacity, tokens + (nowNanos - lastRefillNanos) * tokensPerNano);
+            lastRefillNanos = nowNanos;
+        }
+    }
+
+}
@@ -0,0 +1,81 @@
+package com.pedrorenzo.booking.logging;
+
+import ch.qos.logback.core.OutputStreamAppender;
+
+import java.io.BufferedOutputStream;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes to the standard output through a buffer, flushed when full and every {@code flushInterval} milliseconds, so
+ * that a burst of events costs a few writes instead of one per event. {@code System.out} can't be used for that: it
+ * flushes on every write. Meant to sit behind an {@code AsyncAppender}, whose single worker is the only writer.
+ */
+public class BatchingConsoleAppender<E> extends OutputStreamAppender<E> {
+
+    private int bufferSize = 64 * 1024;
+    private long flushInterval = 200;
+
+    private ScheduledExecutorService flusher;
+
+    public void setBufferSize(final int bufferSize) {
+        this.bufferSize = bufferSize;
+    }
+
+    public void setFlushInterval(final long flushInterval) {
+        this.flushInterval = flushInterval;
+    }
+
+    @Override
+    public void start() {
+        // Closing the appender flushes the buffer but leaves the standard output open.
+        setOutputStream(new FilterOutputStream(new BufferedOutputStream(
+                new FileOutputStream(FileDescriptor.out), bufferSize)) {
+
+            @Override
+            public void write(final byte[] bytes, final int offset, final int length) throws IOException {
+                out.write(bytes, offset, length);
+            }
+
+            @Override
+            public void close() throws IOException {
+                flush();
+            }
+
+        });
+        setImmediateFlush(false);
+        super.start();
+
+        flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "log-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flush, flushInterval, flushInterval, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void stop() {
+        if (flusher != null) {
+            flusher.shutdownNow();
+        }
+        super.stop();
+    }
+
+    private void flush() {
+        lock.lock();
+        try {
+            getOutputStream().flush();
+        } catch (IOException e) {
+            addError("Could not flush the standard output.", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+}
@@ -0,0 +1,24 @@
+package com.pedrorenzo.booking.logging;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Loggers named after the controller and the endpoint, e.g. {@code ...controllers.BookingController.insert}, so the
+ * level of each endpoint can be changed on its own at runtime through {@code /actuator/loggers}, and the level of the
+ * controller still applies to all of them.
+ */
+public class EndpointLoggers {
+
+    /**
+     * Gets the logger of an endpoint.
+     *
+     * @param controller The controller class.
+     * @param endpoint   The endpoint, the name of its handler method.
+     * @return The logger.
+     */
+    public static Logger of(final Class<?> controller, final String endpoint) {
+        return LoggerFactory.getLogger(controller.getName() + '.' + endpoint);
+    }
+
+}
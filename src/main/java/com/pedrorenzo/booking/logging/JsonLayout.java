@@ -0,0 +1,54 @@
+package com.pedrorenzo.booking.logging;
+
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.IThrowableProxy;
+import ch.qos.logback.classic.spi.ThrowableProxyUtil;
+import ch.qos.logback.core.CoreConstants;
+import ch.qos.logback.core.LayoutBase;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Lays out an event as one JSON object per line: timestamp, level, logger, thread, message, the MDC entries and the
+ * stack trace, if any. Written with a Jackson generator, without building a tree or a map first.
+ */
+public class JsonLayout extends LayoutBase<ILoggingEvent> {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    @Override
+    public String doLayout(final ILoggingEvent event) {
+        final StringWriter writer = new StringWriter(256);
+        try (JsonGenerator generator = JSON_FACTORY.createGenerator(writer)) {
+            generator.writeStartObject();
+            generator.writeStringField("timestamp", Instant.ofEpochMilli(event.getTimeStamp()).toString());
+            generator.writeStringField("level", event.getLevel().toString());
+            generator.writeStringField("logger", event.getLoggerName());
+            generator.writeStringField("thread", event.getThreadName());
+            generator.writeStringField("message", event.getFormattedMessage());
+            for (Map.Entry<String, String> entry : event.getMDCPropertyMap().entrySet()) {
+                generator.writeStringField(entry.getKey(), entry.getValue());
+            }
+            final IThrowableProxy throwable = event.getThrowableProxy();
+            if (throwable != null) {
+                generator.writeStringField("exception", ThrowableProxyUtil.asString(throwable));
+            }
+            generator.writeEndObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return writer.append(CoreConstants.LINE_SEPARATOR).toString();
+    }
+
+    @Override
+    public String getContentType() {
+        return "application/json";
+    }
+
+}
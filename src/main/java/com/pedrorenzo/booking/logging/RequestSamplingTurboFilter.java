@@ -0,0 +1,27 @@
+package com.pedrorenzo.booking.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.MDC;
+import org.slf4j.Marker;
+
+/**
+ * Drops the events below WARN logged while serving a request that was not sampled by the
+ * {@link RequestSamplingFilter}, before their message is formatted. Warnings and errors are always logged, and so is
+ * everything logged outside of a request.
+ */
+public class RequestSamplingTurboFilter extends TurboFilter {
+
+    @Override
+    public FilterReply decide(final Marker marker, final Logger logger, final Level level, final String format,
+                              final Object[] params, final Throwable throwable) {
+        if (level.isGreaterOrEqual(Level.WARN) || !RequestSamplingFilter.NOT_SAMPLED.equals(
+                MDC.get(RequestSamplingFilter.SAMPLED))) {
+            return FilterReply.NEUTRAL;
+        }
+        return FilterReply.DENY;
+    }
+
+}
@@ -0,0 +1,77 @@
+package com.pedrorenzo.booking.reports;
+
+/**
+ * The stay statistics of one week or month. The stays are counted in the period they start in, the booked days in
+ * the period they fall in.
+ */
+public class PeriodStatistics {
+
+    private final long fromDay;
+    private final long toDay;
+    private final long stays;
+    private final long stayDays;
+    private final long leadStays;
+    private final long leadDays;
+    private final long bookedDays;
+
+    public PeriodStatistics(final long fromDay, final long toDay, final long stays, final long stayDays,
+                            final long leadStays, final long leadDays, final long bookedDays) {
+        this.fromDay = fromDay;
+        this.toDay = toDay;
+        this.stays = stays;
+        this.stayDays = stayDays;
+        this.leadStays = leadStays;
+        this.leadDays = leadDays;
+        this.bookedDays = bookedDays;
+    }
+
+    /**
+     * @return The first day of the period, as an epoch day.
+     */
+    public long getFromDay() {
+        return fromDay;
+    }
+
+    /**
+     * @return The last day of the period, inclusive, as an epoch day.
+     */
+    public long getToDay() {
+        return toDay;
+    }
+
+    /**
+     * @return How many stays start in the period.
+     */
+    public long getStays() {
+        return stays;
+    }
+
+    /**
+     * @return The total length, in days, of the stays starting in the period.
+     */
+    public long getStayDays() {
+        return stayDays;
+    }
+
+    /**
+     * @return How many of the stays starting in the period have a known created date.
+     */
+    public long getLeadStays() {
+        return leadStays;
+    }
+
+    /**
+     * @return The total days between the creation and the first day of those stays.
+     */
+    public long getLeadDays() {
+        return leadDays;
+    }
+
+    /**
+     * @return How many days of the period are booked.
+     */
+    public long getBookedDays() {
+        return bookedDays;
+    }
+
+}
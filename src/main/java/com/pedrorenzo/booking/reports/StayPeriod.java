@@ -0,0 +1,53 @@
+package com.pedrorenzo.booking.reports;
+
+import java.time.LocalDate;
+
+/**
+ * The periods the stay statistics are kept by, in UTC epoch days.
+ */
+public enum StayPeriod {
+
+    /**
+     * ISO weeks, from Monday to Sunday.
+     */
+    WEEK {
+        @Override
+        public long start(final long epochDay) {
+            // The epoch day 0 is a Thursday, 3 days after a Monday.
+            return epochDay - Math.floorMod(epochDay + 3, 7);
+        }
+
+        @Override
+        public long next(final long start) {
+            return start + 7;
+        }
+    },
+
+    /**
+     * Calendar months.
+     */
+    MONTH {
+        @Override
+        public long start(final long epochDay) {
+            return LocalDate.ofEpochDay(epochDay).withDayOfMonth(1).toEpochDay();
+        }
+
+        @Override
+        public long next(final long start) {
+            return LocalDate.ofEpochDay(start).plusMonths(1).toEpochDay();
+        }
+    };
+
+    /**
+     * @param epochDay A day.
+     * @return The first day of the period the day is in.
+     */
+    public abstract long start(final long epochDay);
+
+    /**
+     * @param start The first day of a period.
+     * @return The first day of the next period.
+     */
+    public abstract long next(final long start);
+
+}
@@ -0,0 +1,218 @@
+package com.pedrorenzo.booking.reports;
+
+import com.pedrorenzo.booking.entities.Booking;
+import com.pedrorenzo.booking.events.BookingChangedEvent;
+import com.pedrorenzo.booking.events.BookingsImportedEvent;
+import com.pedrorenzo.booking.repositories.BookingRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Stay statistics per week and month, kept up to date by every booking change of this instance, so a report costs
+ * one entry per period instead of a pass over the bookings. The bookings are read once, on the first report, through
+ * a cursor; the changes applied meanwhile are replayed afterwards. Each booking is remembered with what it counts for,
+ * so replaying a change the cursor already saw, or changing a booking, replaces exactly its share. Writes made by
+ * other instances are not seen.
+ */
+@Component
+public class StayStatistics {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(StayStatistics.class);
+
+    private final BookingRepository bookingRepository;
+    // Held while loading, so only one report loads the bookings.
+    private final Object loadLock = new Object();
+
+    // All the fields below are guarded by this.
+    private final Map<String, Stay> stays = new HashMap<>();
+    private final Map<StayPeriod, NavigableMap<Long, Bucket>> buckets = new EnumMap<>(StayPeriod.class);
+    private boolean loaded;
+    // The changes applied while the bookings are loaded, or null when they are not being loaded.
+    private List<BookingChangedEvent> changesDuringLoad;
+
+    @Autowired
+    public StayStatistics(final BookingRepository bookingRepository) {
+        this.bookingRepository = bookingRepository;
+        for (StayPeriod period : StayPeriod.values()) {
+            buckets.put(period, new TreeMap<>());
+        }
+    }
+
+    /**
+     * @param period The period.
+     * @param fromDay A day of the first period, as an epoch day.
+     * @param toDay A day of the last period, as an epoch day.
+     * @return The statistics of every period from the one of fromDay to the one of toDay, the empty ones included.
+     */
+    public List<PeriodStatistics> report(final StayPeriod period, final long fromDay, final long toDay) {
+        load();
+        final List<PeriodStatistics> report = new ArrayList<>();
+        synchronized (this) {
+            final NavigableMap<Long, Bucket> periodBuckets = buckets.get(period);
+            for (long start = period.start(fromDay); start <= toDay; start = period.next(start)) {
+                final Bucket bucket = periodBuckets.get(start);
+                report.add(bucket == null ? new PeriodStatistics(start, period.next(start) - 1, 0, 0, 0, 0, 0) :
+                        new PeriodStatistics(start, period.next(start) - 1, bucket.stays, bucket.stayDays,
+                                bucket.leadStays, bucket.leadDays, bucket.bookedDays));
+            }
+        }
+        return report;
+    }
+
+    @EventListener
+    public synchronized void onBookingChanged(final BookingChangedEvent event) {
+        if (changesDuringLoad != null) {
+            changesDuringLoad.add(event);
+            return;
+        }
+        // Not loaded yet: the load will read the change from the database.
+        if (loaded) {
+            apply(event);
+        }
+    }
+
+    @EventListener
+    public synchronized void onBookingsImported(final BookingsImportedEvent event) {
+        for (Booking booking : event.getBookings()) {
+            onBookingChanged(BookingChangedEvent.inserted(booking));
+        }
+    }
+
+    private void load() {
+        synchronized (loadLock) {
+            synchronized (this) {
+                if (loaded) {
+                    return;
+                }
+                changesDuringLoad = new ArrayList<>();
+            }
+            try {
+                final long start = System.nanoTime();
+                final Map<String, Stay> streamed = new HashMap<>();
+                bookingRepository.forEachForStatistics(booking -> streamed.put(booking.getId(), Stay.of(booking)));
+
+                synchronized (this) {
+                    for (Map.Entry<String, Stay> stay : streamed.entrySet()) {
+                        add(stay.getKey(), stay.getValue());
+                    }
+                    for (BookingChangedEvent change : changesDuringLoad) {
+                        apply(change);
+                    }
+                    loaded = true;
+                    LOGGER.info("Stay statistics loaded with {} bookings and {} changes in {} ms.", streamed.size(),
+                            changesDuringLoad.size(), (System.nanoTime() - start) / 1_000_000);
+                }
+            } finally {
+                synchronized (this) {
+                    changesDuringLoad = null;
+                }
+            }
+        }
+    }
+
+    private void apply(final BookingChangedEvent event) {
+        if (event.getPrevious() != null) {
+            remove(event.getPrevious().getId());
+        }
+        if (event.getCurrent() != null) {
+            add(event.getCurrent().getId(), Stay.of(event.getCurrent()));
+        }
+    }
+
+    private void add(final String id, final Stay stay) {
+        remove(id);
+        stays.put(id, stay);
+        count(stay, 1);
+    }
+
+    private void remove(final String id) {
+        final Stay stay = stays.remove(id);
+        if (stay != null) {
+            count(stay, -1);
+        }
+    }
+
+    private void count(final Stay stay, final int sign) {
+        for (StayPeriod period : StayPeriod.values()) {
+            final NavigableMap<Long, Bucket> periodBuckets = buckets.get(period);
+            final long arrivalStart = period.start(stay.fromDay);
+            final Bucket arrival = periodBuckets.computeIfAbsent(arrivalStart, start -> new Bucket());
+            arrival.stays += sign;
+            arrival.stayDays += sign * (stay.toDay - stay.fromDay + 1);
+            if (stay.leadDays != null) {
+                arrival.leadStays += sign;
+                arrival.leadDays += sign * stay.leadDays;
+            }
+            removeIfEmpty(periodBuckets, arrivalStart, arrival);
+
+            // The booked days, split between the periods the stay spans.
+            for (long day = stay.fromDay; day <= stay.toDay; ) {
+                final long start = period.start(day);
+                final long next = period.next(start);
+                final Bucket bucket = periodBuckets.computeIfAbsent(start, key -> new Bucket());
+                bucket.bookedDays += sign * (Math.min(next - 1, stay.toDay) - day + 1);
+                removeIfEmpty(periodBuckets, start, bucket);
+                day = next;
+            }
+        }
+    }
+
+    private static void removeIfEmpty(final NavigableMap<Long, Bucket> periodBuckets, final long start,
+                                      final Bucket bucket) {
+        if (bucket.stays == 0 && bucket.bookedDays == 0) {
+            periodBuckets.remove(start);
+        }
+    }
+
+    private static long epochDay(final Instant instant) {
+        return instant.atOffset(ZoneOffset.UTC).toLocalDate().toEpochDay();
+    }
+
+    /**
+     * What a booking counts for.
+     */
+    private static class Stay {
+
+        private final long fromDay;
+        private final long toDay;
+        // Null for the bookings without a created date.
+        private final Long leadDays;
+
+        private Stay(final long fromDay, final long toDay, final Long leadDays) {
+            this.fromDay = fromDay;
+            this.toDay = toDay;
+            this.leadDays = leadDays;
+        }
+
+        static Stay of(final Booking booking) {
+            final long fromDay = epochDay(booking.getFromDate());
+            return new Stay(fromDay, epochDay(booking.getToDate()),
+                    booking.getCreatedDate() != null ? fromDay - epochDay(booking.getCreatedDate()) : null);
+        }
+
+    }
+
+    private static class Bucket {
+
+        private long stays;
+        private long stayDays;
+        private long leadStays;
+        private long leadDays;
+        private long bookedDays;
+
+    }
+
+}
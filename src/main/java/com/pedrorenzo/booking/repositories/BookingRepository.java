@@ -4,7 +4,27 @@ import com.pedrorenzo.booking.entities.Booking;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+import java.util.Optional;
+
 @Repository
-public interface BookingRepository extends MongoRepository<Booking, String> {
+public interface BookingRepository extends MongoRepository<Booking, String>, BookingRepositoryCustom {
+
+    //
+    // Declared again so that the calls resolve to one method: the implementations in BookingRepositoryCustomImpl,
+    // through the codec, take the place of the base ones.
+    //
+
+    @Override
+    <S extends Booking> S insert(final S booking);
+
+    @Override
+    <S extends Booking> List<S> insert(final Iterable<S> bookings);
+
+    @Override
+    Optional<Booking> findById(final String id);
+
+    @Override
+    List<Booking> findAllById(final Iterable<String> ids);
 
 }
@@ -0,0 +1,163 @@
+package com.pedrorenzo.booking.repositories;
+
+import com.pedrorenzo.booking.dtos.BookingResponseDTO;
+import com.pedrorenzo.booking.entities.Booking;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Reads that need their own read preference and read concern, configured in {@code booking.mongodb.*}, the writes
+ * done in one round trip, and the base reads and writes of single bookings, done through the
+ * {@link com.pedrorenzo.booking.config.BookingCodec} instead of the mapping converter.
+ */
+public interface BookingRepositoryCustom {
+
+    /**
+     * Inserts a booking, generating its id.
+     *
+     * @param booking The booking to be inserted.
+     * @param <S>     The booking type.
+     * @return The inserted booking, with its id.
+     */
+    <S extends Booking> S insert(final S booking);
+
+    /**
+     * Inserts bookings in one round trip, generating their ids.
+     *
+     * @param bookings The bookings to be inserted.
+     * @param <S>      The booking type.
+     * @return The inserted bookings, with their ids.
+     */
+    <S extends Booking> List<S> insert(final Iterable<S> bookings);
+
+    /**
+     * Finds a booking.
+     *
+     * @param id The booking id.
+     * @return The booking found, if any.
+     */
+    Optional<Booking> findById(final String id);
+
+    /**
+     * Finds the bookings with the ids, in one query.
+     *
+     * @param ids The booking ids.
+     * @return The bookings found.
+     */
+    List<Booking> findAllById(final Iterable<String> ids);
+
+    /**
+     * Finds all bookings for the listing, which may be served by a secondary. Only the id and the dates are read.
+     *
+     * @return The bookings found, ready to be answered.
+     */
+    List<BookingResponseDTO> findAllForListing();
+
+    /**
+     * Streams all bookings through a cursor, with the consistency of {@link #findAllForListing()}, without holding
+     * them all in memory. The id, the dates and the created and updated dates are read.
+     *
+     * @param consumer Takes each booking, in the order of the cursor.
+     * @return How many bookings were streamed.
+     */
+    long forEachForExport(final Consumer<Booking> consumer);
+
+    /**
+     * Finds all bookings to validate a write against, which must see the latest committed writes. Only the id and the
+     * dates are read, the other fields are left empty.
+     *
+     * @return The bookings found.
+     */
+    List<Booking> findAllForValidation();
+
+    /**
+     * Streams all bookings through a cursor, with the consistency of {@link #findAllForValidation()}, without holding
+     * them all in memory. Only the id and the dates are read, the other fields are left empty.
+     *
+     * @param consumer Takes each booking, in the order of the cursor.
+     * @return How many bookings were streamed.
+     */
+    long forEachForValidation(final Consumer<Booking> consumer);
+
+    /**
+     * Streams all bookings through a cursor like {@link #forEachForValidation(Consumer)}, with their created date too.
+     *
+     * @param consumer Takes each booking, in the order of the cursor.
+     * @return How many bookings were streamed.
+     */
+    long forEachForStatistics(final Consumer<Booking> consumer);
+
+    /**
+     * Finds the bookings that may overlap the days, to validate a write against, with the consistency of
+     * {@link #findAllForValidation()}. Only the id and the dates are read, the other fields are left empty.
+     *
+     * @param fromDay The first epoch day.
+     * @param toDay   The last epoch day.
+     * @return The bookings overlapping the days, plus the ones not migrated to the epoch-day schema yet.
+     */
+    List<Booking> findOverlappingForValidation(final long fromDay, final long toDay);
+
+    /**
+     * Finds the bookings inserted or updated since a time, with the consistency of {@link #findAllForValidation()}.
+     * Only the id and the dates are read, the other fields are left empty.
+     *
+     * @param since The earliest {@code updatedDate}, inclusive.
+     * @return The bookings changed since then. The deleted ones leave no trace.
+     */
+    List<Booking> findChangedSinceForValidation(final Instant since);
+
+    /**
+     * Creates the index of the overlap queries, if it does not exist yet.
+     */
+    void createDayIndex();
+
+    /**
+     * Creates the index of {@link #findChangedSinceForValidation(Instant)}, if it does not exist yet.
+     */
+    void createUpdatedDateIndex();
+
+    /**
+     * Writes the epoch days and the schema version of the next batch of documents of an older schema version.
+     *
+     * @param afterId   The last id of the previous batch, or <b>null</b> for the first one.
+     * @param batchSize How many documents to migrate at most.
+     * @return The last id of the batch, or <b>null</b> if there were no documents left to migrate.
+     */
+    String backfillDays(final String afterId, final int batchSize);
+
+    /**
+     * Deletes a booking, in one round trip.
+     *
+     * @param id The booking id.
+     * @return The deleted booking, or <b>null</b> if there was none with the id.
+     */
+    Booking findAndRemoveById(final String id);
+
+    /**
+     * Deletes bookings, in one round trip.
+     *
+     * @param ids The booking ids.
+     * @return How many bookings were deleted.
+     */
+    long deleteAllById(final List<String> ids);
+
+    /**
+     * Writes the dates of an existing booking, in one round trip.
+     *
+     * @param booking The booking id with its new dates.
+     * @return The booking as it was before the change, or <b>null</b> if there was none with the id.
+     */
+    Booking findAndUpdateDates(final Booking booking);
+
+    /**
+     * Writes the dates of existing bookings, in one round trip.
+     *
+     * @param bookings The bookings with their new dates.
+     * @return How many bookings were found and modified.
+     */
+    int updateAllDates(final List<Booking> bookings);
+
+}
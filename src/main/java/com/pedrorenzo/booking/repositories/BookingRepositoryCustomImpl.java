@@ -0,0 +1,316 @@
+package com.pedrorenzo.booking.repositories;
+
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoCursor;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.Indexes;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.Sorts;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.Updates;
+import com.pedrorenzo.booking.config.BookingCodec;
+import com.pedrorenzo.booking.config.BookingMongoProperties;
+import com.pedrorenzo.booking.dtos.BookingResponseDTO;
+import com.pedrorenzo.booking.entities.Booking;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import static com.mongodb.client.model.Filters.and;
+import static com.mongodb.client.model.Filters.eq;
+import static com.mongodb.client.model.Filters.gt;
+import static com.mongodb.client.model.Filters.gte;
+import static com.mongodb.client.model.Filters.in;
+import static com.mongodb.client.model.Filters.lte;
+import static com.mongodb.client.model.Filters.ne;
+import static com.mongodb.client.model.Filters.or;
+import static com.pedrorenzo.booking.config.BookingCodec.CREATED_DATE;
+import static com.pedrorenzo.booking.config.BookingCodec.CURRENT_SCHEMA_VERSION;
+import static com.pedrorenzo.booking.config.BookingCodec.FROM_DATE;
+import static com.pedrorenzo.booking.config.BookingCodec.FROM_DAY;
+import static com.pedrorenzo.booking.config.BookingCodec.ID;
+import static com.pedrorenzo.booking.config.BookingCodec.SCHEMA_VERSION;
+import static com.pedrorenzo.booking.config.BookingCodec.TO_DATE;
+import static com.pedrorenzo.booking.config.BookingCodec.TO_DAY;
+import static com.pedrorenzo.booking.config.BookingCodec.UPDATED_DATE;
+import static com.pedrorenzo.booking.config.BookingCodec.epochDay;
+import static com.pedrorenzo.booking.config.BookingCodec.toStoredId;
+import static com.pedrorenzo.booking.utils.ConverterUtils.covertEpochMilli;
+
+public class BookingRepositoryCustomImpl implements BookingRepositoryCustom {
+
+    //
+    // The reads of all bookings fetch only the id, the dates and the days, and decode them by hand: no created and
+    // updated dates nor type hint on the wire, and no mapping through the converter.
+    //
+    private static final Bson DATES_PROJECTION = Projections.include(FROM_DATE, TO_DATE, FROM_DAY, TO_DAY);
+    // The statistics need the lead time too, from the created date.
+    private static final Bson STATISTICS_PROJECTION = Projections.include(FROM_DATE, TO_DATE, CREATED_DATE);
+    // The exports keep both, to be imported as they were.
+    private static final Bson EXPORT_PROJECTION = Projections.include(FROM_DATE, TO_DATE, CREATED_DATE, UPDATED_DATE);
+
+    //
+    // The overlap queries bound the last day first: most bookings are in the past and end before the days asked for,
+    // while the few ahead of them are cut by the first day.
+    //
+    private static final Bson DAY_INDEX = Indexes.ascending(TO_DAY, FROM_DAY);
+    private static final Bson UPDATED_DATE_INDEX = Indexes.ascending(UPDATED_DATE);
+
+    private static final Bson OUTDATED_SCHEMA = ne(SCHEMA_VERSION, CURRENT_SCHEMA_VERSION);
+
+    private final MongoTemplate mongoTemplate;
+    private final BookingMongoProperties mongoProperties;
+
+    @Autowired
+    public BookingRepositoryCustomImpl(final MongoTemplate mongoTemplate,
+                                       final BookingMongoProperties mongoProperties) {
+        this.mongoTemplate = mongoTemplate;
+        this.mongoProperties = mongoProperties;
+    }
+
+    @Override
+    public <S extends Booking> S insert(final S booking) {
+        return execute(bookings -> {
+            // The codec generates the id, on the booking itself.
+            bookings.insertOne(booking);
+            return booking;
+        });
+    }
+
+    @Override
+    public <S extends Booking> List<S> insert(final Iterable<S> bookings) {
+        final List<S> inserts = new ArrayList<>();
+        bookings.forEach(inserts::add);
+        if (inserts.isEmpty()) {
+            return inserts;
+        }
+        return execute(collection -> {
+            collection.insertMany(inserts);
+            return inserts;
+        });
+    }
+
+    @Override
+    public Optional<Booking> findById(final String id) {
+        return Optional.ofNullable(execute(bookings -> bookings.find(eq(ID, toStoredId(id))).first()));
+    }
+
+    @Override
+    public List<Booking> findAllById(final Iterable<String> ids) {
+        final List<Object> storedIds = new ArrayList<>();
+        for (String id : ids) {
+            storedIds.add(toStoredId(id));
+        }
+        return execute(bookings -> bookings.find(in(ID, storedIds)).into(new ArrayList<>()));
+    }
+
+    @Override
+    public List<BookingResponseDTO> findAllForListing() {
+        return findDates(mongoProperties.getListingReads(), new Document(), document -> new BookingResponseDTO(
+                id(document), day(document, FROM_DAY, FROM_DATE), day(document, TO_DAY, TO_DATE)));
+    }
+
+    @Override
+    public long forEachForExport(final Consumer<Booking> consumer) {
+        return forEachDocument(mongoProperties.getListingReads(), new Document(), EXPORT_PROJECTION, document -> {
+            final Booking booking = datesBooking(document);
+            booking.setCreatedDate(instant(document, CREATED_DATE));
+            booking.setUpdatedDate(instant(document, UPDATED_DATE));
+            consumer.accept(booking);
+        });
+    }
+
+    @Override
+    public List<Booking> findAllForValidation() {
+        return findDates(mongoProperties.getValidationReads(), new Document(),
+                BookingRepositoryCustomImpl::datesBooking);
+    }
+
+    @Override
+    public long forEachForValidation(final Consumer<Booking> consumer) {
+        return forEachDocument(mongoProperties.getValidationReads(), new Document(), DATES_PROJECTION,
+                document -> consumer.accept(datesBooking(document)));
+    }
+
+    @Override
+    public long forEachForStatistics(final Consumer<Booking> consumer) {
+        return forEachDocument(mongoProperties.getValidationReads(), new Document(), STATISTICS_PROJECTION,
+                document -> {
+                    final Booking booking = datesBooking(document);
+                    booking.setCreatedDate(instant(document, CREATED_DATE));
+                    consumer.accept(booking);
+                });
+    }
+
+    @Override
+    public List<Booking> findOverlappingForValidation(final long fromDay, final long toDay) {
+        // The documents not backfilled yet have no days: they are read too, and checked on their dates.
+        final Bson overlapping = or(
+                and(gte(TO_DAY, Math.toIntExact(fromDay)), lte(FROM_DAY, Math.toIntExact(toDay))),
+                eq(TO_DAY, null));
+        return findDates(mongoProperties.getValidationReads(), overlapping,
+                BookingRepositoryCustomImpl::datesBooking);
+    }
+
+    @Override
+    public List<Booking> findChangedSinceForValidation(final Instant since) {
+        return findDates(mongoProperties.getValidationReads(), gte(UPDATED_DATE, Date.from(since)),
+                BookingRepositoryCustomImpl::datesBooking);
+    }
+
+    @Override
+    public void createDayIndex() {
+        mongoTemplate.execute(Booking.class, collection -> collection.createIndex(DAY_INDEX));
+    }
+
+    @Override
+    public void createUpdatedDateIndex() {
+        mongoTemplate.execute(Booking.class, collection -> collection.createIndex(UPDATED_DATE_INDEX));
+    }
+
+    @Override
+    public String backfillDays(final String afterId, final int batchSize) {
+        final Bson batch = afterId == null ? OUTDATED_SCHEMA : and(gt(ID, toStoredId(afterId)), OUTDATED_SCHEMA);
+        return mongoTemplate.execute(Booking.class, collection -> {
+            final List<UpdateOneModel<Document>> updates = new ArrayList<>(batchSize);
+            Object lastId = null;
+            for (Document document : collection.find(batch).projection(DATES_PROJECTION).sort(Sorts.ascending(ID))
+                    .limit(batchSize)) {
+                lastId = document.get(ID);
+                // A write since the read already stored the days of its own dates: it is not overwritten.
+                updates.add(new UpdateOneModel<>(and(eq(ID, lastId), OUTDATED_SCHEMA), Updates.combine(
+                        Updates.set(FROM_DAY, epochDay(document.getDate(FROM_DATE).toInstant())),
+                        Updates.set(TO_DAY, epochDay(document.getDate(TO_DATE).toInstant())),
+                        Updates.set(SCHEMA_VERSION, CURRENT_SCHEMA_VERSION))));
+            }
+            if (updates.isEmpty()) {
+                return null;
+            }
+            collection.bulkWrite(updates, new BulkWriteOptions().ordered(false));
+            return id(lastId);
+        });
+    }
+
+    @Override
+    public Booking findAndRemoveById(final String id) {
+        return execute(bookings -> bookings.findOneAndDelete(eq(ID, toStoredId(id))));
+    }
+
+    @Override
+    public long deleteAllById(final List<String> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        final List<Object> storedIds = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            storedIds.add(toStoredId(id));
+        }
+        return execute(bookings -> bookings.deleteMany(in(ID, storedIds)).getDeletedCount());
+    }
+
+    @Override
+    public Booking findAndUpdateDates(final Booking booking) {
+        // findOneAndUpdate answers the document as it was before the update by default.
+        return execute(bookings -> bookings.findOneAndUpdate(eq(ID, toStoredId(booking.getId())),
+                datesUpdate(booking)));
+    }
+
+    @Override
+    public int updateAllDates(final List<Booking> bookings) {
+        if (bookings.isEmpty()) {
+            return 0;
+        }
+        final List<UpdateOneModel<Booking>> updates = new ArrayList<>(bookings.size());
+        for (Booking booking : bookings) {
+            updates.add(new UpdateOneModel<>(eq(ID, toStoredId(booking.getId())), datesUpdate(booking)));
+        }
+        // Ordered, so that the last of two updates of the same booking wins, as it did in the validation.
+        return execute(collection -> collection.bulkWrite(updates, new BulkWriteOptions().ordered(true))
+                .getMatchedCount());
+    }
+
+    /**
+     * Runs a callback on the bookings collection, decoded by the {@link BookingCodec} registered with the client, with
+     * the exceptions translated as the template does.
+     */
+    private <T> T execute(final Function<MongoCollection<Booking>, T> callback) {
+        return mongoTemplate.execute(Booking.class, collection ->
+                callback.apply(collection.withDocumentClass(Booking.class)));
+    }
+
+    private <T> List<T> findDates(final BookingMongoProperties.Reads reads, final Bson filter,
+                                  final Function<Document, T> decoder) {
+        final List<T> bookings = new ArrayList<>();
+        forEachDocument(reads, filter, DATES_PROJECTION, document -> bookings.add(decoder.apply(document)));
+        return bookings;
+    }
+
+    private long forEachDocument(final BookingMongoProperties.Reads reads, final Bson filter, final Bson projection,
+                                 final Consumer<Document> consumer) {
+        return mongoTemplate.execute(Booking.class, collection -> {
+            final MongoCollection<Document> readCollection = collection
+                    .withReadPreference(reads.toReadPreference())
+                    .withReadConcern(reads.toReadConcern());
+
+            // Closes the cursor on the server too when the consumer fails, e.g. when an export client goes away.
+            long count = 0;
+            try (MongoCursor<Document> cursor = readCollection.find(filter).projection(projection).iterator()) {
+                while (cursor.hasNext()) {
+                    consumer.accept(cursor.next());
+                    count++;
+                }
+            }
+            return count;
+        });
+    }
+
+    private static Booking datesBooking(final Document document) {
+        final Booking booking = new Booking(document.getDate(FROM_DATE).toInstant(),
+                document.getDate(TO_DATE).toInstant(), null, null);
+        booking.setId(id(document));
+        return booking;
+    }
+
+    /**
+     * Reads a day from its epoch-day field, or from its date on documents of an older schema version.
+     */
+    private static LocalDate day(final Document document, final String dayField, final String dateField) {
+        final Integer day = document.getInteger(dayField);
+        return day != null ? LocalDate.ofEpochDay(day) : covertEpochMilli(document.getDate(dateField).getTime());
+    }
+
+    private static Instant instant(final Document document, final String dateField) {
+        final Date date = document.getDate(dateField);
+        return date != null ? date.toInstant() : null;
+    }
+
+    private static String id(final Document document) {
+        return id(document.get(ID));
+    }
+
+    private static String id(final Object id) {
+        return id instanceof ObjectId ? ((ObjectId) id).toHexString() : String.valueOf(id);
+    }
+
+    private static Bson datesUpdate(final Booking booking) {
+        return Updates.combine(
+                Updates.set(FROM_DATE, Date.from(booking.getFromDate())),
+                Updates.set(TO_DATE, Date.from(booking.getToDate())),
+                Updates.set(UPDATED_DATE, Date.from(booking.getUpdatedDate())),
+                Updates.set(FROM_DAY, epochDay(booking.getFromDate())),
+                Updates.set(TO_DAY, epochDay(booking.getToDate())),
+                Updates.set(SCHEMA_VERSION, CURRENT_SCHEMA_VERSION));
+    }
+
+}
@@ -0,0 +1,93 @@
+package com.pedrorenzo.booking.repositories;
+
+import com.pedrorenzo.booking.config.BookingMongoProperties;
+import com.pedrorenzo.booking.config.SubmissionProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Brings the bookings stored before the epoch-day schema up to date, online: once the application is ready, it creates
+ * the indexes (days, updated date, waiting entries, expiry of the submission outcomes) and backfills the days in small
+ * batches, paused between each other, while the application keeps serving. It is safe to interrupt, since every batch
+ * only touches documents still of an older schema version, and to run on several instances at once.
+ */
+@Component
+@ConditionalOnProperty(name = "booking.mongodb.migration.enabled", havingValue = "true", matchIfMissing = true)
+public class BookingSchemaMigration {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BookingSchemaMigration.class);
+
+    private final BookingRepository bookingRepository;
+    private final WaitlistRepository waitlistRepository;
+    private final SubmissionOutcomeRepository submissionOutcomeRepository;
+    private final BookingMongoProperties.Migration properties;
+    private final SubmissionProperties submissionProperties;
+
+    private final ExecutorService migrator = Executors.newSingleThreadExecutor(runnable -> {
+        final Thread thread = new Thread(runnable, "booking-schema-migration");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Autowired
+    public BookingSchemaMigration(final BookingRepository bookingRepository,
+                                  final WaitlistRepository waitlistRepository,
+                                  final SubmissionOutcomeRepository submissionOutcomeRepository,
+                                  final BookingMongoProperties mongoProperties,
+                                  final SubmissionProperties submissionProperties) {
+        this.bookingRepository = bookingRepository;
+        this.waitlistRepository = waitlistRepository;
+        this.submissionOutcomeRepository = submissionOutcomeRepository;
+        this.properties = mongoProperties.getMigration();
+        this.submissionProperties = submissionProperties;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        migrator.execute(this::migrate);
+    }
+
+    @PreDestroy
+    public void stop() {
+        migrator.shutdownNow();
+    }
+
+    /**
+     * Creates the indexes, then backfills the days batch by batch.
+     *
+     * @return How many batches were written.
+     */
+    int migrate() {
+        int batches = 0;
+        try {
+            bookingRepository.createDayIndex();
+            bookingRepository.createUpdatedDateIndex();
+            waitlistRepository.createWaitingIndex();
+            submissionOutcomeRepository.createExpiryIndex(submissionProperties.getRetention());
+            String lastId = bookingRepository.backfillDays(null, properties.getBatchSize());
+            while (lastId != null) {
+                batches++;
+                Thread.sleep(properties.getPause().toMillis());
+                lastId = bookingRepository.backfillDays(lastId, properties.getBatchSize());
+            }
+            LOGGER.info("Booking schema migration done after {} batches.", batches);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            LOGGER.info("Booking schema migration interrupted after {} batches.", batches);
+        } catch (RuntimeException e) {
+            // The next start resumes it; meanwhile, the overlap queries also read the documents not migrated yet.
+            LOGGER.error("Booking schema migration failed after {} batches.", batches, e);
+        }
+        return batches;
+    }
+
+}
@@ -0,0 +1,11 @@
+package com.pedrorenzo.booking.repositories;
+
+import com.pedrorenzo.booking.entities.SubmissionOutcome;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface SubmissionOutcomeRepository extends MongoRepository<SubmissionOutcome, String>,
+        SubmissionOutcomeRepositoryCustom {
+
+}
@@ -0,0 +1,15 @@
+package com.pedrorenzo.booking.repositories;
+
+import java.time.Duration;
+
+public interface SubmissionOutcomeRepositoryCustom {
+
+    /**
+     * Creates the index that removes the outcomes once the retention has passed since they were completed, if it does
+     * not exist yet.
+     *
+     * @param retention How long an outcome is kept.
+     */
+    void createExpiryIndex(final Duration retention);
+
+}
@@ -0,0 +1,48 @@
+package com.pedrorenzo.booking.repositories;
+
+import com.mongodb.MongoCommandException;
+import com.mongodb.client.model.IndexOptions;
+import com.mongodb.client.model.Indexes;
+import com.pedrorenzo.booking.entities.SubmissionOutcome;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+public class SubmissionOutcomeRepositoryCustomImpl implements SubmissionOutcomeRepositoryCustom {
+
+    private static final String COMPLETED_DATE = "completedDate";
+    private static final Bson EXPIRY_INDEX = Indexes.ascending(COMPLETED_DATE);
+    private static final int INDEX_OPTIONS_CONFLICT = 85;
+
+    private final MongoTemplate mongoTemplate;
+
+    @Autowired
+    public SubmissionOutcomeRepositoryCustomImpl(final MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public void createExpiryIndex(final Duration retention) {
+        // The server removes the expired outcomes in the background, about once a minute.
+        mongoTemplate.execute(SubmissionOutcome.class, collection -> {
+            try {
+                return collection.createIndex(EXPIRY_INDEX,
+                        new IndexOptions().expireAfter(retention.getSeconds(), TimeUnit.SECONDS));
+            } catch (MongoCommandException e) {
+                if (e.getErrorCode() != INDEX_OPTIONS_CONFLICT) {
+                    throw e;
+                }
+                // Created with another retention: changed in place, instead of dropped and built again.
+                mongoTemplate.executeCommand(new Document("collMod", collection.getNamespace().getCollectionName())
+                        .append("index", new Document("keyPattern", new Document(COMPLETED_DATE, 1))
+                                .append("expireAfterSeconds", retention.getSeconds())));
+                return null;
+            }
+        });
+    }
+
+}
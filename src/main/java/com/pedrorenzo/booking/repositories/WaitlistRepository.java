@@ -0,0 +1,29 @@
+package com.pedrorenzo.booking.repositories;
+
+import com.pedrorenzo.booking.entities.WaitlistEntry;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface WaitlistRepository extends MongoRepository<WaitlistEntry, String>, WaitlistRepositoryCustom {
+
+    /**
+     * Finds the waiting entries with at least one day between the given ones, oldest first. Read from the database on
+     * every call, so the entries registered through any instance are found. The entries can only start a stay length
+     * before the first day, so their first day is bounded on both sides and the index scan stays within a few days.
+     *
+     * @param earliestFromDate The start of the earliest first day of an overlapping entry.
+     * @param fromDate The start of the first day.
+     * @param toDate The start of the last day.
+     * @return The entries found.
+     */
+    @Query(value = "{'status': 'WAITING', 'fromDate': {$gte: ?0, $lte: ?2}, 'toDate': {$gte: ?1}}",
+            sort = "{'createdDate': 1}")
+    List<WaitlistEntry> findWaitingOverlapping(final Instant earliestFromDate, final Instant fromDate,
+                                               final Instant toDate);
+
+}
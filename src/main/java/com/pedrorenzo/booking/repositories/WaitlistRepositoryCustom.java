@@ -0,0 +1,25 @@
+package com.pedrorenzo.booking.repositories;
+
+import com.pedrorenzo.booking.entities.WaitlistEntry;
+
+public interface WaitlistRepositoryCustom {
+
+    /**
+     * Creates the index of {@link WaitlistRepository#findWaitingOverlapping}, if it does not exist yet.
+     */
+    void createWaitingIndex();
+
+    /**
+     * Moves an entry to a status only if it is still in the expected one, in one round trip, so of two instances
+     * changing the same entry only one wins and an entry deleted meanwhile is not written again.
+     *
+     * @param id        The entry id.
+     * @param expected  The status the entry must still be in.
+     * @param status    The new status.
+     * @param bookingId The booking the entry was promoted to, or <b>null</b>.
+     * @return The entry after the change, or <b>null</b> if there was none with the id in the expected status.
+     */
+    WaitlistEntry findAndUpdateStatus(final String id, final WaitlistEntry.Status expected,
+                                      final WaitlistEntry.Status status, final String bookingId);
+
+}
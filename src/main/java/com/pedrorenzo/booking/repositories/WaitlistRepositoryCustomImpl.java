@@ -0,0 +1,43 @@
+package com.pedrorenzo.booking.repositories;
+
+import com.mongodb.client.model.Indexes;
+import com.pedrorenzo.booking.entities.WaitlistEntry;
+import org.bson.conversions.Bson;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Instant;
+
+public class WaitlistRepositoryCustomImpl implements WaitlistRepositoryCustom {
+
+    //
+    // The status is matched by equality, then the first day bounds the range scan on both sides: an entry overlapping
+    // the freed days starts at most a stay length before them, while the last day is only bounded below.
+    //
+    private static final Bson WAITING_INDEX = Indexes.ascending("status", "fromDate", "toDate");
+
+    private final MongoTemplate mongoTemplate;
+
+    @Autowired
+    public WaitlistRepositoryCustomImpl(final MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public void createWaitingIndex() {
+        mongoTemplate.execute(WaitlistEntry.class, collection -> collection.createIndex(WAITING_INDEX));
+    }
+
+    @Override
+    public WaitlistEntry findAndUpdateStatus(final String id, final WaitlistEntry.Status expected,
+                                             final WaitlistEntry.Status status, final String bookingId) {
+        return mongoTemplate.findAndModify(new Query(Criteria.where("id").is(id).and("status").is(expected)),
+                new Update().set("status", status).set("bookingId", bookingId).set("updatedDate", Instant.now()),
+                FindAndModifyOptions.options().returnNew(true), WaitlistEntry.class);
+    }
+
+}
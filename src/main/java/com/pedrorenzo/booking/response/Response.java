@@ -1,5 +1,8 @@
 package com.pedrorenzo.booking.response;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.pedrorenzo.booking.utils.ErrorCode;
+
 import java.util.ArrayList;
 import java.util.List;
 
@@ -7,6 +10,9 @@ public class Response<T> {
 
     private T data;
     private List<String> errors;
+    // The codes of the errors, in the same order, when they have one.
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private List<ErrorCode> codes;
 
     public Response() {
     }
@@ -15,6 +21,11 @@ public class Response<T> {
         this.errors = errors;
     }
 
+    public Response(final List<String> errors, final List<ErrorCode> codes) {
+        this.errors = errors;
+        this.codes = codes;
+    }
+
     public T getData() {
         return data;
     }
@@ -34,4 +45,12 @@ public class Response<T> {
         this.errors = errors;
     }
 
-}
\ No newline at end of file
+    public List<ErrorCode> getCodes() {
+        return codes;
+    }
+
+    public void setCodes(List<ErrorCode> codes) {
+        this.codes = codes;
+    }
+
+}
@@ -0,0 +1,18 @@
+package com.pedrorenzo.booking.rules;
+
+import java.time.LocalDate;
+
+/**
+ * Tells whether the room is free on some days.
+ */
+@FunctionalInterface
+public interface AvailabilityLookup {
+
+    /**
+     * @param fromDate The first day.
+     * @param toDate The last day, inclusive.
+     * @return <b>true</b> if no booking takes any of the days, <b>false</b> otherwise.
+     */
+    boolean isAvailable(final LocalDate fromDate, final LocalDate toDate);
+
+}
@@ -0,0 +1,37 @@
+package com.pedrorenzo.booking.rules;
+
+import com.pedrorenzo.booking.utils.ErrorCode;
+
+/**
+ * A business rule a booking request must satisfy. Any bean implementing it is added to the
+ * {@link BookingRuleEngine} chain next to the built-in rules.
+ */
+public interface BookingRule {
+
+    /**
+     * @return The name of the rule, used to disable it and to tag its metrics.
+     */
+    String getName();
+
+    /**
+     * @return The relative cost of the rule. Cheaper rules are evaluated first, so a request fails as early as
+     * possible; rules of the same cost keep their order.
+     */
+    int getCost();
+
+    /**
+     * @return The code reported with the violations of the rule.
+     */
+    default ErrorCode getErrorCode() {
+        return ErrorCode.BOOKING_RULE_VIOLATED;
+    }
+
+    /**
+     * Checks the request.
+     *
+     * @param context The request and what the rule may need to check it.
+     * @return The violation message, or <b>null</b> if the request satisfies the rule.
+     */
+    String check(final BookingRuleContext context);
+
+}
@@ -0,0 +1,35 @@
+package com.pedrorenzo.booking.rules;
+
+import com.pedrorenzo.booking.dtos.BookingRequestDTO;
+
+import java.time.LocalDate;
+
+/**
+ * What the rules see of one validation: the request, the current day (UTC) and the availability of the room.
+ */
+public class BookingRuleContext {
+
+    private final BookingRequestDTO request;
+    private final LocalDate today;
+    private final AvailabilityLookup availabilityLookup;
+
+    public BookingRuleContext(final BookingRequestDTO request, final LocalDate today,
+                              final AvailabilityLookup availabilityLookup) {
+        this.request = request;
+        this.today = today;
+        this.availabilityLookup = availabilityLookup;
+    }
+
+    public BookingRequestDTO getRequest() {
+        return request;
+    }
+
+    public LocalDate getToday() {
+        return today;
+    }
+
+    public AvailabilityLookup getAvailabilityLookup() {
+        return availabilityLookup;
+    }
+
+}
@@ -0,0 +1,200 @@
+package com.pedrorenzo.booking.rules;
+
+import com.pedrorenzo.booking.dtos.BookingRequestDTO;
+import com.pedrorenzo.booking.exceptions.InvalidBookingException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Validates the booking requests against the built-in rules and the {@link BookingRule} beans. The enabled rules are
+ * compiled into an array ordered by cost, each with its meters, and swapped at once when the settings change, so a
+ * validation never sees half of a change and never looks anything up.
+ */
+public class BookingRuleEngine {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BookingRuleEngine.class);
+
+    private final List<BookingRule> extraRules;
+    private final MeterRegistry meterRegistry;
+    private volatile Chain chain;
+
+    public BookingRuleEngine(final BookingRuleSettings settings, final List<BookingRule> extraRules,
+                             final MeterRegistry meterRegistry) {
+        this.extraRules = new ArrayList<>(extraRules);
+        this.meterRegistry = meterRegistry;
+        this.chain = compile(settings);
+    }
+
+    /**
+     * Validates a booking request, stopping at the first rule it violates.
+     *
+     * @param bookingRequestDTO The request to be validated.
+     * @param availabilityLookup The availability of the room, for the rules that need it.
+     */
+    public void validate(final BookingRequestDTO bookingRequestDTO, final AvailabilityLookup availabilityLookup) {
+        final BookingRuleContext context = new BookingRuleContext(bookingRequestDTO,
+                OffsetDateTime.now(ZoneOffset.UTC).toLocalDate(), availabilityLookup);
+        for (CompiledRule rule : chain.rules) {
+            final String violation = rule.check(context);
+            if (violation != null) {
+                throw rule.rejection(violation);
+            }
+        }
+    }
+
+    /**
+     * Checks a booking request against all the rules without counting it in their meters, for the searches, which
+     * check many candidate stays that are never requested.
+     *
+     * @param bookingRequestDTO The candidate request.
+     * @param availabilityLookup The availability of the room, for the rules that need it.
+     * @return <b>true</b> if no rule rejects the request, <b>false</b> otherwise.
+     */
+    public boolean isAccepted(final BookingRequestDTO bookingRequestDTO, final AvailabilityLookup availabilityLookup) {
+        final BookingRuleContext context = new BookingRuleContext(bookingRequestDTO,
+                OffsetDateTime.now(ZoneOffset.UTC).toLocalDate(), availabilityLookup);
+        for (CompiledRule rule : chain.rules) {
+            if (rule.rule.check(context) != null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Checks a booking request against all the rules, without stopping at the first violation and without throwing,
+     * for the dry runs. Not counted in the rule meters either.
+     *
+     * @param bookingRequestDTO The request to be checked.
+     * @param availabilityLookup The availability of the room, for the rules that need it.
+     * @return The violations, in evaluation order, empty if the request would be accepted.
+     */
+    public List<BookingRuleViolation> check(final BookingRequestDTO bookingRequestDTO,
+                                            final AvailabilityLookup availabilityLookup) {
+        final BookingRuleContext context = new BookingRuleContext(bookingRequestDTO,
+                OffsetDateTime.now(ZoneOffset.UTC).toLocalDate(), availabilityLookup);
+        List<BookingRuleViolation> violations = Collections.emptyList();
+        for (CompiledRule rule : chain.rules) {
+            final String violation = rule.rule.check(context);
+            if (violation != null) {
+                if (violations.isEmpty()) {
+                    violations = new ArrayList<>(2);
+                }
+                violations.add(new BookingRuleViolation(rule.rule.getName(), rule.rule.getErrorCode(), violation));
+            }
+        }
+        return violations;
+    }
+
+    /**
+     * Replaces the settings. The validations in progress finish with the previous ones.
+     *
+     * @param settings The new settings.
+     * @throws IllegalArgumentException If they disable a rule that does not exist, keeping the current ones.
+     */
+    public void update(final BookingRuleSettings settings) {
+        chain = compile(settings);
+        LOGGER.info("Booking rules updated: {}.", getRuleNames());
+    }
+
+    public BookingRuleSettings getSettings() {
+        return chain.settings;
+    }
+
+    /**
+     * @return The names of the enabled rules, in evaluation order.
+     */
+    public List<String> getRuleNames() {
+        final List<String> names = new ArrayList<>(chain.rules.length);
+        for (CompiledRule rule : chain.rules) {
+            names.add(rule.rule.getName());
+        }
+        return names;
+    }
+
+    private Chain compile(final BookingRuleSettings settings) {
+        final List<BookingRule> rules = new ArrayList<>(BuiltInRules.create(settings));
+        rules.addAll(extraRules);
+        final Set<String> unknownRules = new LinkedHashSet<>(settings.getDisabledRules());
+        rules.forEach(rule -> unknownRules.remove(rule.getName()));
+        if (!unknownRules.isEmpty()) {
+            throw new IllegalArgumentException("Unknown booking rules: " + String.join(", ", unknownRules) + '.');
+        }
+        final CompiledRule[] compiledRules = rules.stream()
+                .filter(rule -> !settings.getDisabledRules().contains(rule.getName()))
+                .sorted(Comparator.comparingInt(BookingRule::getCost))
+                .map(rule -> new CompiledRule(rule, meterRegistry))
+                .toArray(CompiledRule[]::new);
+        return new Chain(settings, compiledRules);
+    }
+
+    private static class Chain {
+
+        private final BookingRuleSettings settings;
+        private final CompiledRule[] rules;
+
+        Chain(final BookingRuleSettings settings, final CompiledRule[] rules) {
+            this.settings = settings;
+            this.rules = rules;
+        }
+
+    }
+
+    /**
+     * A rule with its meters: how long its checks take and how many requests it rejects.
+     */
+    private static class CompiledRule {
+
+        private final BookingRule rule;
+        private final Timer evaluations;
+        private final Counter rejections;
+        // The last exception thrown, reused while the rule keeps giving the same message, which the built-in rules do.
+        private volatile InvalidBookingException rejection;
+
+        CompiledRule(final BookingRule rule, final MeterRegistry meterRegistry) {
+            this.rule = rule;
+            this.evaluations = Timer.builder("booking.rules.evaluations")
+                    .description("Evaluations of the booking rules")
+                    .tag("rule", rule.getName())
+                    .register(meterRegistry);
+            this.rejections = Counter.builder("booking.rules.rejections")
+                    .description("Booking requests rejected by each rule")
+                    .tag("rule", rule.getName())
+                    .register(meterRegistry);
+        }
+
+        String check(final BookingRuleContext context) {
+            final long start = System.nanoTime();
+            final String violation = rule.check(context);
+            evaluations.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            if (violation != null) {
+                rejections.increment();
+            }
+            return violation;
+        }
+
+        InvalidBookingException rejection(final String violation) {
+            InvalidBookingException exception = rejection;
+            if (exception == null || !exception.getMessage().equals(violation)) {
+                exception = new InvalidBookingException(violation, rule.getErrorCode());
+                rejection = exception;
+            }
+            return exception;
+        }
+
+    }
+
+}
@@ -0,0 +1,48 @@
+package com.pedrorenzo.booking.rules;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * The limits of the built-in rules and the rules left out of the chain. Immutable: a change creates new settings and
+ * a new chain.
+ */
+public class BookingRuleSettings {
+
+    private final int maximumStayDays;
+    private final int maximumDaysInAdvance;
+    private final Set<String> disabledRules;
+
+    public BookingRuleSettings(final int maximumStayDays, final int maximumDaysInAdvance,
+                               final Set<String> disabledRules) {
+        if (maximumStayDays < 1 || maximumDaysInAdvance < 1) {
+            throw new IllegalArgumentException("The maximum stay and days in advance must be positive.");
+        }
+        this.maximumStayDays = maximumStayDays;
+        this.maximumDaysInAdvance = maximumDaysInAdvance;
+        this.disabledRules = Collections.unmodifiableSet(new LinkedHashSet<>(disabledRules));
+    }
+
+    /**
+     * @return The longest stay, in days, both the first and the last included.
+     */
+    public int getMaximumStayDays() {
+        return maximumStayDays;
+    }
+
+    /**
+     * @return How many days ahead of today a stay can start at most.
+     */
+    public int getMaximumDaysInAdvance() {
+        return maximumDaysInAdvance;
+    }
+
+    /**
+     * @return The names of the rules that are not evaluated.
+     */
+    public Set<String> getDisabledRules() {
+        return disabledRules;
+    }
+
+}
@@ -0,0 +1,32 @@
+package com.pedrorenzo.booking.rules;
+
+import com.pedrorenzo.booking.utils.ErrorCode;
+
+/**
+ * A rule a booking request does not satisfy.
+ */
+public class BookingRuleViolation {
+
+    private final String rule;
+    private final ErrorCode errorCode;
+    private final String message;
+
+    public BookingRuleViolation(final String rule, final ErrorCode errorCode, final String message) {
+        this.rule = rule;
+        this.errorCode = errorCode;
+        this.message = message;
+    }
+
+    public String getRule() {
+        return rule;
+    }
+
+    public ErrorCode getErrorCode() {
+        return errorCode;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+}
@@ -0,0 +1,58 @@
+package com.pedrorenzo.booking.rules;
+
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.util.StringUtils;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Shows and changes the booking rules at runtime, under {@code /actuator/bookingrules}: e.g. a POST with
+ * {@code {"maximumStayDays": 4}} or {@code {"disabledRules": "days-in-advance,availability"}} (an empty
+ * list enables them all). The parameters left out keep their current value, and an unknown rule name rejects the
+ * change. The changes last until the next restart, which goes back to {@code booking.rules.*}.
+ */
+@Endpoint(id = "bookingrules")
+public class BookingRulesEndpoint {
+
+    private final BookingRuleEngine ruleEngine;
+
+    public BookingRulesEndpoint(final BookingRuleEngine ruleEngine) {
+        this.ruleEngine = ruleEngine;
+    }
+
+    @ReadOperation
+    public Map<String, Object> rules() {
+        final BookingRuleSettings settings = ruleEngine.getSettings();
+        final Map<String, Object> rules = new LinkedHashMap<>();
+        rules.put("maximumStayDays", settings.getMaximumStayDays());
+        rules.put("maximumDaysInAdvance", settings.getMaximumDaysInAdvance());
+        rules.put("disabledRules", settings.getDisabledRules());
+        rules.put("chain", ruleEngine.getRuleNames());
+        return rules;
+    }
+
+    @WriteOperation
+    public Map<String, Object> update(@Nullable final Integer maximumStayDays,
+                                      @Nullable final Integer maximumDaysInAdvance,
+                                      @Nullable final String disabledRules) {
+        final BookingRuleSettings current = ruleEngine.getSettings();
+        final BookingRuleSettings settings;
+        try {
+            settings = new BookingRuleSettings(
+                    maximumStayDays != null ? maximumStayDays : current.getMaximumStayDays(),
+                    maximumDaysInAdvance != null ? maximumDaysInAdvance : current.getMaximumDaysInAdvance(),
+                    disabledRules != null ? StringUtils.commaDelimitedListToSet(disabledRules.replace(" ", "")) :
+                            current.getDisabledRules());
+            ruleEngine.update(settings);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidEndpointRequestException(e.getMessage(), e.getMessage());
+        }
+        return rules();
+    }
+
+}
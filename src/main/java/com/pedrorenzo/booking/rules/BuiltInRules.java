@@ -0,0 +1,95 @@
+package com.pedrorenzo.booking.rules;
+
+import com.pedrorenzo.booking.utils.ErrorCode;
+
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.List;
+
+import static com.pedrorenzo.booking.utils.ErrorMessages.BOOKING_NOT_AVAILABLE;
+import static com.pedrorenzo.booking.utils.ErrorMessages.DAYS_IN_ADVANCE_LONGER_THAN_LIMIT_FORMAT;
+import static com.pedrorenzo.booking.utils.ErrorMessages.FROM_DATE_AFTER_TO_DATE;
+import static com.pedrorenzo.booking.utils.ErrorMessages.STAY_LONGER_THAN_LIMIT_FORMAT;
+import static com.pedrorenzo.booking.utils.ErrorMessages.STAY_START_INVALID;
+
+/**
+ * The booking rules of the room. Their limits are bound when they are created, including the violation messages, so
+ * a check is a date comparison and nothing else.
+ */
+public final class BuiltInRules {
+
+    public static final String DATE_ORDER = "date-order";
+    public static final String STAY_START = "stay-start";
+    public static final String MAXIMUM_STAY = "maximum-stay";
+    public static final String DAYS_IN_ADVANCE = "days-in-advance";
+    public static final String AVAILABILITY = "availability";
+
+    private BuiltInRules() {
+    }
+
+    /**
+     * Creates the built-in rules.
+     *
+     * @param settings The limits of the rules.
+     * @return The rules, cheapest first.
+     */
+    public static List<BookingRule> create(final BookingRuleSettings settings) {
+        final int maximumStayDays = settings.getMaximumStayDays();
+        final int maximumDaysInAdvance = settings.getMaximumDaysInAdvance();
+        final String stayLongerThanLimit = String.format(STAY_LONGER_THAN_LIMIT_FORMAT, maximumStayDays);
+        final String daysInAdvanceLongerThanLimit =
+                String.format(DAYS_IN_ADVANCE_LONGER_THAN_LIMIT_FORMAT, maximumDaysInAdvance);
+
+        return Arrays.asList(
+                rule(DATE_ORDER, 1, ErrorCode.FROM_DATE_AFTER_TO_DATE, context ->
+                        context.getRequest().getFromDate().isAfter(context.getRequest().getToDate()) ?
+                                FROM_DATE_AFTER_TO_DATE : null),
+                rule(STAY_START, 1, ErrorCode.STAY_START_INVALID, context ->
+                        context.getRequest().getFromDate().isAfter(context.getToday()) ? null : STAY_START_INVALID),
+                rule(MAXIMUM_STAY, 2, ErrorCode.STAY_LONGER_THAN_LIMIT, context ->
+                        ChronoUnit.DAYS.between(context.getRequest().getFromDate(),
+                                context.getRequest().getToDate()) >= maximumStayDays ? stayLongerThanLimit : null),
+                rule(DAYS_IN_ADVANCE, 2, ErrorCode.DAYS_IN_ADVANCE_LONGER_THAN_LIMIT, context ->
+                        ChronoUnit.DAYS.between(context.getToday(),
+                                context.getRequest().getFromDate()) > maximumDaysInAdvance ?
+                                daysInAdvanceLongerThanLimit : null),
+                rule(AVAILABILITY, 1000, ErrorCode.BOOKING_NOT_AVAILABLE, context ->
+                        context.getAvailabilityLookup().isAvailable(context.getRequest().getFromDate(),
+                                context.getRequest().getToDate()) ? null : BOOKING_NOT_AVAILABLE));
+    }
+
+    private static BookingRule rule(final String name, final int cost, final ErrorCode errorCode,
+                                    final Check check) {
+        return new BookingRule() {
+
+            @Override
+            public String getName() {
+                return name;
+            }
+
+            @Override
+            public int getCost() {
+                return cost;
+            }
+
+            @Override
+            public ErrorCode getErrorCode() {
+                return errorCode;
+            }
+
+            @Override
+            public String check(final BookingRuleContext context) {
+                return check.check(context);
+            }
+
+        };
+    }
+
+    @FunctionalInterface
+    private interface Check {
+
+        String check(BookingRuleContext context);
+
+    }
+
+}
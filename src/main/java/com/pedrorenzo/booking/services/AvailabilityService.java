@@ -0,0 +1,32 @@
+package com.pedrorenzo.booking.services;
+
+import com.pedrorenzo.booking.dtos.AvailableStayDTO;
+import com.pedrorenzo.booking.dtos.BookingCheckDTO;
+import com.pedrorenzo.booking.dtos.BookingRequestDTO;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface AvailabilityService {
+
+    /**
+     * Finds the earliest stays that can be booked right now.
+     *
+     * @param days The length of the stays, in days, both the first and the last included.
+     * @param limit How many stays to find at most.
+     * @param fromDate The earliest first day, or null for the first bookable day.
+     * @param toDate The latest last day, or null for the end of the bookable window.
+     * @return The stays found, earliest first.
+     */
+    List<AvailableStayDTO> findAvailableStays(final int days, final int limit, final LocalDate fromDate,
+                                              final LocalDate toDate);
+
+    /**
+     * Checks whether a booking would be accepted right now, without booking it.
+     *
+     * @param bookingRequestDTO The booking to be checked.
+     * @return Every rule the booking violates, none if it would be accepted.
+     */
+    BookingCheckDTO check(final BookingRequestDTO bookingRequestDTO);
+
+}
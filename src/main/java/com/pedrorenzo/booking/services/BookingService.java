@@ -1,7 +1,9 @@
 package com.pedrorenzo.booking.services;
 
+import com.pedrorenzo.booking.dtos.BookingBulkResultDTO;
 import com.pedrorenzo.booking.dtos.BookingRequestDTO;
 import com.pedrorenzo.booking.dtos.BookingResponseDTO;
+import com.pedrorenzo.booking.dtos.BookingUpdateDTO;
 
 import java.util.List;
 
@@ -45,4 +47,20 @@ public interface BookingService {
      */
     void update(final String id, final BookingRequestDTO bookingRequestDTO);
 
+    /**
+     * Deletes many bookings.
+     *
+     * @param ids The booking ids.
+     * @return The outcome for each id, in the same order.
+     */
+    List<BookingBulkResultDTO> deleteAllById(final List<String> ids);
+
+    /**
+     * Updates many bookings. Each update is validated against the others before it, as if they were made one by one.
+     *
+     * @param bookingUpdateDTOs The bookings with their new dates.
+     * @return The outcome for each update, in the same order.
+     */
+    List<BookingBulkResultDTO> updateAll(final List<BookingUpdateDTO> bookingUpdateDTOs);
+
 }
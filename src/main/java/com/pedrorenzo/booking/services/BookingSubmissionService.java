@@ -0,0 +1,29 @@
+package com.pedrorenzo.booking.services;
+
+import com.pedrorenzo.booking.dtos.BookingRequestDTO;
+import com.pedrorenzo.booking.dtos.BookingSubmissionDTO;
+
+public interface BookingSubmissionService {
+
+    /**
+     * @return Whether the bookings are inserted asynchronously, through {@link #submit}.
+     */
+    boolean isEnabled();
+
+    /**
+     * Queues a booking to be validated and inserted.
+     *
+     * @param bookingRequestDTO The booking to be inserted.
+     * @return The pending submission, with the ticket to poll its outcome.
+     */
+    BookingSubmissionDTO submit(final BookingRequestDTO bookingRequestDTO);
+
+    /**
+     * Finds a submission by its ticket.
+     *
+     * @param ticket The ticket returned by {@link #submit}.
+     * @return The submission found, with its outcome once it was processed.
+     */
+    BookingSubmissionDTO findByTicket(final String ticket);
+
+}
@@ -0,0 +1,35 @@
+package com.pedrorenzo.booking.services;
+
+import com.pedrorenzo.booking.dtos.BookingImportDTO;
+import com.pedrorenzo.booking.transfer.BookingFormat;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+public interface BookingTransferService {
+
+    /**
+     * Writes all bookings as they are read from the database, so the memory used doesn't grow with their number.
+     *
+     * @param format The format of the file.
+     * @param outputStream Where the file is written, in UTF-8; it is flushed, not closed.
+     * @return How many bookings were written.
+     * @throws IOException If the file could not be written, e.g. the client went away.
+     */
+    long export(final BookingFormat format, final OutputStream outputStream) throws IOException;
+
+    /**
+     * Reads bookings from a file a chunk at a time, validates each chunk against the bookings and inserts its valid
+     * records together. A record is rejected when it is not a booking, its first day is after its last day, its id is
+     * taken, or its days overlap a booking or a previous record. The booking time rules, such as the maximum stay, are
+     * not applied, as the file usually holds past bookings.
+     *
+     * @param format The format of the file.
+     * @param inputStream The file, in UTF-8.
+     * @return How many records were read, imported and rejected, and the first rejections.
+     * @throws IOException If the file could not be read.
+     */
+    BookingImportDTO importBookings(final BookingFormat format, final InputStream inputStream) throws IOException;
+
+}
@@ -0,0 +1,21 @@
+package com.pedrorenzo.booking.services;
+
+import com.pedrorenzo.booking.dtos.StayReportDTO;
+import com.pedrorenzo.booking.reports.StayPeriod;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface StayReportService {
+
+    /**
+     * Reports the occupancy, stay length and lead time of each week or month of a range.
+     *
+     * @param period Whether each line is a week or a month.
+     * @param fromDate A day of the first period.
+     * @param toDate A day of the last period.
+     * @return One line per period, the ones without bookings included, earliest first.
+     */
+    List<StayReportDTO> report(final StayPeriod period, final LocalDate fromDate, final LocalDate toDate);
+
+}
@@ -0,0 +1,31 @@
+package com.pedrorenzo.booking.services;
+
+import com.pedrorenzo.booking.dtos.BookingRequestDTO;
+import com.pedrorenzo.booking.dtos.WaitlistEntryDTO;
+
+public interface WaitlistService {
+
+    /**
+     * Adds days to the waitlist: they are booked automatically as soon as they are freed.
+     *
+     * @param bookingRequestDTO The days to wait for.
+     * @return The waitlist entry.
+     */
+    WaitlistEntryDTO register(final BookingRequestDTO bookingRequestDTO);
+
+    /**
+     * Finds a waitlist entry by its id.
+     *
+     * @param id The waitlist entry id.
+     * @return The waitlist entry found, with the booking id once it was promoted.
+     */
+    WaitlistEntryDTO findById(final String id);
+
+    /**
+     * Deletes a waitlist entry by its id.
+     *
+     * @param id The waitlist entry id.
+     */
+    void deleteById(final String id);
+
+}
@@ -0,0 +1,167 @@
+package com.pedrorenzo.booking.services.impl;
+
+import com.pedrorenzo.booking.availability.AvailabilityIndex;
+import com.pedrorenzo.booking.availability.AvailabilitySnapshot;
+import com.pedrorenzo.booking.dtos.AvailableStayDTO;
+import com.pedrorenzo.booking.dtos.BookingCheckDTO;
+import com.pedrorenzo.booking.dtos.BookingRequestDTO;
+import com.pedrorenzo.booking.entities.Booking;
+import com.pedrorenzo.booking.exceptions.InvalidBookingException;
+import com.pedrorenzo.booking.repositories.BookingRepository;
+import com.pedrorenzo.booking.rules.AvailabilityLookup;
+import com.pedrorenzo.booking.rules.BookingRuleEngine;
+import com.pedrorenzo.booking.rules.BookingRuleSettings;
+import com.pedrorenzo.booking.rules.BookingRuleViolation;
+import com.pedrorenzo.booking.rules.BuiltInRules;
+import com.pedrorenzo.booking.services.AvailabilityService;
+import com.pedrorenzo.booking.utils.ConverterUtils;
+import com.pedrorenzo.booking.utils.ErrorCode;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static com.pedrorenzo.booking.utils.ConverterUtils.covertInstant;
+import static com.pedrorenzo.booking.utils.ErrorMessages.STAY_LONGER_THAN_LIMIT_FORMAT;
+import static com.pedrorenzo.booking.utils.ErrorMessages.STAY_SEARCH_INVALID_FORMAT;
+
+@Service
+public class AvailabilityServiceImpl implements AvailabilityService {
+
+    static final int MAXIMUM_STAYS = 50;
+    // How many times the stays are searched again after the database showed some of them taken.
+    private static final int MAXIMUM_SEARCHES = 3;
+
+    private final AvailabilityIndex availabilityIndex;
+    private final BookingRepository bookingRepository;
+    private final BookingRuleEngine ruleEngine;
+
+    @Autowired
+    public AvailabilityServiceImpl(final AvailabilityIndex availabilityIndex,
+                                   final BookingRepository bookingRepository,
+                                   final BookingRuleEngine ruleEngine) {
+        this.availabilityIndex = availabilityIndex;
+        this.bookingRepository = bookingRepository;
+        this.ruleEngine = ruleEngine;
+    }
+
+    @Override
+    public List<AvailableStayDTO> findAvailableStays(final int days, final int limit, final LocalDate fromDate,
+                                                     final LocalDate toDate) {
+        if (days < 1 || limit < 1 || limit > MAXIMUM_STAYS) {
+            throw new InvalidBookingException(String.format(STAY_SEARCH_INVALID_FORMAT, MAXIMUM_STAYS),
+                    ErrorCode.STAY_SEARCH_INVALID);
+        }
+        final BookingRuleSettings settings = ruleEngine.getSettings();
+        if (days > settings.getMaximumStayDays() &&
+                !settings.getDisabledRules().contains(BuiltInRules.MAXIMUM_STAY)) {
+            throw new InvalidBookingException(String.format(STAY_LONGER_THAN_LIMIT_FORMAT,
+                    settings.getMaximumStayDays()), ErrorCode.STAY_LONGER_THAN_LIMIT);
+        }
+
+        //
+        // The bookable window: from tomorrow to the last day a stay may start, narrowed by the requested dates.
+        //
+        final LocalDate today = OffsetDateTime.now(ZoneOffset.UTC).toLocalDate();
+        long firstStart = today.plusDays(1).toEpochDay();
+        long lastStart = today.plusDays(settings.getMaximumDaysInAdvance()).toEpochDay();
+        if (fromDate != null) {
+            firstStart = Math.max(firstStart, fromDate.toEpochDay());
+        }
+        if (toDate != null) {
+            lastStart = Math.min(lastStart, toDate.toEpochDay() - days + 1);
+        }
+
+        //
+        // The in-memory availability only follows the writes of this instance. The stays found in it are re-checked
+        // against the primary with one query over all of their days; if another instance booked some of them, its
+        // bookings are added to the availability and the stays are searched again.
+        //
+        AvailabilitySnapshot snapshot = availabilityIndex.getSnapshot();
+        for (int search = 1; ; search++) {
+            final List<AvailableStayDTO> stays = findAvailableStays(snapshot, days, limit, firstStart, lastStart);
+            if (stays.isEmpty()) {
+                return stays;
+            }
+            final List<Booking> taken = bookingRepository.findOverlappingForValidation(
+                    stays.get(0).getFromDate().toEpochDay(), stays.get(stays.size() - 1).getToDate().toEpochDay());
+            snapshot = withAll(snapshot, taken);
+            if (search == MAXIMUM_SEARCHES) {
+                final AvailabilitySnapshot rechecked = snapshot;
+                stays.removeIf(stay ->
+                        !rechecked.isAvailable(stay.getFromDate().toEpochDay(), stay.getToDate().toEpochDay()));
+                return stays;
+            }
+            if (isFree(snapshot, stays)) {
+                return stays;
+            }
+        }
+    }
+
+    @Override
+    public BookingCheckDTO check(final BookingRequestDTO bookingRequestDTO) {
+        //
+        // Without an exception when the booking would be rejected. The days free in the in-memory availability are
+        // re-checked against the primary, in case another instance booked them.
+        //
+        final List<BookingRuleViolation> violations = ruleEngine.check(bookingRequestDTO, (fromDate, toDate) ->
+                availabilityIndex.isAvailable(fromDate, toDate) && bookingRepository.findOverlappingForValidation(
+                        fromDate.toEpochDay(), toDate.toEpochDay()).stream()
+                        .noneMatch(booking -> overlaps(booking, fromDate, toDate)));
+        return new BookingCheckDTO(violations.isEmpty(),
+                violations.stream().map(ConverterUtils::covertViolation).collect(Collectors.toList()));
+    }
+
+    /**
+     * Each candidate comes from the gap index in one binary search, and is then checked against the whole rule chain,
+     * so extra and disabled rules apply to the search as they do to the bookings.
+     */
+    private List<AvailableStayDTO> findAvailableStays(final AvailabilitySnapshot snapshot, final int days,
+                                                      final int limit, final long firstStart, final long lastStart) {
+        final AvailabilityLookup availabilityLookup = (requestFromDate, requestToDate) ->
+                snapshot.isAvailable(requestFromDate.toEpochDay(), requestToDate.toEpochDay());
+        final List<AvailableStayDTO> stays = new ArrayList<>(limit);
+        long start = snapshot.findNextFreeStart(firstStart, days);
+        while (start <= lastStart && stays.size() < limit) {
+            final BookingRequestDTO candidate = new BookingRequestDTO(LocalDate.ofEpochDay(start),
+                    LocalDate.ofEpochDay(start + days - 1));
+            if (ruleEngine.isAccepted(candidate, availabilityLookup)) {
+                stays.add(new AvailableStayDTO(candidate.getFromDate(), candidate.getToDate()));
+            }
+            start = snapshot.findNextFreeStart(start + 1, days);
+        }
+        return stays;
+    }
+
+    private static boolean isFree(final AvailabilitySnapshot snapshot, final List<AvailableStayDTO> stays) {
+        for (AvailableStayDTO stay : stays) {
+            if (!snapshot.isAvailable(stay.getFromDate().toEpochDay(), stay.getToDate().toEpochDay())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean overlaps(final Booking booking, final LocalDate fromDate, final LocalDate toDate) {
+        return !fromDate.isAfter(covertInstant(booking.getToDate())) &&
+                !covertInstant(booking.getFromDate()).isAfter(toDate);
+    }
+
+    private static AvailabilitySnapshot withAll(final AvailabilitySnapshot snapshot, final List<Booking> bookings) {
+        final String[] ids = new String[bookings.size()];
+        final long[] fromDays = new long[bookings.size()];
+        final long[] toDays = new long[bookings.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = bookings.get(i).getId();
+            fromDays[i] = covertInstant(bookings.get(i).getFromDate()).toEpochDay();
+            toDays[i] = covertInstant(bookings.get(i).getToDate()).toEpochDay();
+        }
+        return snapshot.withAll(ids, fromDays, toDays);
+    }
+
+}
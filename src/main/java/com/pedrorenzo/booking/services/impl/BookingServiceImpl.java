@@ -1,31 +1,44 @@
 package com.pedrorenzo.booking.services.impl;
 
+import com.pedrorenzo.booking.availability.AvailabilitySnapshot;
+import com.pedrorenzo.booking.dtos.BookingBulkResultDTO;
 import com.pedrorenzo.booking.dtos.BookingRequestDTO;
 import com.pedrorenzo.booking.dtos.BookingResponseDTO;
+import com.pedrorenzo.booking.dtos.BookingUpdateDTO;
 import com.pedrorenzo.booking.entities.Booking;
+import com.pedrorenzo.booking.events.BookingChangedEvent;
+import com.pedrorenzo.booking.events.BookingsImportedEvent;
 import com.pedrorenzo.booking.exceptions.BookingNotFoundException;
 import com.pedrorenzo.booking.exceptions.InvalidBookingException;
 import com.pedrorenzo.booking.repositories.BookingRepository;
+import com.pedrorenzo.booking.rules.BookingRuleEngine;
+import com.pedrorenzo.booking.rules.BookingRuleViolation;
 import com.pedrorenzo.booking.services.BookingService;
 import com.pedrorenzo.booking.utils.ConverterUtils;
+import com.pedrorenzo.booking.utils.ErrorCode;
+import com.pedrorenzo.booking.utils.SingleFlight;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
-import java.time.OffsetDateTime;
-import java.time.ZoneOffset;
-import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
-import static com.pedrorenzo.booking.utils.Constants.MAXIMUM_DIFF_DAYS_IN_ADVANCE;
-import static com.pedrorenzo.booking.utils.Constants.MAXIMUM_DIFF_STAY_DAYS;
 import static com.pedrorenzo.booking.utils.ConverterUtils.covertBooking;
 import static com.pedrorenzo.booking.utils.ConverterUtils.covertDTOUpdatingUpdatedDate;
 import static com.pedrorenzo.booking.utils.ConverterUtils.covertDTO;
+import static com.pedrorenzo.booking.utils.ConverterUtils.covertInstant;
 import static com.pedrorenzo.booking.utils.ErrorMessages.*;
 
 @Service
@@ -33,106 +46,240 @@ public class BookingServiceImpl implements BookingService {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(BookingServiceImpl.class);
 
+    // Thrown for every missing id: stackless and immutable, so one instance serves all of them.
+    private static final BookingNotFoundException BOOKING_NOT_FOUND_EXCEPTION =
+            new BookingNotFoundException(BOOKING_NOT_FOUND);
+
+    private static final String FIND_ALL_KEY = "*";
+
+    static final int MAXIMUM_BULK_SIZE = 100;
+
     private final BookingRepository bookingRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final BookingRuleEngine ruleEngine;
+
+    //
+    // Concurrent identical reads share one repository call and one conversion. Only reads are coalesced, the write
+    // paths keep going straight to the repository. Every write of this instance detaches the reads in flight before it
+    // returns, so a read coming after a write never joins one that started before it and missed it.
+    //
+    private final SingleFlight<String, BookingResponseDTO> findByIdFlight = new SingleFlight<>();
+    private final SingleFlight<String, List<BookingResponseDTO>> findAllFlight = new SingleFlight<>();
+
+    private final Counter findByIdExecuted;
+    private final Counter findByIdCoalesced;
+    private final Counter findAllExecuted;
+    private final Counter findAllCoalesced;
 
     @Autowired
-    public BookingServiceImpl(final BookingRepository bookingRepository) {
+    public BookingServiceImpl(final BookingRepository bookingRepository,
+                              final ApplicationEventPublisher eventPublisher,
+                              final BookingRuleEngine ruleEngine,
+                              final MeterRegistry meterRegistry) {
         this.bookingRepository = bookingRepository;
+        this.eventPublisher = eventPublisher;
+        this.ruleEngine = ruleEngine;
+        this.findByIdExecuted = readCounter(meterRegistry, "findById", "executed");
+        this.findByIdCoalesced = readCounter(meterRegistry, "findById", "coalesced");
+        this.findAllExecuted = readCounter(meterRegistry, "findAll", "executed");
+        this.findAllCoalesced = readCounter(meterRegistry, "findAll", "coalesced");
     }
 
     @Override
     public BookingResponseDTO insert(final BookingRequestDTO bookingRequestDTO) {
-        validateBookingRequest(bookingRequestDTO);
-        LOGGER.info("Booking {} insertion validated.", bookingRequestDTO);
+        ruleEngine.validate(bookingRequestDTO, (fromDate, toDate) -> areDaysAvailable(fromDate, toDate, null));
+        LOGGER.debug("Booking {} insertion validated.", bookingRequestDTO);
 
         final Booking booking = bookingRepository.insert(covertDTO(bookingRequestDTO));
+        eventPublisher.publishEvent(BookingChangedEvent.inserted(booking));
         return covertBooking(booking);
     }
 
     @Override
     public BookingResponseDTO findById(final String id) {
-        Optional<Booking> booking = bookingRepository.findById(id);
-        if (!booking.isPresent()) {
-            throw new BookingNotFoundException(BOOKING_NOT_FOUND);
-        }
-        LOGGER.info("Booking id {} present, returning...", id);
-        return covertBooking(booking.get());
+        final SingleFlight.Result<BookingResponseDTO> result = findByIdFlight.execute(id, () -> {
+            Optional<Booking> booking = bookingRepository.findById(id);
+            if (!booking.isPresent()) {
+                throw BOOKING_NOT_FOUND_EXCEPTION;
+            }
+            LOGGER.debug("Booking id {} present, returning...", id);
+            return covertBooking(booking.get());
+        });
+        count(result, findByIdExecuted, findByIdCoalesced);
+        return result.getValue();
     }
 
     @Override
     public List<BookingResponseDTO> findAll() {
-        List<Booking> bookings = bookingRepository.findAll();
+        final SingleFlight.Result<List<BookingResponseDTO>> result = findAllFlight.execute(FIND_ALL_KEY,
+                () -> Collections.unmodifiableList(bookingRepository.findAllForListing()));
+        count(result, findAllExecuted, findAllCoalesced);
+        return result.getValue();
+    }
 
-        return bookings.stream().map(ConverterUtils::covertBooking).collect(Collectors.toList());
+    @EventListener
+    public void onBookingChanged(final BookingChangedEvent event) {
+        forgetReadsInFlight();
+    }
+
+    @EventListener
+    public void onBookingsImported(final BookingsImportedEvent event) {
+        forgetReadsInFlight();
     }
 
+    //
+    // Each mutation is one round trip: the write answers the booking as it was, which the event needs, or nothing
+    // when there is no booking with the id, and nothing can change it between a read and the write.
+    //
+
     @Override
     public void deleteById(final String id) {
-        final Optional<Booking> booking = bookingRepository.findById(id);
-        if (!booking.isPresent()) {
-            throw new BookingNotFoundException(BOOKING_NOT_FOUND);
+        final Booking booking = bookingRepository.findAndRemoveById(id);
+        if (booking == null) {
+            throw BOOKING_NOT_FOUND_EXCEPTION;
         }
 
-        bookingRepository.delete(booking.get());
+        eventPublisher.publishEvent(BookingChangedEvent.deleted(booking));
     }
 
     @Override
     public void update(final String id, final BookingRequestDTO bookingRequestDTO) {
-        final Optional<Booking> booking = bookingRepository.findById(id);
-        if (!booking.isPresent()) {
-            throw new BookingNotFoundException(BOOKING_NOT_FOUND);
+        // The booking does not overlap itself: it can be moved to days it already takes, as the bulk updates can.
+        try {
+            ruleEngine.validate(bookingRequestDTO, (fromDate, toDate) -> areDaysAvailable(fromDate, toDate, id));
+        } catch (InvalidBookingException e) {
+            // A missing booking is answered as such whatever the request; the lookup only costs on rejections.
+            if (!bookingRepository.findById(id).isPresent()) {
+                throw BOOKING_NOT_FOUND_EXCEPTION;
+            }
+            throw e;
         }
+        LOGGER.debug("Booking {} update validated.", bookingRequestDTO);
 
-        validateBookingRequest(bookingRequestDTO);
-        LOGGER.info("Booking {} update validated.", bookingRequestDTO);
+        final Booking dates = covertDTOUpdatingUpdatedDate(new Booking(), bookingRequestDTO);
+        dates.setId(id);
+        final Booking previous = bookingRepository.findAndUpdateDates(dates);
+        if (previous == null) {
+            throw BOOKING_NOT_FOUND_EXCEPTION;
+        }
 
-        bookingRepository.save(covertDTOUpdatingUpdatedDate(booking.get(), bookingRequestDTO));
+        final Booking updated = new Booking(previous);
+        updated.setFromDate(dates.getFromDate());
+        updated.setToDate(dates.getToDate());
+        updated.setUpdatedDate(dates.getUpdatedDate());
+        eventPublisher.publishEvent(BookingChangedEvent.updated(previous, updated));
     }
 
-    /**
-     * Validates the booking request based on the business rules.
-     *
-     * @param bookingRequestDTO The request to be validated.
-     */
-    private void validateBookingRequest(final BookingRequestDTO bookingRequestDTO) {
-        final LocalDate now = OffsetDateTime.now(ZoneOffset.UTC).toLocalDate();
-        if (bookingRequestDTO.getFromDate().isAfter(bookingRequestDTO.getToDate())) {
-            throw new InvalidBookingException(FROM_DATE_AFTER_TO_DATE);
-        }
+    @Override
+    public List<BookingBulkResultDTO> deleteAllById(final List<String> ids) {
+        checkBulkSize(ids.size());
 
-        if (bookingRequestDTO.getFromDate().equals(now) || bookingRequestDTO.getFromDate().isBefore(now)) {
-            throw new InvalidBookingException(STAY_START_INVALID);
+        //
+        // The bookings are read in one query, for their events, and removed in one more. A delete of many only tells
+        // how many it removed: when another request removed some of them in between, the ones removed here cannot be
+        // told apart. They are all gone, as asked, so all of them are reported deleted; their events are applied by
+        // id, so a booking removed twice is dropped once.
+        //
+        final Map<String, Booking> bookings = findAllByIds(ids);
+        final long deleted = bookingRepository.deleteAllById(new ArrayList<>(bookings.keySet()));
+        if (deleted < bookings.size()) {
+            LOGGER.info("{} of {} bookings were deleted meanwhile by another request.", bookings.size() - deleted,
+                    bookings.size());
         }
-
-        long diffInDays = ChronoUnit.DAYS.between(bookingRequestDTO.getFromDate(), bookingRequestDTO.getToDate());
-        if (diffInDays > MAXIMUM_DIFF_STAY_DAYS) {
-            throw new InvalidBookingException(STAY_LONGER_THAN_LIMIT);
+        final List<BookingBulkResultDTO> results = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            // Each booking is reported deleted once, the repeated ids as not found, as when deleted one by one.
+            final Booking booking = bookings.remove(id);
+            if (booking == null) {
+                results.add(new BookingBulkResultDTO(id, BookingBulkResultDTO.Status.NOT_FOUND, null));
+                continue;
+            }
+            eventPublisher.publishEvent(BookingChangedEvent.deleted(booking));
+            results.add(new BookingBulkResultDTO(id, BookingBulkResultDTO.Status.DELETED, null));
         }
+        return results;
+    }
+
+    @Override
+    public List<BookingBulkResultDTO> updateAll(final List<BookingUpdateDTO> bookingUpdateDTOs) {
+        checkBulkSize(bookingUpdateDTOs.size());
+        final Map<String, Booking> bookings = findAllByIds(bookingUpdateDTOs.stream().map(BookingUpdateDTO::getId)
+                .collect(Collectors.toList()));
+
+        //
+        // The updates are validated in order against the bookings read from the primary over all of their days, as a
+        // single update is, each one without the days of the booking it moves and with the days of the updates
+        // accepted before it, then written together.
+        //
+        AvailabilitySnapshot availability = findOverlappingForValidation(bookingUpdateDTOs, bookings);
+        final List<BookingBulkResultDTO> results = new ArrayList<>(bookingUpdateDTOs.size());
+        final List<Booking> previousBookings = new ArrayList<>(bookingUpdateDTOs.size());
+        final List<Booking> updatedBookings = new ArrayList<>(bookingUpdateDTOs.size());
+        final List<Integer> updatedResults = new ArrayList<>(bookingUpdateDTOs.size());
+        for (BookingUpdateDTO bookingUpdateDTO : bookingUpdateDTOs) {
+            final String id = bookingUpdateDTO.getId();
+            final Booking booking = bookings.get(id);
+            if (booking == null) {
+                results.add(new BookingBulkResultDTO(id, BookingBulkResultDTO.Status.NOT_FOUND, null));
+                continue;
+            }
 
-        diffInDays = ChronoUnit.DAYS.between(now, bookingRequestDTO.getFromDate());
-        if (diffInDays > MAXIMUM_DIFF_DAYS_IN_ADVANCE) {
-            throw new InvalidBookingException(DAYS_IN_ADVANCE_LONGER_THAN_LIMIT);
+            final AvailabilitySnapshot others = availability.without(id);
+            final List<BookingRuleViolation> violations = ruleEngine.check(bookingUpdateDTO,
+                    (requestFromDate, requestToDate) ->
+                            others.isAvailable(requestFromDate.toEpochDay(), requestToDate.toEpochDay()));
+            if (!violations.isEmpty()) {
+                results.add(new BookingBulkResultDTO(id, BookingBulkResultDTO.Status.REJECTED, violations.stream()
+                        .map(ConverterUtils::covertViolation).collect(Collectors.toList())));
+                continue;
+            }
+
+            previousBookings.add(new Booking(booking));
+            updatedBookings.add(new Booking(covertDTOUpdatingUpdatedDate(booking, bookingUpdateDTO)));
+            availability = others.with(id, bookingUpdateDTO.getFromDate().toEpochDay(),
+                    bookingUpdateDTO.getToDate().toEpochDay());
+            updatedResults.add(results.size());
+            results.add(new BookingBulkResultDTO(id, BookingBulkResultDTO.Status.UPDATED, null));
         }
+        LOGGER.debug("{} of {} booking updates validated.", updatedBookings.size(), bookingUpdateDTOs.size());
 
-        if (!areDaysAvailable(bookingRequestDTO)) {
-            throw new InvalidBookingException(BOOKING_NOT_AVAILABLE);
+        // Fewer matches than updates: some bookings were deleted since they were read. They are not reported updated.
+        final int matched = bookingRepository.updateAllDates(updatedBookings);
+        final Map<String, Booking> remaining = matched < updatedBookings.size() ?
+                findAllByIds(updatedBookings.stream().map(Booking::getId).collect(Collectors.toList())) : null;
+        for (int i = 0; i < updatedBookings.size(); i++) {
+            final String id = updatedBookings.get(i).getId();
+            if (remaining != null && !remaining.containsKey(id)) {
+                results.set(updatedResults.get(i), new BookingBulkResultDTO(id,
+                        BookingBulkResultDTO.Status.NOT_FOUND, null));
+                continue;
+            }
+            eventPublisher.publishEvent(BookingChangedEvent.updated(previousBookings.get(i), updatedBookings.get(i)));
         }
+        return results;
     }
 
     /**
-     * Validates if the days from the request are available: If the room is not already booked.
+     * Validates if the days from the request are available: If the room is not already booked. Only the bookings that
+     * may overlap are read, straight from the primary and without joining a coalesced read, so a write never decides
+     * based on a read that started before it or on a lagging secondary.
      *
-     * @param bookingRequestDTO The request to be validated.
+     * @param requestFromDate The first day of the request.
+     * @param requestToDate The last day of the request.
+     * @param excludedId The booking being moved, whose own days don't count, or <b>null</b>.
      * @return <b>true</b> if the days are available, <b>false</b> otherwise.
      */
-    private boolean areDaysAvailable(final BookingRequestDTO bookingRequestDTO) {
-        final List<BookingResponseDTO> bookingResponseDTOs = findAll();
-        final LocalDate requestFromDate = bookingRequestDTO.getFromDate();
-        final LocalDate requestToDate = bookingRequestDTO.getToDate();
+    private boolean areDaysAvailable(final LocalDate requestFromDate, final LocalDate requestToDate,
+                                     final String excludedId) {
+        final List<BookingResponseDTO> bookingResponseDTOs = covertBookings(bookingRepository
+                .findOverlappingForValidation(requestFromDate.toEpochDay(), requestToDate.toEpochDay()));
 
         LocalDate responseFromDate;
         LocalDate responseToDate;
         for (BookingResponseDTO response : bookingResponseDTOs) {
+            if (excludedId != null && excludedId.equals(response.getId())) {
+                continue;
+            }
             responseFromDate = response.getFromDate();
             responseToDate = response.getToDate();
 
@@ -168,4 +315,88 @@ public class BookingServiceImpl implements BookingService {
         return true;
     }
 
+    private void forgetReadsInFlight() {
+        findByIdFlight.forget();
+        findAllFlight.forget();
+    }
+
+    /**
+     * Reads, in one query on the primary, the bookings that may overlap any of the days of the updates of existing
+     * bookings.
+     *
+     * @param bookingUpdateDTOs The updates.
+     * @param bookings The existing bookings, by id.
+     * @return The availability of the days.
+     */
+    private AvailabilitySnapshot findOverlappingForValidation(final List<BookingUpdateDTO> bookingUpdateDTOs,
+                                                              final Map<String, Booking> bookings) {
+        long fromDay = Long.MAX_VALUE;
+        long toDay = Long.MIN_VALUE;
+        for (BookingUpdateDTO bookingUpdateDTO : bookingUpdateDTOs) {
+            if (bookings.containsKey(bookingUpdateDTO.getId())) {
+                // Both ends of each, as the days of an update may be inverted, which the rules reject later.
+                fromDay = Math.min(fromDay, Math.min(bookingUpdateDTO.getFromDate().toEpochDay(),
+                        bookingUpdateDTO.getToDate().toEpochDay()));
+                toDay = Math.max(toDay, Math.max(bookingUpdateDTO.getFromDate().toEpochDay(),
+                        bookingUpdateDTO.getToDate().toEpochDay()));
+            }
+        }
+        if (fromDay > toDay) {
+            return AvailabilitySnapshot.empty();
+        }
+
+        final List<Booking> overlapping = bookingRepository.findOverlappingForValidation(fromDay, toDay);
+        final String[] ids = new String[overlapping.size()];
+        final long[] fromDays = new long[overlapping.size()];
+        final long[] toDays = new long[overlapping.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = overlapping.get(i).getId();
+            fromDays[i] = covertInstant(overlapping.get(i).getFromDate()).toEpochDay();
+            toDays[i] = covertInstant(overlapping.get(i).getToDate()).toEpochDay();
+        }
+        return AvailabilitySnapshot.of(ids, fromDays, toDays);
+    }
+
+    /**
+     * Finds the bookings with the ids in one query.
+     *
+     * @param ids The booking ids, possibly repeated.
+     * @return The bookings found, by id.
+     */
+    private Map<String, Booking> findAllByIds(final List<String> ids) {
+        final Map<String, Booking> bookings = new HashMap<>();
+        for (Booking booking : bookingRepository.findAllById(ids)) {
+            bookings.put(booking.getId(), booking);
+        }
+        return bookings;
+    }
+
+    private static void checkBulkSize(final int size) {
+        if (size > MAXIMUM_BULK_SIZE) {
+            throw new InvalidBookingException(String.format(BULK_SIZE_INVALID_FORMAT, MAXIMUM_BULK_SIZE),
+                    ErrorCode.BULK_SIZE_INVALID);
+        }
+    }
+
+    private static List<BookingResponseDTO> covertBookings(final List<Booking> bookings) {
+        return bookings.stream().map(ConverterUtils::covertBooking).collect(Collectors.toList());
+    }
+
+    private static void count(final SingleFlight.Result<?> result, final Counter executed, final Counter coalesced) {
+        if (result.isCoalesced()) {
+            coalesced.increment();
+        } else {
+            executed.increment();
+        }
+    }
+
+    private static Counter readCounter(final MeterRegistry meterRegistry, final String operation,
+                                       final String outcome) {
+        return Counter.builder("booking.reads")
+                .description("Booking reads, by whether they executed a repository call or joined one in flight")
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
 }
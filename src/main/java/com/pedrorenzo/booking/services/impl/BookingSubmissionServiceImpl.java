@@ -0,0 +1,366 @@
+package com.pedrorenzo.booking.services.impl;
+
+import com.mongodb.MongoBulkWriteException;
+import com.pedrorenzo.booking.availability.AvailabilityIndex;
+import com.pedrorenzo.booking.config.SubmissionProperties;
+import com.pedrorenzo.booking.dtos.BookingRequestDTO;
+import com.pedrorenzo.booking.dtos.BookingSubmissionDTO;
+import com.pedrorenzo.booking.entities.Booking;
+import com.pedrorenzo.booking.entities.SubmissionOutcome;
+import com.pedrorenzo.booking.events.BookingChangedEvent;
+import com.pedrorenzo.booking.exceptions.InvalidBookingException;
+import com.pedrorenzo.booking.exceptions.ServiceOverloadedException;
+import com.pedrorenzo.booking.exceptions.SubmissionNotFoundException;
+import com.pedrorenzo.booking.repositories.BookingRepository;
+import com.pedrorenzo.booking.repositories.SubmissionOutcomeRepository;
+import com.pedrorenzo.booking.rules.BookingRuleEngine;
+import com.pedrorenzo.booking.services.BookingSubmissionService;
+import com.pedrorenzo.booking.utils.ConverterUtils;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import static com.pedrorenzo.booking.utils.ConverterUtils.covertDTO;
+import static com.pedrorenzo.booking.utils.ConverterUtils.covertInstant;
+import static com.pedrorenzo.booking.utils.ErrorMessages.BOOKING_NOT_AVAILABLE;
+import static com.pedrorenzo.booking.utils.ErrorMessages.SERVICE_OVERLOADED;
+import static com.pedrorenzo.booking.utils.ErrorMessages.SUBMISSION_NOT_FOUND;
+
+@Service
+public class BookingSubmissionServiceImpl implements BookingSubmissionService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BookingSubmissionServiceImpl.class);
+
+    private static final ServiceOverloadedException SERVICE_OVERLOADED_EXCEPTION =
+            new ServiceOverloadedException(SERVICE_OVERLOADED);
+    private static final SubmissionNotFoundException SUBMISSION_NOT_FOUND_EXCEPTION =
+            new SubmissionNotFoundException(SUBMISSION_NOT_FOUND);
+
+    private static final long SWEEP_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final BookingRepository bookingRepository;
+    private final SubmissionOutcomeRepository submissionOutcomeRepository;
+    private final BookingRuleEngine ruleEngine;
+    private final AvailabilityIndex availabilityIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final SubmissionProperties submissionProperties;
+
+    //
+    // The queue is the only point of contention: the sequencer thread is the single writer of the async inserts, so
+    // it validates against the in-memory availability without locks and inserts each batch in one round trip. The
+    // pending submissions are only known here; the outcomes are also stored, so any instance answers their tickets.
+    //
+    private final BlockingQueue<Submission> queue;
+    private final ConcurrentMap<String, Submission> submissions = new ConcurrentHashMap<>();
+    private volatile Thread sequencer;
+    private long lastSweepNanos = System.nanoTime();
+
+    private final Counter accepted;
+    private final Counter rejected;
+    private final Counter failed;
+
+    @Autowired
+    public BookingSubmissionServiceImpl(final BookingRepository bookingRepository,
+                                        final SubmissionOutcomeRepository submissionOutcomeRepository,
+                                        final BookingRuleEngine ruleEngine,
+                                        final AvailabilityIndex availabilityIndex,
+                                        final ApplicationEventPublisher eventPublisher,
+                                        final SubmissionProperties submissionProperties,
+                                        final MeterRegistry meterRegistry) {
+        this.bookingRepository = bookingRepository;
+        this.submissionOutcomeRepository = submissionOutcomeRepository;
+        this.ruleEngine = ruleEngine;
+        this.availabilityIndex = availabilityIndex;
+        this.eventPublisher = eventPublisher;
+        this.submissionProperties = submissionProperties;
+        this.queue = new ArrayBlockingQueue<>(submissionProperties.getQueueCapacity());
+        this.accepted = outcomeCounter(meterRegistry, BookingSubmissionDTO.Status.ACCEPTED);
+        this.rejected = outcomeCounter(meterRegistry, BookingSubmissionDTO.Status.REJECTED);
+        this.failed = outcomeCounter(meterRegistry, BookingSubmissionDTO.Status.FAILED);
+        Gauge.builder("booking.submissions.queue", queue, BlockingQueue::size)
+                .description("Booking submissions waiting for the sequencer")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (submissionProperties.isAsyncEnabled()) {
+            sequencer = new Thread(this::sequence, "booking-sequencer");
+            sequencer.setDaemon(true);
+            sequencer.start();
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        final Thread thread = sequencer;
+        if (thread != null) {
+            thread.interrupt();
+            thread.join(TimeUnit.SECONDS.toMillis(10));
+        }
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return submissionProperties.isAsyncEnabled();
+    }
+
+    @Override
+    public BookingSubmissionDTO submit(final BookingRequestDTO bookingRequestDTO) {
+        final Submission submission = new Submission(UUID.randomUUID().toString(), bookingRequestDTO);
+        submissions.put(submission.ticket, submission);
+        if (!queue.offer(submission)) {
+            submissions.remove(submission.ticket);
+            throw SERVICE_OVERLOADED_EXCEPTION;
+        }
+        LOGGER.info("Booking {} submitted with ticket {}.", bookingRequestDTO, submission.ticket);
+        return submission.toDTO();
+    }
+
+    @Override
+    public BookingSubmissionDTO findByTicket(final String ticket) {
+        final Submission submission = submissions.get(ticket);
+        if (submission != null) {
+            return submission.toDTO();
+        }
+        // Submitted through another instance, or before a restart.
+        return submissionOutcomeRepository.findById(ticket).map(ConverterUtils::covertSubmissionOutcome)
+                .orElseThrow(() -> SUBMISSION_NOT_FOUND_EXCEPTION);
+    }
+
+    private void sequence() {
+        final List<Submission> batch = new ArrayList<>(submissionProperties.getBatchSize());
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                batch.add(queue.take());
+                queue.drainTo(batch, submissionProperties.getBatchSize() - 1);
+                process(batch);
+                store(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                LOGGER.error("Unexpected error processing booking submissions.", e);
+            } finally {
+                batch.clear();
+            }
+            sweep();
+        }
+        LOGGER.info("Booking sequencer stopped with {} submissions queued.", queue.size());
+    }
+
+    /**
+     * Validates the submissions in arrival order, each one against the bookings and the submissions of the batch
+     * accepted before it, re-checks the valid ones against the database, then inserts them together.
+     *
+     * @param batch The submissions, in arrival order.
+     */
+    void process(final List<Submission> batch) {
+        final List<Submission> valid = new ArrayList<>(batch.size());
+        for (Submission submission : batch) {
+            try {
+                ruleEngine.validate(submission.request, (fromDate, toDate) ->
+                        availabilityIndex.isAvailable(fromDate, toDate) && isFreeIn(valid, fromDate, toDate));
+                valid.add(submission);
+            } catch (InvalidBookingException e) {
+                submission.complete(BookingSubmissionDTO.Status.REJECTED, null, e.getMessage());
+                rejected.increment();
+            } catch (RuntimeException e) {
+                LOGGER.error("Error validating booking submission {}.", submission.ticket, e);
+                submission.complete(BookingSubmissionDTO.Status.FAILED, null, e.getMessage());
+                failed.increment();
+            }
+        }
+        if (valid.isEmpty()) {
+            return;
+        }
+
+        //
+        // The in-memory availability only follows the writes of this instance. The bookings written meanwhile by the
+        // other instances are read from the primary, in one query over the days of the whole batch, and the
+        // submissions they overlap are rejected right before the insert.
+        //
+        final List<Booking> taken;
+        try {
+            taken = findOverlapping(valid);
+        } catch (RuntimeException e) {
+            LOGGER.error("Error checking {} booking submissions.", valid.size(), e);
+            fail(valid, e);
+            return;
+        }
+        valid.removeIf(submission -> {
+            if (isFreeOf(taken, submission.request.getFromDate(), submission.request.getToDate())) {
+                return false;
+            }
+            submission.complete(BookingSubmissionDTO.Status.REJECTED, null, BOOKING_NOT_AVAILABLE);
+            rejected.increment();
+            return true;
+        });
+        if (valid.isEmpty()) {
+            return;
+        }
+
+        final List<Booking> bookings = new ArrayList<>(valid.size());
+        for (Submission submission : valid) {
+            bookings.add(covertDTO(submission.request));
+        }
+        List<Booking> inserted;
+        RuntimeException failure = null;
+        try {
+            inserted = bookingRepository.insert(bookings);
+        } catch (RuntimeException e) {
+            // The insert is ordered: the bookings before the failed one are in, with their generated ids.
+            failure = e;
+            inserted = bookings.subList(0, insertedBefore(e));
+            LOGGER.error("Error inserting {} of {} booking submissions.", valid.size() - inserted.size(),
+                    valid.size(), e);
+        }
+        for (int i = 0; i < inserted.size(); i++) {
+            eventPublisher.publishEvent(BookingChangedEvent.inserted(inserted.get(i)));
+            valid.get(i).complete(BookingSubmissionDTO.Status.ACCEPTED, inserted.get(i).getId(), null);
+            accepted.increment();
+        }
+        if (failure != null) {
+            fail(valid.subList(inserted.size(), valid.size()), failure);
+        }
+    }
+
+    /**
+     * @param e Why an insert of several bookings failed.
+     * @return How many bookings were inserted before the failure: the index of the first failed one when the database
+     * reported it, none otherwise.
+     */
+    private static int insertedBefore(final RuntimeException e) {
+        final Throwable cause = e instanceof MongoBulkWriteException ? e : e.getCause();
+        if (cause instanceof MongoBulkWriteException && !((MongoBulkWriteException) cause).getWriteErrors().isEmpty()) {
+            return ((MongoBulkWriteException) cause).getWriteErrors().get(0).getIndex();
+        }
+        return 0;
+    }
+
+    private List<Booking> findOverlapping(final List<Submission> submissions) {
+        long fromDay = Long.MAX_VALUE;
+        long toDay = Long.MIN_VALUE;
+        for (Submission submission : submissions) {
+            fromDay = Math.min(fromDay, submission.request.getFromDate().toEpochDay());
+            toDay = Math.max(toDay, submission.request.getToDate().toEpochDay());
+        }
+        return bookingRepository.findOverlappingForValidation(fromDay, toDay);
+    }
+
+    /**
+     * Stores the outcomes of a processed batch, in one round trip. Until they expire, the tickets of this instance
+     * are still answered from memory if the store fails.
+     *
+     * @param batch The processed submissions.
+     */
+    void store(final List<Submission> batch) {
+        final Instant now = Instant.now();
+        final List<SubmissionOutcome> outcomes = new ArrayList<>(batch.size());
+        for (Submission submission : batch) {
+            outcomes.add(new SubmissionOutcome(submission.ticket, submission.status, submission.bookingId,
+                    submission.error, now));
+        }
+        try {
+            submissionOutcomeRepository.insert(outcomes);
+        } catch (RuntimeException e) {
+            LOGGER.warn("Error storing the outcomes of {} booking submissions.", outcomes.size(), e);
+        }
+    }
+
+    private void fail(final List<Submission> submissions, final RuntimeException e) {
+        for (Submission submission : submissions) {
+            submission.complete(BookingSubmissionDTO.Status.FAILED, null, e.getMessage());
+            failed.increment();
+        }
+    }
+
+    /**
+     * Forgets the outcomes older than the retention, at most once per second.
+     */
+    private void sweep() {
+        final long now = System.nanoTime();
+        if (now - lastSweepNanos < SWEEP_INTERVAL_NANOS) {
+            return;
+        }
+        lastSweepNanos = now;
+        final long retentionNanos = submissionProperties.getRetention().toNanos();
+        submissions.values().removeIf(submission ->
+                submission.completedNanos != 0 && now - submission.completedNanos > retentionNanos);
+    }
+
+    private static boolean isFreeIn(final List<Submission> submissions, final LocalDate fromDate,
+                                    final LocalDate toDate) {
+        for (Submission submission : submissions) {
+            if (!fromDate.isAfter(submission.request.getToDate()) &&
+                    !submission.request.getFromDate().isAfter(toDate)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isFreeOf(final List<Booking> bookings, final LocalDate fromDate, final LocalDate toDate) {
+        for (Booking booking : bookings) {
+            if (!fromDate.isAfter(covertInstant(booking.getToDate())) &&
+                    !covertInstant(booking.getFromDate()).isAfter(toDate)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Counter outcomeCounter(final MeterRegistry meterRegistry,
+                                          final BookingSubmissionDTO.Status status) {
+        return Counter.builder("booking.submissions")
+                .description("Processed booking submissions, by outcome")
+                .tag("outcome", status.name().toLowerCase())
+                .register(meterRegistry);
+    }
+
+    static class Submission {
+
+        private final String ticket;
+        private final BookingRequestDTO request;
+        private volatile BookingSubmissionDTO.Status status = BookingSubmissionDTO.Status.PENDING;
+        private volatile String bookingId;
+        private volatile String error;
+        private volatile long completedNanos;
+
+        Submission(final String ticket, final BookingRequestDTO request) {
+            this.ticket = ticket;
+            this.request = request;
+        }
+
+        void complete(final BookingSubmissionDTO.Status status, final String bookingId, final String error) {
+            this.bookingId = bookingId;
+            this.error = error;
+            this.completedNanos = System.nanoTime();
+            this.status = status;
+        }
+
+        BookingSubmissionDTO toDTO() {
+            final BookingSubmissionDTO.Status currentStatus = status;
+            return new BookingSubmissionDTO(ticket, currentStatus, bookingId, error);
+        }
+
+    }
+
+}
@@ -0,0 +1,292 @@
+package com.pedrorenzo.booking.services.impl;
+
+import com.mongodb.ErrorCategory;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.bulk.BulkWriteError;
+import com.pedrorenzo.booking.availability.AvailabilityIndex;
+import com.pedrorenzo.booking.availability.AvailabilitySnapshot;
+import com.pedrorenzo.booking.config.BookingTransferProperties;
+import com.pedrorenzo.booking.dtos.BookingImportDTO;
+import com.pedrorenzo.booking.dtos.BookingImportErrorDTO;
+import com.pedrorenzo.booking.entities.Booking;
+import com.pedrorenzo.booking.events.BookingsImportedEvent;
+import com.pedrorenzo.booking.repositories.BookingRepository;
+import com.pedrorenzo.booking.services.BookingTransferService;
+import com.pedrorenzo.booking.transfer.BookingFormat;
+import com.pedrorenzo.booking.transfer.BookingReader;
+import com.pedrorenzo.booking.transfer.BookingRecord;
+import com.pedrorenzo.booking.transfer.BookingWriter;
+import com.pedrorenzo.booking.utils.ErrorCode;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import static com.pedrorenzo.booking.utils.ConverterUtils.covertInstant;
+import static com.pedrorenzo.booking.utils.ErrorMessages.BOOKING_ALREADY_EXISTS;
+import static com.pedrorenzo.booking.utils.ErrorMessages.BOOKING_NOT_AVAILABLE;
+import static com.pedrorenzo.booking.utils.ErrorMessages.FROM_DATE_AFTER_TO_DATE;
+import static com.pedrorenzo.booking.utils.ErrorMessages.IMPORT_RECORD_INVALID_FORMAT;
+
+@Service
+public class BookingTransferServiceImpl implements BookingTransferService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BookingTransferServiceImpl.class);
+
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+
+    private final BookingRepository bookingRepository;
+    private final AvailabilityIndex availabilityIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final BookingTransferProperties properties;
+
+    private final DistributionSummary exportThroughput;
+    private final DistributionSummary importThroughput;
+
+    @Autowired
+    public BookingTransferServiceImpl(final BookingRepository bookingRepository,
+                                      final AvailabilityIndex availabilityIndex,
+                                      final ApplicationEventPublisher eventPublisher,
+                                      final BookingTransferProperties properties,
+                                      final MeterRegistry meterRegistry) {
+        this.bookingRepository = bookingRepository;
+        this.availabilityIndex = availabilityIndex;
+        this.eventPublisher = eventPublisher;
+        this.properties = properties;
+        this.exportThroughput = throughputSummary(meterRegistry, "export");
+        this.importThroughput = throughputSummary(meterRegistry, "import");
+    }
+
+    @Override
+    public long export(final BookingFormat format, final OutputStream outputStream) throws IOException {
+        final long start = System.nanoTime();
+        final Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8),
+                WRITE_BUFFER_SIZE);
+        final BookingWriter bookingWriter = format.writer(writer);
+        final long bookings;
+        try {
+            bookings = bookingRepository.forEachForExport(booking -> {
+                try {
+                    bookingWriter.write(booking);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        bookingWriter.flush();
+
+        final long nanos = System.nanoTime() - start;
+        final double recordsPerSecond = recordsPerSecond(bookings, nanos);
+        exportThroughput.record(recordsPerSecond);
+        LOGGER.info("{} bookings exported as {} in {} ms ({} records/s).", bookings, format, nanos / 1_000_000,
+                Math.round(recordsPerSecond));
+        return bookings;
+    }
+
+    @Override
+    public BookingImportDTO importBookings(final BookingFormat format, final InputStream inputStream)
+            throws IOException {
+        final long start = System.nanoTime();
+        final BookingReader reader = new BookingReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8),
+                format);
+        final Report report = new Report(properties.getMaxReportedErrors());
+        final List<BookingRecord> chunk = new ArrayList<>(properties.getImportChunkSize());
+        BookingRecord record;
+        while ((record = reader.next()) != null) {
+            chunk.add(record);
+            if (chunk.size() == properties.getImportChunkSize()) {
+                importChunk(chunk, report);
+                chunk.clear();
+            }
+        }
+        importChunk(chunk, report);
+
+        final long nanos = System.nanoTime() - start;
+        final double recordsPerSecond = recordsPerSecond(report.records, nanos);
+        importThroughput.record(recordsPerSecond);
+        LOGGER.info("{} of {} records imported as {} bookings in {} ms ({} records/s).", report.imported,
+                report.records, format, nanos / 1_000_000, Math.round(recordsPerSecond));
+        return new BookingImportDTO(report.records, report.imported, report.rejected, nanos / 1_000_000,
+                recordsPerSecond, report.errors);
+    }
+
+    /**
+     * Validates the records of a chunk in order, each one against the bookings and the records accepted before it,
+     * then inserts the accepted ones in one round trip and publishes them in one event.
+     */
+    private void importChunk(final List<BookingRecord> chunk, final Report report) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        final List<String> ids = new ArrayList<>(chunk.size());
+        for (BookingRecord record : chunk) {
+            if (record.getBooking() != null && record.getBooking().getId() != null) {
+                ids.add(record.getBooking().getId());
+            }
+        }
+        final Set<String> takenIds = new HashSet<>();
+        if (!ids.isEmpty()) {
+            for (Booking booking : bookingRepository.findAllById(ids)) {
+                takenIds.add(booking.getId());
+            }
+        }
+
+        //
+        // The snapshot already has the previous chunks, through their events. The records accepted from this chunk
+        // are kept apart, by first day, instead of copying the snapshot for each of them: none of them overlap, so
+        // only the one starting last on or before the last day of a record can overlap it.
+        //
+        final AvailabilitySnapshot availability = availabilityIndex.getSnapshot();
+        final TreeMap<Long, Long> acceptedDays = new TreeMap<>();
+        final Instant now = Instant.now();
+        final List<Booking> bookings = new ArrayList<>(chunk.size());
+        final List<BookingRecord> accepted = new ArrayList<>(chunk.size());
+        for (BookingRecord record : chunk) {
+            report.records++;
+            final Booking booking = record.getBooking();
+            if (booking == null) {
+                report.reject(record.getLine(), null, ErrorCode.IMPORT_RECORD_INVALID,
+                        String.format(IMPORT_RECORD_INVALID_FORMAT, record.getError()));
+                continue;
+            }
+            final String id = booking.getId();
+            if (booking.getFromDate().isAfter(booking.getToDate())) {
+                report.reject(record.getLine(), id, ErrorCode.FROM_DATE_AFTER_TO_DATE, FROM_DATE_AFTER_TO_DATE);
+                continue;
+            }
+            if (id != null && takenIds.contains(id)) {
+                report.reject(record.getLine(), id, ErrorCode.BOOKING_ALREADY_EXISTS, BOOKING_ALREADY_EXISTS);
+                continue;
+            }
+            final long fromDay = covertInstant(booking.getFromDate()).toEpochDay();
+            final long toDay = covertInstant(booking.getToDate()).toEpochDay();
+            final Map.Entry<Long, Long> previous = acceptedDays.floorEntry(toDay);
+            if (!availability.isAvailable(fromDay, toDay) || (previous != null && previous.getValue() >= fromDay)) {
+                report.reject(record.getLine(), id, ErrorCode.BOOKING_NOT_AVAILABLE, BOOKING_NOT_AVAILABLE);
+                continue;
+            }
+            acceptedDays.put(fromDay, toDay);
+            if (id != null) {
+                takenIds.add(id);
+            }
+            bookings.add(covertImported(booking, now));
+            accepted.add(record);
+        }
+        insert(bookings, accepted, report);
+    }
+
+    /**
+     * Inserts the accepted bookings of a chunk and publishes the ones inserted. The insert is ordered: when a booking
+     * fails, e.g. on an id taken by another write since the chunk was checked, the ones before it are in and the ones
+     * after it were not tried. The failed one is rejected and the ones after it are inserted again.
+     */
+    private void insert(final List<Booking> bookings, final List<BookingRecord> records, final Report report) {
+        int start = 0;
+        while (start < bookings.size()) {
+            final List<Booking> remaining = bookings.subList(start, bookings.size());
+            BulkWriteError error = null;
+            try {
+                bookingRepository.insert(remaining);
+            } catch (DataAccessException e) {
+                // Without a failed booking, e.g. on a write concern error, it is not known what is in.
+                if (!(e.getCause() instanceof MongoBulkWriteException)
+                        || ((MongoBulkWriteException) e.getCause()).getWriteErrors().isEmpty()) {
+                    throw e;
+                }
+                error = ((MongoBulkWriteException) e.getCause()).getWriteErrors().get(0);
+            }
+            final int inserted = error != null ? error.getIndex() : remaining.size();
+            if (inserted > 0) {
+                eventPublisher.publishEvent(new BookingsImportedEvent(new ArrayList<>(remaining.subList(0, inserted))));
+                report.imported += inserted;
+            }
+            if (error == null) {
+                return;
+            }
+            final BookingRecord failed = records.get(start + inserted);
+            if (ErrorCategory.fromErrorCode(error.getCode()) == ErrorCategory.DUPLICATE_KEY) {
+                report.reject(failed.getLine(), failed.getBooking().getId(), ErrorCode.BOOKING_ALREADY_EXISTS,
+                        BOOKING_ALREADY_EXISTS);
+            } else {
+                report.reject(failed.getLine(), failed.getBooking().getId(), ErrorCode.IMPORT_RECORD_INVALID,
+                        String.format(IMPORT_RECORD_INVALID_FORMAT, error.getMessage()));
+            }
+            start += inserted + 1;
+        }
+    }
+
+    /**
+     * Keeps the created and updated dates of the record, so an exported booking is imported as it was; a record
+     * without them, e.g. from an older export, is created and updated now.
+     */
+    private static Booking covertImported(final Booking booking, final Instant now) {
+        final Booking imported = new Booking(booking);
+        if (imported.getCreatedDate() == null) {
+            imported.setCreatedDate(now);
+        }
+        if (imported.getUpdatedDate() == null) {
+            imported.setUpdatedDate(imported.getCreatedDate());
+        }
+        return imported;
+    }
+
+    private static double recordsPerSecond(final long records, final long nanos) {
+        return nanos == 0 ? 0 : records * 1_000_000_000.0 / nanos;
+    }
+
+    private static DistributionSummary throughputSummary(final MeterRegistry meterRegistry, final String operation) {
+        return DistributionSummary.builder("booking.transfer.throughput")
+                .description("Records per second of the bookings exports and imports")
+                .baseUnit("records/s")
+                .tag("operation", operation)
+                .register(meterRegistry);
+    }
+
+    /**
+     * The counts of an import, and its first rejections.
+     */
+    private static class Report {
+
+        private final int maxReportedErrors;
+        private final List<BookingImportErrorDTO> errors = new ArrayList<>();
+        private long records;
+        private long imported;
+        private long rejected;
+
+        Report(final int maxReportedErrors) {
+            this.maxReportedErrors = maxReportedErrors;
+        }
+
+        void reject(final long line, final String id, final ErrorCode code, final String message) {
+            rejected++;
+            if (errors.size() < maxReportedErrors) {
+                errors.add(new BookingImportErrorDTO(line, id, code, message));
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,45 @@
+package com.pedrorenzo.booking.services.impl;
+
+import com.pedrorenzo.booking.dtos.StayReportDTO;
+import com.pedrorenzo.booking.exceptions.InvalidBookingException;
+import com.pedrorenzo.booking.reports.StayPeriod;
+import com.pedrorenzo.booking.reports.StayStatistics;
+import com.pedrorenzo.booking.services.StayReportService;
+import com.pedrorenzo.booking.utils.ConverterUtils;
+import com.pedrorenzo.booking.utils.ErrorCode;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static com.pedrorenzo.booking.utils.ErrorMessages.REPORT_RANGE_INVALID_FORMAT;
+
+@Service
+public class StayReportServiceImpl implements StayReportService {
+
+    static final int MAXIMUM_PERIODS = 520;
+
+    private final StayStatistics stayStatistics;
+
+    @Autowired
+    public StayReportServiceImpl(final StayStatistics stayStatistics) {
+        this.stayStatistics = stayStatistics;
+    }
+
+    @Override
+    public List<StayReportDTO> report(final StayPeriod period, final LocalDate fromDate, final LocalDate toDate) {
+        final long periods = period == StayPeriod.WEEK ? ChronoUnit.WEEKS.between(fromDate, toDate) :
+                ChronoUnit.MONTHS.between(fromDate, toDate);
+        if (toDate.isBefore(fromDate) || periods >= MAXIMUM_PERIODS) {
+            throw new InvalidBookingException(String.format(REPORT_RANGE_INVALID_FORMAT, MAXIMUM_PERIODS),
+                    ErrorCode.REPORT_RANGE_INVALID);
+        }
+        return stayStatistics.report(period, fromDate.toEpochDay(), toDate.toEpochDay()).stream()
+                .map(ConverterUtils::covertPeriodStatistics)
+                .collect(Collectors.toList());
+    }
+
+}
@@ -0,0 +1,226 @@
+package com.pedrorenzo.booking.services.impl;
+
+import com.pedrorenzo.booking.dtos.BookingRequestDTO;
+import com.pedrorenzo.booking.dtos.WaitlistEntryDTO;
+import com.pedrorenzo.booking.entities.Booking;
+import com.pedrorenzo.booking.entities.WaitlistEntry;
+import com.pedrorenzo.booking.events.BookingChangedEvent;
+import com.pedrorenzo.booking.exceptions.InvalidBookingException;
+import com.pedrorenzo.booking.exceptions.WaitlistEntryNotFoundException;
+import com.pedrorenzo.booking.repositories.BookingRepository;
+import com.pedrorenzo.booking.repositories.WaitlistRepository;
+import com.pedrorenzo.booking.rules.BookingRuleEngine;
+import com.pedrorenzo.booking.services.WaitlistService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static com.pedrorenzo.booking.utils.ConverterUtils.covertDTO;
+import static com.pedrorenzo.booking.utils.ConverterUtils.covertDTOToWaitlistEntry;
+import static com.pedrorenzo.booking.utils.ConverterUtils.covertInstant;
+import static com.pedrorenzo.booking.utils.ConverterUtils.covertWaitlistEntry;
+import static com.pedrorenzo.booking.utils.ErrorMessages.WAITLIST_ENTRY_NOT_FOUND;
+
+@Service
+public class WaitlistServiceImpl implements WaitlistService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(WaitlistServiceImpl.class);
+
+    private static final WaitlistEntryNotFoundException WAITLIST_ENTRY_NOT_FOUND_EXCEPTION =
+            new WaitlistEntryNotFoundException(WAITLIST_ENTRY_NOT_FOUND);
+
+    private final WaitlistRepository waitlistRepository;
+    private final BookingRepository bookingRepository;
+    private final BookingRuleEngine ruleEngine;
+    private final ApplicationEventPublisher eventPublisher;
+
+    //
+    // The promotions run one at a time, after the change that freed the days, so the request that freed them doesn't
+    // wait for the promotion; the other instances promoting the same entries are kept off by the claim of each entry.
+    //
+    private final ExecutorService promoter = Executors.newSingleThreadExecutor(runnable -> {
+        final Thread thread = new Thread(runnable, "waitlist-promoter");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Counter registered;
+    private final Counter promoted;
+    private final Counter expired;
+
+    @Autowired
+    public WaitlistServiceImpl(final WaitlistRepository waitlistRepository,
+                               final BookingRepository bookingRepository,
+                               final BookingRuleEngine ruleEngine,
+                               final ApplicationEventPublisher eventPublisher,
+                               final MeterRegistry meterRegistry) {
+        this.waitlistRepository = waitlistRepository;
+        this.bookingRepository = bookingRepository;
+        this.ruleEngine = ruleEngine;
+        this.eventPublisher = eventPublisher;
+        this.registered = waitlistCounter(meterRegistry, "registered");
+        this.promoted = waitlistCounter(meterRegistry, "promoted");
+        this.expired = waitlistCounter(meterRegistry, "expired");
+    }
+
+    @PreDestroy
+    public void stop() {
+        promoter.shutdownNow();
+    }
+
+    @Override
+    public WaitlistEntryDTO register(final BookingRequestDTO bookingRequestDTO) {
+        // The same rules as a booking, except the availability: the days are expected to be taken.
+        ruleEngine.validate(bookingRequestDTO, (fromDate, toDate) -> true);
+
+        final WaitlistEntry waitlistEntry = waitlistRepository.insert(covertDTOToWaitlistEntry(bookingRequestDTO));
+        registered.increment();
+        LOGGER.info("Waitlist entry {} registered for {}.", waitlistEntry.getId(), bookingRequestDTO);
+        return covertWaitlistEntry(waitlistEntry);
+    }
+
+    @Override
+    public WaitlistEntryDTO findById(final String id) {
+        return covertWaitlistEntry(findEntry(id));
+    }
+
+    @Override
+    public void deleteById(final String id) {
+        final WaitlistEntry waitlistEntry = findEntry(id);
+        waitlistRepository.delete(waitlistEntry);
+    }
+
+    /**
+     * Promotes the waitlist entries the days freed by a deleted or updated booking may satisfy.
+     */
+    @EventListener
+    public void onBookingChanged(final BookingChangedEvent event) {
+        final Booking previous = event.getPrevious();
+        if (previous != null) {
+            promoter.execute(() -> promote(epochDay(previous.getFromDate()), epochDay(previous.getToDate())));
+        }
+    }
+
+    /**
+     * Books the waiting entries overlapping the freed days that are now available, in waitlist order. Entries that no
+     * longer satisfy the other rules, e.g. because their first day passed, expire. Both the entries and the bookings
+     * are read from the database, so the ones written through other instances are taken into account.
+     *
+     * @param fromDay The first freed day, as an epoch day.
+     * @param toDay The last freed day, as an epoch day.
+     */
+    void promote(final long fromDay, final long toDay) {
+        // The longer entries break the stay rule and would only expire.
+        final long earliestFromDay = fromDay - ruleEngine.getSettings().getMaximumStayDays() + 1;
+        for (WaitlistEntry candidate : waitlistRepository.findWaitingOverlapping(startOfDay(earliestFromDay),
+                startOfDay(fromDay), startOfDay(toDay))) {
+            try {
+                promote(candidate);
+            } catch (RuntimeException e) {
+                LOGGER.error("Error promoting waitlist entry {}.", candidate.getId(), e);
+            }
+        }
+    }
+
+    //
+    // Every instance that sees the days freed promotes the same entries, so each entry is claimed with a conditional
+    // update from WAITING before its booking is inserted: only the instance that wins the claim books it, and an entry
+    // deleted or changed meanwhile is left alone instead of being written back.
+    //
+    private void promote(final WaitlistEntry candidate) {
+        final String id = candidate.getId();
+        final BookingRequestDTO bookingRequestDTO = new BookingRequestDTO(covertInstant(candidate.getFromDate()),
+                covertInstant(candidate.getToDate()));
+        try {
+            // The availability is checked apart: days still taken keep the entry waiting instead of expiring it.
+            ruleEngine.validate(bookingRequestDTO, (fromDate, toDate) -> true);
+        } catch (InvalidBookingException e) {
+            if (waitlistRepository.findAndUpdateStatus(id, WaitlistEntry.Status.WAITING, WaitlistEntry.Status.EXPIRED,
+                    null) != null) {
+                expired.increment();
+                LOGGER.info("Waitlist entry {} expired: {}", id, e.getMessage());
+            }
+            return;
+        }
+
+        // Read from the primary right before the claim and the insert, as the synchronous inserts do.
+        if (!isAvailable(bookingRequestDTO.getFromDate(), bookingRequestDTO.getToDate())) {
+            return;
+        }
+        if (waitlistRepository.findAndUpdateStatus(id, WaitlistEntry.Status.WAITING, WaitlistEntry.Status.PROMOTING,
+                null) == null) {
+            LOGGER.info("Waitlist entry {} was claimed, cancelled or expired meanwhile.", id);
+            return;
+        }
+
+        final Booking booking;
+        try {
+            booking = bookingRepository.insert(covertDTO(bookingRequestDTO));
+        } catch (RuntimeException e) {
+            release(id);
+            throw e;
+        }
+        eventPublisher.publishEvent(BookingChangedEvent.inserted(booking));
+        if (waitlistRepository.findAndUpdateStatus(id, WaitlistEntry.Status.PROMOTING, WaitlistEntry.Status.PROMOTED,
+                booking.getId()) == null) {
+            LOGGER.warn("Waitlist entry {} was deleted while promoted to booking {}.", id, booking.getId());
+        }
+        promoted.increment();
+        LOGGER.info("Waitlist entry {} promoted to booking {}.", id, booking.getId());
+    }
+
+    /**
+     * Puts a claimed entry back in the waitlist, when its booking failed.
+     */
+    private void release(final String id) {
+        waitlistRepository.findAndUpdateStatus(id, WaitlistEntry.Status.PROMOTING, WaitlistEntry.Status.WAITING, null);
+    }
+
+    private boolean isAvailable(final LocalDate fromDate, final LocalDate toDate) {
+        for (Booking booking : bookingRepository.findOverlappingForValidation(fromDate.toEpochDay(),
+                toDate.toEpochDay())) {
+            if (!fromDate.isAfter(covertInstant(booking.getToDate())) &&
+                    !covertInstant(booking.getFromDate()).isAfter(toDate)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private WaitlistEntry findEntry(final String id) {
+        final Optional<WaitlistEntry> waitlistEntry = waitlistRepository.findById(id);
+        if (!waitlistEntry.isPresent()) {
+            throw WAITLIST_ENTRY_NOT_FOUND_EXCEPTION;
+        }
+        return waitlistEntry.get();
+    }
+
+    private static Instant startOfDay(final long epochDay) {
+        return LocalDate.ofEpochDay(epochDay).atStartOfDay().toInstant(ZoneOffset.UTC);
+    }
+
+    private static long epochDay(final Instant instant) {
+        return instant.atOffset(ZoneOffset.UTC).toLocalDate().toEpochDay();
+    }
+
+    private static Counter waitlistCounter(final MeterRegistry meterRegistry, final String outcome) {
+        return Counter.builder("booking.waitlist")
+                .description("Waitlist entries registered, promoted to bookings or expired")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+}
@@ -0,0 +1,321 @@
+package com.pedrorenzo.booking.transfer;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.pedrorenzo.booking.entities.Booking;
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.pedrorenzo.booking.utils.ConverterUtils.covertInstant;
+
+/**
+ * The formats bookings are exported and imported in: one booking per line, with its id, its first and last days and
+ * when it was created and last updated, so a file of any size is written and read a record at a time.
+ */
+public enum BookingFormat {
+
+    /**
+     * Comma-separated values, under an {@code id,fromDate,toDate,createdDate,updatedDate} header, the header being
+     * optional on import. The days are ISO dates and the created and updated dates ISO instants, which may be left
+     * out on import, as in the files written before they were exported; the ids with a comma or a double quote are
+     * quoted.
+     */
+    CSV("text/csv", "csv") {
+        @Override
+        public BookingWriter writer(final Writer writer) throws IOException {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+            return new BookingWriter() {
+                @Override
+                public void write(final Booking booking) throws IOException {
+                    writeCsvField(writer, booking.getId());
+                    writer.write(',');
+                    writer.write(covertInstant(booking.getFromDate()).toString());
+                    writer.write(',');
+                    writer.write(covertInstant(booking.getToDate()).toString());
+                    writer.write(',');
+                    writeCsvInstant(writer, booking.getCreatedDate());
+                    writer.write(',');
+                    writeCsvInstant(writer, booking.getUpdatedDate());
+                    writer.write('\n');
+                }
+
+                @Override
+                public void flush() throws IOException {
+                    writer.flush();
+                }
+            };
+        }
+
+        @Override
+        public boolean isHeader(final String line) {
+            final String header = line.trim();
+            return header.equalsIgnoreCase(CSV_HEADER) || header.equalsIgnoreCase(DAYS_CSV_HEADER);
+        }
+
+        @Override
+        public Booking parse(final String line) {
+            final List<String> fields = splitCsv(line);
+            if (fields.size() != 3 && fields.size() != 5) {
+                throw new IllegalArgumentException("expected 3 or 5 fields, found " + fields.size());
+            }
+            final String id = fields.get(0).trim();
+            final Booking booking = new Booking(startOfDay(parseDate(FROM_DATE, fields.get(1).trim())),
+                    startOfDay(parseDate(TO_DATE, fields.get(2).trim())), null, null);
+            booking.setId(id.isEmpty() ? null : id);
+            if (fields.size() == 5) {
+                booking.setCreatedDate(parseInstant(CREATED_DATE, fields.get(3).trim()));
+                booking.setUpdatedDate(parseInstant(UPDATED_DATE, fields.get(4).trim()));
+            }
+            return booking;
+        }
+    },
+
+    /**
+     * Newline-delimited JSON: one {@code {"id": ..., "fromDate": ..., "toDate": ..., "createdDate": ...,
+     * "updatedDate": ...}} object per line. The days are written as ISO dates and read as ISO dates or epoch days; the
+     * created and updated dates are ISO instants, optional on import; other fields are ignored.
+     */
+    NDJSON("application/x-ndjson", "ndjson") {
+        @Override
+        public BookingWriter writer(final Writer writer) throws IOException {
+            final JsonGenerator generator = JSON_FACTORY.createGenerator(writer);
+            return new BookingWriter() {
+                @Override
+                public void write(final Booking booking) throws IOException {
+                    generator.writeStartObject();
+                    generator.writeStringField(ID, booking.getId());
+                    generator.writeStringField(FROM_DATE, covertInstant(booking.getFromDate()).toString());
+                    generator.writeStringField(TO_DATE, covertInstant(booking.getToDate()).toString());
+                    writeJsonInstant(generator, CREATED_DATE, booking.getCreatedDate());
+                    writeJsonInstant(generator, UPDATED_DATE, booking.getUpdatedDate());
+                    generator.writeEndObject();
+                    generator.writeRaw('\n');
+                }
+
+                @Override
+                public void flush() throws IOException {
+                    generator.flush();
+                }
+            };
+        }
+
+        @Override
+        public Booking parse(final String line) {
+            final Booking booking = new Booking();
+            try (JsonParser parser = JSON_FACTORY.createParser(line)) {
+                if (parser.nextToken() != JsonToken.START_OBJECT) {
+                    throw new IllegalArgumentException("expected a JSON object");
+                }
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    final String name = parser.getCurrentName();
+                    final JsonToken value = parser.nextToken();
+                    if (ID.equals(name)) {
+                        booking.setId(value == JsonToken.VALUE_NULL ? null : parser.getValueAsString());
+                    } else if (FROM_DATE.equals(name)) {
+                        booking.setFromDate(startOfDay(parseDate(name, parser, value)));
+                    } else if (TO_DATE.equals(name)) {
+                        booking.setToDate(startOfDay(parseDate(name, parser, value)));
+                    } else if (CREATED_DATE.equals(name)) {
+                        booking.setCreatedDate(parseInstant(name, parser, value));
+                    } else if (UPDATED_DATE.equals(name)) {
+                        booking.setUpdatedDate(parseInstant(name, parser, value));
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+                if (parser.nextToken() != null) {
+                    throw new IllegalArgumentException("expected one JSON object per line");
+                }
+            } catch (IOException e) {
+                throw new IllegalArgumentException("malformed JSON", e);
+            }
+            if (booking.getFromDate() == null || booking.getToDate() == null) {
+                throw new IllegalArgumentException("fromDate and toDate are required");
+            }
+            return booking;
+        }
+    };
+
+    private static final String ID = "id";
+    private static final String FROM_DATE = "fromDate";
+    private static final String TO_DATE = "toDate";
+    private static final String CREATED_DATE = "createdDate";
+    private static final String UPDATED_DATE = "updatedDate";
+    private static final String CSV_HEADER = ID + ',' + FROM_DATE + ',' + TO_DATE + ',' + CREATED_DATE + ','
+            + UPDATED_DATE;
+    // The header of the files exported before the created and updated dates were.
+    private static final String DAYS_CSV_HEADER = ID + ',' + FROM_DATE + ',' + TO_DATE;
+
+    // The objects are separated by the line breaks written after them, not by the default space.
+    private static final JsonFactory JSON_FACTORY = new JsonFactory().setRootValueSeparator(null);
+
+    private final MediaType mediaType;
+    private final String fileExtension;
+
+    BookingFormat(final String mediaType, final String fileExtension) {
+        this.mediaType = MediaType.parseMediaType(mediaType);
+        this.fileExtension = fileExtension;
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    public String getFileExtension() {
+        return fileExtension;
+    }
+
+    /**
+     * @param writer Where the bookings are written; the header, if the format has one, is written at once.
+     * @return A writer of the bookings to it, which may buffer them until it is flushed.
+     * @throws IOException If the header could not be written.
+     */
+    public abstract BookingWriter writer(final Writer writer) throws IOException;
+
+    /**
+     * @param line A line of a file in this format, without the line terminator.
+     * @return <b>true</b> if it is the header of the format, to be skipped when it is the first line.
+     */
+    public boolean isHeader(final String line) {
+        return false;
+    }
+
+    /**
+     * @param line A non-blank line of a file in this format, without the line terminator.
+     * @return The booking of the line, its dates at the start of its days, with a <b>null</b> id, created date or
+     * updated date when it has none.
+     * @throws IllegalArgumentException If the line is not a booking, with the reason as message.
+     */
+    public abstract Booking parse(final String line);
+
+    /**
+     * @param mediaType A content type.
+     * @return The format of the content type, ignoring its parameters, or <b>null</b> if it is none of them.
+     */
+    public static BookingFormat of(final MediaType mediaType) {
+        for (BookingFormat format : values()) {
+            if (format.mediaType.equalsTypeAndSubtype(mediaType)) {
+                return format;
+            }
+        }
+        return null;
+    }
+
+    private static LocalDate parseDate(final String name, final String value) {
+        if (value.isEmpty()) {
+            throw new IllegalArgumentException(name + " is required");
+        }
+        try {
+            return LocalDate.parse(value);
+        } catch (DateTimeException e) {
+            throw new IllegalArgumentException(name + " is not an ISO date: " + value, e);
+        }
+    }
+
+    private static LocalDate parseDate(final String name, final JsonParser parser, final JsonToken value)
+            throws IOException {
+        if (value == JsonToken.VALUE_STRING) {
+            return parseDate(name, parser.getText().trim());
+        }
+        if (value == JsonToken.VALUE_NUMBER_INT) {
+            try {
+                return LocalDate.ofEpochDay(parser.getLongValue());
+            } catch (DateTimeException e) {
+                throw new IllegalArgumentException(name + " is out of range", e);
+            }
+        }
+        throw new IllegalArgumentException(name + " must be an ISO date or an epoch day");
+    }
+
+    private static Instant parseInstant(final String name, final String value) {
+        if (value.isEmpty()) {
+            return null;
+        }
+        try {
+            return Instant.parse(value);
+        } catch (DateTimeException e) {
+            throw new IllegalArgumentException(name + " is not an ISO instant: " + value, e);
+        }
+    }
+
+    private static Instant parseInstant(final String name, final JsonParser parser, final JsonToken value)
+            throws IOException {
+        if (value == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (value == JsonToken.VALUE_STRING) {
+            return parseInstant(name, parser.getText().trim());
+        }
+        throw new IllegalArgumentException(name + " must be an ISO instant");
+    }
+
+    private static Instant startOfDay(final LocalDate date) {
+        return date.atStartOfDay().toInstant(ZoneOffset.UTC);
+    }
+
+    private static void writeJsonInstant(final JsonGenerator generator, final String name, final Instant value)
+            throws IOException {
+        if (value != null) {
+            generator.writeStringField(name, value.toString());
+        }
+    }
+
+    private static void writeCsvInstant(final Writer writer, final Instant value) throws IOException {
+        if (value != null) {
+            writer.write(value.toString());
+        }
+    }
+
+    private static void writeCsvField(final Writer writer, final String value) throws IOException {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    private static List<String> splitCsv(final String line) {
+        final List<String> fields = new ArrayList<>(5);
+        final StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            final char c = line.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("unterminated quoted field");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+}
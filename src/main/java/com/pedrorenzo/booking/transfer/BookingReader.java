@@ -0,0 +1,94 @@
+package com.pedrorenzo.booking.transfer;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Reads the bookings of a file in a {@link BookingFormat} one line at a time, so the memory used doesn't grow with the
+ * file. Blank lines and the header are skipped; a line longer than the limit is skipped to its end and read as an
+ * invalid record instead of being buffered whole.
+ */
+public class BookingReader {
+
+    static final int MAXIMUM_LINE_LENGTH = 4096;
+
+    private final Reader reader;
+    private final BookingFormat format;
+    private final char[] buffer = new char[8192];
+    private final StringBuilder line = new StringBuilder();
+    private int position;
+    private int limit;
+    private long lineNumber;
+
+    /**
+     * @param reader The file; it is read in blocks, so it need not be buffered.
+     * @param format The format of the file.
+     */
+    public BookingReader(final Reader reader, final BookingFormat format) {
+        this.reader = reader;
+        this.format = format;
+    }
+
+    /**
+     * @return The next record, or <b>null</b> at the end of the file.
+     * @throws IOException If the file could not be read.
+     */
+    public BookingRecord next() throws IOException {
+        while (true) {
+            final boolean tooLong = !readLine();
+            if (tooLong) {
+                return BookingRecord.invalid(lineNumber,
+                        "the line is longer than " + MAXIMUM_LINE_LENGTH + " characters");
+            }
+            if (line.length() == 0 && limit < 0) {
+                return null;
+            }
+            final String text = line.toString();
+            if (text.trim().isEmpty() || (lineNumber == 1 && format.isHeader(text))) {
+                continue;
+            }
+            try {
+                return BookingRecord.valid(lineNumber, format.parse(text));
+            } catch (IllegalArgumentException e) {
+                return BookingRecord.invalid(lineNumber, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Reads the next line into {@link #line}, without its terminator (LF or CRLF).
+     *
+     * @return <b>false</b> if the line was too long, and was skipped.
+     */
+    private boolean readLine() throws IOException {
+        line.setLength(0);
+        boolean tooLong = false;
+        while (true) {
+            if (position >= limit) {
+                if (limit < 0 || (limit = reader.read(buffer, 0, buffer.length)) < 0) {
+                    break;
+                }
+                position = 0;
+            }
+            final char c = buffer[position++];
+            if (c == '\n') {
+                lineNumber++;
+                if (line.length() > 0 && line.charAt(line.length() - 1) == '\r') {
+                    line.setLength(line.length() - 1);
+                }
+                return !tooLong;
+            }
+            if (line.length() < MAXIMUM_LINE_LENGTH) {
+                line.append(c);
+            } else {
+                tooLong = true;
+            }
+        }
+        // The end of the file: the last line has no terminator, or there is no line.
+        if (line.length() > 0 || tooLong) {
+            lineNumber++;
+        }
+        return !tooLong;
+    }
+
+}
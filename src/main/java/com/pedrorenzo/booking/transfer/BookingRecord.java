@@ -0,0 +1,49 @@
+package com.pedrorenzo.booking.transfer;
+
+import com.pedrorenzo.booking.entities.Booking;
+
+/**
+ * A line of an imported file: the booking it holds or why it holds none.
+ */
+public final class BookingRecord {
+
+    private final long line;
+    private final Booking booking;
+    private final String error;
+
+    private BookingRecord(final long line, final Booking booking, final String error) {
+        this.line = line;
+        this.booking = booking;
+        this.error = error;
+    }
+
+    static BookingRecord valid(final long line, final Booking booking) {
+        return new BookingRecord(line, booking, null);
+    }
+
+    static BookingRecord invalid(final long line, final String error) {
+        return new BookingRecord(line, null, error);
+    }
+
+    /**
+     * @return The number of the line in the file, the first one being 1.
+     */
+    public long getLine() {
+        return line;
+    }
+
+    /**
+     * @return The booking, <b>null</b> if the line is not one.
+     */
+    public Booking getBooking() {
+        return booking;
+    }
+
+    /**
+     * @return Why the line is not a booking, <b>null</b> if it is one.
+     */
+    public String getError() {
+        return error;
+    }
+
+}
@@ -0,0 +1,25 @@
+package com.pedrorenzo.booking.transfer;
+
+import com.pedrorenzo.booking.entities.Booking;
+
+import java.io.IOException;
+
+/**
+ * Writes bookings one record at a time in a {@link BookingFormat}.
+ */
+public interface BookingWriter {
+
+    /**
+     * @param booking The booking to be written after the previous ones.
+     * @throws IOException If it could not be written.
+     */
+    void write(final Booking booking) throws IOException;
+
+    /**
+     * Writes out what is buffered, without closing the underlying output.
+     *
+     * @throws IOException If it could not be written.
+     */
+    void flush() throws IOException;
+
+}
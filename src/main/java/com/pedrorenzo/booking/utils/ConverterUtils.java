@@ -2,15 +2,27 @@ package com.pedrorenzo.booking.utils;
 
 import com.pedrorenzo.booking.dtos.BookingRequestDTO;
 import com.pedrorenzo.booking.dtos.BookingResponseDTO;
+import com.pedrorenzo.booking.dtos.BookingSubmissionDTO;
+import com.pedrorenzo.booking.dtos.BookingViolationDTO;
+import com.pedrorenzo.booking.dtos.StayReportDTO;
+import com.pedrorenzo.booking.dtos.WaitlistEntryDTO;
 import com.pedrorenzo.booking.entities.Booking;
+import com.pedrorenzo.booking.entities.SubmissionOutcome;
+import com.pedrorenzo.booking.entities.WaitlistEntry;
+import com.pedrorenzo.booking.reports.PeriodStatistics;
+import com.pedrorenzo.booking.rules.BookingRuleViolation;
 
-import java.time.LocalDateTime;
+import java.time.Instant;
+import java.time.LocalDate;
 import java.time.LocalTime;
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
 
 public class ConverterUtils {
 
+    private static final long SECONDS_PER_DAY = 86_400;
+    private static final long MILLIS_PER_DAY = SECONDS_PER_DAY * 1000;
+
     /**
      * Coverts a {@link BookingResponseDTO} into a {@link Booking}.
      *
@@ -31,9 +43,23 @@ public class ConverterUtils {
      * @return The converted booking.
      */
     public static BookingResponseDTO covertBooking(final Booking booking) {
-        return new BookingResponseDTO(booking.getId(),
-                LocalDateTime.ofInstant(booking.getFromDate(), ZoneOffset.UTC).toLocalDate(),
-                LocalDateTime.ofInstant(booking.getToDate(), ZoneOffset.UTC).toLocalDate());
+        return new BookingResponseDTO(booking.getId(), covertInstant(booking.getFromDate()),
+                covertInstant(booking.getToDate()));
+    }
+
+    /**
+     * Coverts the {@link PeriodStatistics} of a week or month into a {@link StayReportDTO}.
+     *
+     * @param statistics The statistics to be converted.
+     * @return The converted statistics, with the rates and averages; the averages are 0 without stays.
+     */
+    public static StayReportDTO covertPeriodStatistics(final PeriodStatistics statistics) {
+        final long days = statistics.getToDay() - statistics.getFromDay() + 1;
+        return new StayReportDTO(LocalDate.ofEpochDay(statistics.getFromDay()),
+                LocalDate.ofEpochDay(statistics.getToDay()), statistics.getStays(), statistics.getBookedDays(),
+                (double) statistics.getBookedDays() / days,
+                statistics.getStays() == 0 ? 0 : (double) statistics.getStayDays() / statistics.getStays(),
+                statistics.getLeadStays() == 0 ? 0 : (double) statistics.getLeadDays() / statistics.getLeadStays());
     }
 
     /**
@@ -50,4 +76,69 @@ public class ConverterUtils {
         return booking;
     }
 
+    /**
+     * Coverts a {@link BookingRequestDTO} into a new {@link WaitlistEntry}.
+     *
+     * @param bookingRequestDTO The days to wait for.
+     * @return The converted waitlist entry.
+     */
+    public static WaitlistEntry covertDTOToWaitlistEntry(final BookingRequestDTO bookingRequestDTO) {
+        return new WaitlistEntry(bookingRequestDTO.getFromDate().atStartOfDay().toInstant(ZoneOffset.UTC),
+                bookingRequestDTO.getToDate().atTime(LocalTime.MIDNIGHT).toInstant(ZoneOffset.UTC),
+                OffsetDateTime.now().toInstant());
+    }
+
+    /**
+     * Coverts a {@link WaitlistEntry} into a {@link WaitlistEntryDTO}.
+     *
+     * @param waitlistEntry The waitlist entry to be converted.
+     * @return The converted waitlist entry.
+     */
+    public static WaitlistEntryDTO covertWaitlistEntry(final WaitlistEntry waitlistEntry) {
+        return new WaitlistEntryDTO(waitlistEntry.getId(),
+                covertInstant(waitlistEntry.getFromDate()), covertInstant(waitlistEntry.getToDate()),
+                waitlistEntry.getStatus().name(), waitlistEntry.getBookingId());
+    }
+
+    /**
+     * Coverts a {@link SubmissionOutcome} into a {@link BookingSubmissionDTO}.
+     *
+     * @param outcome The outcome to be converted.
+     * @return The converted submission.
+     */
+    public static BookingSubmissionDTO covertSubmissionOutcome(final SubmissionOutcome outcome) {
+        return new BookingSubmissionDTO(outcome.getTicket(), outcome.getStatus(), outcome.getBookingId(),
+                outcome.getError());
+    }
+
+    /**
+     * Coverts a {@link BookingRuleViolation} into a {@link BookingViolationDTO}.
+     *
+     * @param violation The violation to be converted.
+     * @return The converted violation.
+     */
+    public static BookingViolationDTO covertViolation(final BookingRuleViolation violation) {
+        return new BookingViolationDTO(violation.getRule(), violation.getErrorCode(), violation.getMessage());
+    }
+
+    /**
+     * Coverts an instant into its UTC day, straight from the epoch seconds instead of through a {@code LocalDateTime}.
+     *
+     * @param instant The instant to be converted.
+     * @return The converted day.
+     */
+    public static LocalDate covertInstant(final Instant instant) {
+        return LocalDate.ofEpochDay(Math.floorDiv(instant.getEpochSecond(), SECONDS_PER_DAY));
+    }
+
+    /**
+     * Coverts epoch milliseconds, as BSON stores dates, into their UTC day.
+     *
+     * @param epochMilli The milliseconds since the epoch.
+     * @return The converted day.
+     */
+    public static LocalDate covertEpochMilli(final long epochMilli) {
+        return LocalDate.ofEpochDay(Math.floorDiv(epochMilli, MILLIS_PER_DAY));
+    }
+
 }
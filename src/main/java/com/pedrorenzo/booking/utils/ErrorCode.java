@@ -0,0 +1,25 @@
+package com.pedrorenzo.booking.utils;
+
+/**
+ * Stable codes of the business errors, for clients to act on instead of parsing the {@link ErrorMessages} texts.
+ */
+public enum ErrorCode {
+
+    FROM_DATE_AFTER_TO_DATE,
+    STAY_START_INVALID,
+    STAY_LONGER_THAN_LIMIT,
+    DAYS_IN_ADVANCE_LONGER_THAN_LIMIT,
+    BOOKING_NOT_AVAILABLE,
+    BOOKING_RULE_VIOLATED,
+    STAY_SEARCH_INVALID,
+    REPORT_RANGE_INVALID,
+    BULK_SIZE_INVALID,
+    IMPORT_RECORD_INVALID,
+    BOOKING_ALREADY_EXISTS,
+    BOOKING_NOT_FOUND,
+    WAITLIST_ENTRY_NOT_FOUND,
+    SUBMISSION_NOT_FOUND,
+    TOO_MANY_REQUESTS,
+    SERVICE_OVERLOADED
+
+}
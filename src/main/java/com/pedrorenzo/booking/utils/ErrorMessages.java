@@ -11,12 +11,37 @@ public class ErrorMessages {
 
     public static final String STAY_START_INVALID = "The reservation must start at least the next day of booking.";
 
+    public static final String STAY_LONGER_THAN_LIMIT_FORMAT = "The stay can't be longer than %d days.";
+
     public static final String STAY_LONGER_THAN_LIMIT  =
-            "The stay can't be longer than " + (MAXIMUM_DIFF_STAY_DAYS + 1) + " days.";
+            String.format(STAY_LONGER_THAN_LIMIT_FORMAT, MAXIMUM_DIFF_STAY_DAYS + 1);
+
+    public static final String DAYS_IN_ADVANCE_LONGER_THAN_LIMIT_FORMAT =
+            "The reservation can't be made more than %d days in advance.";
 
     public static final String DAYS_IN_ADVANCE_LONGER_THAN_LIMIT  =
-            "The reservation can't be made more than " + MAXIMUM_DIFF_DAYS_IN_ADVANCE + " days in advance.";
+            String.format(DAYS_IN_ADVANCE_LONGER_THAN_LIMIT_FORMAT, MAXIMUM_DIFF_DAYS_IN_ADVANCE);
 
     public static final String BOOKING_NOT_AVAILABLE = "Unfortunately there is already a booking on this date.";
 
+    public static final String STAY_SEARCH_INVALID_FORMAT =
+            "The stay length must be positive and the number of stays between 1 and %d.";
+
+    public static final String REPORT_RANGE_INVALID_FORMAT =
+            "The report must start on or before its end and span at most %d periods.";
+
+    public static final String BULK_SIZE_INVALID_FORMAT = "A bulk request can't have more than %d bookings.";
+
+    public static final String IMPORT_RECORD_INVALID_FORMAT = "The record is not a booking: %s.";
+
+    public static final String BOOKING_ALREADY_EXISTS = "There is already a booking with this id.";
+
+    public static final String WAITLIST_ENTRY_NOT_FOUND = "Waitlist entry not found.";
+
+    public static final String SUBMISSION_NOT_FOUND = "Booking submission not found.";
+
+    public static final String TOO_MANY_REQUESTS = "Too many requests, please try again later.";
+
+    public static final String SERVICE_OVERLOADED = "The service is overloaded, please try again later.";
+
 }
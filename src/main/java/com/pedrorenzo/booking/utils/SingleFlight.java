@@ -0,0 +1,97 @@
+package com.pedrorenzo.booking.utils;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent calls for the same key: while a call is in flight, every other caller asking for the same key
+ * waits for it and receives the same result (or the same exception) instead of executing the call again.
+ *
+ * @param <K> The key type.
+ * @param <V> The result type.
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Executes the loader for the given key, or joins the execution already in flight for it.
+     *
+     * @param key The key identifying the call.
+     * @param loader The call to be executed.
+     * @return The result of the call.
+     */
+    public Result<V> execute(final K key, final Supplier<V> loader) {
+        final CompletableFuture<V> call = new CompletableFuture<>();
+        final CompletableFuture<V> existingCall = inFlight.putIfAbsent(key, call);
+        if (existingCall != null) {
+            return new Result<>(await(existingCall), true);
+        }
+
+        try {
+            final V value = loader.get();
+            call.complete(value);
+            return new Result<>(value, false);
+        } catch (RuntimeException | Error e) {
+            call.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, call);
+        }
+    }
+
+    /**
+     * Detaches the calls in flight from their keys: they still complete for the callers already waiting for them, but
+     * the callers coming afterwards execute a new call instead of joining them.
+     */
+    public void forget() {
+        inFlight.clear();
+    }
+
+    private V await(final CompletableFuture<V> call) {
+        try {
+            return call.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a coalesced call.", e);
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    /**
+     * The result of a call, indicating if it was shared with another caller.
+     *
+     * @param <V> The result type.
+     */
+    public static class Result<V> {
+
+        private final V value;
+        private final boolean coalesced;
+
+        public Result(final V value, final boolean coalesced) {
+            this.value = value;
+            this.coalesced = coalesced;
+        }
+
+        public V getValue() {
+            return value;
+        }
+
+        public boolean isCoalesced() {
+            return coalesced;
+        }
+
+    }
+
+}
@@ -0,0 +1,80 @@
+package com.pedrorenzo.booking.availability;
+
+import com.pedrorenzo.booking.entities.Booking;
+import com.pedrorenzo.booking.events.BookingChangedEvent;
+import com.pedrorenzo.booking.repositories.BookingRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class AvailabilityIndexTest {
+
+    private final BookingRepository bookingRepository = mock(BookingRepository.class);
+    private final AvailabilityIndex availabilityIndex = new AvailabilityIndex(bookingRepository);
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testRebuildReplaysTheChangesMadeWhileStreaming() {
+        final Booking stale = booking("stale", "2021-06-01", "2021-06-02");
+        when(bookingRepository.findAllForValidation()).thenReturn(Arrays.asList(
+                booking("a", "2021-06-10", "2021-06-12"), stale));
+        availabilityIndex.getSnapshot();
+
+        final Booking inserted = booking("b", "2021-06-20", "2021-06-21");
+        when(bookingRepository.forEachForValidation(any())).thenAnswer(invocation -> {
+            final Consumer<Booking> consumer = invocation.getArgument(0);
+            consumer.accept(booking("a", "2021-06-10", "2021-06-12"));
+            // Inserted after the cursor passed its position: only the event has it.
+            availabilityIndex.onBookingChanged(BookingChangedEvent.inserted(inserted));
+            // Deleted in the database without this instance knowing, e.g. by another instance.
+            consumer.accept(booking("c", "2021-06-15", "2021-06-15"));
+            return 2L;
+        });
+
+        final AvailabilityRebuild rebuild = availabilityIndex.rebuild();
+
+        assertEquals(3, rebuild.getBookings());
+        assertEquals(2, rebuild.getMismatches());
+        assertEquals(1, rebuild.getReplayedChanges());
+        assertTrue(availabilityIndex.isAvailable(LocalDate.parse("2021-06-01"), LocalDate.parse("2021-06-02")));
+        assertFalse(availabilityIndex.isAvailable(LocalDate.parse("2021-06-15"), LocalDate.parse("2021-06-15")));
+        assertFalse(availabilityIndex.isAvailable(LocalDate.parse("2021-06-21"), LocalDate.parse("2021-06-22")));
+    }
+
+    @Test
+    public void testWarmStartAppliesOnlyTheChangesSinceTheSnapshot() {
+        final Instant savedAt = Instant.parse("2021-06-01T10:00:00Z");
+        final AvailabilitySnapshot saved = AvailabilitySnapshot.of(new String[]{"a", "moved"},
+                new long[]{18_788, 18_790}, new long[]{18_789, 18_790});
+        when(bookingRepository.findChangedSinceForValidation(savedAt)).thenReturn(Arrays.asList(
+                booking("moved", "2021-06-25", "2021-06-26"), booking("new", "2021-06-28", "2021-06-28")));
+
+        assertEquals(2, availabilityIndex.warmStart(saved, savedAt));
+
+        assertEquals(3, availabilityIndex.getSnapshot().size());
+        assertTrue(availabilityIndex.isAvailable(LocalDate.parse("2021-06-12"), LocalDate.parse("2021-06-12")));
+        assertFalse(availabilityIndex.isAvailable(LocalDate.parse("2021-06-26"), LocalDate.parse("2021-06-28")));
+        assertEquals(-1, availabilityIndex.warmStart(saved, savedAt));
+        verify(bookingRepository, never()).findAllForValidation();
+    }
+
+    private static Booking booking(final String id, final String fromDate, final String toDate) {
+        final Booking booking = new Booking(Instant.parse(fromDate + "T00:00:00Z"),
+                Instant.parse(toDate + "T00:00:00Z"), null, null);
+        booking.setId(id);
+        return booking;
+    }
+
+}
@@ -0,0 +1,47 @@
+package com.pedrorenzo.booking.availability;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class AvailabilitySnapshotFileTest {
+
+    private final AvailabilitySnapshot snapshot = AvailabilitySnapshot.of(
+            new String[]{"60a7c1d2e4b0a1b2c3d4e5f6", "legacy-id", "60a7c1d2e4b0a1b2c3d4e5f7"},
+            new long[]{18_800, 18_780, 18_790}, new long[]{18_802, 18_781, 18_790});
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void testWrittenSnapshotReadsBackTheSame() throws IOException {
+        final Path path = directory.resolve("availability.snapshot");
+        final Instant loadedAt = Instant.parse("2021-06-01T10:15:30.123Z");
+
+        new AvailabilitySnapshotFile(snapshot, loadedAt).write(path);
+        final AvailabilitySnapshotFile read = AvailabilitySnapshotFile.read(path);
+
+        assertEquals(loadedAt, read.getLoadedAt());
+        assertEquals(3, read.getSnapshot().size());
+        assertEquals(0, read.getSnapshot().countMismatches(snapshot));
+    }
+
+    @Test
+    public void testCorruptedSnapshotIsRejected() throws IOException {
+        final Path path = directory.resolve("availability.snapshot");
+        new AvailabilitySnapshotFile(snapshot, Instant.now()).write(path);
+        final byte[] bytes = Files.readAllBytes(path);
+        bytes[30] ^= 1;
+        Files.write(path, bytes);
+
+        assertThrows(IOException.class, () -> AvailabilitySnapshotFile.read(path));
+    }
+
+}
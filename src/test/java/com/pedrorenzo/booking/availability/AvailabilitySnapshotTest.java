@@ -0,0 +1,97 @@
+package com.pedrorenzo.booking.availability;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class AvailabilitySnapshotTest {
+
+    private final AvailabilitySnapshot snapshot = AvailabilitySnapshot.of(new String[]{"b", "a"},
+            new long[]{20, 10}, new long[]{22, 12});
+
+    @Test
+    public void testOverlapsWithAnyBookedDay() {
+        assertTrue(snapshot.isAvailable(13, 19));
+        assertTrue(snapshot.isAvailable(1, 9));
+        assertTrue(snapshot.isAvailable(23, 25));
+        assertFalse(snapshot.isAvailable(12, 13));
+        assertFalse(snapshot.isAvailable(19, 20));
+        assertFalse(snapshot.isAvailable(5, 30));
+        assertFalse(snapshot.isAvailable(21, 21));
+    }
+
+    @Test
+    public void testLongBookingHiddenBehindLaterStartsIsFound() {
+        final AvailabilitySnapshot overlapping = snapshot.with("long", 5, 40);
+
+        assertFalse(overlapping.isAvailable(30, 31));
+        assertTrue(overlapping.without("long").isAvailable(30, 31));
+    }
+
+    @Test
+    public void testWithReplacesTheBookingWithTheSameId() {
+        final AvailabilitySnapshot moved = snapshot.with("a", 30, 31);
+
+        assertEquals(2, moved.size());
+        assertTrue(moved.isAvailable(10, 12));
+        assertFalse(moved.isAvailable(31, 32));
+        assertTrue(snapshot.isAvailable(30, 31));
+        assertSame(snapshot, snapshot.without("unknown"));
+    }
+
+    @Test
+    public void testBookingsAreFoundByIdAfterEveryChange() {
+        AvailabilitySnapshot changed = snapshot;
+        for (int i = 0; i < 20; i++) {
+            changed = changed.with("n" + (i * 7 % 20), 100 - i * 3, 101 - i * 3);
+        }
+        changed = changed.with("b", 1, 2).without("n3").without("a").with("n5", 200, 201).without("unknown");
+
+        final String[] ids = new String[20];
+        final long[] fromDays = new long[20];
+        final long[] toDays = new long[20];
+        for (int i = 0; i < 20; i++) {
+            final int n = i * 7 % 20;
+            ids[i] = n == 3 ? "b" : "n" + n;
+            fromDays[i] = n == 3 ? 1 : n == 5 ? 200 : 100 - i * 3;
+            toDays[i] = fromDays[i] + 1;
+        }
+        assertEquals(0, changed.countMismatches(AvailabilitySnapshot.of(ids, fromDays, toDays)));
+        assertTrue(changed.isAvailable(10, 22));
+    }
+
+    @Test
+    public void testNextFreeStartSkipsTheGapsTooShortForTheStay() {
+        assertEquals(1, snapshot.findNextFreeStart(1, 3));
+        assertEquals(13, snapshot.findNextFreeStart(8, 3));
+        assertEquals(23, snapshot.findNextFreeStart(18, 3));
+        assertEquals(13, snapshot.findNextFreeStart(13, 7));
+        assertEquals(23, snapshot.findNextFreeStart(13, 8));
+        assertEquals(41, snapshot.with("long", 5, 40).findNextFreeStart(3, 3));
+        assertEquals(7, AvailabilitySnapshot.empty().findNextFreeStart(7, 3));
+    }
+
+    @Test
+    public void testMismatchesCountMissingExtraAndMovedBookings() {
+        assertEquals(0, snapshot.countMismatches(AvailabilitySnapshot.of(new String[]{"a", "b"},
+                new long[]{10, 20}, new long[]{12, 22})));
+        assertEquals(3, snapshot.countMismatches(snapshot.without("b").with("a", 10, 13).with("c", 30, 31)));
+        assertEquals(2, AvailabilitySnapshot.empty().countMismatches(snapshot));
+    }
+
+    @Test
+    public void testWithAllReplacesAndMergesInOrder() {
+        final AvailabilitySnapshot changed = snapshot.withAll(new String[]{"c", "a", "d"},
+                new long[]{25, 14, 1}, new long[]{26, 15, 2});
+
+        assertEquals(4, changed.size());
+        assertEquals(0, changed.countMismatches(snapshot.with("c", 25, 26).with("a", 14, 15).with("d", 1, 2)));
+        assertTrue(changed.isAvailable(10, 12));
+        assertFalse(changed.isAvailable(15, 15));
+        assertSame(snapshot, snapshot.withAll(new String[0], new long[0], new long[0]));
+    }
+
+}
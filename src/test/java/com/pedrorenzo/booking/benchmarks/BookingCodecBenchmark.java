@@ -0,0 +1,102 @@
+package com.pedrorenzo.booking.benchmarks;
+
+import com.pedrorenzo.booking.config.BookingCodec;
+import com.pedrorenzo.booking.entities.Booking;
+import org.bson.BsonBinaryReader;
+import org.bson.BsonBinaryWriter;
+import org.bson.Document;
+import org.bson.codecs.Codec;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.DocumentCodec;
+import org.bson.codecs.EncoderContext;
+import org.bson.io.BasicOutputBuffer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares a booking encoded and decoded by the {@link BookingCodec} with the mapping converter plus the driver's
+ * document codec, as the template does it: throughput, to and from BSON bytes. The document sizes are printed once
+ * per fork.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookingCodecBenchmark {
+
+    private final BookingCodec bookingCodec = new BookingCodec();
+    private final Codec<Document> documentCodec = new DocumentCodec();
+
+    private MappingMongoConverter mappingConverter;
+    private Booking booking;
+    private byte[] codecBson;
+    private byte[] mappedBson;
+
+    @Setup
+    public void setup() {
+        final MongoCustomConversions conversions = new MongoCustomConversions(Collections.emptyList());
+        final MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        mappingContext.afterPropertiesSet();
+        mappingConverter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        mappingConverter.setCustomConversions(conversions);
+        mappingConverter.afterPropertiesSet();
+
+        final Instant now = Instant.now();
+        booking = new Booking(Instant.parse("2021-05-01T00:00:00Z"), Instant.parse("2021-05-03T00:00:00Z"), now, now);
+        booking.setId("6087072a0000000000000001");
+
+        codecBson = encodeCodec();
+        mappedBson = encodeMapped();
+        System.out.printf("%nBSON: codec %d bytes, mapping converter %d bytes (%.1f%%)%n", codecBson.length,
+                mappedBson.length, 100.0 * codecBson.length / mappedBson.length);
+    }
+
+    @Benchmark
+    public byte[] encodeCodec() {
+        final BasicOutputBuffer buffer = new BasicOutputBuffer(128);
+        bookingCodec.encode(new BsonBinaryWriter(buffer), booking, EncoderContext.builder().build());
+        return buffer.toByteArray();
+    }
+
+    @Benchmark
+    public byte[] encodeMapped() {
+        final Document document = new Document();
+        mappingConverter.write(booking, document);
+        final BasicOutputBuffer buffer = new BasicOutputBuffer(128);
+        documentCodec.encode(new BsonBinaryWriter(buffer), document, EncoderContext.builder().build());
+        return buffer.toByteArray();
+    }
+
+    @Benchmark
+    public Booking decodeCodec() {
+        return bookingCodec.decode(new BsonBinaryReader(ByteBuffer.wrap(codecBson)), DecoderContext.builder().build());
+    }
+
+    @Benchmark
+    public Booking decodeMapped() {
+        final Document document = documentCodec.decode(new BsonBinaryReader(ByteBuffer.wrap(mappedBson)),
+                DecoderContext.builder().build());
+        return mappingConverter.read(Booking.class, document);
+    }
+
+}
@@ -0,0 +1,119 @@
+package com.pedrorenzo.booking.benchmarks;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.mongodb.ConnectionString;
+import com.mongodb.MongoClientSettings;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.pedrorenzo.booking.config.BookingMongoProperties;
+import com.pedrorenzo.booking.config.MongoConfiguration;
+import com.pedrorenzo.booking.dtos.BookingResponseDTO;
+import com.pedrorenzo.booking.entities.Booking;
+import com.pedrorenzo.booking.repositories.BookingRepositoryCustomImpl;
+import com.pedrorenzo.booking.utils.ConverterUtils;
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.net.InetSocketAddress;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of reading all bookings for the listing and for the validation: the whole entity mapped by Spring Data
+ * (as they were) against the id and dates projection decoded by hand, on an in-memory Mongo over loopback.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ListingReadBenchmark {
+
+    @Param({"100", "1000"})
+    private int bookings;
+
+    private MongoServer mongoServer;
+    private MongoClient mongoClient;
+    private MongoTemplate mongoTemplate;
+    private BookingRepositoryCustomImpl bookingRepository;
+
+    @Setup
+    public void setup() {
+        // Without a logging configuration, the driver and the server log every command.
+        ((Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+
+        mongoServer = new MongoServer(new MemoryBackend());
+        final InetSocketAddress address = mongoServer.bind();
+        mongoClient = MongoClients.create(MongoClientSettings.builder()
+                .applyConnectionString(new ConnectionString(
+                        "mongodb://" + address.getHostString() + ":" + address.getPort()))
+                .codecRegistry(MongoConfiguration.codecRegistry())
+                .build());
+        mongoTemplate = new MongoTemplate(mongoClient, "booking");
+        // The in-memory server does not support read concerns.
+        final BookingMongoProperties mongoProperties = new BookingMongoProperties();
+        mongoProperties.getListingReads().setReadConcern("default");
+        mongoProperties.getValidationReads().setReadConcern("default");
+        bookingRepository = new BookingRepositoryCustomImpl(mongoTemplate, mongoProperties);
+
+        final Instant firstDay = Instant.parse("2021-05-01T00:00:00Z");
+        final Instant now = Instant.now();
+        final List<Booking> inserts = new ArrayList<>(bookings);
+        for (int i = 0; i < bookings; i++) {
+            inserts.add(new Booking(firstDay.plus(i * 3L, ChronoUnit.DAYS), firstDay.plus(i * 3L + 2, ChronoUnit.DAYS),
+                    now, now));
+        }
+        mongoTemplate.insertAll(inserts);
+    }
+
+    @TearDown
+    public void tearDown() {
+        mongoClient.close();
+        mongoServer.shutdown();
+    }
+
+    @Benchmark
+    public List<BookingResponseDTO> listingMappedEntity() {
+        final List<Booking> found = mongoTemplate.findAll(Booking.class);
+        final List<BookingResponseDTO> bookingResponseDTOs = new ArrayList<>(found.size());
+        for (Booking booking : found) {
+            bookingResponseDTOs.add(ConverterUtils.covertBooking(booking));
+        }
+        return bookingResponseDTOs;
+    }
+
+    @Benchmark
+    public List<BookingResponseDTO> listingProjection() {
+        return bookingRepository.findAllForListing();
+    }
+
+    @Benchmark
+    public List<Booking> validationMappedEntity() {
+        return mongoTemplate.findAll(Booking.class);
+    }
+
+    @Benchmark
+    public List<Booking> validationProjection() {
+        return bookingRepository.findAllForValidation();
+    }
+
+}
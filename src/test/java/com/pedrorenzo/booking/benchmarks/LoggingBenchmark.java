@@ -0,0 +1,144 @@
+package com.pedrorenzo.booking.benchmarks;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.OutputStreamAppender;
+import ch.qos.logback.core.encoder.Encoder;
+import ch.qos.logback.core.encoder.LayoutWrappingEncoder;
+import com.pedrorenzo.booking.dtos.BookingRequestDTO;
+import com.pedrorenzo.booking.logging.JsonLayout;
+import com.pedrorenzo.booking.logging.RequestSamplingFilter;
+import com.pedrorenzo.booking.logging.RequestSamplingTurboFilter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.MDC;
+
+import java.io.BufferedOutputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the request threads logging the line of an insert, written to /dev/null: logging off, the former
+ * synchronous text appender (a write per line), the asynchronous and buffered JSON appender, and the latter with 1
+ * request in 10 sampled, which also pays for marking the decision in the MDC.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class LoggingBenchmark {
+
+    private static final String PATTERN = "%d{yyyy-MM-dd HH:mm:ss.SSS} %5p [%t] %logger{39} : %m%n";
+    private static final double SAMPLE_RATE = 0.1;
+
+    @Param({"off", "sync-text", "async-json", "async-json-sampled"})
+    private String mode;
+
+    private final BookingRequestDTO bookingRequestDTO =
+            new BookingRequestDTO(LocalDate.of(2021, 5, 1), LocalDate.of(2021, 5, 3));
+
+    private LoggerContext loggerContext;
+    private Logger logger;
+    private boolean sampled;
+
+    @Setup
+    public void setup() throws FileNotFoundException {
+        loggerContext = new LoggerContext();
+        final RequestSamplingTurboFilter turboFilter = new RequestSamplingTurboFilter();
+        turboFilter.start();
+        loggerContext.addTurboFilter(turboFilter);
+
+        final Logger root = loggerContext.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME);
+        root.setLevel(mode.equals("off") ? Level.WARN : Level.INFO);
+        if (mode.startsWith("async-json")) {
+            final Appender<ILoggingEvent> json = outputStreamAppender(
+                    new BufferedOutputStream(new FileOutputStream("/dev/null"), 64 * 1024), jsonEncoder(), false);
+            final AsyncAppender async = new AsyncAppender();
+            async.setContext(loggerContext);
+            async.setQueueSize(8192);
+            async.setDiscardingThreshold(0);
+            async.setNeverBlock(true);
+            async.addAppender(json);
+            async.start();
+            root.addAppender(async);
+        } else {
+            root.addAppender(outputStreamAppender(new FileOutputStream("/dev/null"), patternEncoder(), true));
+        }
+        sampled = mode.equals("async-json-sampled");
+        logger = loggerContext.getLogger("com.pedrorenzo.booking.controllers.BookingController.insert");
+    }
+
+    @TearDown
+    public void tearDown() {
+        loggerContext.stop();
+    }
+
+    @Benchmark
+    public void logInsert() {
+        if (!sampled || ThreadLocalRandom.current().nextDouble() < SAMPLE_RATE) {
+            logger.info("Inserting booking: {}.", bookingRequestDTO);
+            return;
+        }
+        MDC.put(RequestSamplingFilter.SAMPLED, RequestSamplingFilter.NOT_SAMPLED);
+        try {
+            logger.info("Inserting booking: {}.", bookingRequestDTO);
+        } finally {
+            MDC.remove(RequestSamplingFilter.SAMPLED);
+        }
+    }
+
+    private Appender<ILoggingEvent> outputStreamAppender(final OutputStream outputStream,
+                                                         final Encoder<ILoggingEvent> encoder,
+                                                         final boolean immediateFlush) {
+        final OutputStreamAppender<ILoggingEvent> appender = new OutputStreamAppender<>();
+        appender.setContext(loggerContext);
+        appender.setEncoder(encoder);
+        appender.setImmediateFlush(immediateFlush);
+        appender.setOutputStream(outputStream);
+        appender.start();
+        return appender;
+    }
+
+    private Encoder<ILoggingEvent> patternEncoder() {
+        final PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(loggerContext);
+        encoder.setPattern(PATTERN);
+        encoder.start();
+        return encoder;
+    }
+
+    private Encoder<ILoggingEvent> jsonEncoder() {
+        final JsonLayout layout = new JsonLayout();
+        layout.setContext(loggerContext);
+        layout.start();
+        final LayoutWrappingEncoder<ILoggingEvent> encoder = new LayoutWrappingEncoder<>();
+        encoder.setContext(loggerContext);
+        encoder.setLayout(layout);
+        encoder.start();
+        return encoder;
+    }
+
+}
@@ -0,0 +1,108 @@
+package com.pedrorenzo.booking.benchmarks;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.mongodb.ConnectionString;
+import com.mongodb.MongoClientSettings;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.pedrorenzo.booking.config.BookingMongoProperties;
+import com.pedrorenzo.booking.config.MongoConfiguration;
+import com.pedrorenzo.booking.entities.Booking;
+import com.pedrorenzo.booking.repositories.BookingRepositoryCustomImpl;
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.net.InetSocketAddress;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of a booking update and delete done as a read followed by the write (as they were) against a single
+ * findAndModify/findAndRemove, on an in-memory Mongo over loopback: the difference is the saved round trip, which
+ * grows with the real network distance to the database. The deletes insert their booking first, in both variants.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MutationRoundTripBenchmark {
+
+    private MongoServer mongoServer;
+    private MongoClient mongoClient;
+    private MongoTemplate mongoTemplate;
+    private BookingRepositoryCustomImpl bookingRepository;
+    private String id;
+
+    @Setup
+    public void setup() {
+        // Without a logging configuration, the driver and the server log every command.
+        ((Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+
+        mongoServer = new MongoServer(new MemoryBackend());
+        final InetSocketAddress address = mongoServer.bind();
+        mongoClient = MongoClients.create(MongoClientSettings.builder()
+                .applyConnectionString(new ConnectionString(
+                        "mongodb://" + address.getHostString() + ":" + address.getPort()))
+                .codecRegistry(MongoConfiguration.codecRegistry())
+                .build());
+        mongoTemplate = new MongoTemplate(mongoClient, "booking");
+        bookingRepository = new BookingRepositoryCustomImpl(mongoTemplate, new BookingMongoProperties());
+        id = mongoTemplate.insert(newBooking()).getId();
+    }
+
+    @TearDown
+    public void tearDown() {
+        mongoClient.close();
+        mongoServer.shutdown();
+    }
+
+    @Benchmark
+    public Booking updateReadThenSave() {
+        final Booking booking = mongoTemplate.findById(id, Booking.class);
+        booking.setUpdatedDate(Instant.now());
+        return mongoTemplate.save(booking);
+    }
+
+    @Benchmark
+    public Booking updateFindAndModify() {
+        final Booking booking = newBooking();
+        booking.setId(id);
+        return bookingRepository.findAndUpdateDates(booking);
+    }
+
+    @Benchmark
+    public Booking deleteReadThenDelete() {
+        final String inserted = mongoTemplate.insert(newBooking()).getId();
+        final Booking booking = mongoTemplate.findById(inserted, Booking.class);
+        mongoTemplate.remove(booking);
+        return booking;
+    }
+
+    @Benchmark
+    public Booking deleteFindAndRemove() {
+        final String inserted = mongoTemplate.insert(newBooking()).getId();
+        return bookingRepository.findAndRemoveById(inserted);
+    }
+
+    private static Booking newBooking() {
+        final Instant now = Instant.now();
+        return new Booking(now, now, now, now);
+    }
+
+}
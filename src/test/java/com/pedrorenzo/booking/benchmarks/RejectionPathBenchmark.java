@@ -0,0 +1,99 @@
+package com.pedrorenzo.booking.benchmarks;
+
+import com.pedrorenzo.booking.exceptions.InvalidBookingException;
+import com.pedrorenzo.booking.exceptions.ResponseExceptionHandler;
+import com.pedrorenzo.booking.response.Response;
+import com.pedrorenzo.booking.utils.ErrorCode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static com.pedrorenzo.booking.utils.ErrorMessages.BOOKING_NOT_AVAILABLE;
+
+/**
+ * The cost of a rejected booking between the rule and the error response: throwing the exception from some frames
+ * deep (a request goes through about a hundred in the servlet stack) and building the answer. Compares the previous
+ * path (a new exception with its stack trace, a new body) with a new stackless exception and with the pre-allocated
+ * one the rule engine reuses, both answered from the cached bodies.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RejectionPathBenchmark {
+
+    @Param({"10", "100"})
+    private int depth;
+
+    private final ResponseExceptionHandler handler = new ResponseExceptionHandler();
+
+    private final InvalidBookingException preallocated =
+            new InvalidBookingException(BOOKING_NOT_AVAILABLE, ErrorCode.BOOKING_NOT_AVAILABLE);
+
+    @Benchmark
+    public ResponseEntity<Response> stackTraceException() {
+        try {
+            throwFrom(depth, () -> new StackTraceException(BOOKING_NOT_AVAILABLE));
+            return null;
+        } catch (StackTraceException e) {
+            return new ResponseEntity<>(new Response<>(Collections.singletonList(e.getMessage())),
+                    HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    @Benchmark
+    public ResponseEntity<Response> stacklessException() {
+        try {
+            throwFrom(depth, () -> new InvalidBookingException(BOOKING_NOT_AVAILABLE, ErrorCode.BOOKING_NOT_AVAILABLE));
+            return null;
+        } catch (InvalidBookingException e) {
+            return handler.handleInvalidBookingException(e);
+        }
+    }
+
+    @Benchmark
+    public ResponseEntity<Response> preallocatedException() {
+        try {
+            throwFrom(depth, () -> preallocated);
+            return null;
+        } catch (InvalidBookingException e) {
+            return handler.handleInvalidBookingException(e);
+        }
+    }
+
+    private static void throwFrom(final int depth, final Supplier<RuntimeException> exception) {
+        if (depth == 0) {
+            throw exception.get();
+        }
+        throwFrom(depth - 1, exception);
+    }
+
+    /**
+     * The business exceptions as they were: a plain runtime exception, filling in its stack trace.
+     */
+    private static class StackTraceException extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+
+        StackTraceException(final String message) {
+            super(message);
+        }
+
+    }
+
+}
@@ -0,0 +1,145 @@
+package com.pedrorenzo.booking.benchmarks;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.mongodb.ConnectionString;
+import com.mongodb.MongoClientSettings;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.pedrorenzo.booking.availability.AvailabilitySnapshot;
+import com.pedrorenzo.booking.availability.AvailabilitySnapshotFile;
+import com.pedrorenzo.booking.config.BookingMongoProperties;
+import com.pedrorenzo.booking.config.MongoConfiguration;
+import com.pedrorenzo.booking.entities.Booking;
+import com.pedrorenzo.booking.repositories.BookingRepositoryCustomImpl;
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to get the availability ready at startup: loading every booking from an in-memory Mongo over loopback (as it
+ * was) against reading the saved snapshot file plus the bookings changed since it was saved (1%).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WarmStartBenchmark {
+
+    @Param({"1000", "10000"})
+    private int bookings;
+
+    private MongoServer mongoServer;
+    private MongoClient mongoClient;
+    private BookingRepositoryCustomImpl bookingRepository;
+    private Path snapshotPath;
+    private Instant savedAt;
+
+    @Setup
+    public void setup() throws IOException {
+        // Without a logging configuration, the driver and the server log every command.
+        ((Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+
+        mongoServer = new MongoServer(new MemoryBackend());
+        final InetSocketAddress address = mongoServer.bind();
+        mongoClient = MongoClients.create(MongoClientSettings.builder()
+                .applyConnectionString(new ConnectionString(
+                        "mongodb://" + address.getHostString() + ":" + address.getPort()))
+                .codecRegistry(MongoConfiguration.codecRegistry())
+                .build());
+        final MongoTemplate mongoTemplate = new MongoTemplate(mongoClient, "booking");
+        // The in-memory server does not support read concerns.
+        final BookingMongoProperties mongoProperties = new BookingMongoProperties();
+        mongoProperties.getListingReads().setReadConcern("default");
+        mongoProperties.getValidationReads().setReadConcern("default");
+        bookingRepository = new BookingRepositoryCustomImpl(mongoTemplate, mongoProperties);
+        bookingRepository.createUpdatedDateIndex();
+
+        final Instant firstDay = Instant.parse("2021-05-01T00:00:00Z");
+        savedAt = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+        final Instant before = savedAt.minus(1, ChronoUnit.HOURS);
+        final List<Booking> inserts = new ArrayList<>(bookings);
+        for (int i = 0; i < bookings; i++) {
+            // The last 1% were written after the snapshot was saved.
+            final Instant updatedDate = i < bookings - bookings / 100 ? before : savedAt.plusSeconds(1);
+            inserts.add(new Booking(firstDay.plus(i * 3L, ChronoUnit.DAYS), firstDay.plus(i * 3L + 2, ChronoUnit.DAYS),
+                    updatedDate, updatedDate));
+        }
+        bookingRepository.insert(inserts);
+
+        snapshotPath = Files.createTempFile("availability", ".snapshot");
+        final AvailabilitySnapshot saved = toSnapshot(bookingRepository.findAllForValidation().subList(0,
+                bookings - bookings / 100));
+        new AvailabilitySnapshotFile(saved, savedAt).write(snapshotPath);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(snapshotPath);
+        mongoClient.close();
+        mongoServer.shutdown();
+    }
+
+    @Benchmark
+    public AvailabilitySnapshot fullLoad() {
+        return toSnapshot(bookingRepository.findAllForValidation());
+    }
+
+    @Benchmark
+    public AvailabilitySnapshot warmStart() throws IOException {
+        final AvailabilitySnapshotFile file = AvailabilitySnapshotFile.read(snapshotPath);
+        final List<Booking> changed = bookingRepository.findChangedSinceForValidation(file.getLoadedAt());
+        final String[] ids = new String[changed.size()];
+        final long[] fromDays = new long[changed.size()];
+        final long[] toDays = new long[changed.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = changed.get(i).getId();
+            fromDays[i] = epochDay(changed.get(i).getFromDate());
+            toDays[i] = epochDay(changed.get(i).getToDate());
+        }
+        return file.getSnapshot().withAll(ids, fromDays, toDays);
+    }
+
+    private static AvailabilitySnapshot toSnapshot(final List<Booking> found) {
+        final String[] ids = new String[found.size()];
+        final long[] fromDays = new long[found.size()];
+        final long[] toDays = new long[found.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = found.get(i).getId();
+            fromDays[i] = epochDay(found.get(i).getFromDate());
+            toDays[i] = epochDay(found.get(i).getToDate());
+        }
+        return AvailabilitySnapshot.of(ids, fromDays, toDays);
+    }
+
+    private static long epochDay(final Instant instant) {
+        return instant.atOffset(ZoneOffset.UTC).toLocalDate().toEpochDay();
+    }
+
+}
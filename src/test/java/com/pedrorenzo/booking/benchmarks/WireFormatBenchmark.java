@@ -0,0 +1,94 @@
+package com.pedrorenzo.booking.benchmarks;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.pedrorenzo.booking.config.WireFormatConfiguration;
+import com.pedrorenzo.booking.dtos.BookingResponseDTO;
+import com.pedrorenzo.booking.response.Response;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the JSON and the CBOR (epoch-day dates) encoding of the listing response: encode and decode throughput.
+ * The payload sizes are printed once per fork.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WireFormatBenchmark {
+
+    private static final TypeReference<Response<List<BookingResponseDTO>>> LISTING_TYPE =
+            new TypeReference<Response<List<BookingResponseDTO>>>() {
+            };
+
+    @Param({"1", "100", "1000"})
+    private int bookings;
+
+    private final ObjectMapper jsonObjectMapper = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+
+    private final ObjectMapper cborObjectMapper = WireFormatConfiguration.cborObjectMapper();
+
+    private Response<List<BookingResponseDTO>> listing;
+    private byte[] json;
+    private byte[] cbor;
+
+    @Setup
+    public void setup() throws IOException {
+        final LocalDate firstDay = LocalDate.of(2021, 5, 1);
+        final List<BookingResponseDTO> bookingResponseDTOs = new ArrayList<>(bookings);
+        for (int i = 0; i < bookings; i++) {
+            bookingResponseDTOs.add(new BookingResponseDTO(String.format("6087072%017x", i),
+                    firstDay.plusDays(i * 3L), firstDay.plusDays(i * 3L + 2)));
+        }
+        listing = new Response<>();
+        listing.setData(bookingResponseDTOs);
+
+        json = jsonObjectMapper.writeValueAsBytes(listing);
+        cbor = cborObjectMapper.writeValueAsBytes(listing);
+        System.out.printf("%n%d bookings: JSON %d bytes, CBOR %d bytes (%.1f%%)%n", bookings, json.length,
+                cbor.length, 100.0 * cbor.length / json.length);
+    }
+
+    @Benchmark
+    public byte[] encodeJson() throws IOException {
+        return jsonObjectMapper.writeValueAsBytes(listing);
+    }
+
+    @Benchmark
+    public byte[] encodeCbor() throws IOException {
+        return cborObjectMapper.writeValueAsBytes(listing);
+    }
+
+    @Benchmark
+    public Response<List<BookingResponseDTO>> decodeJson() throws IOException {
+        return jsonObjectMapper.readValue(json, LISTING_TYPE);
+    }
+
+    @Benchmark
+    public Response<List<BookingResponseDTO>> decodeCbor() throws IOException {
+        return cborObjectMapper.readValue(cbor, LISTING_TYPE);
+    }
+
+}
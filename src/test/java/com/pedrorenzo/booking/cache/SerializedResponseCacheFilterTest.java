@@ -0,0 +1,89 @@
+package com.pedrorenzo.booking.cache;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import javax.servlet.FilterChain;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class SerializedResponseCacheFilterTest {
+
+    private static final String BODY = "{\"data\":[],\"errors\":[]}";
+
+    private final SerializedResponseCache cache = new SerializedResponseCache(100);
+
+    private final SerializedResponseCacheFilter filter = new SerializedResponseCacheFilter(cache);
+
+    private final AtomicInteger executions = new AtomicInteger();
+
+    private final FilterChain chain = (request, response) -> {
+        executions.incrementAndGet();
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getOutputStream().write(BODY.getBytes(StandardCharsets.UTF_8));
+    };
+
+    @Test
+    public void testSecondReadIsServedFromTheCache() throws Exception {
+        final MockHttpServletResponse first = get(null);
+        final MockHttpServletResponse second = get(null);
+
+        assertEquals(1, executions.get());
+        assertEquals(BODY, first.getContentAsString());
+        assertEquals(BODY, second.getContentAsString());
+        assertEquals(MediaType.APPLICATION_JSON_VALUE, second.getContentType());
+    }
+
+    @Test
+    public void testCachedBodyIsGzippedWhenAccepted() throws Exception {
+        get(null);
+        final MockHttpServletResponse response = get("deflate, gzip");
+
+        assertEquals("gzip", response.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(BODY, gunzip(response.getContentAsByteArray()));
+    }
+
+    @Test
+    public void testInvalidateForcesANewRead() throws Exception {
+        get(null);
+        cache.invalidate();
+        final MockHttpServletResponse response = get(null);
+
+        assertEquals(2, executions.get());
+        assertNull(response.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(BODY, response.getContentAsString());
+    }
+
+    private MockHttpServletResponse get(final String acceptEncoding) throws Exception {
+        final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/v1/bookings");
+        if (acceptEncoding != null) {
+            request.addHeader(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+        }
+        final MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+
+    private static String gunzip(final byte[] body) throws IOException {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            final byte[] buffer = new byte[256];
+            int read;
+            while ((read = gzip.read(buffer)) != -1) {
+                output.write(buffer, 0, read);
+            }
+        }
+        return new String(output.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+}
@@ -0,0 +1,82 @@
+package com.pedrorenzo.booking.config;
+
+import com.pedrorenzo.booking.entities.Booking;
+import org.bson.BsonDateTime;
+import org.bson.BsonDocument;
+import org.bson.BsonDocumentReader;
+import org.bson.BsonDocumentWriter;
+import org.bson.BsonInt32;
+import org.bson.BsonObjectId;
+import org.bson.BsonString;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class BookingCodecTest {
+
+    private static final String ID = "6087072a0000000000000001";
+    private static final Instant DAY = Instant.parse("2021-05-01T00:00:00Z");
+
+    private final BookingCodec codec = new BookingCodec();
+
+    @Test
+    public void testEncodeWritesObjectIdDatesAndDaysWithoutTypeHint() {
+        final Booking booking = new Booking(DAY, DAY.plusSeconds(86_400), DAY, DAY);
+        booking.setId(ID);
+
+        final BsonDocument document = encode(booking);
+
+        assertEquals(new BsonObjectId(new ObjectId(ID)), document.get("_id"));
+        assertEquals(new BsonDateTime(DAY.plusSeconds(86_400).toEpochMilli()), document.get("toDate"));
+        assertEquals(new BsonInt32((int) (DAY.getEpochSecond() / 86_400)), document.get("fromDay"));
+        assertEquals(new BsonInt32((int) (DAY.getEpochSecond() / 86_400) + 1), document.get("toDay"));
+        assertEquals(new BsonInt32(BookingCodec.CURRENT_SCHEMA_VERSION), document.get("schemaVersion"));
+        assertFalse(document.containsKey("_class"));
+        assertEquals(8, document.size());
+    }
+
+    @Test
+    public void testDecodeReadsWhatItEncodes() {
+        final Booking booking = new Booking(DAY, DAY.plusSeconds(86_400), DAY, DAY.plusSeconds(60));
+        booking.setId(ID);
+
+        final Booking decoded = decode(encode(booking));
+
+        assertEquals(ID, decoded.getId());
+        assertEquals(booking.getFromDate(), decoded.getFromDate());
+        assertEquals(booking.getToDate(), decoded.getToDate());
+        assertEquals(booking.getCreatedDate(), decoded.getCreatedDate());
+        assertEquals(booking.getUpdatedDate(), decoded.getUpdatedDate());
+    }
+
+    @Test
+    public void testDecodeSkipsTypeHintAndReadsStringIds() {
+        final BsonDocument document = new BsonDocument("_id", new BsonString("booking"))
+                .append("fromDate", new BsonDateTime(DAY.toEpochMilli()))
+                .append("_class", new BsonString(Booking.class.getName()));
+
+        final Booking decoded = decode(document);
+
+        assertEquals("booking", decoded.getId());
+        assertEquals(DAY, decoded.getFromDate());
+        assertNull(decoded.getToDate());
+    }
+
+    private BsonDocument encode(final Booking booking) {
+        final BsonDocument document = new BsonDocument();
+        codec.encode(new BsonDocumentWriter(document), booking, EncoderContext.builder().build());
+        return document;
+    }
+
+    private Booking decode(final BsonDocument document) {
+        return codec.decode(new BsonDocumentReader(document), DecoderContext.builder().build());
+    }
+
+}
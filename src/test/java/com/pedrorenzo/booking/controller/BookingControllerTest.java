@@ -1,16 +1,24 @@
 package com.pedrorenzo.booking.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pedrorenzo.booking.config.WireFormatConfiguration;
 import com.pedrorenzo.booking.controllers.BookingController;
 import com.pedrorenzo.booking.dtos.BookingRequestDTO;
 import com.pedrorenzo.booking.dtos.BookingResponseDTO;
+import com.pedrorenzo.booking.dtos.BookingSubmissionDTO;
 import com.pedrorenzo.booking.exceptions.BookingNotFoundException;
 import com.pedrorenzo.booking.exceptions.InvalidBookingException;
+import com.pedrorenzo.booking.exceptions.SubmissionNotFoundException;
 import com.pedrorenzo.booking.services.impl.BookingServiceImpl;
+import com.pedrorenzo.booking.services.impl.BookingSubmissionServiceImpl;
+import com.pedrorenzo.booking.utils.ErrorCode;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
@@ -25,8 +33,12 @@ import java.util.Collections;
 
 import static com.pedrorenzo.booking.utils.ErrorMessages.BOOKING_NOT_FOUND;
 import static com.pedrorenzo.booking.utils.ErrorMessages.STAY_START_INVALID;
+import static com.pedrorenzo.booking.utils.ErrorMessages.SUBMISSION_NOT_FOUND;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -39,10 +51,15 @@ public class BookingControllerTest {
     @MockBean
     private BookingServiceImpl bookingService;
 
+    @MockBean
+    private BookingSubmissionServiceImpl bookingSubmissionService;
+
     private static final LocalDate NOW = OffsetDateTime.now(ZoneOffset.UTC).toLocalDate();
 
     private static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
 
+    private static final ObjectMapper CBOR_OBJECT_MAPPER = WireFormatConfiguration.cborObjectMapper();
+
     protected MockMvc mockMvc;
 
     @BeforeEach
@@ -76,7 +93,8 @@ public class BookingControllerTest {
                 .andExpect(status().isNotFound())
                 .andExpect(jsonPath("$.data.size()").isEmpty())
                 .andExpect(jsonPath("$.errors[0]").value(
-                        BOOKING_NOT_FOUND));
+                        BOOKING_NOT_FOUND))
+                .andExpect(jsonPath("$.codes[0]").value("BOOKING_NOT_FOUND"));
     }
 
     @Test
@@ -123,9 +141,51 @@ public class BookingControllerTest {
                 .andExpect(jsonPath("$.errors.size()").value(0));
     }
 
+    @Test
+    public void testPostBookingAsynchronously() throws Exception {
+        when(bookingSubmissionService.isEnabled()).thenReturn(true);
+        when(bookingSubmissionService.submit(any())).thenReturn(new BookingSubmissionDTO("ticket",
+                BookingSubmissionDTO.Status.PENDING, null, null));
+
+        this.mockMvc
+                .perform(post("/v1/bookings")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"fromDate\": \"" + NOW.plusDays(1).format(DATE_TIME_FORMATTER)
+                                + "\", \"toDate\": \"" + NOW.plusDays(2).format(DATE_TIME_FORMATTER) + "\"}"))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string(HttpHeaders.LOCATION, "/v1/bookings/submissions/ticket"))
+                .andExpect(jsonPath("$.data.ticket").value("ticket"))
+                .andExpect(jsonPath("$.data.status").value("PENDING"));
+        verify(bookingService, never()).insert(any());
+    }
+
+    @Test
+    public void testGetSubmissionByTicket() throws Exception {
+        when(bookingSubmissionService.findByTicket("ticket")).thenReturn(new BookingSubmissionDTO("ticket",
+                BookingSubmissionDTO.Status.REJECTED, null, STAY_START_INVALID));
+
+        this.mockMvc
+                .perform(get("/v1/bookings/submissions/ticket"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.status").value("REJECTED"))
+                .andExpect(jsonPath("$.data.error").value(STAY_START_INVALID));
+    }
+
+    @Test
+    public void testGetSubmissionByUnknownTicket() throws Exception {
+        when(bookingSubmissionService.findByTicket("ticket"))
+                .thenThrow(new SubmissionNotFoundException(SUBMISSION_NOT_FOUND));
+
+        this.mockMvc
+                .perform(get("/v1/bookings/submissions/ticket"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.errors[0]").value(SUBMISSION_NOT_FOUND));
+    }
+
     @Test
     public void testPostBookingWithInvalidData() throws Exception {
-        when(bookingService.insert(any())).thenThrow(new InvalidBookingException(STAY_START_INVALID));
+        when(bookingService.insert(any())).thenThrow(new InvalidBookingException(STAY_START_INVALID,
+                ErrorCode.STAY_START_INVALID));
 
         this.mockMvc
                 .perform(post("/v1/bookings")
@@ -134,7 +194,8 @@ public class BookingControllerTest {
                                 + "\", \"toDate\": \"" + NOW.format(DATE_TIME_FORMATTER) + "\"}"))
                 .andExpect(status().isBadRequest())
                 .andExpect(jsonPath("$.data.size()").isEmpty())
-                .andExpect(jsonPath("$.errors[0]").value(STAY_START_INVALID));
+                .andExpect(jsonPath("$.errors[0]").value(STAY_START_INVALID))
+                .andExpect(jsonPath("$.codes[0]").value("STAY_START_INVALID"));
     }
 
     @Test
@@ -167,4 +228,40 @@ public class BookingControllerTest {
                 .andExpect(status().isBadRequest());
     }
 
-}
\ No newline at end of file
+    @Test
+    public void testGetBookingByIdAsCbor() throws Exception {
+        when(bookingService.findById("id"))
+                .thenReturn(new BookingResponseDTO("id", LocalDate.of(2020, Month.JANUARY, 8),
+                        LocalDate.of(2020, Month.JANUARY, 9)));
+
+        final byte[] body = this.mockMvc
+                .perform(get("/v1/bookings/id").accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        final JsonNode data = CBOR_OBJECT_MAPPER.readTree(body).get("data");
+        assertEquals("id", data.get("id").asText());
+        assertEquals(LocalDate.of(2020, Month.JANUARY, 8).toEpochDay(), data.get("fromDate").asLong());
+        assertEquals(LocalDate.of(2020, Month.JANUARY, 9).toEpochDay(), data.get("toDate").asLong());
+    }
+
+    @Test
+    public void testPostBookingAsCbor() throws Exception {
+        when(bookingService.insert(any())).thenReturn(new BookingResponseDTO("id",
+                NOW.plusDays(1),
+                NOW.plusDays(2)));
+
+        this.mockMvc
+                .perform(post("/v1/bookings")
+                        .contentType(MediaType.APPLICATION_CBOR)
+                        .content(CBOR_OBJECT_MAPPER.writeValueAsBytes(
+                                new BookingRequestDTO(NOW.plusDays(1), NOW.plusDays(2)))))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.data.id").value("id"));
+
+        verify(bookingService).insert(argThat(request -> request.getFromDate().equals(NOW.plusDays(1)) &&
+                request.getToDate().equals(NOW.plusDays(2))));
+    }
+
+}
@@ -0,0 +1,108 @@
+package com.pedrorenzo.booking.limiter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import javax.servlet.FilterChain;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.pedrorenzo.booking.utils.ErrorMessages.SERVICE_OVERLOADED;
+import static com.pedrorenzo.booking.utils.ErrorMessages.TOO_MANY_REQUESTS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class AdmissionControlFilterTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final AimdConcurrencyLimiter concurrencyLimiter =
+            new AimdConcurrencyLimiter(1, 1, 1, 0.5, TimeUnit.SECONDS.toNanos(1));
+
+    private final AdmissionControlFilter filter = new AdmissionControlFilter(new ClientRateLimiter(1, 2, 100),
+            new ClientRateLimiter(1, 1, 100), concurrencyLimiter, "X-Client-Id", new ObjectMapper(), meterRegistry);
+
+    private final AtomicInteger executions = new AtomicInteger();
+
+    private final FilterChain chain = (request, response) -> executions.incrementAndGet();
+
+    @Test
+    public void testClientOverItsRateIsRejectedWithRetryAfter() throws Exception {
+        assertEquals(HttpStatus.OK.value(), execute("POST", "/v1/bookings", "client").getStatus());
+        final MockHttpServletResponse response = execute("POST", "/v1/bookings", "client");
+
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS.value(), response.getStatus());
+        assertEquals("1", response.getHeader(HttpHeaders.RETRY_AFTER));
+        assertTrue(response.getContentAsString().contains(TOO_MANY_REQUESTS));
+        assertEquals(HttpStatus.OK.value(), execute("POST", "/v1/bookings", "other").getStatus());
+        assertEquals(2, executions.get());
+        assertEquals(1, meterRegistry.get("booking.limiter.decisions").tags("limiter", "rate", "endpoints",
+                "writes", "outcome", "rejected").counter().count());
+    }
+
+    @Test
+    public void testReadsAndWritesHaveSeparateRates() throws Exception {
+        execute("DELETE", "/v1/bookings/1", "client");
+
+        assertEquals(HttpStatus.OK.value(), execute("GET", "/v1/bookings/1", "client").getStatus());
+        assertEquals(HttpStatus.OK.value(), execute("GET", "/v1/bookings/1", "client").getStatus());
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS.value(), execute("GET", "/v1/bookings/1", "client").getStatus());
+    }
+
+    @Test
+    public void testEachEndpointHasItsOwnRate() throws Exception {
+        assertEquals(HttpStatus.OK.value(), execute("GET", "/v1/bookings/1", "client").getStatus());
+        assertEquals(HttpStatus.OK.value(), execute("GET", "/v1/bookings/2", "client").getStatus());
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS.value(), execute("GET", "/v1/bookings/3", "client").getStatus());
+
+        assertEquals(HttpStatus.OK.value(), execute("GET", "/v1/bookings/reports", "client").getStatus());
+        assertEquals(HttpStatus.OK.value(), execute("GET", "/v1/bookings/waitlist/1", "client").getStatus());
+        assertEquals(HttpStatus.OK.value(), execute("POST", "/v1/bookings/waitlist", "client").getStatus());
+        assertEquals(HttpStatus.OK.value(), execute("POST", "/v1/bookings/bulk-delete", "client").getStatus());
+    }
+
+    @Test
+    public void testWriteIsShedWhenTheConcurrencyLimitIsReached() throws Exception {
+        concurrencyLimiter.tryAcquire();
+        final MockHttpServletResponse response = execute("PUT", "/v1/bookings/1", "client");
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE.value(), response.getStatus());
+        assertTrue(response.getContentAsString().contains(SERVICE_OVERLOADED));
+        assertEquals(0, executions.get());
+        assertEquals(1, concurrencyLimiter.getInFlight());
+    }
+
+    @Test
+    public void testImportIsRateLimitedButNotConcurrencyLimited() throws Exception {
+        concurrencyLimiter.tryAcquire();
+
+        assertEquals(HttpStatus.OK.value(), execute("POST", "/v1/bookings/import", "client").getStatus());
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS.value(),
+                execute("POST", "/v1/bookings/import", "client").getStatus());
+        assertEquals(1, executions.get());
+        assertEquals(1, concurrencyLimiter.getInFlight());
+    }
+
+    @Test
+    public void testOtherPathsAreNotLimited() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            assertEquals(HttpStatus.OK.value(), execute("GET", "/actuator/health", "client").getStatus());
+        }
+    }
+
+    private MockHttpServletResponse execute(final String method, final String path, final String client)
+            throws Exception {
+        final MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+        request.addHeader("X-Client-Id", client);
+        final MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+
+}
@@ -0,0 +1,70 @@
+package com.pedrorenzo.booking.limiter;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class AimdConcurrencyLimiterTest {
+
+    private static final long THRESHOLD = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+
+    private final AimdConcurrencyLimiter limiter = new AimdConcurrencyLimiter(2, 1, 4, 0.5, THRESHOLD);
+
+    @Test
+    public void testRejectsAboveTheLimit() {
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+
+        limiter.release(FAST, false);
+        assertTrue(limiter.tryAcquire());
+        assertEquals(2, limiter.getInFlight());
+    }
+
+    @Test
+    public void testFastRequestsGrowTheLimitUpToTheMaximum() {
+        for (int i = 0; i < 20; i++) {
+            fillAndRelease(FAST, false);
+        }
+
+        assertEquals(4, limiter.getLimit());
+    }
+
+    @Test
+    public void testSlowOrFailedRequestsShrinkTheLimitDownToTheMinimum() {
+        limiter.tryAcquire();
+        limiter.release(THRESHOLD + 1, false);
+        assertEquals(1, limiter.getLimit());
+
+        limiter.tryAcquire();
+        limiter.release(FAST, true);
+        assertEquals(1, limiter.getLimit());
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    public void testIdleLimiterDoesNotGrow() {
+        for (int i = 0; i < 20; i++) {
+            limiter.tryAcquire();
+            limiter.release(FAST, false);
+        }
+
+        assertEquals(2, limiter.getLimit());
+    }
+
+    private void fillAndRelease(final long latencyNanos, final boolean failed) {
+        int acquired = 0;
+        while (limiter.tryAcquire()) {
+            acquired++;
+        }
+        for (int i = 0; i < acquired; i++) {
+            limiter.release(latencyNanos, failed);
+        }
+    }
+
+}
@@ -0,0 +1,74 @@
+package com.pedrorenzo.booking.limiter;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ClientRateLimiterTest {
+
+    private final AtomicLong now = new AtomicLong();
+
+    private final ClientRateLimiter rateLimiter = new ClientRateLimiter(2, 3, 2, now::get);
+
+    @Test
+    public void testBurstThenSustainedRate() {
+        for (int i = 0; i < 3; i++) {
+            assertTrue(rateLimiter.tryAcquire("client", "POST /v1/bookings"));
+        }
+        assertFalse(rateLimiter.tryAcquire("client", "POST /v1/bookings"));
+
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(500));
+        assertTrue(rateLimiter.tryAcquire("client", "POST /v1/bookings"));
+        assertFalse(rateLimiter.tryAcquire("client", "POST /v1/bookings"));
+    }
+
+    @Test
+    public void testClientsAndEndpointsHaveTheirOwnBuckets() {
+        for (int i = 0; i < 3; i++) {
+            rateLimiter.tryAcquire("client", "POST /v1/bookings");
+        }
+
+        assertTrue(rateLimiter.tryAcquire("other", "POST /v1/bookings"));
+        assertTrue(rateLimiter.tryAcquire("client", "GET /v1/bookings"));
+        assertFalse(rateLimiter.tryAcquire("client", "POST /v1/bookings"));
+    }
+
+    @Test
+    public void testFullBucketsAreDroppedAboveTheMaximum() {
+        rateLimiter.tryAcquire("first", "GET /v1/bookings");
+        rateLimiter.tryAcquire("second", "GET /v1/bookings");
+        now.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        rateLimiter.tryAcquire("first", "GET /v1/bookings");
+
+        assertTrue(rateLimiter.tryAcquire("third", "GET /v1/bookings"));
+        assertEquals(2, rateLimiter.getBucketCount());
+
+        // The first client kept its bucket, with one of its three permits taken.
+        assertTrue(rateLimiter.tryAcquire("first", "GET /v1/bookings"));
+        assertTrue(rateLimiter.tryAcquire("first", "GET /v1/bookings"));
+        assertFalse(rateLimiter.tryAcquire("first", "GET /v1/bookings"));
+    }
+
+    @Test
+    public void testNewClientsShareOneBucketWhileEveryBucketIsInUse() {
+        rateLimiter.tryAcquire("first", "GET /v1/bookings");
+        rateLimiter.tryAcquire("second", "GET /v1/bookings");
+
+        assertTrue(rateLimiter.tryAcquire("third", "GET /v1/bookings"));
+        assertTrue(rateLimiter.tryAcquire("fourth", "GET /v1/bookings"));
+        assertTrue(rateLimiter.tryAcquire("fifth", "GET /v1/bookings"));
+        assertFalse(rateLimiter.tryAcquire("sixth", "GET /v1/bookings"));
+        assertEquals(2, rateLimiter.getBucketCount());
+
+        // Once the buckets in use fill up again, the next new client sweeps them out and gets its own.
+        now.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        assertTrue(rateLimiter.tryAcquire("sixth", "GET /v1/bookings"));
+        assertEquals(1, rateLimiter.getBucketCount());
+    }
+
+}
@@ -0,0 +1,296 @@
+package com.pedrorenzo.booking.loadtest;
+
+import com.pedrorenzo.booking.entities.Booking;
+import com.pedrorenzo.booking.repositories.BookingRepository;
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs a mixed list/get/insert/update/delete workload against the whole application, backed by an in-process MongoDB
+ * stand-in, for every combination of collection size and concurrency level. Reports the p50/p99/max latency and the
+ * throughput of each operation, and appends them to a CSV file so runs from different builds can be compared.
+ * <p>
+ * Only runs with the loadtest profile: <i>mvn test -Ploadtest</i>. Settings, as system properties:
+ * <ul>
+ * <li>loadtest.collectionSizes: bookings in the collection before each run, default 100,1000,10000.</li>
+ * <li>loadtest.concurrencyLevels: concurrent clients, default 1,8,32.</li>
+ * <li>loadtest.requests: measured requests per run, default 5000, after loadtest.warmupRequests (default 1000).</li>
+ * <li>loadtest.mix: weight of each operation, default list=20,get=30,insert=25,update=15,delete=10.</li>
+ * <li>loadtest.label: identifies the build in the results, default local.</li>
+ * <li>loadtest.results: the CSV file, default target/loadtest/results.csv.</li>
+ * <li>loadtest.limiter: keeps the admission control on, default false: all the clients share one address, so the
+ * rate limits would reject most of the workload.</li>
+ * </ul>
+ */
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class BookingLoadTest {
+
+    private static final MongoServer MONGO_SERVER = new MongoServer(new MemoryBackend());
+
+    private static final InetSocketAddress MONGO_ADDRESS = MONGO_SERVER.bind();
+
+    private static final String[] OPERATIONS = {"list", "get", "insert", "update", "delete"};
+
+    private static final String MISSING_ID = "000000000000000000000000";
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    private final List<String> seededIds = new ArrayList<>();
+
+    private final ConcurrentLinkedQueue<String> insertedIds = new ConcurrentLinkedQueue<>();
+
+    @DynamicPropertySource
+    static void mongoProperties(final DynamicPropertyRegistry registry) {
+        registry.add("spring.data.mongodb.uri", () -> "mongodb://" + MONGO_ADDRESS.getHostString() + ":" +
+                MONGO_ADDRESS.getPort() + "/booking");
+        // The stand-in speaks an old wire protocol version, which doesn't accept an explicit read concern.
+        registry.add("booking.mongodb.validation-reads.read-concern", () -> "default");
+        registry.add("booking.mongodb.listing-reads.read-concern", () -> "default");
+        registry.add("booking.limiter.enabled", () -> System.getProperty("loadtest.limiter", "false"));
+    }
+
+    @AfterAll
+    static void stopMongo() {
+        MONGO_SERVER.shutdownNow();
+    }
+
+    @Test
+    public void testMixedWorkload() throws Exception {
+        final int requests = Integer.getInteger("loadtest.requests", 5000);
+        final int warmupRequests = Integer.getInteger("loadtest.warmupRequests", 1000);
+        final int[] weights = weights(System.getProperty("loadtest.mix",
+                "list=20,get=30,insert=25,update=15,delete=10"));
+        final String label = System.getProperty("loadtest.label", "local");
+        final File results = new File(System.getProperty("loadtest.results", "target/loadtest/results.csv"));
+
+        long errors = 0;
+        for (int collectionSize : ints(System.getProperty("loadtest.collectionSizes", "100,1000,10000"))) {
+            for (int concurrency : ints(System.getProperty("loadtest.concurrencyLevels", "1,8,32"))) {
+                reset(collectionSize);
+                run(warmupRequests, concurrency, weights, null);
+
+                final Map<String, OperationStats> stats = new LinkedHashMap<>();
+                Arrays.stream(OPERATIONS).forEach(operation -> stats.put(operation, new OperationStats(operation)));
+                final long elapsedNanos = run(requests, concurrency, weights, stats);
+
+                report(label, collectionSize, concurrency, elapsedNanos, stats.values(), results);
+                errors += stats.values().stream().mapToLong(OperationStats::getErrors).sum();
+            }
+        }
+        assertEquals(0, errors, "Requests failed with 5xx or I/O errors, see the report above.");
+    }
+
+    /**
+     * Replaces the collection with the given number of bookings, all in the past so they don't block the inserts.
+     */
+    private void reset(final int collectionSize) {
+        bookingRepository.deleteAll();
+        insertedIds.clear();
+        seededIds.clear();
+
+        final Instant firstDay = LocalDate.of(2000, 1, 1).atStartOfDay().toInstant(ZoneOffset.UTC);
+        final List<Booking> bookings = new ArrayList<>(collectionSize);
+        for (int i = 0; i < collectionSize; i++) {
+            bookings.add(new Booking(firstDay.plus(i * 3L, ChronoUnit.DAYS), firstDay.plus(i * 3L + 2, ChronoUnit.DAYS),
+                    Instant.now(), Instant.now()));
+        }
+        bookingRepository.insert(bookings).forEach(booking -> seededIds.add(booking.getId()));
+    }
+
+    private long run(final int requests, final int concurrency, final int[] weights,
+                     final Map<String, OperationStats> stats) throws InterruptedException {
+        final AtomicInteger remaining = new AtomicInteger(requests);
+        final CountDownLatch done = new CountDownLatch(concurrency);
+        final ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+
+        final long start = System.nanoTime();
+        for (int i = 0; i < concurrency; i++) {
+            executor.execute(() -> {
+                try {
+                    while (remaining.getAndDecrement() > 0) {
+                        final String operation = pick(weights);
+                        final long requestStart = System.nanoTime();
+                        final int status = execute(operation);
+                        if (stats != null) {
+                            stats.get(operation).record(System.nanoTime() - requestStart, status);
+                        }
+                    }
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        assertTrue(done.await(30, TimeUnit.MINUTES), "The load test run did not finish in time.");
+        final long elapsedNanos = System.nanoTime() - start;
+        executor.shutdown();
+        return elapsedNanos;
+    }
+
+    private int execute(final String operation) {
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        switch (operation) {
+            case "list":
+                return request("GET", "/v1/bookings", null);
+            case "get":
+                return request("GET", "/v1/bookings/" + seededIds.get(random.nextInt(seededIds.size())), null);
+            case "insert":
+                return request("POST", "/v1/bookings", randomStay());
+            case "update":
+                return request("PUT", "/v1/bookings/" + seededIds.get(random.nextInt(seededIds.size())),
+                        randomStay());
+            default:
+                final String id = insertedIds.poll();
+                return request("DELETE", "/v1/bookings/" + (id == null ? MISSING_ID : id), null);
+        }
+    }
+
+    private int request(final String method, final String path, final String body) {
+        try {
+            final HttpURLConnection connection =
+                    (HttpURLConnection) new URL("http://localhost:" + port + path).openConnection();
+            connection.setRequestMethod(method);
+            if (body != null) {
+                connection.setDoOutput(true);
+                connection.setRequestProperty("Content-Type", "application/json");
+                try (OutputStream output = connection.getOutputStream()) {
+                    output.write(body.getBytes(StandardCharsets.UTF_8));
+                }
+            }
+
+            final int status = connection.getResponseCode();
+            // Reads the whole body, so the connection goes back to the keep-alive pool.
+            try (InputStream input = status < 400 ? connection.getInputStream() : connection.getErrorStream()) {
+                if (input != null) {
+                    final byte[] buffer = new byte[8192];
+                    while (input.read(buffer) != -1) {
+                        // Discards the body.
+                    }
+                }
+            }
+            if (status == 201) {
+                final String location = connection.getHeaderField("Location");
+                insertedIds.add(location.substring(location.lastIndexOf('/') + 1));
+            }
+            return status;
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    private static String randomStay() {
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        final LocalDate fromDate = LocalDate.now(ZoneOffset.UTC).plusDays(1 + random.nextInt(30));
+        return "{\"fromDate\": \"" + fromDate + "\", \"toDate\": \"" + fromDate.plusDays(random.nextInt(3)) + "\"}";
+    }
+
+    private static String pick(final int[] weights) {
+        int value = ThreadLocalRandom.current().nextInt(weights[weights.length - 1]);
+        for (int i = 0; i < weights.length; i++) {
+            if (value < weights[i]) {
+                return OPERATIONS[i];
+            }
+        }
+        return OPERATIONS[OPERATIONS.length - 1];
+    }
+
+    private static void report(final String label, final int collectionSize, final int concurrency,
+                               final long elapsedNanos, final Iterable<OperationStats> stats,
+                               final File results) throws IOException {
+        final double seconds = elapsedNanos / 1_000_000_000.0;
+        long total = 0;
+        System.out.printf(Locale.ROOT, "%nBookings: %d, concurrency: %d%n", collectionSize, concurrency);
+        System.out.printf(Locale.ROOT, "%-8s %8s %8s %6s %10s %9s %9s %9s%n",
+                "op", "count", "rejected", "errors", "req/s", "p50 ms", "p99 ms", "max ms");
+        for (OperationStats operation : stats) {
+            total += operation.getCount();
+            System.out.printf(Locale.ROOT, "%-8s %8d %8d %6d %10.1f %9.2f %9.2f %9.2f%n",
+                    operation.getOperation(), operation.getCount(), operation.getRejected(), operation.getErrors(),
+                    operation.getCount() / seconds, operation.getPercentileMillis(50),
+                    operation.getPercentileMillis(99), operation.getMaxMillis());
+        }
+        System.out.printf(Locale.ROOT, "total    %8d %33.1f req/s%n", total, total / seconds);
+
+        final boolean header = !results.exists();
+        results.getParentFile().mkdirs();
+        try (PrintWriter writer = new PrintWriter(new FileWriter(results, true))) {
+            if (header) {
+                writer.println("label,timestamp,bookings,concurrency,operation,count,rejected,errors," +
+                        "throughput,p50_ms,p99_ms,max_ms");
+            }
+            final String timestamp = Instant.now().toString();
+            for (OperationStats operation : stats) {
+                writer.printf(Locale.ROOT, "%s,%s,%d,%d,%s,%d,%d,%d,%.1f,%.3f,%.3f,%.3f%n", label, timestamp,
+                        collectionSize, concurrency, operation.getOperation(), operation.getCount(),
+                        operation.getRejected(), operation.getErrors(), operation.getCount() / seconds,
+                        operation.getPercentileMillis(50), operation.getPercentileMillis(99),
+                        operation.getMaxMillis());
+            }
+        }
+    }
+
+    /**
+     * @return The cumulative weights of the operations, in the order of {@link #OPERATIONS}.
+     */
+    private static int[] weights(final String mix) {
+        final Map<String, Integer> weightByOperation = Arrays.stream(mix.split(","))
+                .map(entry -> entry.trim().split("="))
+                .collect(Collectors.toMap(entry -> entry[0].trim(), entry -> Integer.parseInt(entry[1].trim())));
+        final int[] weights = new int[OPERATIONS.length];
+        int total = 0;
+        for (int i = 0; i < OPERATIONS.length; i++) {
+            total += weightByOperation.getOrDefault(OPERATIONS[i], 0);
+            weights[i] = total;
+        }
+        return weights;
+    }
+
+    private static int[] ints(final String values) {
+        return Arrays.stream(values.split(",")).map(String::trim).mapToInt(Integer::parseInt).toArray();
+    }
+
+}
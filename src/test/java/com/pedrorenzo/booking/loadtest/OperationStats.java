@@ -0,0 +1,59 @@
+package com.pedrorenzo.booking.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latencies and outcomes of one operation of the load test. Rejections (4xx answers, e.g. a booking that is not
+ * available) are a normal outcome; errors are 5xx answers and I/O failures.
+ */
+class OperationStats {
+
+    private static final long HIGHEST_TRACKABLE_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private final String operation;
+    private final Histogram latencies = new ConcurrentHistogram(HIGHEST_TRACKABLE_NANOS, 3);
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+
+    OperationStats(final String operation) {
+        this.operation = operation;
+    }
+
+    void record(final long latencyNanos, final int status) {
+        latencies.recordValue(Math.min(latencyNanos, HIGHEST_TRACKABLE_NANOS));
+        if (status >= 500 || status < 0) {
+            errors.increment();
+        } else if (status >= 400) {
+            rejected.increment();
+        }
+    }
+
+    String getOperation() {
+        return operation;
+    }
+
+    long getCount() {
+        return latencies.getTotalCount();
+    }
+
+    long getRejected() {
+        return rejected.sum();
+    }
+
+    long getErrors() {
+        return errors.sum();
+    }
+
+    double getPercentileMillis(final double percentile) {
+        return latencies.getValueAtPercentile(percentile) / 1_000_000.0;
+    }
+
+    double getMaxMillis() {
+        return latencies.getMaxValue() / 1_000_000.0;
+    }
+
+}
@@ -0,0 +1,67 @@
+package com.pedrorenzo.booking.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import ch.qos.logback.core.spi.FilterReply;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import javax.servlet.FilterChain;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class RequestSamplingFilterTest {
+
+    private final RequestSamplingTurboFilter turboFilter = new RequestSamplingTurboFilter();
+
+    private final ch.qos.logback.classic.Logger logger = new LoggerContext().getLogger("test");
+
+    private final List<FilterReply> infoReplies = new ArrayList<>();
+    private final List<FilterReply> warnReplies = new ArrayList<>();
+
+    private final FilterChain chain = (request, response) -> {
+        infoReplies.add(turboFilter.decide(null, logger, Level.INFO, "Finding all bookings.", null, null));
+        warnReplies.add(turboFilter.decide(null, logger, Level.WARN, "Slow query.", null, null));
+    };
+
+    @Test
+    public void testRequestsNotSampledOnlyLogWarnings() throws Exception {
+        new RequestSamplingFilter(0).doFilter(new MockHttpServletRequest(), new MockHttpServletResponse(), chain);
+
+        assertEquals(FilterReply.DENY, infoReplies.get(0));
+        assertEquals(FilterReply.NEUTRAL, warnReplies.get(0));
+        assertNull(MDC.get(RequestSamplingFilter.SAMPLED));
+    }
+
+    @Test
+    public void testSampledRequestsLogEverything() throws Exception {
+        new RequestSamplingFilter(1).doFilter(new MockHttpServletRequest(), new MockHttpServletResponse(), chain);
+
+        assertEquals(FilterReply.NEUTRAL, infoReplies.get(0));
+        assertEquals(FilterReply.NEUTRAL, warnReplies.get(0));
+    }
+
+    @Test
+    public void testJsonLayoutWritesOneObjectPerLine() throws Exception {
+        final ILoggingEvent event = new LoggingEvent(RequestSamplingFilterTest.class.getName(), logger, Level.INFO,
+                "Inserting booking: {}.", null, new Object[]{"\"quoted\""});
+
+        final String line = new JsonLayout().doLayout(event);
+        final JsonNode json = new ObjectMapper().readTree(line);
+
+        assertEquals(System.lineSeparator(), line.substring(line.length() - System.lineSeparator().length()));
+        assertEquals("INFO", json.get("level").asText());
+        assertEquals("test", json.get("logger").asText());
+        assertEquals("Inserting booking: \"quoted\".", json.get("message").asText());
+    }
+
+}
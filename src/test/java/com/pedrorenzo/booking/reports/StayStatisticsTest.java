@@ -0,0 +1,97 @@
+package com.pedrorenzo.booking.reports;
+
+import com.pedrorenzo.booking.entities.Booking;
+import com.pedrorenzo.booking.events.BookingChangedEvent;
+import com.pedrorenzo.booking.repositories.BookingRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class StayStatisticsTest {
+
+    private final BookingRepository bookingRepository = mock(BookingRepository.class);
+    private final StayStatistics stayStatistics = new StayStatistics(bookingRepository);
+
+    private final Booking spanningWeeks = booking("a", "2021-05-01", "2021-05-03", "2021-04-21");
+    private final Booking oneDay = booking("b", "2021-04-30", "2021-04-30", "2021-04-29");
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testChangesDuringTheLoadAreCountedOnce() {
+        when(bookingRepository.forEachForStatistics(any())).thenAnswer(invocation -> {
+            final Consumer<Booking> consumer = invocation.getArgument(0);
+            consumer.accept(spanningWeeks);
+            // Both inserted while streaming: the first one was already read, the second one was not.
+            stayStatistics.onBookingChanged(BookingChangedEvent.inserted(spanningWeeks));
+            stayStatistics.onBookingChanged(BookingChangedEvent.inserted(oneDay));
+            return 1L;
+        });
+
+        final List<PeriodStatistics> weeks = stayStatistics.report(StayPeriod.WEEK, day("2021-04-30"),
+                day("2021-05-09"));
+
+        assertEquals(2, weeks.size());
+        assertPeriod(weeks.get(0), "2021-04-26", "2021-05-02", 2, 4, 11, 3);
+        assertPeriod(weeks.get(1), "2021-05-03", "2021-05-09", 0, 0, 0, 1);
+
+        final List<PeriodStatistics> months = stayStatistics.report(StayPeriod.MONTH, day("2021-04-01"),
+                day("2021-05-01"));
+
+        assertPeriod(months.get(0), "2021-04-01", "2021-04-30", 1, 1, 1, 1);
+        assertPeriod(months.get(1), "2021-05-01", "2021-05-31", 1, 3, 10, 3);
+        verify(bookingRepository, times(1)).forEachForStatistics(any());
+    }
+
+    @Test
+    public void testUpdatesAndDeletesReplaceTheShareOfTheBooking() {
+        when(bookingRepository.forEachForStatistics(any())).thenReturn(0L);
+        stayStatistics.report(StayPeriod.WEEK, day("2021-04-26"), day("2021-04-26"));
+
+        stayStatistics.onBookingChanged(BookingChangedEvent.inserted(spanningWeeks));
+        stayStatistics.onBookingChanged(BookingChangedEvent.inserted(oneDay));
+        final Booking moved = booking("a", "2021-05-04", "2021-05-05", "2021-04-21");
+        stayStatistics.onBookingChanged(BookingChangedEvent.updated(spanningWeeks, moved));
+        stayStatistics.onBookingChanged(BookingChangedEvent.deleted(oneDay));
+
+        final List<PeriodStatistics> weeks = stayStatistics.report(StayPeriod.WEEK, day("2021-04-26"),
+                day("2021-05-03"));
+
+        assertPeriod(weeks.get(0), "2021-04-26", "2021-05-02", 0, 0, 0, 0);
+        assertPeriod(weeks.get(1), "2021-05-03", "2021-05-09", 1, 2, 13, 2);
+    }
+
+    private static void assertPeriod(final PeriodStatistics statistics, final String fromDate, final String toDate,
+                                     final long stays, final long stayDays, final long leadDays,
+                                     final long bookedDays) {
+        assertEquals(day(fromDate), statistics.getFromDay());
+        assertEquals(day(toDate), statistics.getToDay());
+        assertEquals(stays, statistics.getStays());
+        assertEquals(stayDays, statistics.getStayDays());
+        assertEquals(leadDays, statistics.getLeadDays());
+        assertEquals(bookedDays, statistics.getBookedDays());
+    }
+
+    private static long day(final String date) {
+        return LocalDate.parse(date).toEpochDay();
+    }
+
+    private static Booking booking(final String id, final String fromDate, final String toDate,
+                                   final String createdDate) {
+        final Instant created = Instant.parse(createdDate + "T15:30:00Z");
+        final Booking booking = new Booking(Instant.parse(fromDate + "T00:00:00Z"),
+                Instant.parse(toDate + "T00:00:00Z"), created, created);
+        booking.setId(id);
+        return booking;
+    }
+
+}
@@ -0,0 +1,67 @@
+package com.pedrorenzo.booking.repositories;
+
+import com.pedrorenzo.booking.config.BookingMongoProperties;
+import com.pedrorenzo.booking.config.SubmissionProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class BookingSchemaMigrationTest {
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @Mock
+    private WaitlistRepository waitlistRepository;
+
+    @Mock
+    private SubmissionOutcomeRepository submissionOutcomeRepository;
+
+    private BookingSchemaMigration migration;
+
+    @BeforeEach
+    public void setup() {
+        final BookingMongoProperties mongoProperties = new BookingMongoProperties();
+        mongoProperties.getMigration().setBatchSize(2);
+        mongoProperties.getMigration().setPause(Duration.ZERO);
+        migration = new BookingSchemaMigration(bookingRepository, waitlistRepository, submissionOutcomeRepository,
+                mongoProperties, new SubmissionProperties());
+    }
+
+    @Test
+    public void testIndexIsCreatedThenBatchesResumeAfterTheLastId() {
+        when(bookingRepository.backfillDays(null, 2)).thenReturn("b");
+        when(bookingRepository.backfillDays("b", 2)).thenReturn("d");
+        when(bookingRepository.backfillDays("d", 2)).thenReturn(null);
+
+        assertEquals(2, migration.migrate());
+
+        final InOrder inOrder = inOrder(bookingRepository, waitlistRepository, submissionOutcomeRepository);
+        inOrder.verify(bookingRepository).createDayIndex();
+        inOrder.verify(bookingRepository).createUpdatedDateIndex();
+        inOrder.verify(waitlistRepository).createWaitingIndex();
+        inOrder.verify(submissionOutcomeRepository).createExpiryIndex(Duration.ofMinutes(10));
+        inOrder.verify(bookingRepository).backfillDays(null, 2);
+        inOrder.verify(bookingRepository).backfillDays("b", 2);
+        inOrder.verify(bookingRepository).backfillDays("d", 2);
+    }
+
+    @Test
+    public void testFailureStopsTheMigration() {
+        when(bookingRepository.backfillDays(null, 2)).thenReturn("b");
+        when(bookingRepository.backfillDays("b", 2)).thenThrow(new IllegalStateException("down"));
+
+        assertEquals(1, migration.migrate());
+    }
+
+}
@@ -0,0 +1,144 @@
+package com.pedrorenzo.booking.rules;
+
+import com.pedrorenzo.booking.dtos.BookingRequestDTO;
+import com.pedrorenzo.booking.exceptions.InvalidBookingException;
+import com.pedrorenzo.booking.utils.ErrorCode;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.pedrorenzo.booking.utils.ErrorMessages.BOOKING_NOT_AVAILABLE;
+import static com.pedrorenzo.booking.utils.ErrorMessages.FROM_DATE_AFTER_TO_DATE;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BookingRuleEngineTest {
+
+    private static final LocalDate TOMORROW = OffsetDateTime.now(ZoneOffset.UTC).toLocalDate().plusDays(1);
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final AtomicInteger availabilityLookups = new AtomicInteger();
+
+    private final AvailabilityLookup available = (fromDate, toDate) -> {
+        availabilityLookups.incrementAndGet();
+        return true;
+    };
+
+    private final BookingRuleEngine ruleEngine = new BookingRuleEngine(settings(3, 30), Collections.emptyList(),
+            meterRegistry);
+
+    @Test
+    public void testCheapRulesFailBeforeTheAvailabilityLookup() {
+        final InvalidBookingException exception = assertThrows(InvalidBookingException.class,
+                () -> ruleEngine.validate(request(TOMORROW.plusDays(1), TOMORROW), available));
+
+        assertEquals(FROM_DATE_AFTER_TO_DATE, exception.getMessage());
+        assertEquals(0, availabilityLookups.get());
+        assertEquals(BuiltInRules.AVAILABILITY, ruleEngine.getRuleNames().get(ruleEngine.getRuleNames().size() - 1));
+    }
+
+    @Test
+    public void testUpdateChangesTheLimitsAtRuntime() {
+        final BookingRequestDTO fourDays = request(TOMORROW, TOMORROW.plusDays(3));
+        final InvalidBookingException exception = assertThrows(InvalidBookingException.class,
+                () -> ruleEngine.validate(fourDays, available));
+        assertEquals("The stay can't be longer than 3 days.", exception.getMessage());
+
+        ruleEngine.update(settings(4, 30));
+
+        assertDoesNotThrow(() -> ruleEngine.validate(fourDays, available));
+        assertEquals(4, ruleEngine.getSettings().getMaximumStayDays());
+    }
+
+    @Test
+    public void testDisabledRulesAreNotEvaluated() {
+        ruleEngine.update(new BookingRuleSettings(3, 30, Collections.singleton(BuiltInRules.DAYS_IN_ADVANCE)));
+
+        assertDoesNotThrow(() -> ruleEngine.validate(request(TOMORROW.plusDays(60), TOMORROW.plusDays(61)),
+                available));
+        assertEquals(4, ruleEngine.getRuleNames().size());
+    }
+
+    @Test
+    public void testUnknownDisabledRuleIsRejected() {
+        final IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> ruleEngine.update(new BookingRuleSettings(3, 30, Collections.singleton("availabilty"))));
+
+        assertEquals("Unknown booking rules: availabilty.", exception.getMessage());
+        assertEquals(5, ruleEngine.getRuleNames().size());
+    }
+
+    @Test
+    public void testExtraRulesAreOrderedByCostAndMetered() {
+        final BookingRule noWeekends = new BookingRule() {
+
+            @Override
+            public String getName() {
+                return "no-weekends";
+            }
+
+            @Override
+            public int getCost() {
+                return 5;
+            }
+
+            @Override
+            public String check(final BookingRuleContext context) {
+                return "Closed.";
+            }
+
+        };
+        final BookingRuleEngine engine = new BookingRuleEngine(settings(3, 30), Collections.singletonList(noWeekends),
+                meterRegistry);
+
+        assertEquals(Arrays.asList(BuiltInRules.DATE_ORDER, BuiltInRules.STAY_START, BuiltInRules.MAXIMUM_STAY,
+                BuiltInRules.DAYS_IN_ADVANCE, "no-weekends", BuiltInRules.AVAILABILITY), engine.getRuleNames());
+        assertThrows(InvalidBookingException.class, () -> engine.validate(request(TOMORROW, TOMORROW), available));
+        assertEquals(1, meterRegistry.get("booking.rules.rejections").tag("rule", "no-weekends").counter().count());
+        assertEquals(1, meterRegistry.get("booking.rules.evaluations").tag("rule", BuiltInRules.DATE_ORDER).timer()
+                .count());
+    }
+
+    @Test
+    public void testUnavailableDays() {
+        final InvalidBookingException exception = assertThrows(InvalidBookingException.class,
+                () -> ruleEngine.validate(request(TOMORROW, TOMORROW), (fromDate, toDate) -> false));
+
+        assertEquals(BOOKING_NOT_AVAILABLE, exception.getMessage());
+    }
+
+    @Test
+    public void testCheckReportsEveryViolationWithoutMetering() {
+        final List<BookingRuleViolation> violations = ruleEngine.check(request(TOMORROW, TOMORROW.plusDays(5)),
+                (fromDate, toDate) -> false);
+
+        assertEquals(2, violations.size());
+        assertEquals(BuiltInRules.MAXIMUM_STAY, violations.get(0).getRule());
+        assertEquals(ErrorCode.STAY_LONGER_THAN_LIMIT, violations.get(0).getErrorCode());
+        assertEquals(ErrorCode.BOOKING_NOT_AVAILABLE, violations.get(1).getErrorCode());
+        assertEquals(BOOKING_NOT_AVAILABLE, violations.get(1).getMessage());
+        assertTrue(ruleEngine.check(request(TOMORROW, TOMORROW), available).isEmpty());
+        assertEquals(0, meterRegistry.get("booking.rules.rejections").tag("rule", BuiltInRules.AVAILABILITY)
+                .counter().count());
+    }
+
+    private static BookingRuleSettings settings(final int maximumStayDays, final int maximumDaysInAdvance) {
+        return new BookingRuleSettings(maximumStayDays, maximumDaysInAdvance, Collections.emptySet());
+    }
+
+    private static BookingRequestDTO request(final LocalDate fromDate, final LocalDate toDate) {
+        return new BookingRequestDTO(fromDate, toDate);
+    }
+
+}
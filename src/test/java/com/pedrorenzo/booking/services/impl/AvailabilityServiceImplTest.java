@@ -0,0 +1,155 @@
+package com.pedrorenzo.booking.services.impl;
+
+import com.pedrorenzo.booking.availability.AvailabilityIndex;
+import com.pedrorenzo.booking.availability.AvailabilitySnapshot;
+import com.pedrorenzo.booking.config.BookingRulesProperties;
+import com.pedrorenzo.booking.dtos.AvailableStayDTO;
+import com.pedrorenzo.booking.dtos.BookingCheckDTO;
+import com.pedrorenzo.booking.dtos.BookingRequestDTO;
+import com.pedrorenzo.booking.entities.Booking;
+import com.pedrorenzo.booking.exceptions.InvalidBookingException;
+import com.pedrorenzo.booking.repositories.BookingRepository;
+import com.pedrorenzo.booking.rules.BookingRuleEngine;
+import com.pedrorenzo.booking.utils.ErrorCode;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.List;
+
+import static com.pedrorenzo.booking.utils.ErrorMessages.STAY_LONGER_THAN_LIMIT;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class AvailabilityServiceImplTest {
+
+    @Mock
+    private AvailabilityIndex availabilityIndex;
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    private AvailabilityServiceImpl availabilityService;
+
+    private static final LocalDate NOW = OffsetDateTime.now(ZoneOffset.UTC).toLocalDate();
+
+    @BeforeEach
+    public void setUp() {
+        availabilityService = new AvailabilityServiceImpl(availabilityIndex, bookingRepository, new BookingRuleEngine(
+                new BookingRulesProperties().toSettings(), Collections.emptyList(), new SimpleMeterRegistry()));
+    }
+
+    @Test
+    public void testFindsTheEarliestStaysAroundTheBookings() {
+        when(availabilityIndex.getSnapshot()).thenReturn(AvailabilitySnapshot.of(new String[]{"a", "b"},
+                new long[]{day(2), day(6)}, new long[]{day(3), day(6)}));
+        when(bookingRepository.findOverlappingForValidation(day(4), day(9))).thenReturn(Collections.emptyList());
+
+        final List<AvailableStayDTO> stays = availabilityService.findAvailableStays(2, 3, null, null);
+
+        assertEquals(3, stays.size());
+        assertEquals(NOW.plusDays(4), stays.get(0).getFromDate());
+        assertEquals(NOW.plusDays(5), stays.get(0).getToDate());
+        assertEquals(NOW.plusDays(7), stays.get(1).getFromDate());
+        assertEquals(NOW.plusDays(8), stays.get(2).getFromDate());
+    }
+
+    @Test
+    public void testStaysEndInsideTheBookableWindow() {
+        when(availabilityIndex.getSnapshot()).thenReturn(AvailabilitySnapshot.empty());
+        when(bookingRepository.findOverlappingForValidation(anyLong(), anyLong())).thenReturn(Collections.emptyList());
+
+        final List<AvailableStayDTO> lastStays = availabilityService.findAvailableStays(3, 5, NOW.plusDays(29), null);
+        final List<AvailableStayDTO> boundedStays = availabilityService.findAvailableStays(3, 5, null,
+                NOW.plusDays(4));
+
+        assertEquals(2, lastStays.size());
+        assertEquals(NOW.plusDays(30), lastStays.get(1).getFromDate());
+        assertEquals(2, boundedStays.size());
+        assertEquals(NOW.plusDays(4), boundedStays.get(1).getToDate());
+    }
+
+    @Test
+    public void testStaysLongerThanTheLimitAreRejected() {
+        final InvalidBookingException thrown = assertThrows(InvalidBookingException.class,
+                () -> availabilityService.findAvailableStays(4, 5, null, null));
+
+        assertTrue(thrown.getMessage().contains(STAY_LONGER_THAN_LIMIT));
+        assertThrows(InvalidBookingException.class, () -> availabilityService.findAvailableStays(1,
+                AvailabilityServiceImpl.MAXIMUM_STAYS + 1, null, null));
+    }
+
+    @Test
+    public void testCheckUsesTheIndexedAvailability() {
+        when(availabilityIndex.isAvailable(NOW.plusDays(1), NOW.plusDays(2))).thenReturn(false);
+        when(availabilityIndex.isAvailable(NOW.plusDays(3), NOW.plusDays(4))).thenReturn(true);
+        when(bookingRepository.findOverlappingForValidation(day(3), day(4))).thenReturn(Collections.emptyList());
+
+        final BookingCheckDTO taken = availabilityService.check(new BookingRequestDTO(NOW.plusDays(1),
+                NOW.plusDays(2)));
+        final BookingCheckDTO free = availabilityService.check(new BookingRequestDTO(NOW.plusDays(3),
+                NOW.plusDays(4)));
+
+        assertFalse(taken.isAccepted());
+        assertEquals(ErrorCode.BOOKING_NOT_AVAILABLE, taken.getViolations().get(0).getCode());
+        assertTrue(free.isAccepted());
+        assertTrue(free.getViolations().isEmpty());
+    }
+
+    @Test
+    public void testStaysBookedByAnotherInstanceAreSearchedAgain() {
+        when(availabilityIndex.getSnapshot()).thenReturn(AvailabilitySnapshot.empty());
+        // Booked by another instance, which this one does not know.
+        when(bookingRepository.findOverlappingForValidation(day(1), day(3)))
+                .thenReturn(Collections.singletonList(booking("other", 2, 3)));
+        when(bookingRepository.findOverlappingForValidation(day(4), day(6))).thenReturn(Collections.emptyList());
+
+        final List<AvailableStayDTO> stays = availabilityService.findAvailableStays(2, 2, null, null);
+
+        assertEquals(2, stays.size());
+        assertEquals(NOW.plusDays(4), stays.get(0).getFromDate());
+        assertEquals(NOW.plusDays(5), stays.get(1).getFromDate());
+    }
+
+    @Test
+    public void testCheckRechecksTheFreeDaysAgainstTheDatabase() {
+        when(availabilityIndex.isAvailable(NOW.plusDays(1), NOW.plusDays(2))).thenReturn(true);
+        when(bookingRepository.findOverlappingForValidation(day(1), day(2)))
+                .thenReturn(Collections.singletonList(booking("other", 2, 3)));
+
+        final BookingCheckDTO taken = availabilityService.check(new BookingRequestDTO(NOW.plusDays(1),
+                NOW.plusDays(2)));
+
+        assertFalse(taken.isAccepted());
+        assertEquals(ErrorCode.BOOKING_NOT_AVAILABLE, taken.getViolations().get(0).getCode());
+    }
+
+    private static Booking booking(final String id, final int fromDaysFromNow, final int toDaysFromNow) {
+        final Booking booking = new Booking(startOf(fromDaysFromNow), startOf(toDaysFromNow), Instant.now(),
+                Instant.now());
+        booking.setId(id);
+        return booking;
+    }
+
+    private static Instant startOf(final int daysFromNow) {
+        return NOW.plusDays(daysFromNow).atStartOfDay().toInstant(ZoneOffset.UTC);
+    }
+
+    private static long day(final int daysFromNow) {
+        return NOW.plusDays(daysFromNow).toEpochDay();
+    }
+
+}
@@ -1,19 +1,31 @@
 package com.pedrorenzo.booking.services.impl;
 
+import com.pedrorenzo.booking.config.BookingRulesProperties;
+import com.pedrorenzo.booking.dtos.BookingBulkResultDTO;
 import com.pedrorenzo.booking.dtos.BookingRequestDTO;
 import com.pedrorenzo.booking.dtos.BookingResponseDTO;
+import com.pedrorenzo.booking.dtos.BookingUpdateDTO;
 import com.pedrorenzo.booking.entities.Booking;
+import com.pedrorenzo.booking.events.BookingChangedEvent;
 import com.pedrorenzo.booking.exceptions.BookingNotFoundException;
 import com.pedrorenzo.booking.exceptions.InvalidBookingException;
 import com.pedrorenzo.booking.repositories.BookingRepository;
+import com.pedrorenzo.booking.rules.BookingRuleEngine;
+import com.pedrorenzo.booking.utils.ErrorCode;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.time.*;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
@@ -23,9 +35,13 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.when;
 import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.anyList;
+import static org.mockito.Mockito.anyLong;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.never;
 import static com.pedrorenzo.booking.utils.ConverterUtils.covertBooking;
+import static com.pedrorenzo.booking.utils.ConverterUtils.covertDTO;
 
 @ExtendWith(MockitoExtension.class)
 public class BookingServiceImplTest {
@@ -36,6 +52,16 @@ public class BookingServiceImplTest {
     @Mock
     private BookingRepository bookingRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private BookingRuleEngine ruleEngine = new BookingRuleEngine(new BookingRulesProperties().toSettings(),
+            Collections.emptyList(), new SimpleMeterRegistry());
+
     private static final LocalDate NOW = OffsetDateTime.now(ZoneOffset.UTC).toLocalDate();
 
     @Test
@@ -66,10 +92,10 @@ public class BookingServiceImplTest {
     public void testFindAllBookings() {
         final Booking expectedBooking = new Booking(Instant.now(), Instant.now(), Instant.now(), Instant.now());
         final BookingResponseDTO expectedBookingResponseDTO = covertBooking(expectedBooking);
-        final List<Booking> expectedBookings = new ArrayList<>();
-        expectedBookings.add(expectedBooking);
+        final List<BookingResponseDTO> expectedBookings = new ArrayList<>();
+        expectedBookings.add(expectedBookingResponseDTO);
 
-        when(bookingRepository.findAll()).thenReturn(expectedBookings);
+        when(bookingRepository.findAllForListing()).thenReturn(expectedBookings);
 
         List<BookingResponseDTO> actualBookingsResponseDTO = bookingService.findAll();
         assertEquals(expectedBookingResponseDTO.getFromDate(), actualBookingsResponseDTO.get(0).getFromDate());
@@ -80,10 +106,11 @@ public class BookingServiceImplTest {
     public void testDeleteExistentBookingById() {
         final Booking expectedBooking = new Booking(Instant.now(), Instant.now(), Instant.now(), Instant.now());
 
-        when(bookingRepository.findById("id")).thenReturn(Optional.of(expectedBooking));
+        when(bookingRepository.findAndRemoveById("id")).thenReturn(expectedBooking);
 
         bookingService.deleteById("id");
-        verify(bookingRepository, times(1)).delete(any(Booking.class));
+        verify(bookingRepository, times(1)).findAndRemoveById("id");
+        verify(eventPublisher, times(1)).publishEvent(any(BookingChangedEvent.class));
     }
 
     @Test
@@ -107,7 +134,7 @@ public class BookingServiceImplTest {
         final List<Booking> expectedBookings = new ArrayList<>();
         expectedBookings.add(expectedBooking);
 
-        when(bookingRepository.findAll()).thenReturn(expectedBookings);
+        when(bookingRepository.findOverlappingForValidation(anyLong(), anyLong())).thenReturn(expectedBookings);
         when(bookingRepository.insert(any(Booking.class))).thenReturn(expectedBooking);
 
         final BookingResponseDTO actualBookingResponseDTO = bookingService.insert(bookingRequestDTO);
@@ -193,7 +220,7 @@ public class BookingServiceImplTest {
         final List<Booking> expectedBookings = new ArrayList<>();
         expectedBookings.add(expectedBooking);
 
-        when(bookingRepository.findAll()).thenReturn(expectedBookings);
+        when(bookingRepository.findOverlappingForValidation(anyLong(), anyLong())).thenReturn(expectedBookings);
 
         final BookingRequestDTO bookingRequestDTO = new BookingRequestDTO(NOW.plusDays(1),
                 NOW.plusDays(3));
@@ -215,7 +242,7 @@ public class BookingServiceImplTest {
         final List<Booking> expectedBookings = new ArrayList<>();
         expectedBookings.add(expectedBooking);
 
-        when(bookingRepository.findAll()).thenReturn(expectedBookings);
+        when(bookingRepository.findOverlappingForValidation(anyLong(), anyLong())).thenReturn(expectedBookings);
 
         final BookingRequestDTO bookingRequestDTO = new BookingRequestDTO(NOW.plusDays(2),
                 NOW.plusDays(4));
@@ -237,7 +264,7 @@ public class BookingServiceImplTest {
         final List<Booking> expectedBookings = new ArrayList<>();
         expectedBookings.add(expectedBooking);
 
-        when(bookingRepository.findAll()).thenReturn(expectedBookings);
+        when(bookingRepository.findOverlappingForValidation(anyLong(), anyLong())).thenReturn(expectedBookings);
 
         final BookingRequestDTO bookingRequestDTO = new BookingRequestDTO(NOW.plusDays(2),
                 NOW.plusDays(3));
@@ -259,7 +286,7 @@ public class BookingServiceImplTest {
         final List<Booking> expectedBookings = new ArrayList<>();
         expectedBookings.add(expectedBooking);
 
-        when(bookingRepository.findAll()).thenReturn(expectedBookings);
+        when(bookingRepository.findOverlappingForValidation(anyLong(), anyLong())).thenReturn(expectedBookings);
 
         final BookingRequestDTO bookingRequestDTO = new BookingRequestDTO(NOW.plusDays(2),
                 NOW.plusDays(3));
@@ -281,7 +308,7 @@ public class BookingServiceImplTest {
         final List<Booking> expectedBookings = new ArrayList<>();
         expectedBookings.add(expectedBooking);
 
-        when(bookingRepository.findAll()).thenReturn(expectedBookings);
+        when(bookingRepository.findOverlappingForValidation(anyLong(), anyLong())).thenReturn(expectedBookings);
 
         final BookingRequestDTO bookingRequestDTO = new BookingRequestDTO(NOW.plusDays(2),
                 NOW.plusDays(4));
@@ -303,7 +330,7 @@ public class BookingServiceImplTest {
         final List<Booking> expectedBookings = new ArrayList<>();
         expectedBookings.add(expectedBooking);
 
-        when(bookingRepository.findAll()).thenReturn(expectedBookings);
+        when(bookingRepository.findOverlappingForValidation(anyLong(), anyLong())).thenReturn(expectedBookings);
 
         final BookingRequestDTO bookingRequestDTO = new BookingRequestDTO(NOW.plusDays(1),
                 NOW.plusDays(3));
@@ -325,7 +352,7 @@ public class BookingServiceImplTest {
         final List<Booking> expectedBookings = new ArrayList<>();
         expectedBookings.add(expectedBooking);
 
-        when(bookingRepository.findAll()).thenReturn(expectedBookings);
+        when(bookingRepository.findOverlappingForValidation(anyLong(), anyLong())).thenReturn(expectedBookings);
 
         final BookingRequestDTO bookingRequestDTO = new BookingRequestDTO(NOW.plusDays(1),
                 NOW.plusDays(3));
@@ -345,11 +372,23 @@ public class BookingServiceImplTest {
         final BookingRequestDTO bookingRequestDTO = new BookingRequestDTO(NOW.plusDays(1),
                 NOW.plusDays(2));
 
-        when(bookingRepository.findById("id")).thenReturn(Optional.of(expectedBooking));
+        when(bookingRepository.findAndUpdateDates(any(Booking.class))).thenReturn(expectedBooking);
 
         bookingService.update("id", bookingRequestDTO);
 
-        verify(bookingRepository, times(1)).save(any(Booking.class));
+        verify(bookingRepository, times(1)).findAndUpdateDates(any(Booking.class));
+    }
+
+    @Test
+    public void testUpdateMovesABookingOverItsOwnDays() {
+        final Booking booking = booking("id", NOW.plusDays(1), NOW.plusDays(2));
+        when(bookingRepository.findOverlappingForValidation(NOW.plusDays(2).toEpochDay(), NOW.plusDays(3).toEpochDay()))
+                .thenReturn(Collections.singletonList(booking));
+        when(bookingRepository.findAndUpdateDates(any(Booking.class))).thenReturn(booking);
+
+        bookingService.update("id", new BookingRequestDTO(NOW.plusDays(2), NOW.plusDays(3)));
+
+        verify(eventPublisher, times(1)).publishEvent(any(BookingChangedEvent.class));
     }
 
     @Test
@@ -357,7 +396,7 @@ public class BookingServiceImplTest {
         final BookingRequestDTO bookingRequestDTO = new BookingRequestDTO(NOW.plusDays(1),
                 NOW.plusDays(2));
 
-        when(bookingRepository.findById("id")).thenReturn(Optional.empty());
+        when(bookingRepository.findAndUpdateDates(any(Booking.class))).thenReturn(null);
 
         final BookingNotFoundException thrown = assertThrows(
                 BookingNotFoundException.class,
@@ -368,4 +407,78 @@ public class BookingServiceImplTest {
         assertTrue(thrown.getMessage().contains(BOOKING_NOT_FOUND));
     }
 
+    @Test
+    public void testUpdateNonExistentBookingWithInvalidDates() {
+        when(bookingRepository.findById("id")).thenReturn(Optional.empty());
+
+        assertThrows(BookingNotFoundException.class,
+                () -> bookingService.update("id", new BookingRequestDTO(NOW.plusDays(2), NOW.plusDays(1))));
+        verify(bookingRepository, never()).findAndUpdateDates(any(Booking.class));
+    }
+
+    @Test
+    public void testBulkDeleteReadsAndDeletesInOneQueryEach() {
+        when(bookingRepository.findAllById(Arrays.asList("a", "b", "a")))
+                .thenReturn(Collections.singletonList(booking("a", NOW.plusDays(1), NOW.plusDays(2))));
+        when(bookingRepository.deleteAllById(Collections.singletonList("a"))).thenReturn(1L);
+
+        final List<BookingBulkResultDTO> results = bookingService.deleteAllById(Arrays.asList("a", "b", "a"));
+
+        // The repeated id was deleted by its first occurrence.
+        assertEquals(BookingBulkResultDTO.Status.DELETED, results.get(0).getStatus());
+        assertEquals(BookingBulkResultDTO.Status.NOT_FOUND, results.get(1).getStatus());
+        assertEquals(BookingBulkResultDTO.Status.NOT_FOUND, results.get(2).getStatus());
+        verify(bookingRepository, never()).findAndRemoveById(any());
+        verify(eventPublisher, times(1)).publishEvent(any(BookingChangedEvent.class));
+    }
+
+    @Test
+    public void testBulkUpdateValidatesEachUpdateAfterThePreviousOnes() {
+        final Booking first = booking("a", NOW.plusDays(1), NOW.plusDays(2));
+        final Booking second = booking("b", NOW.plusDays(5), NOW.plusDays(6));
+        final List<BookingUpdateDTO> updates = Arrays.asList(
+                new BookingUpdateDTO("a", NOW.plusDays(5), NOW.plusDays(6)),
+                new BookingUpdateDTO("b", NOW.plusDays(8), NOW.plusDays(9)),
+                new BookingUpdateDTO("a", NOW.plusDays(5), NOW.plusDays(6)),
+                new BookingUpdateDTO("c", NOW.plusDays(11), NOW.plusDays(12)));
+        when(bookingRepository.findAllById(Arrays.asList("a", "b", "a", "c"))).thenReturn(Arrays.asList(first, second));
+        when(bookingRepository.findOverlappingForValidation(NOW.plusDays(5).toEpochDay(), NOW.plusDays(9).toEpochDay()))
+                .thenReturn(Collections.singletonList(second));
+        when(bookingRepository.updateAllDates(anyList())).thenReturn(2);
+
+        final List<BookingBulkResultDTO> results = bookingService.updateAll(updates);
+
+        assertEquals(BookingBulkResultDTO.Status.REJECTED, results.get(0).getStatus());
+        assertEquals(ErrorCode.BOOKING_NOT_AVAILABLE, results.get(0).getViolations().get(0).getCode());
+        assertEquals(BookingBulkResultDTO.Status.UPDATED, results.get(1).getStatus());
+        assertEquals(BookingBulkResultDTO.Status.UPDATED, results.get(2).getStatus());
+        assertEquals(BookingBulkResultDTO.Status.NOT_FOUND, results.get(3).getStatus());
+        verify(bookingRepository, times(1)).updateAllDates(anyList());
+        verify(eventPublisher, times(2)).publishEvent(any(BookingChangedEvent.class));
+    }
+
+    @Test
+    public void testBulkUpdateReportsTheBookingsDeletedMeanwhileAsNotFound() {
+        final Booking first = booking("a", NOW.plusDays(1), NOW.plusDays(2));
+        final Booking second = booking("b", NOW.plusDays(5), NOW.plusDays(6));
+        final List<BookingUpdateDTO> updates = Arrays.asList(
+                new BookingUpdateDTO("a", NOW.plusDays(2), NOW.plusDays(3)),
+                new BookingUpdateDTO("b", NOW.plusDays(6), NOW.plusDays(7)));
+        when(bookingRepository.findAllById(Arrays.asList("a", "b"))).thenReturn(Arrays.asList(first, second))
+                .thenReturn(Collections.singletonList(second));
+        when(bookingRepository.updateAllDates(anyList())).thenReturn(1);
+
+        final List<BookingBulkResultDTO> results = bookingService.updateAll(updates);
+
+        assertEquals(BookingBulkResultDTO.Status.NOT_FOUND, results.get(0).getStatus());
+        assertEquals(BookingBulkResultDTO.Status.UPDATED, results.get(1).getStatus());
+        verify(eventPublisher, times(1)).publishEvent(any(BookingChangedEvent.class));
+    }
+
+    private static Booking booking(final String id, final LocalDate fromDate, final LocalDate toDate) {
+        final Booking booking = covertDTO(new BookingRequestDTO(fromDate, toDate));
+        booking.setId(id);
+        return booking;
+    }
+
 }
@@ -0,0 +1,223 @@
+package com.pedrorenzo.booking.services.impl;
+
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.ServerAddress;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import com.pedrorenzo.booking.availability.AvailabilityIndex;
+import com.pedrorenzo.booking.config.BookingRulesProperties;
+import com.pedrorenzo.booking.config.SubmissionProperties;
+import com.pedrorenzo.booking.dtos.BookingRequestDTO;
+import com.pedrorenzo.booking.dtos.BookingSubmissionDTO;
+import com.pedrorenzo.booking.entities.Booking;
+import com.pedrorenzo.booking.entities.SubmissionOutcome;
+import com.pedrorenzo.booking.events.BookingChangedEvent;
+import com.pedrorenzo.booking.exceptions.ServiceOverloadedException;
+import com.pedrorenzo.booking.exceptions.SubmissionNotFoundException;
+import com.pedrorenzo.booking.repositories.BookingRepository;
+import com.pedrorenzo.booking.repositories.SubmissionOutcomeRepository;
+import com.pedrorenzo.booking.rules.BookingRuleEngine;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.BsonDocument;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import static com.pedrorenzo.booking.utils.ConverterUtils.covertDTO;
+import static com.pedrorenzo.booking.utils.ErrorMessages.BOOKING_NOT_AVAILABLE;
+import static com.pedrorenzo.booking.utils.ErrorMessages.STAY_START_INVALID;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class BookingSubmissionServiceImplTest {
+
+    private static final LocalDate NOW = OffsetDateTime.now(ZoneOffset.UTC).toLocalDate();
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @Mock
+    private SubmissionOutcomeRepository submissionOutcomeRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private final SubmissionProperties submissionProperties = new SubmissionProperties();
+
+    private BookingSubmissionServiceImpl submissionService;
+
+    @BeforeEach
+    public void setup() {
+        submissionProperties.setAsyncEnabled(true);
+        submissionProperties.setQueueCapacity(3);
+        submissionService = new BookingSubmissionServiceImpl(bookingRepository, submissionOutcomeRepository,
+                new BookingRuleEngine(new BookingRulesProperties().toSettings(), Collections.emptyList(),
+                        new SimpleMeterRegistry()),
+                new AvailabilityIndex(bookingRepository), eventPublisher, submissionProperties,
+                new SimpleMeterRegistry());
+    }
+
+    @Test
+    public void testBatchIsValidatedInArrivalOrderAndInsertedTogether() {
+        when(bookingRepository.findAllForValidation()).thenReturn(Collections.emptyList());
+        when(bookingRepository.insert(anyList())).thenAnswer(invocation -> withIds(invocation.getArgument(0)));
+
+        final BookingSubmissionServiceImpl.Submission first = submission(NOW.plusDays(1), NOW.plusDays(2));
+        final BookingSubmissionServiceImpl.Submission overlapping = submission(NOW.plusDays(2), NOW.plusDays(3));
+        final BookingSubmissionServiceImpl.Submission invalid = submission(NOW, NOW);
+        final BookingSubmissionServiceImpl.Submission second = submission(NOW.plusDays(3), NOW.plusDays(4));
+        submissionService.process(Arrays.asList(first, overlapping, invalid, second));
+
+        assertOutcome(first, BookingSubmissionDTO.Status.ACCEPTED, "id0", null);
+        assertOutcome(overlapping, BookingSubmissionDTO.Status.REJECTED, null, BOOKING_NOT_AVAILABLE);
+        assertOutcome(invalid, BookingSubmissionDTO.Status.REJECTED, null, STAY_START_INVALID);
+        assertOutcome(second, BookingSubmissionDTO.Status.ACCEPTED, "id1", null);
+        verify(bookingRepository, times(1)).insert(anyList());
+        verify(eventPublisher, times(2)).publishEvent(any(BookingChangedEvent.class));
+    }
+
+    @Test
+    public void testBatchIsRecheckedAgainstTheDatabaseBeforeTheInsert() {
+        when(bookingRepository.findAllForValidation()).thenReturn(Collections.emptyList());
+        when(bookingRepository.findOverlappingForValidation(NOW.plusDays(1).toEpochDay(), NOW.plusDays(4).toEpochDay()))
+                .thenReturn(Collections.singletonList(booking(NOW.plusDays(4), NOW.plusDays(5))));
+        when(bookingRepository.insert(anyList())).thenAnswer(invocation -> withIds(invocation.getArgument(0)));
+
+        // Booked by another instance after this one loaded its availability.
+        final BookingSubmissionServiceImpl.Submission first = submission(NOW.plusDays(1), NOW.plusDays(2));
+        final BookingSubmissionServiceImpl.Submission taken = submission(NOW.plusDays(3), NOW.plusDays(4));
+        submissionService.process(Arrays.asList(first, taken));
+
+        assertOutcome(first, BookingSubmissionDTO.Status.ACCEPTED, "id0", null);
+        assertOutcome(taken, BookingSubmissionDTO.Status.REJECTED, null, BOOKING_NOT_AVAILABLE);
+        verify(eventPublisher, times(1)).publishEvent(any(BookingChangedEvent.class));
+    }
+
+    @Test
+    public void testInsertFailureFailsTheWholeBatch() {
+        when(bookingRepository.findAllForValidation()).thenReturn(Collections.emptyList());
+        when(bookingRepository.insert(anyList())).thenThrow(new IllegalStateException("down"));
+
+        final BookingSubmissionServiceImpl.Submission submission = submission(NOW.plusDays(1), NOW.plusDays(2));
+        submissionService.process(Collections.singletonList(submission));
+
+        assertOutcome(submission, BookingSubmissionDTO.Status.FAILED, null, "down");
+    }
+
+    @Test
+    public void testPartialInsertAcceptsTheBookingsInsertedBeforeTheFailedOne() {
+        // The second booking failed: the first one is in, with the id the codec gave it, the last one was not tried.
+        final DataIntegrityViolationException failure = new DataIntegrityViolationException("write failed",
+                new MongoBulkWriteException(BulkWriteResult.unacknowledged(), Collections.singletonList(
+                        new BulkWriteError(121, "write failed", new BsonDocument(), 1)), null, new ServerAddress(),
+                        Collections.emptySet()));
+        when(bookingRepository.findAllForValidation()).thenReturn(Collections.emptyList());
+        when(bookingRepository.insert(anyList())).thenAnswer(invocation -> {
+            invocation.<List<Booking>>getArgument(0).get(0).setId("id0");
+            throw failure;
+        });
+
+        final BookingSubmissionServiceImpl.Submission first = submission(NOW.plusDays(1), NOW.plusDays(2));
+        final BookingSubmissionServiceImpl.Submission failed = submission(NOW.plusDays(3), NOW.plusDays(4));
+        final BookingSubmissionServiceImpl.Submission last = submission(NOW.plusDays(5), NOW.plusDays(6));
+        submissionService.process(Arrays.asList(first, failed, last));
+
+        assertOutcome(first, BookingSubmissionDTO.Status.ACCEPTED, "id0", null);
+        assertOutcome(failed, BookingSubmissionDTO.Status.FAILED, null, failure.getMessage());
+        assertOutcome(last, BookingSubmissionDTO.Status.FAILED, null, failure.getMessage());
+        verify(eventPublisher, times(1)).publishEvent(any(BookingChangedEvent.class));
+    }
+
+    @Test
+    public void testSubmitIsRejectedWhenTheQueueIsFull() {
+        for (int i = 0; i < 3; i++) {
+            final BookingSubmissionDTO submission = submissionService.submit(
+                    new BookingRequestDTO(NOW.plusDays(1), NOW.plusDays(2)));
+            assertEquals(BookingSubmissionDTO.Status.PENDING,
+                    submissionService.findByTicket(submission.getTicket()).getStatus());
+        }
+
+        assertThrows(ServiceOverloadedException.class,
+                () -> submissionService.submit(new BookingRequestDTO(NOW.plusDays(1), NOW.plusDays(2))));
+        assertThrows(SubmissionNotFoundException.class, () -> submissionService.findByTicket("unknown"));
+    }
+
+    @Test
+    public void testOutcomesAreStoredAndFoundFromAnyInstance() {
+        when(bookingRepository.findAllForValidation()).thenReturn(Collections.emptyList());
+        when(bookingRepository.insert(anyList())).thenAnswer(invocation -> withIds(invocation.getArgument(0)));
+
+        final BookingSubmissionServiceImpl.Submission accepted = submission(NOW.plusDays(1), NOW.plusDays(2));
+        final BookingSubmissionServiceImpl.Submission rejected = submission(NOW, NOW);
+        final List<BookingSubmissionServiceImpl.Submission> batch = Arrays.asList(accepted, rejected);
+        submissionService.process(batch);
+        submissionService.store(batch);
+
+        @SuppressWarnings("unchecked") final ArgumentCaptor<List<SubmissionOutcome>> outcomes =
+                ArgumentCaptor.forClass(List.class);
+        verify(submissionOutcomeRepository, times(1)).insert(outcomes.capture());
+        assertEquals(2, outcomes.getValue().size());
+        assertEquals(BookingSubmissionDTO.Status.REJECTED, outcomes.getValue().get(1).getStatus());
+        assertEquals(STAY_START_INVALID, outcomes.getValue().get(1).getError());
+
+        // Polled through an instance which did not accept the submission.
+        when(submissionOutcomeRepository.findById(accepted.toDTO().getTicket()))
+                .thenReturn(Optional.of(outcomes.getValue().get(0)));
+        final BookingSubmissionDTO found = new BookingSubmissionServiceImpl(bookingRepository,
+                submissionOutcomeRepository, new BookingRuleEngine(new BookingRulesProperties().toSettings(),
+                Collections.emptyList(), new SimpleMeterRegistry()), new AvailabilityIndex(bookingRepository),
+                eventPublisher, submissionProperties, new SimpleMeterRegistry())
+                .findByTicket(accepted.toDTO().getTicket());
+        assertEquals(BookingSubmissionDTO.Status.ACCEPTED, found.getStatus());
+        assertEquals("id0", found.getBookingId());
+    }
+
+    private BookingSubmissionServiceImpl.Submission submission(final LocalDate fromDate, final LocalDate toDate) {
+        return new BookingSubmissionServiceImpl.Submission("ticket-" + fromDate + "-" + toDate,
+                new BookingRequestDTO(fromDate, toDate));
+    }
+
+    private static Booking booking(final LocalDate fromDate, final LocalDate toDate) {
+        return covertDTO(new BookingRequestDTO(fromDate, toDate));
+    }
+
+    private static void assertOutcome(final BookingSubmissionServiceImpl.Submission submission,
+                                      final BookingSubmissionDTO.Status status, final String bookingId,
+                                      final String error) {
+        final BookingSubmissionDTO submissionDTO = submission.toDTO();
+        assertEquals(status, submissionDTO.getStatus());
+        assertEquals(bookingId, submissionDTO.getBookingId());
+        assertEquals(error, submissionDTO.getError());
+    }
+
+    private static List<Booking> withIds(final List<Booking> bookings) {
+        final List<Booking> inserted = new ArrayList<>();
+        for (int i = 0; i < bookings.size(); i++) {
+            final Booking booking = new Booking(bookings.get(i));
+            booking.setId("id" + i);
+            inserted.add(booking);
+        }
+        return inserted;
+    }
+
+}
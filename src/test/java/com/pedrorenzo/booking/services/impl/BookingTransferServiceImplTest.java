@@ -0,0 +1,219 @@
+package com.pedrorenzo.booking.services.impl;
+
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.ServerAddress;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import com.pedrorenzo.booking.availability.AvailabilityIndex;
+import com.pedrorenzo.booking.availability.AvailabilitySnapshot;
+import com.pedrorenzo.booking.config.BookingTransferProperties;
+import com.pedrorenzo.booking.dtos.BookingImportDTO;
+import com.pedrorenzo.booking.dtos.BookingImportErrorDTO;
+import com.pedrorenzo.booking.entities.Booking;
+import com.pedrorenzo.booking.events.BookingsImportedEvent;
+import com.pedrorenzo.booking.repositories.BookingRepository;
+import com.pedrorenzo.booking.transfer.BookingFormat;
+import com.pedrorenzo.booking.utils.ErrorCode;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.BsonDocument;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DuplicateKeyException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class BookingTransferServiceImplTest {
+
+    private final BookingRepository bookingRepository = mock(BookingRepository.class);
+    private final AvailabilityIndex availabilityIndex = mock(AvailabilityIndex.class);
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+    private final BookingTransferProperties properties = new BookingTransferProperties();
+
+    private final BookingTransferServiceImpl bookingTransferService = new BookingTransferServiceImpl(
+            bookingRepository, availabilityIndex, eventPublisher, properties, new SimpleMeterRegistry());
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testExportWritesOneLinePerBooking() throws Exception {
+        when(bookingRepository.forEachForExport(any())).thenAnswer(invocation -> {
+            final Consumer<Booking> consumer = invocation.getArgument(0);
+            consumer.accept(booking("a", "2021-05-01", "2021-05-03", Instant.parse("2021-04-01T10:15:30Z"),
+                    Instant.parse("2021-04-02T08:00:00Z")));
+            consumer.accept(booking("b,\"c\"", "2021-05-04", "2021-05-04", null, null));
+            return 2L;
+        });
+
+        final ByteArrayOutputStream csv = new ByteArrayOutputStream();
+        assertEquals(2, bookingTransferService.export(BookingFormat.CSV, csv));
+        assertEquals("id,fromDate,toDate,createdDate,updatedDate\n" +
+                "a,2021-05-01,2021-05-03,2021-04-01T10:15:30Z,2021-04-02T08:00:00Z\n" +
+                "\"b,\"\"c\"\"\",2021-05-04,2021-05-04,,\n", csv.toString("UTF-8"));
+
+        final ByteArrayOutputStream ndjson = new ByteArrayOutputStream();
+        bookingTransferService.export(BookingFormat.NDJSON, ndjson);
+        assertEquals("{\"id\":\"a\",\"fromDate\":\"2021-05-01\",\"toDate\":\"2021-05-03\"," +
+                "\"createdDate\":\"2021-04-01T10:15:30Z\",\"updatedDate\":\"2021-04-02T08:00:00Z\"}\n" +
+                "{\"id\":\"b,\\\"c\\\"\",\"fromDate\":\"2021-05-04\",\"toDate\":\"2021-05-04\"}\n",
+                ndjson.toString("UTF-8"));
+    }
+
+    @Test
+    public void testImportKeepsTheCreatedAndUpdatedDatesOfTheExport() throws Exception {
+        when(availabilityIndex.getSnapshot()).thenReturn(AvailabilitySnapshot.empty());
+
+        bookingTransferService.importBookings(BookingFormat.CSV, new ByteArrayInputStream(
+                ("id,fromDate,toDate,createdDate,updatedDate\n" +
+                        "a,2021-05-01,2021-05-03,2021-04-01T10:15:30Z,2021-04-02T08:00:00Z\n" +
+                        "b,2021-05-04,2021-05-04,2021-04-03T00:00:00Z,\n").getBytes(StandardCharsets.UTF_8)));
+        bookingTransferService.importBookings(BookingFormat.NDJSON, new ByteArrayInputStream(
+                "{\"id\":\"c\",\"fromDate\":\"2021-05-05\",\"toDate\":\"2021-05-05\",\"createdDate\":null}"
+                        .getBytes(StandardCharsets.UTF_8)));
+
+        final ArgumentCaptor<BookingsImportedEvent> event = ArgumentCaptor.forClass(BookingsImportedEvent.class);
+        verify(eventPublisher, times(2)).publishEvent(event.capture());
+        final List<Booking> csv = event.getAllValues().get(0).getBookings();
+        assertEquals(Instant.parse("2021-04-01T10:15:30Z"), csv.get(0).getCreatedDate());
+        assertEquals(Instant.parse("2021-04-02T08:00:00Z"), csv.get(0).getUpdatedDate());
+        assertEquals(Instant.parse("2021-04-03T00:00:00Z"), csv.get(1).getCreatedDate());
+        assertEquals(Instant.parse("2021-04-03T00:00:00Z"), csv.get(1).getUpdatedDate());
+        final Booking ndjson = event.getAllValues().get(1).getBookings().get(0);
+        assertNotNull(ndjson.getCreatedDate());
+        assertEquals(ndjson.getCreatedDate(), ndjson.getUpdatedDate());
+    }
+
+    @Test
+    public void testImportPublishesTheBookingsInsertedBeforeAFailedOneAndInsertsTheOthersAgain() throws Exception {
+        when(availabilityIndex.getSnapshot()).thenReturn(AvailabilitySnapshot.empty());
+        // The second booking's id was taken by another write after the chunk was checked.
+        final List<List<String>> inserts = new ArrayList<>();
+        when(bookingRepository.insert(anyIterable())).thenAnswer(invocation -> {
+            final List<String> ids = new ArrayList<>();
+            invocation.<Iterable<Booking>>getArgument(0).forEach(booking -> ids.add(booking.getId()));
+            inserts.add(ids);
+            if (inserts.size() == 1) {
+                throw new DuplicateKeyException("E11000", new MongoBulkWriteException(BulkWriteResult.unacknowledged(),
+                        Collections.singletonList(new BulkWriteError(11000, "E11000", new BsonDocument(), 1)), null,
+                        new ServerAddress(), Collections.emptySet()));
+            }
+            return invocation.getArgument(0);
+        });
+
+        final BookingImportDTO report = bookingTransferService.importBookings(BookingFormat.CSV,
+                new ByteArrayInputStream(("a,2021-05-01,2021-05-01\nb,2021-05-02,2021-05-02\n" +
+                        "c,2021-05-03,2021-05-03\n").getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(Arrays.asList(Arrays.asList("a", "b", "c"), Collections.singletonList("c")), inserts);
+        assertEquals(2, report.getImported());
+        assertEquals(1, report.getRejected());
+        assertError(report.getErrors().get(0), 2, "b", ErrorCode.BOOKING_ALREADY_EXISTS);
+        final ArgumentCaptor<BookingsImportedEvent> event = ArgumentCaptor.forClass(BookingsImportedEvent.class);
+        verify(eventPublisher, times(2)).publishEvent(event.capture());
+        assertEquals("a", event.getAllValues().get(0).getBookings().get(0).getId());
+        assertEquals("c", event.getAllValues().get(1).getBookings().get(0).getId());
+    }
+
+    @Test
+    public void testImportRejectsEachInvalidRecordAndInsertsTheOthersPerChunk() throws Exception {
+        properties.setImportChunkSize(3);
+        when(availabilityIndex.getSnapshot()).thenReturn(AvailabilitySnapshot.of(new String[]{"booked"},
+                new long[]{day("2021-05-10")}, new long[]{day("2021-05-12")}));
+        when(bookingRepository.findAllById(anyIterable())).thenReturn(Collections.singletonList(booked("taken")));
+
+        final String file = "{\"id\":\"a\",\"fromDate\":\"2021-05-01\",\"toDate\":\"2021-05-03\"}\n" +
+                "{\"fromDate\":\"2021-05-05\",\"toDate\":18752}\r\n" +
+                "\n" +
+                "{\"id\":\"b\",\"fromDate\":\"2021-05-03\",\"toDate\":\"2021-05-04\"}\n" +
+                "{\"id\":\"c\",\"fromDate\":\"2021-05-08\",\"toDate\":\"2021-05-07\"}\n" +
+                "not json\n" +
+                "{\"id\":\"taken\",\"fromDate\":\"2021-05-20\",\"toDate\":\"2021-05-20\"}\n" +
+                "{\"id\":\"d\",\"fromDate\":\"2021-05-11\",\"toDate\":\"2021-05-11\"}\n" +
+                "{\"id\":\"a\",\"fromDate\":\"2021-05-21\"}";
+
+        final BookingImportDTO report = bookingTransferService.importBookings(BookingFormat.NDJSON,
+                new ByteArrayInputStream(file.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(8, report.getRecords());
+        assertEquals(2, report.getImported());
+        assertEquals(6, report.getRejected());
+        final List<BookingImportErrorDTO> errors = report.getErrors();
+        assertError(errors.get(0), 4, "b", ErrorCode.BOOKING_NOT_AVAILABLE);
+        assertError(errors.get(1), 5, "c", ErrorCode.FROM_DATE_AFTER_TO_DATE);
+        assertError(errors.get(2), 6, null, ErrorCode.IMPORT_RECORD_INVALID);
+        assertError(errors.get(3), 7, "taken", ErrorCode.BOOKING_ALREADY_EXISTS);
+        assertError(errors.get(4), 8, "d", ErrorCode.BOOKING_NOT_AVAILABLE);
+        assertError(errors.get(5), 9, null, ErrorCode.IMPORT_RECORD_INVALID);
+
+        // The two valid records are in the first chunk, inserted and published together with an id or without one.
+        final ArgumentCaptor<BookingsImportedEvent> event = ArgumentCaptor.forClass(BookingsImportedEvent.class);
+        verify(eventPublisher, times(1)).publishEvent(event.capture());
+        final List<Booking> imported = event.getValue().getBookings();
+        assertEquals("a", imported.get(0).getId());
+        assertNull(imported.get(1).getId());
+        assertEquals(Instant.parse("2021-05-05T00:00:00Z"), imported.get(1).getFromDate());
+        assertEquals(Instant.parse("2021-05-05T00:00:00Z"), imported.get(1).getToDate());
+        verify(bookingRepository, times(1)).insert(imported);
+    }
+
+    @Test
+    public void testImportReadsCsvWithOrWithoutHeader() throws Exception {
+        when(availabilityIndex.getSnapshot()).thenReturn(AvailabilitySnapshot.empty());
+
+        final BookingImportDTO withHeader = bookingTransferService.importBookings(BookingFormat.CSV,
+                new ByteArrayInputStream("id,fromDate,toDate\n,2021-05-01,2021-05-02\n\"x,y\",2021-05-03,2021-05-03\n"
+                        .getBytes(StandardCharsets.UTF_8)));
+        final BookingImportDTO withoutHeader = bookingTransferService.importBookings(BookingFormat.CSV,
+                new ByteArrayInputStream("a,2021-06-01,2021-06-02\nb,2021-06-03\n".getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(2, withHeader.getImported());
+        assertEquals(0, withHeader.getRejected());
+        assertEquals(1, withoutHeader.getImported());
+        assertError(withoutHeader.getErrors().get(0), 2, null, ErrorCode.IMPORT_RECORD_INVALID);
+    }
+
+    private static void assertError(final BookingImportErrorDTO error, final long line, final String id,
+                                    final ErrorCode code) {
+        assertEquals(line, error.getLine());
+        assertEquals(id, error.getId());
+        assertEquals(code, error.getCode());
+    }
+
+    private static Booking booked(final String id) {
+        final Booking booking = new Booking(Instant.now(), Instant.now(), Instant.now(), Instant.now());
+        booking.setId(id);
+        return booking;
+    }
+
+    private static Booking booking(final String id, final String fromDate, final String toDate,
+                                   final Instant createdDate, final Instant updatedDate) {
+        final Booking booking = new Booking(LocalDate.parse(fromDate).atStartOfDay().toInstant(ZoneOffset.UTC),
+                LocalDate.parse(toDate).atStartOfDay().toInstant(ZoneOffset.UTC), createdDate, updatedDate);
+        booking.setId(id);
+        return booking;
+    }
+
+    private static long day(final String date) {
+        return LocalDate.parse(date).toEpochDay();
+    }
+
+}
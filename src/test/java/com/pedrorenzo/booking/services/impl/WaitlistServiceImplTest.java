@@ -0,0 +1,162 @@
+package com.pedrorenzo.booking.services.impl;
+
+import com.pedrorenzo.booking.config.BookingRulesProperties;
+import com.pedrorenzo.booking.dtos.BookingRequestDTO;
+import com.pedrorenzo.booking.dtos.WaitlistEntryDTO;
+import com.pedrorenzo.booking.entities.Booking;
+import com.pedrorenzo.booking.entities.WaitlistEntry;
+import com.pedrorenzo.booking.events.BookingChangedEvent;
+import com.pedrorenzo.booking.exceptions.InvalidBookingException;
+import com.pedrorenzo.booking.repositories.BookingRepository;
+import com.pedrorenzo.booking.repositories.WaitlistRepository;
+import com.pedrorenzo.booking.rules.BookingRuleEngine;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static com.pedrorenzo.booking.utils.ConverterUtils.covertDTOToWaitlistEntry;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.anyLong;
+import static org.mockito.Mockito.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class WaitlistServiceImplTest {
+
+    @Mock
+    private WaitlistRepository waitlistRepository;
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private WaitlistServiceImpl waitlistService;
+
+    private static final LocalDate NOW = OffsetDateTime.now(ZoneOffset.UTC).toLocalDate();
+
+    @BeforeEach
+    public void setUp() {
+        final BookingRuleEngine ruleEngine = new BookingRuleEngine(new BookingRulesProperties().toSettings(),
+                Collections.emptyList(), new SimpleMeterRegistry());
+        waitlistService = new WaitlistServiceImpl(waitlistRepository, bookingRepository, ruleEngine, eventPublisher,
+                new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    public void tearDown() {
+        waitlistService.stop();
+    }
+
+    @Test
+    public void testRegisterAcceptsDaysThatAreTaken() {
+        final BookingRequestDTO bookingRequestDTO = new BookingRequestDTO(NOW.plusDays(1), NOW.plusDays(2));
+        when(waitlistRepository.insert(any(WaitlistEntry.class))).thenAnswer(invocation -> {
+            final WaitlistEntry waitlistEntry = invocation.getArgument(0);
+            waitlistEntry.setId("entry");
+            return waitlistEntry;
+        });
+
+        final WaitlistEntryDTO waitlistEntryDTO = waitlistService.register(bookingRequestDTO);
+
+        assertEquals("entry", waitlistEntryDTO.getId());
+        assertEquals(WaitlistEntry.Status.WAITING.name(), waitlistEntryDTO.getStatus());
+        verify(bookingRepository, never()).findOverlappingForValidation(anyLong(), anyLong());
+    }
+
+    @Test
+    public void testRegisterRejectsInvalidDays() {
+        final BookingRequestDTO bookingRequestDTO = new BookingRequestDTO(NOW.plusDays(2), NOW.plusDays(1));
+
+        assertThrows(InvalidBookingException.class, () -> waitlistService.register(bookingRequestDTO));
+    }
+
+    @Test
+    public void testPromoteBooksTheFirstAvailableEntry() {
+        final WaitlistEntry first = waiting("first", NOW.plusDays(1), NOW.plusDays(2), 1);
+        final WaitlistEntry second = waiting("second", NOW.plusDays(2), NOW.plusDays(3), 2);
+        when(waitlistRepository.findWaitingOverlapping(startOfDay(NOW.minusDays(1)), startOfDay(NOW.plusDays(1)),
+                startOfDay(NOW.plusDays(3))))
+                .thenReturn(Arrays.asList(first, second));
+        when(bookingRepository.findOverlappingForValidation(NOW.plusDays(1).toEpochDay(), NOW.plusDays(2).toEpochDay()))
+                .thenReturn(Collections.emptyList());
+        final Booking booking = new Booking(startOfDay(NOW.plusDays(1)), startOfDay(NOW.plusDays(2)), Instant.now(),
+                Instant.now());
+        booking.setId("booking");
+        when(waitlistRepository.findAndUpdateStatus("first", WaitlistEntry.Status.WAITING,
+                WaitlistEntry.Status.PROMOTING, null)).thenReturn(first);
+        when(bookingRepository.insert(any(Booking.class))).thenReturn(booking);
+        when(waitlistRepository.findAndUpdateStatus("first", WaitlistEntry.Status.PROMOTING,
+                WaitlistEntry.Status.PROMOTED, "booking")).thenReturn(first);
+        // The second entry is checked against the database, which has the booking of the first one by then.
+        when(bookingRepository.findOverlappingForValidation(NOW.plusDays(2).toEpochDay(), NOW.plusDays(3).toEpochDay()))
+                .thenReturn(Collections.singletonList(booking));
+
+        waitlistService.promote(NOW.plusDays(1).toEpochDay(), NOW.plusDays(3).toEpochDay());
+
+        verify(waitlistRepository).findAndUpdateStatus("first", WaitlistEntry.Status.PROMOTING,
+                WaitlistEntry.Status.PROMOTED, "booking");
+        verify(waitlistRepository, never()).findAndUpdateStatus(eq("second"), any(), any(), any());
+        verify(eventPublisher).publishEvent(any(BookingChangedEvent.class));
+    }
+
+    @Test
+    public void testPromoteLeavesTheEntriesClaimedByAnotherInstance() {
+        final WaitlistEntry claimed = waiting("claimed", NOW.plusDays(1), NOW.plusDays(2), 1);
+        when(waitlistRepository.findWaitingOverlapping(startOfDay(NOW.minusDays(1)), startOfDay(NOW.plusDays(1)),
+                startOfDay(NOW.plusDays(2))))
+                .thenReturn(Collections.singletonList(claimed));
+        when(bookingRepository.findOverlappingForValidation(NOW.plusDays(1).toEpochDay(), NOW.plusDays(2).toEpochDay()))
+                .thenReturn(Collections.emptyList());
+        when(waitlistRepository.findAndUpdateStatus("claimed", WaitlistEntry.Status.WAITING,
+                WaitlistEntry.Status.PROMOTING, null)).thenReturn(null);
+
+        waitlistService.promote(NOW.plusDays(1).toEpochDay(), NOW.plusDays(2).toEpochDay());
+
+        verify(bookingRepository, never()).insert(any(Booking.class));
+        verify(eventPublisher, never()).publishEvent(any(BookingChangedEvent.class));
+    }
+
+    @Test
+    public void testPromoteExpiresEntriesThatBrokeTheRules() {
+        final WaitlistEntry started = waiting("started", NOW.minusDays(1), NOW.plusDays(1), 1);
+        when(waitlistRepository.findWaitingOverlapping(startOfDay(NOW.minusDays(2)), startOfDay(NOW), startOfDay(NOW)))
+                .thenReturn(Collections.singletonList(started));
+
+        waitlistService.promote(NOW.toEpochDay(), NOW.toEpochDay());
+
+        verify(waitlistRepository).findAndUpdateStatus("started", WaitlistEntry.Status.WAITING,
+                WaitlistEntry.Status.EXPIRED, null);
+        verify(bookingRepository, never()).insert(any(Booking.class));
+    }
+
+    private static Instant startOfDay(final LocalDate date) {
+        return date.atStartOfDay().toInstant(ZoneOffset.UTC);
+    }
+
+    private static WaitlistEntry waiting(final String id, final LocalDate fromDate, final LocalDate toDate,
+                                         final long createdMillis) {
+        final WaitlistEntry waitlistEntry = covertDTOToWaitlistEntry(new BookingRequestDTO(fromDate, toDate));
+        waitlistEntry.setId(id);
+        waitlistEntry.setCreatedDate(Instant.ofEpochMilli(createdMillis));
+        return waitlistEntry;
+    }
+
+}
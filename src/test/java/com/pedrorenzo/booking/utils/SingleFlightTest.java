@@ -0,0 +1,114 @@
+package com.pedrorenzo.booking.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SingleFlightTest {
+
+    private final SingleFlight<String, Object> singleFlight = new SingleFlight<>();
+
+    @Test
+    public void testConcurrentCallsForTheSameKeyShareOneExecution() throws Exception {
+        final AtomicInteger executions = new AtomicInteger();
+        final CountDownLatch leaderStarted = new CountDownLatch(1);
+        final CountDownLatch releaseLeader = new CountDownLatch(1);
+        final Object value = new Object();
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        try {
+            final Future<SingleFlight.Result<Object>> leader = executor.submit(() ->
+                    singleFlight.execute("key", () -> {
+                        executions.incrementAndGet();
+                        leaderStarted.countDown();
+                        await(releaseLeader);
+                        return value;
+                    }));
+            assertTrue(leaderStarted.await(5, TimeUnit.SECONDS));
+
+            final Future<SingleFlight.Result<Object>> follower = executor.submit(() ->
+                    singleFlight.execute("key", () -> {
+                        executions.incrementAndGet();
+                        return new Object();
+                    }));
+            // Gives the follower the time to join the call in flight before releasing it.
+            Thread.sleep(100);
+            releaseLeader.countDown();
+
+            assertSame(value, leader.get(5, TimeUnit.SECONDS).getValue());
+            assertFalse(leader.get().isCoalesced());
+            assertSame(value, follower.get(5, TimeUnit.SECONDS).getValue());
+            assertTrue(follower.get().isCoalesced());
+            assertEquals(1, executions.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testCallsAfterForgetDoNotJoinTheCallInFlight() throws Exception {
+        final CountDownLatch leaderStarted = new CountDownLatch(1);
+        final CountDownLatch releaseLeader = new CountDownLatch(1);
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        try {
+            final Future<SingleFlight.Result<Object>> leader = executor.submit(() ->
+                    singleFlight.execute("key", () -> {
+                        leaderStarted.countDown();
+                        await(releaseLeader);
+                        return "before";
+                    }));
+            assertTrue(leaderStarted.await(5, TimeUnit.SECONDS));
+
+            singleFlight.forget();
+            final SingleFlight.Result<Object> after = singleFlight.execute("key", () -> "after");
+            releaseLeader.countDown();
+
+            assertEquals("after", after.getValue());
+            assertFalse(after.isCoalesced());
+            assertEquals("before", leader.get(5, TimeUnit.SECONDS).getValue());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testSequentialCallsAreNotCoalesced() {
+        final AtomicInteger executions = new AtomicInteger();
+
+        singleFlight.execute("key", executions::incrementAndGet);
+        final SingleFlight.Result<Object> result = singleFlight.execute("key", executions::incrementAndGet);
+
+        assertFalse(result.isCoalesced());
+        assertEquals(2, executions.get());
+    }
+
+    @Test
+    public void testFailedCallIsNotRemembered() {
+        assertThrows(IllegalArgumentException.class, () -> singleFlight.execute("key", () -> {
+            throw new IllegalArgumentException();
+        }));
+
+        assertEquals("value", singleFlight.execute("key", () -> "value").getValue());
+    }
+
+    private static void await(final CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}